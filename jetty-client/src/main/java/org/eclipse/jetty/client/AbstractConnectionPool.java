@@ -23,6 +23,7 @@ import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 import org.eclipse.jetty.client.api.Connection;
@@ -36,6 +37,8 @@ import org.eclipse.jetty.util.annotation.ManagedAttribute;
 import org.eclipse.jetty.util.annotation.ManagedObject;
 import org.eclipse.jetty.util.component.ContainerLifeCycle;
 import org.eclipse.jetty.util.component.Dumpable;
+import org.eclipse.jetty.util.thread.AutoLock;
+import org.eclipse.jetty.util.thread.Scheduler;
 import org.eclipse.jetty.util.thread.Sweeper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,12 +50,21 @@ public abstract class AbstractConnectionPool extends ContainerLifeCycle implemen
 {
     private static final Logger LOG = LoggerFactory.getLogger(AbstractConnectionPool.class);
 
+    private final AutoLock lock = new AutoLock();
     private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder demand = new LongAdder();
     private final HttpDestination destination;
     private final Callback requester;
     private final Pool<Connection> pool;
     private boolean maximizeConnections;
     private volatile long maxDurationNanos = 0L;
+    private volatile long adaptiveSizingPeriod;
+    private volatile int minIdleConnections;
+    private volatile int targetIdleConnections;
+    private volatile double demandRate;
+    private volatile double connectNanos;
+    private long adaptNanoTime = NanoTime.now();
+    private Scheduler.Task adaptiveSizingTask;
 
     protected AbstractConnectionPool(HttpDestination destination, int maxConnections, boolean cache, Callback requester)
     {
@@ -73,9 +85,22 @@ public abstract class AbstractConnectionPool extends ContainerLifeCycle implemen
         addBean(pool);
     }
 
+    @Override
+    protected void doStart() throws Exception
+    {
+        super.doStart();
+        scheduleAdaptiveSizing();
+    }
+
     @Override
     protected void doStop() throws Exception
     {
+        try (AutoLock l = lock.lock())
+        {
+            if (adaptiveSizingTask != null)
+                adaptiveSizingTask.cancel();
+            adaptiveSizingTask = null;
+        }
         pool.close();
     }
 
@@ -122,6 +147,103 @@ public abstract class AbstractConnectionPool extends ContainerLifeCycle implemen
         this.maxDurationNanos = TimeUnit.MILLISECONDS.toNanos(maxDurationInMs);
     }
 
+    /**
+     * @return the period in milliseconds of the adaptive sizing of this pool, or 0 if adaptive sizing is disabled
+     * @see #setAdaptiveSizingPeriod(long)
+     */
+    @ManagedAttribute(value = "The period in milliseconds of the adaptive sizing of the pool, 0 if disabled")
+    public long getAdaptiveSizingPeriod()
+    {
+        return adaptiveSizingPeriod;
+    }
+
+    /**
+     * <p>Sets the period of the adaptive sizing of this pool.</p>
+     * <p>When adaptive sizing is enabled, this pool periodically computes a target
+     * number of idle connections, from the recent rate of demand for connections,
+     * the average time it takes to open a connection, and the number of queued
+     * requests, so that requests arriving while a new connection would be opened
+     * find an idle connection rather than waiting for the TCP and TLS handshakes.
+     * Connections are opened in the background until there are at least the target
+     * number of idle connections, and connections that have been idle for a whole
+     * period are closed while there are more than the target number of idle connections.</p>
+     * <p>The target number of idle connections is never less than
+     * {@link #getMinIdleConnections()}.</p>
+     *
+     * @param adaptiveSizingPeriod the period in milliseconds of the adaptive sizing, or 0 to disable adaptive sizing
+     */
+    public void setAdaptiveSizingPeriod(long adaptiveSizingPeriod)
+    {
+        this.adaptiveSizingPeriod = adaptiveSizingPeriod;
+        if (isRunning())
+            scheduleAdaptiveSizing();
+    }
+
+    /**
+     * @return the min number of idle connections maintained by the adaptive sizing
+     * @see #setAdaptiveSizingPeriod(long)
+     */
+    @ManagedAttribute(value = "The min number of idle connections maintained by the adaptive sizing")
+    public int getMinIdleConnections()
+    {
+        return minIdleConnections;
+    }
+
+    /**
+     * @param minIdleConnections the min number of idle connections maintained by the adaptive sizing
+     * @see #setAdaptiveSizingPeriod(long)
+     */
+    public void setMinIdleConnections(int minIdleConnections)
+    {
+        this.minIdleConnections = minIdleConnections;
+    }
+
+    /**
+     * @return the target number of idle connections computed by the last adaptive sizing
+     */
+    @ManagedAttribute(value = "The target number of idle connections of the adaptive sizing", readonly = true)
+    public int getTargetIdleConnectionCount()
+    {
+        return targetIdleConnections;
+    }
+
+    /**
+     * @return the recent rate of demand for connections, in acquires per second, measured when adaptive sizing is enabled
+     */
+    @ManagedAttribute(value = "The recent rate of demand for connections, in acquires per second", readonly = true)
+    public double getDemandRate()
+    {
+        return demandRate;
+    }
+
+    /**
+     * @return the average time in milliseconds to open a connection
+     */
+    @ManagedAttribute(value = "The average time in milliseconds to open a connection", readonly = true)
+    public double getAverageConnectTime()
+    {
+        return connectNanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * <p>Returns the pressure on this pool, as the ratio of the connections needed
+     * by the active and queued requests to the max number of connections.</p>
+     * <p>A value of 1 or more means that the pool cannot open enough connections
+     * to satisfy the demand and requests are queued.</p>
+     *
+     * @return the pressure on this pool
+     */
+    @ManagedAttribute(value = "The ratio of the connections needed by active and queued requests to the max connections", readonly = true)
+    public double getPressure()
+    {
+        int maxConnections = getMaxConnectionCount();
+        if (maxConnections <= 0)
+            return 0;
+        int multiplex = Math.max(1, getMaxMultiplex());
+        double needed = getActiveConnectionCount() + (double)destination.getQueuedRequestCount() / multiplex;
+        return needed / maxConnections;
+    }
+
     protected int getMaxMultiplex()
     {
         return pool.getMaxMultiplex();
@@ -222,6 +344,8 @@ public abstract class AbstractConnectionPool extends ContainerLifeCycle implemen
     {
         if (LOG.isDebugEnabled())
             LOG.debug("Acquiring create={} on {}", create, this);
+        if (adaptiveSizingPeriod > 0)
+            demand.increment();
         Connection connection = activate();
         if (connection == null)
         {
@@ -286,6 +410,102 @@ public abstract class AbstractConnectionPool extends ContainerLifeCycle implemen
         destination.newConnection(future);
     }
 
+    private void scheduleAdaptiveSizing()
+    {
+        long period = getAdaptiveSizingPeriod();
+        try (AutoLock l = lock.lock())
+        {
+            if (adaptiveSizingTask != null)
+                adaptiveSizingTask.cancel();
+            adaptiveSizingTask = null;
+            if (period > 0 && isRunning())
+            {
+                HttpClient client = destination.getHttpClient();
+                adaptiveSizingTask = client.getScheduler().schedule(() -> client.getExecutor().execute(this::onAdaptiveSizing), period, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void onAdaptiveSizing()
+    {
+        try
+        {
+            adapt();
+        }
+        catch (Throwable x)
+        {
+            LOG.warn("Failure adapting the size of {}", this, x);
+        }
+        finally
+        {
+            scheduleAdaptiveSizing();
+        }
+    }
+
+    /**
+     * <p>Computes the target number of idle connections, then opens
+     * or closes idle connections to reach the target.</p>
+     *
+     * @see #setAdaptiveSizingPeriod(long)
+     */
+    void adapt()
+    {
+        long now = NanoTime.now();
+        long elapsed;
+        try (AutoLock l = lock.lock())
+        {
+            elapsed = Math.max(1, NanoTime.elapsed(adaptNanoTime, now));
+            adaptNanoTime = now;
+        }
+
+        // React immediately to an increased demand, and decay slowly otherwise.
+        double rate = demand.sumThenReset() * (double)TimeUnit.SECONDS.toNanos(1) / elapsed;
+        double demandRate = Math.max(rate, (this.demandRate + rate) / 2);
+        this.demandRate = demandRate;
+
+        // The connections needed by the requests arriving while a connection is
+        // opened, plus those needed by the requests that are already queued.
+        int multiplex = Math.max(1, getMaxMultiplex());
+        double arrivals = demandRate * connectNanos / TimeUnit.SECONDS.toNanos(1);
+        int target = (int)Math.ceil((arrivals + destination.getQueuedRequestCount()) / multiplex);
+        target = Math.max(target, getMinIdleConnections());
+        target = Math.max(0, Math.min(target, getMaxConnectionCount() - getActiveConnectionCount()));
+        targetIdleConnections = target;
+
+        int idle = getIdleConnectionCount();
+        int pending = getPendingConnectionCount();
+        if (LOG.isDebugEnabled())
+            LOG.debug("Adapting size rate={}/s connect={}ns target={} idle={} pending={} on {}", demandRate, connectNanos, target, idle, pending, this);
+
+        if (idle + pending < target)
+        {
+            preCreateConnections(target - idle - pending);
+        }
+        else if (idle > target)
+        {
+            long idleNanos = TimeUnit.MILLISECONDS.toNanos(getAdaptiveSizingPeriod());
+            int trim = idle - target;
+            for (Pool<Connection>.Entry entry : pool.values())
+            {
+                if (trim == 0)
+                    break;
+                Connection connection = entry.getPooled();
+                if (!entry.isIdle() || !(connection instanceof Attachable))
+                    continue;
+                EntryHolder holder = (EntryHolder)((Attachable)connection).getAttachment();
+                if (holder == null || !holder.isIdleFor(idleNanos) || !pool.removeIdle(entry))
+                    continue;
+                --trim;
+                ((Attachable)connection).setAttachment(null);
+                if (LOG.isDebugEnabled())
+                    LOG.debug("Trimmed idle connection {} {}", entry, pool);
+                released(connection);
+                removed(connection);
+                IO.close(connection);
+            }
+        }
+    }
+
     @Override
     public boolean accept(Connection connection)
     {
@@ -313,7 +533,7 @@ public abstract class AbstractConnectionPool extends ContainerLifeCycle implemen
     {
         while (true)
         {
-            Pool<Connection>.Entry entry = pool.acquire();
+            Pool<Connection>.Entry entry = acquireEntry(pool);
             if (entry != null)
             {
                 Connection connection = entry.getPooled();
@@ -342,6 +562,18 @@ public abstract class AbstractConnectionPool extends ContainerLifeCycle implemen
         }
     }
 
+    /**
+     * <p>Acquires an entry from the given pool, by default
+     * with the strategy the pool has been created with.</p>
+     *
+     * @param pool the pool of connections
+     * @return an acquired entry or null if none is available
+     */
+    protected Pool<Connection>.Entry acquireEntry(Pool<Connection> pool)
+    {
+        return pool.acquire();
+    }
+
     @Override
     public boolean isActive(Connection connection)
     {
@@ -380,6 +612,7 @@ public abstract class AbstractConnectionPool extends ContainerLifeCycle implemen
         }
         else
         {
+            holder.idleNanoTime = NanoTime.now();
             // Release if the connection has not expired, then remove if not reusable.
             boolean reusable = pool.release(holder.entry);
             if (LOG.isDebugEnabled())
@@ -534,6 +767,7 @@ public abstract class AbstractConnectionPool extends ContainerLifeCycle implemen
     private class FutureConnection extends Promise.Completable<Connection>
     {
         private final Pool<Connection>.Entry reserved;
+        private final long creationNanoTime = NanoTime.now();
 
         public FutureConnection(Pool<Connection>.Entry reserved)
         {
@@ -547,6 +781,9 @@ public abstract class AbstractConnectionPool extends ContainerLifeCycle implemen
                 LOG.debug("Connection creation succeeded {}: {}", reserved, connection);
             if (connection instanceof Attachable)
             {
+                long connectNanos = NanoTime.since(creationNanoTime);
+                double average = AbstractConnectionPool.this.connectNanos;
+                AbstractConnectionPool.this.connectNanos = average == 0 ? connectNanos : average * 0.75 + connectNanos * 0.25;
                 ((Attachable)connection).setAttachment(new EntryHolder(reserved));
                 onCreated(connection);
                 pending.decrementAndGet();
@@ -579,6 +816,7 @@ public abstract class AbstractConnectionPool extends ContainerLifeCycle implemen
     {
         private final Pool<Connection>.Entry entry;
         private final long creationNanoTime = NanoTime.now();
+        private volatile long idleNanoTime = creationNanoTime;
 
         private EntryHolder(Pool<Connection>.Entry entry)
         {
@@ -589,5 +827,10 @@ public abstract class AbstractConnectionPool extends ContainerLifeCycle implemen
         {
             return NanoTime.since(creationNanoTime) >= timeoutNanos;
         }
+
+        private boolean isIdleFor(long idleNanos)
+        {
+            return NanoTime.since(idleNanoTime) >= idleNanos;
+        }
     }
 }
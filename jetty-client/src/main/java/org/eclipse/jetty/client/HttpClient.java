@@ -13,10 +13,12 @@
 
 package org.eclipse.jetty.client;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.CookieManager;
 import java.net.CookiePolicy;
 import java.net.CookieStore;
+import java.net.Inet6Address;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketAddress;
@@ -33,10 +35,12 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import org.eclipse.jetty.client.api.AuthenticationStore;
@@ -61,6 +65,7 @@ import org.eclipse.jetty.io.MappedByteBufferPool;
 import org.eclipse.jetty.io.RetainableByteBufferPool;
 import org.eclipse.jetty.io.ssl.SslClientConnectionFactory;
 import org.eclipse.jetty.util.Fields;
+import org.eclipse.jetty.util.IO;
 import org.eclipse.jetty.util.Jetty;
 import org.eclipse.jetty.util.ProcessorUtils;
 import org.eclipse.jetty.util.Promise;
@@ -70,6 +75,7 @@ import org.eclipse.jetty.util.annotation.ManagedObject;
 import org.eclipse.jetty.util.component.ContainerLifeCycle;
 import org.eclipse.jetty.util.component.DumpableCollection;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.eclipse.jetty.util.thread.AutoLock;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.eclipse.jetty.util.thread.ScheduledExecutorScheduler;
 import org.eclipse.jetty.util.thread.Scheduler;
@@ -135,12 +141,15 @@ public class HttpClient extends ContainerLifeCycle
     private boolean followRedirects = true;
     private int maxConnectionsPerDestination = 64;
     private int maxRequestsQueuedPerDestination = 1024;
+    private int requestPrioritiesPerDestination = 1;
     private int requestBufferSize = 4096;
     private int responseBufferSize = 16384;
     private int maxRedirects = 8;
     private long addressResolutionTimeout = 15000;
+    private long connectionAttemptDelay;
     private boolean tcpNoDelay = true;
     private boolean strictEventOrdering = false;
+    private boolean eagerSslHandshake;
     private HttpField encodingField;
     private long destinationIdleTimeout;
     private String name = getClass().getSimpleName() + "@" + Integer.toHexString(hashCode());
@@ -481,6 +490,28 @@ public class HttpClient extends ContainerLifeCycle
         return destination;
     }
 
+    /**
+     * <p>Opens, in the background, the given number of connections to the destination
+     * of the given URI, so that requests sent afterwards do not wait for the connections
+     * to be established.</p>
+     * <p>For {@code https} URIs, the TLS sessions negotiated by these connections are
+     * cached by {@link SslContextFactory.Client}, so that connections opened later to the
+     * same origin may resume them with an abbreviated TLS handshake.
+     * The TLS sessions are negotiated in advance, rather than when the connections are
+     * first used, only if {@link #setEagerSslHandshake(boolean) eager TLS handshakes} are enabled.</p>
+     *
+     * @param uri the URI of the destination to connect to
+     * @param connectionCount the number of connections to open
+     * @return a CompletableFuture that is completed when the connections are opened,
+     * possibly before their TLS handshake is complete
+     * @see ConnectionPool#preCreateConnections(int)
+     */
+    public CompletableFuture<Void> preCreateConnections(URI uri, int connectionCount)
+    {
+        HttpDestination destination = (HttpDestination)resolveDestination(newRequest(uri));
+        return destination.getConnectionPool().preCreateConnections(connectionCount);
+    }
+
     public Origin createOrigin(HttpRequest request, Origin.Protocol protocol)
     {
         String scheme = request.getScheme();
@@ -557,7 +588,11 @@ public class HttpClient extends ContainerLifeCycle
             @Override
             public void succeeded(List<InetSocketAddress> socketAddresses)
             {
-                connect(socketAddresses, 0, context);
+                long delay = getConnectionAttemptDelay();
+                if (delay > 0 && socketAddresses.size() > 1)
+                    new ConnectionAttempts(interleave(socketAddresses), context, delay, promise).connect();
+                else
+                    connect(socketAddresses, 0, context);
             }
 
             @Override
@@ -585,6 +620,36 @@ public class HttpClient extends ContainerLifeCycle
         });
     }
 
+    /**
+     * <p>Sorts the given socket addresses so that IPv6 and IPv4 addresses alternate,
+     * starting with the address family of the first address, as specified by
+     * <a href="https://datatracker.ietf.org/doc/html/rfc8305#section-4">RFC 8305</a>.</p>
+     */
+    private static List<InetSocketAddress> interleave(List<InetSocketAddress> socketAddresses)
+    {
+        List<InetSocketAddress> first = new ArrayList<>(socketAddresses.size());
+        List<InetSocketAddress> second = new ArrayList<>(socketAddresses.size());
+        boolean ipv6 = socketAddresses.get(0).getAddress() instanceof Inet6Address;
+        for (InetSocketAddress socketAddress : socketAddresses)
+        {
+            if (socketAddress.getAddress() instanceof Inet6Address == ipv6)
+                first.add(socketAddress);
+            else
+                second.add(socketAddress);
+        }
+        if (second.isEmpty())
+            return socketAddresses;
+        List<InetSocketAddress> result = new ArrayList<>(socketAddresses.size());
+        for (int i = 0; i < Math.max(first.size(), second.size()); ++i)
+        {
+            if (i < first.size())
+                result.add(first.get(i));
+            if (i < second.size())
+                result.add(second.get(i));
+        }
+        return result;
+    }
+
     private HttpConversation newConversation()
     {
         return new HttpConversation();
@@ -678,6 +743,37 @@ public class HttpClient extends ContainerLifeCycle
         this.addressResolutionTimeout = addressResolutionTimeout;
     }
 
+    /**
+     * @return the delay, in milliseconds, before attempting to connect to the next address of a destination
+     * @see #setConnectionAttemptDelay(long)
+     */
+    @ManagedAttribute("The delay, in milliseconds, before attempting to connect to the next address")
+    public long getConnectionAttemptDelay()
+    {
+        return connectionAttemptDelay;
+    }
+
+    /**
+     * <p>Sets the delay before attempting to connect to the next address of a destination.</p>
+     * <p>When the host of a destination resolves to multiple addresses, a connection attempt
+     * is made to the first address and, if it does not complete within this delay, a second
+     * attempt is made to the next address in parallel, and so on, as specified by the
+     * "Happy Eyeballs" algorithm of <a href="https://datatracker.ietf.org/doc/html/rfc8305">RFC 8305</a>.
+     * The first connection established is used, the attempts still in progress are aborted,
+     * and the connections established by them afterwards are closed.
+     * IPv6 and IPv4 addresses are tried alternately, starting with the address family of the
+     * first resolved address.</p>
+     * <p>A failed attempt immediately triggers the attempt to the next address.
+     * A zero or negative value, the default, means that the addresses are tried sequentially,
+     * and that the next address is tried only when the attempt to the previous address fails.</p>
+     *
+     * @param connectionAttemptDelay the delay, in milliseconds, before attempting to connect to the next address
+     */
+    public void setConnectionAttemptDelay(long connectionAttemptDelay)
+    {
+        this.connectionAttemptDelay = connectionAttemptDelay;
+    }
+
     /**
      * @return the max time, in milliseconds, a connection can be idle (that is, without traffic of bytes in either direction)
      */
@@ -854,6 +950,31 @@ public class HttpClient extends ContainerLifeCycle
         this.maxRequestsQueuedPerDestination = maxRequestsQueuedPerDestination;
     }
 
+    /**
+     * @return the number of priority lanes of the request queue of a {@link Destination}
+     */
+    @ManagedAttribute("The number of request priorities per each destination")
+    public int getRequestPrioritiesPerDestination()
+    {
+        return requestPrioritiesPerDestination;
+    }
+
+    /**
+     * Sets the number of priority lanes of the request queue of a destination.
+     * <p>
+     * When all the connections of a destination are busy, queued requests with
+     * a lower {@link HttpExchangeQueue#PRIORITY_ATTRIBUTE priority} request attribute
+     * are sent before queued requests with a higher priority attribute, and
+     * requests without the attribute have priority {@code 0}.
+     * The queued requests of all priorities count towards {@link #getMaxRequestsQueuedPerDestination()}.
+     *
+     * @param requestPrioritiesPerDestination the number of request priorities per destination
+     */
+    public void setRequestPrioritiesPerDestination(int requestPrioritiesPerDestination)
+    {
+        this.requestPrioritiesPerDestination = requestPrioritiesPerDestination;
+    }
+
     /**
      * @return the size of the buffer (in bytes) used to write requests
      */
@@ -1080,6 +1201,32 @@ public class HttpClient extends ContainerLifeCycle
         connector.setConnectBlocking(connectBlocking);
     }
 
+    /**
+     * @return whether the TLS handshake starts as soon as a connection is opened
+     * @see #setEagerSslHandshake(boolean)
+     */
+    @ManagedAttribute("Whether the TLS handshake starts as soon as a connection is opened")
+    public boolean isEagerSslHandshake()
+    {
+        return eagerSslHandshake;
+    }
+
+    /**
+     * <p>Whether the TLS handshake of connections to {@code https} destinations starts as soon
+     * as the connection is opened, rather than when the first request is sent.</p>
+     * <p>An eager TLS handshake allows connections opened by {@link #preCreateConnections(URI, int)}
+     * to complete the TLS handshake, and therefore to cache the TLS session, before they are used.</p>
+     * <p>Connections tunnelled through a proxy always start the TLS handshake when the first
+     * request is sent.</p>
+     *
+     * @param eagerSslHandshake whether the TLS handshake starts as soon as a connection is opened
+     * @see SslClientConnectionFactory#setEagerHandshake(boolean)
+     */
+    public void setEagerSslHandshake(boolean eagerSslHandshake)
+    {
+        this.eagerSslHandshake = eagerSslHandshake;
+    }
+
     /**
      * @return the default content type for request content
      */
@@ -1330,4 +1477,125 @@ public class HttpClient extends ContainerLifeCycle
             }
         }
     }
+
+    /**
+     * <p>Staggered, parallel connection attempts to the addresses of a destination.</p>
+     *
+     * @see #setConnectionAttemptDelay(long)
+     */
+    private class ConnectionAttempts
+    {
+        private final AutoLock lock = new AutoLock();
+        private final List<InetSocketAddress> socketAddresses;
+        private final Map<String, Object> context;
+        private final long delay;
+        private final Promise<Connection> promise;
+        private final List<Map<String, Object>> attempts = new ArrayList<>();
+        private int next;
+        private boolean complete;
+        private Scheduler.Task task;
+
+        private ConnectionAttempts(List<InetSocketAddress> socketAddresses, Map<String, Object> context, long delay, Promise<Connection> promise)
+        {
+            this.socketAddresses = socketAddresses;
+            this.context = context;
+            this.delay = delay;
+            this.promise = promise;
+        }
+
+        private void connect()
+        {
+            // Each attempt has its own context, as the context is modified by the transport.
+            Map<String, Object> attemptContext = new ConcurrentHashMap<>(context);
+            InetSocketAddress socketAddress;
+            try (AutoLock l = lock.lock())
+            {
+                if (complete || next == socketAddresses.size())
+                    return;
+                socketAddress = socketAddresses.get(next++);
+                attempts.add(attemptContext);
+                if (task != null)
+                    task.cancel();
+                task = next < socketAddresses.size() ? getScheduler().schedule(() -> getExecutor().execute(this::connect), delay, TimeUnit.MILLISECONDS) : null;
+            }
+
+            if (LOG.isDebugEnabled())
+                LOG.debug("Connection attempt to {}", socketAddress);
+
+            attemptContext.put(HttpClientTransport.HTTP_CONNECTION_PROMISE_CONTEXT_KEY, new Promise<Connection>()
+            {
+                @Override
+                public void succeeded(Connection connection)
+                {
+                    ConnectionAttempts.this.succeeded(attemptContext, connection);
+                }
+
+                @Override
+                public void failed(Throwable x)
+                {
+                    ConnectionAttempts.this.failed(attemptContext, socketAddress, x);
+                }
+            });
+            transport.connect((SocketAddress)socketAddress, attemptContext);
+        }
+
+        private void succeeded(Map<String, Object> attemptContext, Connection connection)
+        {
+            List<Map<String, Object>> losers = null;
+            try (AutoLock l = lock.lock())
+            {
+                attempts.remove(attemptContext);
+                if (!complete)
+                {
+                    complete = true;
+                    if (task != null)
+                        task.cancel();
+                    losers = new ArrayList<>(attempts);
+                    attempts.clear();
+                }
+            }
+
+            if (losers != null)
+            {
+                // Abort the attempts still in progress, rather than waiting for
+                // them to complete only to close their connections.
+                for (Map<String, Object> loser : losers)
+                {
+                    Closeable channel = (Closeable)loser.get(ClientConnector.SELECTABLE_CHANNEL_CONTEXT_KEY);
+                    if (LOG.isDebugEnabled())
+                        LOG.debug("Aborting redundant connection attempt {}", channel);
+                    IO.close(channel);
+                }
+                promise.succeeded(connection);
+            }
+            else
+            {
+                if (LOG.isDebugEnabled())
+                    LOG.debug("Closing redundant {}", connection);
+                connection.close();
+            }
+        }
+
+        private void failed(Map<String, Object> attemptContext, InetSocketAddress socketAddress, Throwable failure)
+        {
+            if (LOG.isDebugEnabled())
+                LOG.debug("Connection attempt to {} failed", socketAddress, failure);
+
+            boolean fail;
+            try (AutoLock l = lock.lock())
+            {
+                attempts.remove(attemptContext);
+                if (complete)
+                    return;
+                fail = attempts.isEmpty() && next == socketAddresses.size();
+                if (fail)
+                    complete = true;
+            }
+
+            if (fail)
+                promise.failed(failure);
+            else
+                connect();
+        }
+    }
 }
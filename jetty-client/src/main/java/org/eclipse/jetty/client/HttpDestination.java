@@ -31,7 +31,7 @@ import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.io.ClientConnectionFactory;
 import org.eclipse.jetty.io.CyclicTimeouts;
-import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.eclipse.jetty.io.ssl.SslClientConnectionFactory;
 import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.HostPort;
 import org.eclipse.jetty.util.NanoTime;
@@ -97,7 +97,13 @@ public abstract class HttpDestination extends ContainerLifeCycle implements Dest
         else
         {
             if (!intrinsicallySecure && isSecure())
+            {
                 connectionFactory = newSslClientConnectionFactory(null, connectionFactory);
+                // Tunnelled connections are upgraded in place, so only
+                // direct connections may start the TLS handshake eagerly.
+                if (client.isEagerSslHandshake() && connectionFactory instanceof SslClientConnectionFactory)
+                    ((SslClientConnectionFactory)connectionFactory).setEagerHandshake(true);
+            }
         }
         Object tag = origin.getTag();
         if (tag instanceof ClientConnectionFactory.Decorator)
@@ -186,10 +192,7 @@ public abstract class HttpDestination extends ContainerLifeCycle implements Dest
 
     protected Queue<HttpExchange> newExchangeQueue(HttpClient client)
     {
-        int maxCapacity = client.getMaxRequestsQueuedPerDestination();
-        if (maxCapacity > 32)
-            return new BlockingArrayQueue<>(32, 32, maxCapacity);
-        return new BlockingArrayQueue<>(maxCapacity);
+        return new HttpExchangeQueue(client.getMaxRequestsQueuedPerDestination(), client.getRequestPrioritiesPerDestination());
     }
 
     protected ClientConnectionFactory newSslClientConnectionFactory(SslContextFactory.Client sslContextFactory, ClientConnectionFactory connectionFactory)
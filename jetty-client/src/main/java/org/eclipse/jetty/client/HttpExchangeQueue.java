@@ -0,0 +1,220 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.client;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jetty.client.api.Request;
+
+/**
+ * <p>A bounded, lock-free queue of {@link HttpExchange}s for a {@link HttpDestination}.</p>
+ * <p>Exchanges are queued by the threads sending requests and polled by the threads
+ * that obtain a connection, so that neither contends on a lock.
+ * The capacity is enforced by reserving a slot before queuing the exchange,
+ * so the queue never holds more than its max capacity exchanges.</p>
+ * <p>The queue may have multiple priority lanes: exchanges are polled from the
+ * first non-empty lane, and are queued in the lane specified by the request
+ * attribute {@link #PRIORITY_ATTRIBUTE}, or in the first lane if the attribute
+ * is not set. Lanes are served strictly in order, so exchanges in later lanes
+ * are only sent when the earlier lanes are empty.</p>
+ */
+public class HttpExchangeQueue extends AbstractQueue<HttpExchange>
+{
+    /**
+     * The name of the request attribute, with an {@link Integer} value, that
+     * specifies the priority lane of the request, {@code 0} being the first lane.
+     *
+     * @see Request#attribute(String, Object)
+     */
+    public static final String PRIORITY_ATTRIBUTE = HttpExchangeQueue.class.getName() + ".priority";
+
+    private final AtomicInteger size = new AtomicInteger();
+    private final Queue<HttpExchange>[] lanes;
+    private final int maxCapacity;
+
+    public HttpExchangeQueue(int maxCapacity)
+    {
+        this(maxCapacity, 1);
+    }
+
+    /**
+     * @param maxCapacity the max number of exchanges in the queue
+     * @param priorities the number of priority lanes
+     */
+    @SuppressWarnings("unchecked")
+    public HttpExchangeQueue(int maxCapacity, int priorities)
+    {
+        if (priorities < 1)
+            throw new IllegalArgumentException("Invalid priorities " + priorities);
+        this.maxCapacity = maxCapacity;
+        this.lanes = new Queue[priorities];
+        for (int i = 0; i < priorities; ++i)
+        {
+            lanes[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    public int getMaxCapacity()
+    {
+        return maxCapacity;
+    }
+
+    public int getPriorities()
+    {
+        return lanes.length;
+    }
+
+    @Override
+    public boolean offer(HttpExchange exchange)
+    {
+        if (exchange == null)
+            throw new NullPointerException();
+        while (true)
+        {
+            int current = size.get();
+            if (current >= maxCapacity)
+                return false;
+            if (size.compareAndSet(current, current + 1))
+                break;
+        }
+        lanes[laneOf(exchange)].offer(exchange);
+        return true;
+    }
+
+    /**
+     * @param exchange the exchange to queue
+     * @return the index of the priority lane for the given exchange
+     */
+    protected int laneOf(HttpExchange exchange)
+    {
+        if (lanes.length == 1)
+            return 0;
+        Object priority = exchange.getRequest().getAttributes().get(PRIORITY_ATTRIBUTE);
+        if (priority instanceof Number)
+            return Math.max(0, Math.min(lanes.length - 1, ((Number)priority).intValue()));
+        return 0;
+    }
+
+    @Override
+    public HttpExchange poll()
+    {
+        for (Queue<HttpExchange> lane : lanes)
+        {
+            HttpExchange exchange = lane.poll();
+            if (exchange != null)
+            {
+                size.decrementAndGet();
+                return exchange;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public HttpExchange peek()
+    {
+        for (Queue<HttpExchange> lane : lanes)
+        {
+            HttpExchange exchange = lane.peek();
+            if (exchange != null)
+                return exchange;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean remove(Object exchange)
+    {
+        for (Queue<HttpExchange> lane : lanes)
+        {
+            if (lane.remove(exchange))
+            {
+                size.decrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size()
+    {
+        return size.get();
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size.get() == 0;
+    }
+
+    /**
+     * @return a weakly consistent iterator over the exchanges, in priority order
+     */
+    @Override
+    public Iterator<HttpExchange> iterator()
+    {
+        return new Iterator<>()
+        {
+            private int lane;
+            private Iterator<HttpExchange> iterator = lanes[0].iterator();
+            private HttpExchange last;
+
+            @Override
+            public boolean hasNext()
+            {
+                while (!iterator.hasNext())
+                {
+                    if (++lane == lanes.length)
+                    {
+                        lane = lanes.length - 1;
+                        return false;
+                    }
+                    iterator = lanes[lane].iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public HttpExchange next()
+            {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                last = iterator.next();
+                return last;
+            }
+
+            @Override
+            public void remove()
+            {
+                if (last == null)
+                    throw new IllegalStateException();
+                // Remove via the queue, as the exchange may have been concurrently polled.
+                HttpExchangeQueue.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s@%x[size=%d,capacity=%d,priorities=%d]", getClass().getSimpleName(), hashCode(), size(), maxCapacity, lanes.length);
+    }
+}
@@ -0,0 +1,280 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.client;
+
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.client.api.Connection;
+import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.NanoTime;
+import org.eclipse.jetty.util.Pool;
+import org.eclipse.jetty.util.annotation.ManagedAttribute;
+import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.thread.AutoLock;
+
+/**
+ * <p>A {@link ConnectionPool} that provides the connection with the least
+ * expected latency, as estimated from the response times of the connections
+ * and from the number of requests outstanding on them.</p>
+ * <p>For each connection, and for each remote address when a destination
+ * resolves to multiple addresses, this class tracks the number of outstanding
+ * requests and an exponentially weighted moving average (EWMA) of the time a
+ * connection is in use for a request. The average reacts immediately to a
+ * slower response, and decays with the {@link #getDecayTime() decay time},
+ * so that a slow server is quickly avoided but probed again later.</p>
+ * <p>The cost of a connection is its average latency (or the average latency
+ * of its remote address, if the connection has not been used yet) multiplied
+ * by the number of requests outstanding to its remote address, plus one.
+ * The connection with the least cost is provided, so that requests are
+ * sent to fast, lightly loaded servers rather than piling up on a slow one.</p>
+ * <p>For multiplexed connections, the latency of a request is approximated
+ * by the mean age of the requests outstanding on the connection when the
+ * request completes.</p>
+ */
+@ManagedObject
+public class LeastLatencyConnectionPool extends MultiplexConnectionPool
+{
+    private final Map<Connection, Latency> connectionLatencies = new ConcurrentHashMap<>();
+    private final Map<SocketAddress, Latency> addressLatencies = new ConcurrentHashMap<>();
+    private final long baseNanoTime = NanoTime.now();
+    private volatile long decayNanos = TimeUnit.SECONDS.toNanos(10);
+
+    public LeastLatencyConnectionPool(HttpDestination destination, int maxConnections, Callback requester)
+    {
+        this(destination, maxConnections, requester, 1);
+    }
+
+    public LeastLatencyConnectionPool(HttpDestination destination, int maxConnections, Callback requester, int maxMultiplex)
+    {
+        super(destination, Pool.StrategyType.FIRST, maxConnections, false, requester, maxMultiplex);
+    }
+
+    /**
+     * @return the time in milliseconds over which the latency average decays
+     */
+    @ManagedAttribute(value = "The time in ms over which the latency average decays")
+    public long getDecayTime()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(decayNanos);
+    }
+
+    /**
+     * @param decayTimeInMs the time in milliseconds over which the latency average decays
+     */
+    public void setDecayTime(long decayTimeInMs)
+    {
+        if (decayTimeInMs <= 0)
+            throw new IllegalArgumentException("Invalid decay time " + decayTimeInMs);
+        decayNanos = TimeUnit.MILLISECONDS.toNanos(decayTimeInMs);
+    }
+
+    /**
+     * @param connection the connection
+     * @return the average latency of the given connection in nanoseconds,
+     * or -1 if the connection is not pooled or has not been used yet
+     */
+    public long getLatency(Connection connection)
+    {
+        Latency latency = connectionLatencies.get(connection);
+        if (latency == null || !latency.sampled)
+            return -1;
+        return (long)latency.getAverage(now(), decayNanos);
+    }
+
+    @Override
+    protected Pool<Connection>.Entry acquireEntry(Pool<Connection> pool)
+    {
+        long now = now();
+        long decayNanos = this.decayNanos;
+        return pool.acquireLeast(connection -> cost(connection, now, decayNanos));
+    }
+
+    private double cost(Connection connection, long now, long decayNanos)
+    {
+        Latency latency = connectionLatencies.get(connection);
+        if (latency == null)
+            return Double.MAX_VALUE;
+        Latency address = latency.address;
+
+        double average = 0;
+        if (latency.sampled)
+            average = latency.getAverage(now, decayNanos);
+        else if (address != null && address.sampled)
+            average = address.getAverage(now, decayNanos);
+
+        int outstanding = address != null ? address.outstanding : latency.outstanding;
+        return (average + 1) * (outstanding + 1);
+    }
+
+    @Override
+    protected void onCreated(Connection connection)
+    {
+        super.onCreated(connection);
+        SocketAddress remoteAddress = connection.getRemoteSocketAddress();
+        Latency address = null;
+        if (remoteAddress != null)
+        {
+            address = addressLatencies.compute(remoteAddress, (key, value) ->
+            {
+                Latency result = value == null ? new Latency(key) : value;
+                result.addConnection();
+                return result;
+            });
+        }
+        connectionLatencies.put(connection, new Latency(address));
+    }
+
+    @Override
+    protected void acquired(Connection connection)
+    {
+        super.acquired(connection);
+        Latency latency = connectionLatencies.get(connection);
+        if (latency != null)
+        {
+            long now = now();
+            latency.begin(now);
+            if (latency.address != null)
+                latency.address.begin(now);
+        }
+    }
+
+    @Override
+    protected void released(Connection connection)
+    {
+        super.released(connection);
+        Latency latency = connectionLatencies.get(connection);
+        if (latency != null)
+        {
+            long now = now();
+            long decayNanos = this.decayNanos;
+            latency.end(now, decayNanos);
+            if (latency.address != null)
+                latency.address.end(now, decayNanos);
+        }
+    }
+
+    @Override
+    protected void removed(Connection connection)
+    {
+        super.removed(connection);
+        Latency latency = connectionLatencies.remove(connection);
+        if (latency != null && latency.address != null)
+        {
+            Latency address = latency.address;
+            addressLatencies.computeIfPresent(address.remoteAddress, (key, value) -> value == address && value.removeConnection() ? null : value);
+        }
+    }
+
+    private long now()
+    {
+        // Relative to the pool creation, so that the sums of start times do not overflow.
+        return NanoTime.since(baseNanoTime);
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s[addresses=%d]", super.toString(), addressLatencies.size());
+    }
+
+    private static class Latency
+    {
+        private final AutoLock lock = new AutoLock();
+        private final SocketAddress remoteAddress;
+        private final Latency address;
+        private int connections;
+        private long startSum;
+        private volatile int outstanding;
+        private volatile double average;
+        private volatile long averageTime;
+        private volatile boolean sampled;
+
+        private Latency(SocketAddress remoteAddress)
+        {
+            this.remoteAddress = remoteAddress;
+            this.address = null;
+        }
+
+        private Latency(Latency address)
+        {
+            this.remoteAddress = null;
+            this.address = address;
+        }
+
+        private void addConnection()
+        {
+            try (AutoLock l = lock.lock())
+            {
+                ++connections;
+            }
+        }
+
+        private boolean removeConnection()
+        {
+            try (AutoLock l = lock.lock())
+            {
+                return --connections <= 0;
+            }
+        }
+
+        private void begin(long now)
+        {
+            try (AutoLock l = lock.lock())
+            {
+                startSum += now;
+                ++outstanding;
+            }
+        }
+
+        private void end(long now, long decayNanos)
+        {
+            try (AutoLock l = lock.lock())
+            {
+                // Connections that are removed while idle are also released.
+                if (outstanding == 0)
+                    return;
+                long start = startSum / outstanding;
+                startSum -= start;
+                --outstanding;
+                sample(Math.max(0, now - start), now, decayNanos);
+            }
+        }
+
+        private void sample(long latency, long now, long decayNanos)
+        {
+            double current = sampled ? average : latency;
+            if (latency >= current)
+            {
+                // React immediately to slower responses.
+                average = latency;
+            }
+            else
+            {
+                double weight = Math.exp(-(double)(now - averageTime) / decayNanos);
+                average = current * weight + latency * (1 - weight);
+            }
+            averageTime = now;
+            sampled = true;
+        }
+
+        private double getAverage(long now, long decayNanos)
+        {
+            // Decay the average while there are no samples, so that a slow server is eventually retried.
+            return average * Math.exp(-(double)Math.max(0, now - averageTime) / decayNanos);
+        }
+    }
+}
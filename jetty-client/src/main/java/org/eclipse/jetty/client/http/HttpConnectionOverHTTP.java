@@ -13,6 +13,7 @@
 
 package org.eclipse.jetty.client.http;
 
+import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousCloseException;
 import java.util.Collections;
@@ -260,6 +261,12 @@ public class HttpConnectionOverHTTP extends AbstractConnection implements IConne
         return sweeps.incrementAndGet() > 3;
     }
 
+    @Override
+    public SocketAddress getRemoteSocketAddress()
+    {
+        return getEndPoint().getRemoteSocketAddress();
+    }
+
     @Override
     public String toConnectionString()
     {
@@ -32,6 +32,7 @@ import org.eclipse.jetty.client.api.Connection;
 import org.eclipse.jetty.client.api.ContentResponse;
 import org.eclipse.jetty.client.api.Destination;
 import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
 import org.eclipse.jetty.client.http.HttpClientTransportOverHTTP;
 import org.eclipse.jetty.client.util.BytesRequestContent;
 import org.eclipse.jetty.client.util.FutureResponseListener;
@@ -43,6 +44,7 @@ import org.eclipse.jetty.io.ClientConnector;
 import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.Attachable;
 import org.eclipse.jetty.util.IO;
 import org.eclipse.jetty.util.NanoTime;
 import org.eclipse.jetty.util.Promise;
@@ -54,7 +56,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import static org.awaitility.Awaitility.await;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -72,15 +76,16 @@ public class ConnectionPoolTest
         return pool;
     });
     private static final ConnectionPoolFactory ROUND_ROBIN = new ConnectionPoolFactory("round-robin", destination -> new RoundRobinConnectionPool(destination, destination.getHttpClient().getMaxConnectionsPerDestination(), destination));
+    private static final ConnectionPoolFactory LEAST_LATENCY = new ConnectionPoolFactory("least-latency", destination -> new LeastLatencyConnectionPool(destination, destination.getHttpClient().getMaxConnectionsPerDestination(), destination));
 
     public static Stream<ConnectionPoolFactory> pools()
     {
-        return Stream.of(DUPLEX, MULTIPLEX, RANDOM, DUPLEX_MAX_DURATION, ROUND_ROBIN);
+        return Stream.of(DUPLEX, MULTIPLEX, RANDOM, DUPLEX_MAX_DURATION, ROUND_ROBIN, LEAST_LATENCY);
     }
 
     public static Stream<ConnectionPoolFactory> poolsNoRoundRobin()
     {
-        return Stream.of(DUPLEX, MULTIPLEX, RANDOM, DUPLEX_MAX_DURATION);
+        return Stream.of(DUPLEX, MULTIPLEX, RANDOM, DUPLEX_MAX_DURATION, LEAST_LATENCY);
     }
 
     private Server server;
@@ -649,6 +654,109 @@ public class ConnectionPoolTest
         assertEquals(0, connectionPool.getConnectionCount());
     }
 
+    @Test
+    public void testAdaptiveSizingOpensAndTrimsIdleConnections() throws Exception
+    {
+        start(DUPLEX.factory, new EmptyServerHandler());
+
+        ContentResponse response = client.newRequest("localhost", connector.getLocalPort())
+            .timeout(5, TimeUnit.SECONDS)
+            .send();
+        assertEquals(HttpStatus.OK_200, response.getStatus());
+        HttpDestination destination = (HttpDestination)client.getDestinations().get(0);
+        AbstractConnectionPool connectionPool = (AbstractConnectionPool)destination.getConnectionPool();
+        await().atMost(5, TimeUnit.SECONDS).until(connectionPool::getIdleConnectionCount, is(1));
+
+        // Idle connections are opened in the background up to the target.
+        connectionPool.setMinIdleConnections(3);
+        connectionPool.adapt();
+        assertEquals(3, connectionPool.getTargetIdleConnectionCount());
+        await().atMost(5, TimeUnit.SECONDS).until(connectionPool::getIdleConnectionCount, is(3));
+        assertThat(connectionPool.getAverageConnectTime(), greaterThan(0D));
+        assertEquals(0D, connectionPool.getPressure());
+
+        // Idle connections above the target are closed.
+        connectionPool.setMinIdleConnections(1);
+        connectionPool.adapt();
+        assertEquals(1, connectionPool.getTargetIdleConnectionCount());
+        assertEquals(1, connectionPool.getIdleConnectionCount());
+        assertEquals(1, connectionPool.getConnectionCount());
+
+        // The adaptive sizing runs periodically.
+        connectionPool.setMinIdleConnections(2);
+        connectionPool.setAdaptiveSizingPeriod(100);
+        await().atMost(5, TimeUnit.SECONDS).until(connectionPool::getIdleConnectionCount, is(2));
+    }
+
+    @Test
+    public void testLeastLatencyConnectionPoolPrefersFastConnection() throws Exception
+    {
+        HttpClient httpClient = new HttpClient();
+        HttpDestination destination = new HttpDestination(httpClient, new Origin("http", "localhost", 8080), false)
+        {
+        };
+        LeastLatencyConnectionPool connectionPool = new LeastLatencyConnectionPool(destination, 2, destination, 4);
+        Connection connection1 = new MockConnection();
+        Connection connection2 = new MockConnection();
+        assertTrue(connectionPool.accept(connection1));
+        assertTrue(connectionPool.accept(connection2));
+
+        // Unused connections are provided by outstanding requests.
+        Connection slow = connectionPool.acquire(false);
+        Connection fast = connectionPool.acquire(false);
+        assertThat(fast, Matchers.not(Matchers.sameInstance(slow)));
+
+        assertTrue(connectionPool.release(fast));
+        Thread.sleep(100);
+        assertTrue(connectionPool.release(slow));
+        assertThat(connectionPool.getLatency(slow), Matchers.greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100)));
+        assertThat(connectionPool.getLatency(fast), Matchers.lessThan(connectionPool.getLatency(slow)));
+
+        // The fast connection is preferred even with outstanding requests.
+        for (int i = 0; i < 3; ++i)
+        {
+            assertThat(connectionPool.acquire(false), Matchers.sameInstance(fast));
+        }
+        assertThat(connectionPool.acquire(false), Matchers.sameInstance(fast));
+        // The fast connection is at its max multiplex.
+        assertThat(connectionPool.acquire(false), Matchers.sameInstance(slow));
+
+        connectionPool.close();
+    }
+
+    private static class MockConnection implements Connection, Attachable
+    {
+        private Object attachment;
+
+        @Override
+        public void send(Request request, Response.CompleteListener listener)
+        {
+        }
+
+        @Override
+        public void close()
+        {
+        }
+
+        @Override
+        public boolean isClosed()
+        {
+            return false;
+        }
+
+        @Override
+        public void setAttachment(Object obj)
+        {
+            attachment = obj;
+        }
+
+        @Override
+        public Object getAttachment()
+        {
+            return attachment;
+        }
+    }
+
     private static class ConnectionPoolFactory
     {
         private final String name;
@@ -13,11 +13,17 @@
 
 package org.eclipse.jetty.client;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.awaitility.Awaitility;
 import org.eclipse.jetty.client.api.Connection;
@@ -288,6 +294,60 @@ public class DuplexHttpDestinationTest extends AbstractHttpClientServerTest
         assertTrue(successLatch.await(5, TimeUnit.SECONDS));
     }
 
+    @ParameterizedTest
+    @ArgumentsSource(ScenarioProvider.class)
+    public void testQueuedRequestsSentInPriorityOrder(Scenario scenario) throws Exception
+    {
+        CountDownLatch blockLatch = new CountDownLatch(1);
+        List<String> paths = new CopyOnWriteArrayList<>();
+        start(scenario, new EmptyServerHandler()
+        {
+            @Override
+            protected void service(String target, org.eclipse.jetty.server.Request jettyRequest, HttpServletRequest request, HttpServletResponse response) throws IOException
+            {
+                paths.add(target);
+                try
+                {
+                    if ("/block".equals(target))
+                        blockLatch.await();
+                }
+                catch (InterruptedException x)
+                {
+                    throw new InterruptedIOException();
+                }
+            }
+        });
+        String scheme = scenario.getScheme();
+        client.setMaxConnectionsPerDestination(1);
+        client.setRequestPrioritiesPerDestination(2);
+
+        // Occupy the only connection, so that the other requests are queued.
+        CountDownLatch queuedLatch = new CountDownLatch(3);
+        CountDownLatch completeLatch = new CountDownLatch(4);
+        client.newRequest("localhost", connector.getLocalPort())
+            .scheme(scheme)
+            .path("/block")
+            .send(result -> completeLatch.countDown());
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> paths.contains("/block"));
+
+        for (String path : List.of("/low1", "/high", "/low2"))
+        {
+            client.newRequest("localhost", connector.getLocalPort())
+                .scheme(scheme)
+                .path(path)
+                .attribute(HttpExchangeQueue.PRIORITY_ATTRIBUTE, path.startsWith("/high") ? 0 : 1)
+                .onRequestQueued(request -> queuedLatch.countDown())
+                .send(result -> completeLatch.countDown());
+        }
+        assertTrue(queuedLatch.await(5, TimeUnit.SECONDS));
+        HttpDestination destination = (HttpDestination)client.resolveDestination(client.newRequest("localhost", connector.getLocalPort()).scheme(scheme));
+        assertEquals(3, destination.getQueuedRequestCount());
+
+        blockLatch.countDown();
+        assertTrue(completeLatch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("/block", "/high", "/low1", "/low2"), paths);
+    }
+
     @ParameterizedTest
     @ArgumentsSource(ScenarioProvider.class)
     public void testDestinationIsRemoved(Scenario scenario) throws Exception
@@ -20,6 +20,7 @@ import java.io.OutputStream;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
+import java.net.URI;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
@@ -87,6 +88,7 @@ import org.junit.jupiter.params.provider.ValueSource;
 import static org.awaitility.Awaitility.await;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
@@ -460,6 +462,39 @@ public class HttpClientTLSTest
         assertTrue(clientLatch.await(1, TimeUnit.SECONDS));
     }
 
+    @Test
+    public void testPreCreatedConnectionPrimesSessionResumption() throws Exception
+    {
+        SslContextFactory.Server serverTLSFactory = createServerSslContextFactory();
+        startServer(serverTLSFactory, new EmptyServerHandler());
+        SslContextFactory.Client clientTLSFactory = createClientSslContextFactory();
+        startClient(clientTLSFactory);
+        client.setEagerSslHandshake(true);
+        ClientConnector clientConnector = ((HttpClientTransportOverHTTP)client.getTransport()).getClientConnector();
+
+        String uri = "https://localhost:" + connector.getLocalPort();
+        client.preCreateConnections(URI.create(uri), 1).get(5, TimeUnit.SECONDS);
+        // The TLS handshake completes in the background after the connection is opened.
+        await().atMost(5, TimeUnit.SECONDS).until(clientConnector::getFullSslHandshakes, is(1L));
+        assertEquals(0, clientConnector.getResumedSslHandshakes());
+
+        // The pre-created connection serves the first request,
+        // then the following connections resume its TLS session.
+        int requests = 3;
+        for (int i = 0; i < requests; ++i)
+        {
+            ContentResponse response = client.newRequest(uri)
+                .headers(headers -> headers.put(HttpHeader.CONNECTION, HttpHeaderValue.CLOSE))
+                .timeout(5, TimeUnit.SECONDS)
+                .send();
+            assertEquals(HttpStatus.OK_200, response.getStatus());
+        }
+
+        assertEquals(1, clientConnector.getFullSslHandshakes());
+        assertEquals(requests - 1, clientConnector.getResumedSslHandshakes());
+        assertThat(clientTLSFactory.getSslSessionCount(), greaterThanOrEqualTo(1));
+    }
+
     // Excluded in JDK 11+ because resumed sessions cannot be compared
     // using their session IDs even though they are resumed correctly.
     @EnabledForJreRange(max = JRE.JAVA_10)
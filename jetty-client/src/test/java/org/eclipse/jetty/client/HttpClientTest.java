@@ -18,13 +18,16 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.HttpCookie;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.net.SocketAddress;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -902,6 +905,71 @@ public class HttpClientTest extends AbstractHttpClientServerTest
             .send();
     }
 
+    @ParameterizedTest
+    @ArgumentsSource(ScenarioProvider.class)
+    public void testConnectHostWithMultipleAddressesInParallel(Scenario scenario) throws Exception
+    {
+        startServer(scenario, new EmptyServerHandler());
+        AtomicInteger opened = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+        connector.addBean(new org.eclipse.jetty.io.Connection.Listener()
+        {
+            @Override
+            public void onOpened(org.eclipse.jetty.io.Connection connection)
+            {
+                if (connection instanceof org.eclipse.jetty.server.HttpConnection)
+                    opened.incrementAndGet();
+            }
+
+            @Override
+            public void onClosed(org.eclipse.jetty.io.Connection connection)
+            {
+                if (connection instanceof org.eclipse.jetty.server.HttpConnection)
+                    closed.incrementAndGet();
+            }
+        });
+
+        int port = connector.getLocalPort();
+        InetSocketAddress stalled = new InetSocketAddress(InetAddress.getByAddress("stalled", new byte[]{(byte)192, 0, 2, 1}), port);
+        AtomicReference<Map<String, Object>> stalledContext = new AtomicReference<>();
+        SocketChannel stalledChannel = SocketChannel.open();
+        startClient(scenario, clientConnector -> new HttpClientTransportOverHTTP(clientConnector)
+        {
+            @Override
+            public void connect(SocketAddress address, Map<String, Object> context)
+            {
+                // Never complete the connection attempt to the first address.
+                if (address.equals(stalled))
+                {
+                    context.put(ClientConnector.SELECTABLE_CHANNEL_CONTEXT_KEY, stalledChannel);
+                    stalledContext.set(context);
+                }
+                else
+                    super.connect(address, context);
+            }
+        }, client ->
+        {
+            client.setConnectionAttemptDelay(100);
+            client.setSocketAddressResolver((host, p, promise) -> promise.succeeded(new ArrayList<>(List.of(stalled, new InetSocketAddress("localhost", p)))));
+        });
+
+        ContentResponse response = client.newRequest("localhost", port)
+            .scheme(scenario.getScheme())
+            .timeout(5, TimeUnit.SECONDS)
+            .send();
+        assertEquals(HttpStatus.OK_200, response.getStatus());
+        assertNotNull(stalledContext.get());
+        // The connection attempt still in progress is aborted.
+        assertFalse(stalledChannel.isOpen());
+
+        // When the stalled connection attempt completes, the redundant connection is closed.
+        client.getTransport().connect((SocketAddress)new InetSocketAddress("localhost", port), stalledContext.get());
+        await().atMost(5, TimeUnit.SECONDS).until(opened::get, Matchers.is(2));
+        await().atMost(5, TimeUnit.SECONDS).until(closed::get, Matchers.is(1));
+        HttpDestination destination = (HttpDestination)client.getDestinations().get(0);
+        assertEquals(1, ((AbstractConnectionPool)destination.getConnectionPool()).getConnectionCount());
+    }
+
     @ParameterizedTest
     @ArgumentsSource(ScenarioProvider.class)
     public void testCustomUserAgent(Scenario scenario) throws Exception
@@ -21,8 +21,11 @@ module org.eclipse.jetty.http
     exports org.eclipse.jetty.http.compression;
     exports org.eclipse.jetty.http.pathmap;
 
+    uses org.eclipse.jetty.http.CompressedContentEncoder;
     uses org.eclipse.jetty.http.HttpFieldPreEncoder;
 
+    provides org.eclipse.jetty.http.CompressedContentEncoder with
+        org.eclipse.jetty.http.GzipContentEncoder;
     provides org.eclipse.jetty.http.HttpFieldPreEncoder with
         org.eclipse.jetty.http.Http1FieldPreEncoder;
 }
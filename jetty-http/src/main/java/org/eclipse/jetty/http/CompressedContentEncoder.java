@@ -0,0 +1,58 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ServiceLoader;
+
+import org.eclipse.jetty.util.TypeUtil;
+
+/**
+ * <p>Encodes content in a {@link CompressedContentFormat}.</p>
+ * <p>Encoders are used to compress static content on the fly, so that the compressed
+ * variant can be cached and served as if it was a precompressed resource.
+ * Encoders are discovered with the {@link ServiceLoader}, so that encodings other than
+ * the built-in {@link GzipContentEncoder gzip} (for example {@code br} or {@code zstd})
+ * may be provided by other libraries.</p>
+ */
+public interface CompressedContentEncoder
+{
+    /**
+     * @return the format of the encoded content
+     */
+    CompressedContentFormat getFormat();
+
+    /**
+     * <p>Encodes the given content.</p>
+     *
+     * @param content the content to encode, whose position is not modified
+     * @return a buffer with the encoded content
+     * @throws IOException if the content cannot be encoded
+     */
+    ByteBuffer encode(ByteBuffer content) throws IOException;
+
+    /**
+     * @param encoding the content encoding, for example {@code gzip}
+     * @return the encoder for the given content encoding discovered by the {@link ServiceLoader},
+     * or null if there is no encoder for the content encoding
+     */
+    static CompressedContentEncoder forEncoding(String encoding)
+    {
+        return TypeUtil.serviceStream(ServiceLoader.load(CompressedContentEncoder.class))
+            .filter(encoder -> encoder.getFormat().getEncoding().equalsIgnoreCase(encoding))
+            .findFirst()
+            .orElse(null);
+    }
+}
@@ -0,0 +1,85 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.ByteArrayOutputStream2;
+
+/**
+ * <p>A {@link CompressedContentEncoder} for the {@link CompressedContentFormat#GZIP gzip} encoding.</p>
+ * <p>As the content is encoded while a request waits for it, the {@link Deflater#DEFAULT_COMPRESSION default}
+ * compression level is used unless specified, which compresses almost as well as the best level for a fraction of its cost.</p>
+ */
+public class GzipContentEncoder implements CompressedContentEncoder
+{
+    private final int _level;
+
+    public GzipContentEncoder()
+    {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param level the compression level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}
+     */
+    public GzipContentEncoder(int level)
+    {
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION))
+            throw new IllegalArgumentException("Invalid compression level " + level);
+        _level = level;
+    }
+
+    public int getLevel()
+    {
+        return _level;
+    }
+
+    @Override
+    public CompressedContentFormat getFormat()
+    {
+        return CompressedContentFormat.GZIP;
+    }
+
+    @Override
+    public ByteBuffer encode(ByteBuffer content) throws IOException
+    {
+        ByteArrayOutputStream2 output = new ByteArrayOutputStream2(Math.max(64, content.remaining() / 2));
+        try (GZIPOutputStream gzip = new LevelGZIPOutputStream(output, _level))
+        {
+            BufferUtil.writeTo(content.slice(), gzip);
+        }
+        return ByteBuffer.wrap(output.getBuf(), 0, output.getCount());
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s@%x{level=%d}", getClass().getSimpleName(), hashCode(), _level);
+    }
+
+    private static class LevelGZIPOutputStream extends GZIPOutputStream
+    {
+        private LevelGZIPOutputStream(OutputStream output, int level) throws IOException
+        {
+            super(output);
+            def.setLevel(level);
+        }
+    }
+}
@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.jetty.http.MimeTypes.Type;
@@ -72,6 +73,20 @@ public interface HttpContent
 
     Map<CompressedContentFormat, ? extends HttpContent> getPrecompressedContents();
 
+    /**
+     * <p>Returns the precompressed variants of this content that may be sent to a client
+     * accepting the given encodings.</p>
+     * <p>Implementations that produce variants on demand use the accepted encodings to
+     * avoid producing variants that the client cannot use.</p>
+     *
+     * @param acceptedEncodings the encodings accepted by the client, in order of preference
+     * @return the precompressed variants, or null if there are none
+     */
+    default Map<CompressedContentFormat, ? extends HttpContent> getPrecompressedContents(List<String> acceptedEncodings)
+    {
+        return getPrecompressedContents();
+    }
+
     public interface ContentFactory
     {
         /**
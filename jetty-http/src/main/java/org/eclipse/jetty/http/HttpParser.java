@@ -21,6 +21,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.eclipse.jetty.http.HttpTokens.EndOfContent;
 import org.eclipse.jetty.util.BufferUtil;
@@ -332,6 +334,28 @@ public class HttpParser
         _fieldCache.setCaseSensitive(headerCacheCaseSensitive);
     }
 
+    public boolean isHeaderCacheAllFields()
+    {
+        return _fieldCache.isAllFields();
+    }
+
+    /**
+     * <p>Sets whether all the header fields may be added to the per-connection field cache.</p>
+     * <p>By default only the fields of a few common headers are cached, so the fields of other
+     * headers are parsed into new Strings and {@link HttpField}s for every message.
+     * When all fields are cached, fields repeated on a persistent connection are looked up
+     * directly from the buffer, so that repeated messages are parsed without allocating.</p>
+     * <p>The values of the fields cached this way are always matched case sensitively, and
+     * fields whose value changes between messages are not cached again, so that they do not
+     * fill the cache.</p>
+     *
+     * @param headerCacheAllFields whether all header fields may be cached
+     */
+    public void setHeaderCacheAllFields(boolean headerCacheAllFields)
+    {
+        _fieldCache.setAllFields(headerCacheAllFields);
+    }
+
     protected void checkViolation(Violation violation) throws BadMessageException
     {
         if (violation.isAllowedBy(_complianceMode))
@@ -971,6 +995,7 @@ public class HttpParser
             if (_header != null)
             {
                 boolean addToFieldCache = false;
+                boolean exactValue = false;
                 switch (_header)
                 {
                     case CONTENT_LENGTH:
@@ -1078,6 +1103,9 @@ public class HttpParser
                         break;
 
                     default:
+                        addToFieldCache = _field == null && _fieldCache.isAllFields() && _fieldCache.cacheable(_header, _valueString) &&
+                            _fieldCache.cacheableName(_headerString);
+                        exactValue = true;
                         break;
                 }
 
@@ -1085,11 +1113,20 @@ public class HttpParser
                 if (addToFieldCache)
                 {
                     if (_field == null)
-                        _field = new HttpField(_header, caseInsensitiveHeader(_headerString, _header.asString()), _valueString);
+                    {
+                        String name = caseInsensitiveHeader(_headerString, _header.asString());
+                        _field = exactValue ? new ExactValueField(_header, name, _valueString) : new HttpField(_header, name, _valueString);
+                    }
 
                     _fieldCache.add(_field);
                 }
             }
+            else if (_field == null && _fieldCache.isAllFields() && _fieldCache.cacheable(_headerString, _valueString) &&
+                _fieldCache.cacheableName(_headerString))
+            {
+                _field = new ExactValueField(null, _headerString, _valueString);
+                _fieldCache.add(_field);
+            }
             if (LOG.isDebugEnabled())
                 LOG.debug("parsedHeader({}) header={}, headerString=[{}], valueString=[{}]", _field, _header, _headerString, _valueString);
             _handler.parsedHeader(_field != null ? _field : new HttpField(_header, _headerString, _valueString));
@@ -1295,12 +1332,12 @@ public class HttpParser
                                         }
                                     }
 
-                                    if (v != null && isHeaderCacheCaseSensitive())
+                                    if (v != null && (isHeaderCacheCaseSensitive() || cachedField instanceof ExactValueField))
                                     {
-                                        String ev = BufferUtil.toString(buffer, buffer.position() + n.length() + 1, v.length(), StandardCharsets.ISO_8859_1);
-                                        if (!v.equals(ev))
+                                        int vp = buffer.position() + n.length() + 1;
+                                        if (!equalsAt(buffer, vp, v))
                                         {
-                                            v = ev;
+                                            v = BufferUtil.toString(buffer, vp, v.length(), StandardCharsets.ISO_8859_1);
                                             cachedField = new HttpField(cachedField.getHeader(), n, v);
                                         }
                                     }
@@ -2039,12 +2076,41 @@ public class HttpParser
         }
     }
 
+    private static boolean equalsAt(ByteBuffer buffer, int position, String value)
+    {
+        int length = value.length();
+        if (position + length > buffer.limit())
+            return false;
+        for (int i = 0; i < length; i++)
+        {
+            if ((buffer.get(position + i) & 0xFF) != value.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * <p>A field cached because {@link #isHeaderCacheAllFields() all fields are cached}.</p>
+     * <p>The values of these fields may be case sensitive (for example entity tags or
+     * multipart boundaries), so they only match the exact same value.</p>
+     */
+    private static class ExactValueField extends HttpField
+    {
+        private ExactValueField(HttpHeader header, String name, String value)
+        {
+            super(header, name, value);
+        }
+    }
+
     private static class FieldCache
     {
         private int _size = 1024;
         private Index.Mutable<HttpField> _cache;
         private List<HttpField> _cacheableFields;
         private boolean _caseSensitive;
+        private boolean _allFields;
+        private final Set<String> _cachedNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        private final Set<String> _varyingNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
 
         public int getCapacity()
         {
@@ -2058,6 +2124,8 @@ public class HttpParser
                 _cache = NO_CACHE;
             else
                 _cache = null;
+            _cachedNames.clear();
+            _varyingNames.clear();
         }
 
         public boolean isCaseSensitive()
@@ -2070,6 +2138,16 @@ public class HttpParser
             _caseSensitive = caseSensitive;
         }
 
+        public boolean isAllFields()
+        {
+            return _allFields;
+        }
+
+        public void setAllFields(boolean allFields)
+        {
+            _allFields = allFields;
+        }
+
         public boolean isEnabled()
         {
             return _cache != NO_CACHE;
@@ -2097,6 +2175,10 @@ public class HttpParser
             else if (!_cache.put(field))
             {
                 _cache.clear();
+                _cachedNames.clear();
+                _varyingNames.clear();
+                if (field instanceof ExactValueField)
+                    _cachedNames.add(field.getName());
                 _cache.put(field);
             }
         }
@@ -2106,6 +2188,33 @@ public class HttpParser
             return isEnabled() && header != null && valueString.length() <= _size;
         }
 
+        public boolean cacheable(String headerString, String valueString)
+        {
+            return isEnabled() && headerString != null && valueString != null && headerString.length() + valueString.length() <= _size;
+        }
+
+        /**
+         * <p>Fields that are not in the cache are cached at most once per name,
+         * so that fields whose value changes for every message (for example
+         * request ids or trace ids) do not fill the cache.</p>
+         * <p>The names of varying fields are forgotten when the cache is cleared,
+         * and at most as many are remembered as the capacity of the cache.</p>
+         *
+         * @param headerString the field name
+         * @return whether a field with the given name may be cached
+         */
+        public boolean cacheableName(String headerString)
+        {
+            if (headerString == null || _varyingNames.contains(headerString))
+                return false;
+            if (_cachedNames.add(headerString))
+                return true;
+            // Already cached with a different value.
+            if (_varyingNames.size() < _size)
+                _varyingNames.add(headerString);
+            return false;
+        }
+
         private void prepare()
         {
             if (_cache == null && _cacheableFields != null)
@@ -2259,6 +2259,130 @@ public class HttpParserTest
         assertSame(field, _fields.get(0));
     }
 
+    @Test
+    @SuppressWarnings("ReferenceEquality")
+    public void testCachedAllFields()
+    {
+        ByteBuffer buffer = BufferUtil.toBuffer(
+            "GET / HTTP/1.1\r\n" +
+                "Host: localhost\r\n" +
+                "X-Custom: value\r\n" +
+                "Origin: http://localhost\r\n" +
+                "\r\n");
+
+        HttpParser.RequestHandler handler = new Handler();
+        HttpParser parser = new HttpParser(handler);
+        parseAll(parser, buffer);
+        assertNull(parser.getFieldCache().get("X-Custom: value"));
+        assertNull(parser.getFieldCache().get("Origin: http://localhost"));
+
+        parser.setHeaderCacheAllFields(true);
+        buffer.position(0);
+        parseAll(parser, buffer);
+        assertEquals("value", parser.getFieldCache().get("X-Custom: value").getValue());
+        assertEquals(HttpHeader.ORIGIN, parser.getFieldCache().get("Origin: http://localhost").getHeader());
+        HttpField custom = _fields.get(1);
+        HttpField origin = _fields.get(2);
+
+        buffer.position(0);
+        parseAll(parser, buffer);
+        assertSame(custom, _fields.get(1));
+        assertSame(origin, _fields.get(2));
+        assertEquals("X-Custom", _hdr[1]);
+        assertEquals("value", _val[1]);
+    }
+
+    @Test
+    public void testCachedAllFieldsValuesAreCaseSensitive()
+    {
+        HttpParser.RequestHandler handler = new Handler();
+        HttpParser parser = new HttpParser(handler);
+        parser.setHeaderCacheAllFields(true);
+
+        parseAll(parser, BufferUtil.toBuffer(
+            "GET / HTTP/1.1\r\n" +
+                "Host: localhost\r\n" +
+                "If-None-Match: \"abc\"\r\n" +
+                "X-Token: abc\r\n" +
+                "\r\n"));
+        assertEquals("\"abc\"", _val[1]);
+        assertEquals("abc", _val[2]);
+
+        parseAll(parser, BufferUtil.toBuffer(
+            "GET / HTTP/1.1\r\n" +
+                "Host: localhost\r\n" +
+                "If-None-Match: \"ABC\"\r\n" +
+                "X-Token: aBc\r\n" +
+                "\r\n"));
+        assertEquals("\"ABC\"", _val[1]);
+        assertEquals("aBc", _val[2]);
+        assertEquals("\"ABC\"", _fields.get(1).getValue());
+        assertEquals("aBc", _fields.get(2).getValue());
+    }
+
+    @Test
+    public void testCachedAllFieldsSkipsVaryingFields()
+    {
+        HttpParser.RequestHandler handler = new Handler();
+        HttpParser parser = new HttpParser(handler);
+        parser.setHeaderCacheAllFields(true);
+
+        for (int i = 0; i < 10; i++)
+        {
+            parseAll(parser, BufferUtil.toBuffer(
+                "GET / HTTP/1.1\r\n" +
+                    "Host: localhost\r\n" +
+                    "X-Request-Id: " + i + "\r\n" +
+                    "X-Custom: value\r\n" +
+                    "\r\n"));
+            assertEquals(String.valueOf(i), _val[1]);
+        }
+
+        // The field whose value changes for every request is cached at most once.
+        assertNotNull(parser.getFieldCache().get("X-Request-Id: 0"));
+        for (int i = 1; i < 10; i++)
+        {
+            assertNull(parser.getFieldCache().get("X-Request-Id: " + i));
+        }
+        assertNotNull(parser.getFieldCache().get("X-Custom: value"));
+    }
+
+    @Test
+    public void testCachedAllFieldsForgetsVaryingFieldsWhenCleared()
+    {
+        HttpParser.RequestHandler handler = new Handler();
+        HttpParser parser = new HttpParser(handler);
+        parser.setHeaderCacheAllFields(true);
+
+        for (int i = 0; i < 2; i++)
+        {
+            parseAll(parser, BufferUtil.toBuffer(
+                "GET / HTTP/1.1\r\n" +
+                    "Host: localhost\r\n" +
+                    "X-Request-Id: " + i + "\r\n" +
+                    "\r\n"));
+        }
+        assertNull(parser.getFieldCache().get("X-Request-Id: 1"));
+
+        // Many different fields overflow and clear the cache.
+        for (int i = 0; i < 200; i++)
+        {
+            parseAll(parser, BufferUtil.toBuffer(
+                "GET / HTTP/1.1\r\n" +
+                    "Host: localhost\r\n" +
+                    "X-Name-" + i + ": value\r\n" +
+                    "\r\n"));
+        }
+
+        // The varying field was forgotten with the cache, so it may be cached again.
+        parseAll(parser, BufferUtil.toBuffer(
+            "GET / HTTP/1.1\r\n" +
+                "Host: localhost\r\n" +
+                "X-Request-Id: 2\r\n" +
+                "\r\n"));
+        assertNotNull(parser.getFieldCache().get("X-Request-Id: 2"));
+    }
+
     @Test
     public void testParseRequest()
     {
@@ -13,17 +13,22 @@
 
 package org.eclipse.jetty.http2.client;
 
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
+import org.eclipse.jetty.http2.HTTP2Flusher;
+import org.eclipse.jetty.http2.HTTP2Session;
 import org.eclipse.jetty.http2.api.Session;
 import org.eclipse.jetty.http2.api.server.ServerSessionListener;
 import org.eclipse.jetty.http2.frames.PingFrame;
 import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.FutureCallback;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class PingTest extends AbstractTest
@@ -52,4 +57,45 @@ public class PingTest extends AbstractTest
 
         assertTrue(latch.await(5, TimeUnit.SECONDS));
     }
+
+    @Test
+    public void testPingsGatheredInMaxWriteBuffers() throws Exception
+    {
+        start(new ServerSessionListener.Adapter());
+
+        CountDownLatch pingLatch = new CountDownLatch(1);
+        HTTP2Session session = (HTTP2Session)newClient(new Session.Listener.Adapter()
+        {
+            @Override
+            public void onPing(Session session, PingFrame frame)
+            {
+                pingLatch.countDown();
+            }
+        });
+        // Wait for the SETTINGS exchange to complete.
+        session.ping(new PingFrame(false), Callback.NOOP);
+        assertTrue(pingLatch.await(5, TimeUnit.SECONDS));
+
+        HTTP2Flusher flusher = session.getBean(HTTP2Flusher.class);
+        flusher.resetStatistics();
+
+        // All the frames are queued before flushing, so they are gathered in a single write.
+        List<PingFrame> pings = List.of(new PingFrame(false), new PingFrame(false), new PingFrame(false), new PingFrame(false));
+        FutureCallback callback = new FutureCallback();
+        session.frames(null, pings, callback);
+        callback.get(5, TimeUnit.SECONDS);
+        assertEquals(1, flusher.getWrites());
+        assertEquals(4, flusher.getWrittenEntries());
+        assertEquals(4, flusher.getWrittenBuffers());
+
+        flusher.resetStatistics();
+        session.setMaxWriteBuffers(2);
+
+        callback = new FutureCallback();
+        session.frames(null, pings, callback);
+        callback.get(5, TimeUnit.SECONDS);
+        assertEquals(2, flusher.getWrites());
+        assertEquals(4, flusher.getWrittenEntries());
+        assertEquals(2.0D, flusher.getAverageEntriesPerWrite());
+    }
 }
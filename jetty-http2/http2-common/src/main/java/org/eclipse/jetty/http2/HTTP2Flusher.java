@@ -24,6 +24,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.eclipse.jetty.http2.frames.Frame;
 import org.eclipse.jetty.http2.frames.FrameType;
@@ -33,12 +34,16 @@ import org.eclipse.jetty.io.ByteBufferPool;
 import org.eclipse.jetty.io.EofException;
 import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.IteratingCallback;
+import org.eclipse.jetty.util.annotation.ManagedAttribute;
+import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.annotation.ManagedOperation;
 import org.eclipse.jetty.util.component.Dumpable;
 import org.eclipse.jetty.util.thread.AutoLock;
 import org.eclipse.jetty.util.thread.Invocable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+@ManagedObject
 public class HTTP2Flusher extends IteratingCallback implements Dumpable
 {
     private static final Logger LOG = LoggerFactory.getLogger(HTTP2Flusher.class);
@@ -51,6 +56,9 @@ public class HTTP2Flusher extends IteratingCallback implements Dumpable
     private final Collection<Entry> processedEntries = new ArrayList<>();
     private final HTTP2Session session;
     private final ByteBufferPool.Lease lease;
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder writtenBuffers = new LongAdder();
+    private final LongAdder writtenEntries = new LongAdder();
     private InvocationType invocationType = InvocationType.NON_BLOCKING;
     private Throwable terminated;
     private Entry stalledEntry;
@@ -185,7 +193,9 @@ public class HTTP2Flusher extends IteratingCallback implements Dumpable
             return Action.IDLE;
         }
 
-        while (true)
+        int maxWriteBuffers = session.getMaxWriteBuffers();
+        boolean gathered = false;
+        while (!gathered)
         {
             boolean progress = false;
 
@@ -229,6 +239,16 @@ public class HTTP2Flusher extends IteratingCallback implements Dumpable
 
                         if (entry.getDataBytesRemaining() == 0)
                             pending.remove();
+
+                        // Do not gather more buffers than the OS
+                        // can write with a single system call.
+                        if (lease.getSize() >= maxWriteBuffers)
+                        {
+                            if (LOG.isDebugEnabled())
+                                LOG.debug("Max write buffers {} reached", maxWriteBuffers);
+                            gathered = true;
+                            break;
+                        }
                     }
                     else
                     {
@@ -289,6 +309,9 @@ public class HTTP2Flusher extends IteratingCallback implements Dumpable
                 processedEntries,
                 pendingEntries);
 
+        writes.increment();
+        writtenBuffers.add(byteBuffers.size());
+        writtenEntries.add(processedEntries.size());
         session.getEndPoint().write(this, byteBuffers.toArray(EMPTY_BYTE_BUFFERS));
         return Action.SCHEDULED;
     }
@@ -392,6 +415,39 @@ public class HTTP2Flusher extends IteratingCallback implements Dumpable
             iterate();
     }
 
+    @ManagedAttribute("The number of TCP writes")
+    public long getWrites()
+    {
+        return writes.sum();
+    }
+
+    @ManagedAttribute("The number of buffers gathered in TCP writes")
+    public long getWrittenBuffers()
+    {
+        return writtenBuffers.sum();
+    }
+
+    @ManagedAttribute("The number of frame entries coalesced in TCP writes")
+    public long getWrittenEntries()
+    {
+        return writtenEntries.sum();
+    }
+
+    @ManagedAttribute("The average number of frame entries coalesced in a TCP write")
+    public double getAverageEntriesPerWrite()
+    {
+        long writes = getWrites();
+        return writes == 0 ? 0 : (double)getWrittenEntries() / writes;
+    }
+
+    @ManagedOperation(value = "Resets the statistics", impact = "ACTION")
+    public void resetStatistics()
+    {
+        writes.reset();
+        writtenBuffers.reset();
+        writtenEntries.reset();
+    }
+
     private void closed(Entry entry, Throwable failure)
     {
         entry.failed(failure);
@@ -412,12 +468,13 @@ public class HTTP2Flusher extends IteratingCallback implements Dumpable
     @Override
     public String toString()
     {
-        return String.format("%s[window_queue=%d,frame_queue=%d,processed/pending=%d/%d]",
+        return String.format("%s[window_queue=%d,frame_queue=%d,processed/pending=%d/%d,writes=%d]",
             super.toString(),
             getWindowQueueSize(),
             getFrameQueueSize(),
             processedEntries.size(),
-            pendingEntries.size());
+            pendingEntries.size(),
+            getWrites());
     }
 
     public abstract static class Entry extends Callback.Nested
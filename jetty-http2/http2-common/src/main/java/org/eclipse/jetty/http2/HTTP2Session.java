@@ -106,6 +106,7 @@ public abstract class HTTP2Session extends ContainerLifeCycle implements ISessio
     private long streamIdleTimeout;
     private int initialSessionRecvWindow;
     private int writeThreshold;
+    private int maxWriteBuffers;
     private int maxEncoderTableCapacity;
     private boolean pushEnabled;
     private boolean connectProtocolEnabled;
@@ -125,6 +126,7 @@ public abstract class HTTP2Session extends ContainerLifeCycle implements ISessio
         this.sendWindow.set(FlowControlStrategy.DEFAULT_WINDOW_SIZE);
         this.recvWindow.set(FlowControlStrategy.DEFAULT_WINDOW_SIZE);
         this.writeThreshold = 32 * 1024;
+        this.maxWriteBuffers = 1024;
         this.pushEnabled = true; // SPEC: by default, push is enabled.
         addBean(flowControl);
         addBean(flusher);
@@ -210,6 +212,29 @@ public abstract class HTTP2Session extends ContainerLifeCycle implements ISessio
         this.writeThreshold = writeThreshold;
     }
 
+    @ManagedAttribute("The max number of buffers gathered in a single TCP write")
+    public int getMaxWriteBuffers()
+    {
+        return maxWriteBuffers;
+    }
+
+    /**
+     * <p>Sets the max number of buffers that are gathered in a single TCP write.</p>
+     * <p>Frames of multiple streams are coalesced into a single gathering write
+     * until either the {@link #getWriteThreshold() write threshold} or this
+     * number of buffers is reached; the default value matches the maximum
+     * number of buffers that the operating system accepts in a single write,
+     * so that a gathering write is not split by the JVM into multiple writes.</p>
+     *
+     * @param maxWriteBuffers the max number of buffers gathered in a single TCP write
+     */
+    public void setMaxWriteBuffers(int maxWriteBuffers)
+    {
+        if (maxWriteBuffers <= 0)
+            throw new IllegalArgumentException("Invalid max write buffers " + maxWriteBuffers);
+        this.maxWriteBuffers = maxWriteBuffers;
+    }
+
     @ManagedAttribute("The HPACK encoder dynamic table maximum capacity")
     public int getMaxEncoderTableCapacity()
     {
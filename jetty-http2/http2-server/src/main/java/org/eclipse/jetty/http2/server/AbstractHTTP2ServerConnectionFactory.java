@@ -62,6 +62,7 @@ public abstract class AbstractHTTP2ServerConnectionFactory extends AbstractConne
     private int maxHeaderBlockFragment = 0;
     private int maxFrameSize = Frame.DEFAULT_MAX_LENGTH;
     private int maxSettingsKeys = SettingsFrame.DEFAULT_MAX_KEYS;
+    private int maxWriteBuffers = 1024;
     private boolean connectProtocolEnabled = true;
     private RateControl.Factory rateControlFactory = new WindowRateControl.Factory(128);
     private FlowControlStrategy.Factory flowControlStrategyFactory = () -> new BufferingFlowControlStrategy(0.5F);
@@ -246,6 +247,21 @@ public abstract class AbstractHTTP2ServerConnectionFactory extends AbstractConne
         this.maxSettingsKeys = maxSettingsKeys;
     }
 
+    @ManagedAttribute("The max number of buffers gathered in a single TCP write")
+    public int getMaxWriteBuffers()
+    {
+        return maxWriteBuffers;
+    }
+
+    /**
+     * @param maxWriteBuffers the max number of buffers gathered in a single TCP write
+     * @see org.eclipse.jetty.http2.HTTP2Session#setMaxWriteBuffers(int)
+     */
+    public void setMaxWriteBuffers(int maxWriteBuffers)
+    {
+        this.maxWriteBuffers = maxWriteBuffers;
+    }
+
     @ManagedAttribute("Whether CONNECT requests supports a protocol")
     public boolean isConnectProtocolEnabled()
     {
@@ -345,6 +361,7 @@ public abstract class AbstractHTTP2ServerConnectionFactory extends AbstractConne
         session.setStreamIdleTimeout(streamIdleTimeout);
         session.setInitialSessionRecvWindow(getInitialSessionRecvWindow());
         session.setWriteThreshold(getHttpConfiguration().getOutputBufferSize());
+        session.setMaxWriteBuffers(getMaxWriteBuffers());
         session.setConnectProtocolEnabled(isConnectProtocolEnabled());
 
         RetainableByteBufferPool retainableByteBufferPool = connector.getByteBufferPool().asRetainableByteBufferPool();
@@ -16,6 +16,7 @@ package org.eclipse.jetty.session.infinispan;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jetty.server.session.AbstractSessionDataStore;
@@ -37,6 +38,8 @@ public class InfinispanSessionDataStore extends AbstractSessionDataStore
 {
     private static final Logger LOG = LoggerFactory.getLogger(InfinispanSessionDataStore.class);
 
+    public static final int DEFAULT_SCAVENGE_PAGE_SIZE = 1000;
+
     /**
      * Clustered cache of sessions
      */
@@ -45,6 +48,7 @@ public class InfinispanSessionDataStore extends AbstractSessionDataStore
     private QueryManager _queryManager;
     private boolean _passivating;
     private boolean _serialization;
+    private int _scavengePageSize = DEFAULT_SCAVENGE_PAGE_SIZE;
     
     /**
      * Get the clustered cache instance.
@@ -123,6 +127,40 @@ public class InfinispanSessionDataStore extends AbstractSessionDataStore
         }
     }
 
+    @Override
+    public CompletableFuture<SessionData> doLoadAsync(String id)
+    {
+        if (LOG.isDebugEnabled())
+            LOG.debug("Loading session {} asynchronously from infinispan", id);
+
+        CompletableFuture<SessionData> result = new CompletableFuture<>();
+        _cache.getAsync(getCacheKey(id)).whenComplete((sd, x) ->
+        {
+            if (x != null)
+            {
+                result.completeExceptionally(new UnreadableSessionDataException(id, _context, x));
+                return;
+            }
+
+            //Deserialize the attributes in the scope of the context
+            //so that the correct classloader is set on the thread
+            _context.run(() ->
+            {
+                try
+                {
+                    if (isPassivating() && sd != null)
+                        sd.deserializeAttributes();
+                    result.complete(sd);
+                }
+                catch (Exception e)
+                {
+                    result.completeExceptionally(new UnreadableSessionDataException(id, _context, e));
+                }
+            });
+        });
+        return result;
+    }
+
     @Override
     public boolean delete(String id) throws Exception
     {
@@ -199,7 +237,25 @@ public class InfinispanSessionDataStore extends AbstractSessionDataStore
     {
         //if there is a query manager, find the sessions for any context that expired before the time limit and delete
         if (_queryManager != null)
-            _queryManager.deleteOrphanSessions(timeLimit);
+        {
+            if (_scavengePageSize <= 0)
+            {
+                _queryManager.deleteOrphanSessions(timeLimit);
+                return;
+            }
+
+            int deleted = 0;
+            Set<String> page;
+            do
+            {
+                page = _queryManager.deleteOrphanSessions(timeLimit, _scavengePageSize);
+                deleted += page.size();
+            }
+            while (page.size() >= _scavengePageSize && isRunning());
+
+            if (LOG.isDebugEnabled())
+                LOG.debug("Deleted {} sessions that expired before {}", deleted, timeLimit);
+        }
         else
             if (LOG.isDebugEnabled())
                 LOG.debug("Unable to clean orphans, no QueryManager");
@@ -288,6 +344,26 @@ public class InfinispanSessionDataStore extends AbstractSessionDataStore
         _serialization = serialization;
     }
 
+    @ManagedAttribute(value = "max number of orphaned sessions deleted per scavenge query", readonly = true)
+    public int getScavengePageSize()
+    {
+        return _scavengePageSize;
+    }
+
+    /**
+     * <p>Sets the max number of orphaned sessions deleted for each scavenge query.</p>
+     * <p>Deleting the orphaned sessions in pages means that cleaning a large
+     * cache runs several short queries rather than a single query returning
+     * all the orphaned sessions.</p>
+     *
+     * @param scavengePageSize the max number of orphaned sessions deleted for each
+     * scavenge query, or 0 to delete all the orphaned sessions found by a single query
+     */
+    public void setScavengePageSize(int scavengePageSize)
+    {
+        _scavengePageSize = scavengePageSize;
+    }
+
     @Override
     public String toString()
     {
@@ -27,6 +27,7 @@ public class InfinispanSessionDataStoreFactory extends AbstractSessionDataStoreF
     BasicCache<String, InfinispanSessionData> _cache;
     protected QueryManager _queryManager;
     protected boolean _serialization;
+    protected int _scavengePageSize = InfinispanSessionDataStore.DEFAULT_SCAVENGE_PAGE_SIZE;
 
     /**
      * @return the infinispanIdleTimeoutSec
@@ -54,6 +55,7 @@ public class InfinispanSessionDataStoreFactory extends AbstractSessionDataStoreF
         store.setSavePeriodSec(getSavePeriodSec());
         store.setQueryManager(getQueryManager());
         store.setSerialization(getSerialization());
+        store.setScavengePageSize(getScavengePageSize());
         return store;
     }
 
@@ -96,4 +98,21 @@ public class InfinispanSessionDataStoreFactory extends AbstractSessionDataStoreF
     {
         return _serialization;
     }
+
+    /**
+     * @return the max number of orphaned sessions deleted for each scavenge query
+     */
+    public int getScavengePageSize()
+    {
+        return _scavengePageSize;
+    }
+
+    /**
+     * @param scavengePageSize the max number of orphaned sessions deleted for each
+     * scavenge query, or 0 to delete all the orphaned sessions found by a single query
+     */
+    public void setScavengePageSize(int scavengePageSize)
+    {
+        _scavengePageSize = scavengePageSize;
+    }
 }
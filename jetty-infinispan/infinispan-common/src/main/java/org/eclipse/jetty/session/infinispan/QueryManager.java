@@ -13,6 +13,7 @@
 
 package org.eclipse.jetty.session.infinispan;
 
+import java.util.Collections;
 import java.util.Set;
 
 import org.eclipse.jetty.server.session.SessionContext;
@@ -22,6 +23,20 @@ public interface QueryManager
     Set<String> queryExpiredSessions(SessionContext sessionContext, long currentTime);
 
     public void deleteOrphanSessions(long time);
+
+    /**
+     * Delete sessions, for any context, that expired at or before the given time.
+     * The default implementation deletes all of them with {@link #deleteOrphanSessions(long)}.
+     *
+     * @param time the upper limit of the expiry time in msec
+     * @param maxResults the max number of sessions to delete, or 0 to delete all of them
+     * @return the ids of the deleted sessions
+     */
+    public default Set<String> deleteOrphanSessions(long time, int maxResults)
+    {
+        deleteOrphanSessions(time);
+        return Collections.emptySet();
+    }
     
     public boolean exists(SessionContext sessionContext, String id);
 }
@@ -13,9 +13,12 @@
 
 package org.eclipse.jetty.session.infinispan;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.jetty.server.session.SessionContext;
 import org.infinispan.client.hotrod.RemoteCache;
@@ -64,26 +67,43 @@ public class RemoteQueryManager implements QueryManager
 
     @Override
     public void deleteOrphanSessions(long time)
+    {
+        deleteOrphanSessions(time, 0);
+    }
+
+    @Override
+    public Set<String> deleteOrphanSessions(long time, int maxResults)
     {
         Query<InfinispanSessionData> deleteQuery = _factory.create("select id, contextPath, vhost from org_eclipse_jetty_session_infinispan.InfinispanSessionData where " +
             " expiry <= :expiry and expiry > 0");
         deleteQuery.setParameter("expiry", time);
-        
+        if (maxResults > 0)
+            deleteQuery.maxResults(maxResults);
+
         @SuppressWarnings("rawtypes")
         QueryResult result = deleteQuery.execute();
         List<Object[]> list = result.list();
-        list.stream().forEach(a ->
+
+        //start all the removals before waiting for any of them
+        List<CompletableFuture<Boolean>> removals = new ArrayList<>(list.size());
+        for (Object[] a : list)
         {
             String key = InfinispanKeyBuilder.build((String)a[1], (String)a[2], (String)a[0]);
-            try
-            {
-                _cache.remove(key);
-            }
-            catch (Exception e)
+            removals.add(_cache.removeAsync(key).handle((v, x) ->
             {
-                LOG.warn("Error deleting {}", key, e);
-            }
-        });  
+                if (x != null)
+                    LOG.warn("Error deleting {}", key, x);
+                return x == null;
+            }));
+        }
+
+        Set<String> deleted = new HashSet<>();
+        for (int i = 0; i < list.size(); i++)
+        {
+            if (removals.get(i).join())
+                deleted.add((String)list.get(i)[0]);
+        }
+        return deleted;
     }
 
     @Override
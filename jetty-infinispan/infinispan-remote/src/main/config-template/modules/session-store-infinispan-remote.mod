@@ -28,5 +28,6 @@ http://www.apache.org/licenses/LICENSE-2.0.html
 #jetty.session.infinispan.remoteCacheName=sessions
 #jetty.session.infinispan.serialization=true
 #jetty.session.infinispan.idleTimeout.seconds=0
+#jetty.session.infinispan.scavengePageSize=1000
 #jetty.session.gracePeriod.seconds=3600
 #jetty.session.savePeriod.seconds=0
@@ -57,6 +57,22 @@ abstract class AbstractByteBufferPool implements ByteBufferPool
      * @param retainedDirectMemory the max direct memory in bytes, -2 for no retained memory, -1 for unlimited retained memory or 0 to use default heuristic
      */
     protected AbstractByteBufferPool(int factor, int maxCapacity, int maxBucketSize, long maxHeapMemory, long maxDirectMemory, long retainedHeapMemory, long retainedDirectMemory)
+    {
+        this(factor, maxCapacity, maxBucketSize, maxHeapMemory, maxDirectMemory, retainedHeapMemory, retainedDirectMemory, 1);
+    }
+
+    /**
+     * Creates a new ByteBufferPool with the given configuration.
+     *
+     * @param factor the capacity factor
+     * @param maxBucketSize the maximum ByteBuffer queue length
+     * @param maxHeapMemory the max heap memory in bytes, -1 for unlimited memory or 0 to use default heuristic
+     * @param maxDirectMemory the max direct memory in bytes, -1 for unlimited memory or 0 to use default heuristic
+     * @param retainedHeapMemory the max heap memory in bytes, -2 for no retained memory, -1 for unlimited retained memory or 0 to use default heuristic
+     * @param retainedDirectMemory the max direct memory in bytes, -2 for no retained memory, -1 for unlimited retained memory or 0 to use default heuristic
+     * @param retainedStripes the number of stripes of each bucket of the retained pool, or 0 to use the number of available processors
+     */
+    protected AbstractByteBufferPool(int factor, int maxCapacity, int maxBucketSize, long maxHeapMemory, long maxDirectMemory, long retainedHeapMemory, long retainedDirectMemory, int retainedStripes)
     {
         _factor = factor <= 0 ? DEFAULT_FACTOR : factor;
         _maxCapacity = maxCapacity > 0 ? maxCapacity : DEFAULT_MAX_CAPACITY_BY_FACTOR * _factor;
@@ -65,7 +81,7 @@ abstract class AbstractByteBufferPool implements ByteBufferPool
         _maxDirectMemory = memorySize(maxDirectMemory);
         _retainableByteBufferPool = (retainedHeapMemory == -2 && retainedDirectMemory == -2)
             ? RetainableByteBufferPool.from(this)
-            : newRetainableByteBufferPool(factor, maxCapacity, maxBucketSize, retainedSize(retainedHeapMemory), retainedSize(retainedDirectMemory));
+            : newRetainableByteBufferPool(factor, maxCapacity, maxBucketSize, retainedSize(retainedHeapMemory), retainedSize(retainedDirectMemory), retainedStripes);
     }
 
     static long retainedSize(long size)
@@ -89,6 +105,11 @@ abstract class AbstractByteBufferPool implements ByteBufferPool
         return RetainableByteBufferPool.from(this);
     }
 
+    protected RetainableByteBufferPool newRetainableByteBufferPool(int factor, int maxCapacity, int maxBucketSize, long retainedHeapMemory, long retainedDirectMemory, int stripes)
+    {
+        return newRetainableByteBufferPool(factor, maxCapacity, maxBucketSize, retainedHeapMemory, retainedDirectMemory);
+    }
+
     @Override
     public RetainableByteBufferPool asRetainableByteBufferPool()
     {
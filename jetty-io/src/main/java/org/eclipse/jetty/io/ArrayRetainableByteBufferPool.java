@@ -24,6 +24,7 @@ import java.util.function.IntUnaryOperator;
 import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.NanoTime;
 import org.eclipse.jetty.util.Pool;
+import org.eclipse.jetty.util.ProcessorUtils;
 import org.eclipse.jetty.util.annotation.ManagedAttribute;
 import org.eclipse.jetty.util.annotation.ManagedObject;
 import org.eclipse.jetty.util.annotation.ManagedOperation;
@@ -40,6 +41,12 @@ import org.slf4j.LoggerFactory;
  * 2048, and so on.</p>
  * <p>The {@code maxHeapMemory} and {@code maxDirectMemory} default heuristic is to use {@link Runtime#maxMemory()}
  * divided by 4.</p>
+ * <p>When many threads acquire and release buffers of the same capacity, each Pool may be split in a number
+ * of {@code stripes}: a thread acquires from and reserves entries in the stripe selected by its thread id, so
+ * that different threads contend less on the same entries and on the same reservation lock.
+ * On a miss, a thread steals idle buffers from the other stripes before allocating a new buffer, so that
+ * buffers released in a stripe are available to all threads; the {@code maxHeapMemory} and
+ * {@code maxDirectMemory} limits apply to all the stripes together.</p>
  */
 @SuppressWarnings("resource")
 @ManagedObject
@@ -56,6 +63,7 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
     private final AtomicLong _currentHeapMemory = new AtomicLong();
     private final AtomicLong _currentDirectMemory = new AtomicLong();
     private final IntUnaryOperator _bucketIndexFor;
+    private final int _stripes;
 
     /**
      * Creates a new ArrayRetainableByteBufferPool with a default configuration.
@@ -92,7 +100,23 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
      */
     public ArrayRetainableByteBufferPool(int minCapacity, int factor, int maxCapacity, int maxBucketSize, long maxHeapMemory, long maxDirectMemory)
     {
-        this(minCapacity, factor, maxCapacity, maxBucketSize, null, null, maxHeapMemory, maxDirectMemory);
+        this(minCapacity, factor, maxCapacity, maxBucketSize, maxHeapMemory, maxDirectMemory, 1);
+    }
+
+    /**
+     * Creates a new ArrayRetainableByteBufferPool with the given configuration.
+     *
+     * @param minCapacity the minimum ByteBuffer capacity
+     * @param factor the capacity factor
+     * @param maxCapacity the maximum ByteBuffer capacity
+     * @param maxBucketSize the maximum number of ByteBuffers for each bucket, shared among its stripes
+     * @param maxHeapMemory the max heap memory in bytes, -1 for unlimited memory or 0 to use default heuristic
+     * @param maxDirectMemory the max direct memory in bytes, -1 for unlimited memory or 0 to use default heuristic
+     * @param stripes the number of stripes of each bucket, or 0 to use the number of available processors
+     */
+    public ArrayRetainableByteBufferPool(int minCapacity, int factor, int maxCapacity, int maxBucketSize, long maxHeapMemory, long maxDirectMemory, int stripes)
+    {
+        this(minCapacity, factor, maxCapacity, maxBucketSize, null, null, maxHeapMemory, maxDirectMemory, stripes);
     }
 
     /**
@@ -129,6 +153,24 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
      * @param maxDirectMemory the max direct memory in bytes, -1 for unlimited memory or 0 to use default heuristic
      */
     protected ArrayRetainableByteBufferPool(int minCapacity, int factor, int maxCapacity, int maxBucketSize, IntUnaryOperator bucketIndexFor, IntUnaryOperator bucketCapacity, long maxHeapMemory, long maxDirectMemory)
+    {
+        this(minCapacity, factor, maxCapacity, maxBucketSize, bucketIndexFor, bucketCapacity, maxHeapMemory, maxDirectMemory, 1);
+    }
+
+    /**
+     * Creates a new ArrayRetainableByteBufferPool with the given configuration.
+     *
+     * @param minCapacity the minimum ByteBuffer capacity
+     * @param factor the capacity factor
+     * @param maxCapacity the maximum ByteBuffer capacity
+     * @param maxBucketSize the maximum number of ByteBuffers for each bucket, shared among its stripes
+     * @param bucketIndexFor a {@link IntUnaryOperator} that takes a capacity and returns a bucket index
+     * @param bucketCapacity a {@link IntUnaryOperator} that takes a bucket index and returns a capacity
+     * @param maxHeapMemory the max heap memory in bytes, -1 for unlimited memory or 0 to use default heuristic
+     * @param maxDirectMemory the max direct memory in bytes, -1 for unlimited memory or 0 to use default heuristic
+     * @param stripes the number of stripes of each bucket, or 0 to use the number of available processors
+     */
+    protected ArrayRetainableByteBufferPool(int minCapacity, int factor, int maxCapacity, int maxBucketSize, IntUnaryOperator bucketIndexFor, IntUnaryOperator bucketCapacity, long maxHeapMemory, long maxDirectMemory, int stripes)
     {
         if (minCapacity <= 0)
             minCapacity = 0;
@@ -144,14 +186,28 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
         if (bucketCapacity == null)
             bucketCapacity = i -> (i + 1) * f;
 
+        if (stripes <= 0)
+            stripes = ProcessorUtils.availableProcessors();
+        // A stripe cannot be empty, as a Pool with no max entries is unbounded.
+        if (maxBucketSize > 0)
+            stripes = Math.min(stripes, maxBucketSize);
+
+        // The stripes of a bucket are contiguous in the arrays.
         int length = bucketIndexFor.applyAsInt(maxCapacity) + 1;
-        RetainedBucket[] directArray = new RetainedBucket[length];
-        RetainedBucket[] indirectArray = new RetainedBucket[length];
-        for (int i = 0; i < directArray.length; i++)
+        RetainedBucket[] directArray = new RetainedBucket[length * stripes];
+        RetainedBucket[] indirectArray = new RetainedBucket[length * stripes];
+        for (int i = 0; i < length; i++)
         {
             int capacity = Math.min(bucketCapacity.applyAsInt(i), maxCapacity);
-            directArray[i] = new RetainedBucket(capacity, maxBucketSize);
-            indirectArray[i] = new RetainedBucket(capacity, maxBucketSize);
+            for (int s = 0; s < stripes; s++)
+            {
+                // Spread the remainder, so that the stripes hold maxBucketSize buffers in total.
+                int stripeSize = maxBucketSize;
+                if (stripeSize > 0)
+                    stripeSize = maxBucketSize / stripes + (s < maxBucketSize % stripes ? 1 : 0);
+                directArray[i * stripes + s] = new RetainedBucket(capacity, stripeSize);
+                indirectArray[i * stripes + s] = new RetainedBucket(capacity, stripeSize);
+            }
         }
 
         _minCapacity = minCapacity;
@@ -161,6 +217,7 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
         _maxHeapMemory = AbstractByteBufferPool.retainedSize(maxHeapMemory);
         _maxDirectMemory = AbstractByteBufferPool.retainedSize(maxDirectMemory);
         _bucketIndexFor = bucketIndexFor;
+        _stripes = stripes;
     }
 
     @ManagedAttribute("The minimum pooled buffer capacity")
@@ -175,18 +232,29 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
         return _maxCapacity;
     }
 
+    @ManagedAttribute("The number of stripes of each bucket")
+    public int getStripes()
+    {
+        return _stripes;
+    }
+
     @Override
     public RetainableByteBuffer acquire(int size, boolean direct)
     {
-        RetainedBucket bucket = bucketFor(size, direct);
-        if (bucket == null)
+        int index = stripesIndexFor(size);
+        if (index < 0)
             return newRetainableByteBuffer(size, direct, this::removed);
+        RetainedBucket[] buckets = direct ? _direct : _indirect;
+        int stripe = stripe();
+        RetainedBucket bucket = buckets[index + stripe];
         RetainedBucket.Entry entry = bucket.acquire();
+        if (entry == null && _stripes > 1)
+            entry = steal(buckets, index, stripe);
 
         RetainableByteBuffer buffer;
         if (entry == null)
         {
-            RetainedBucket.Entry reservedEntry = bucket.reserve();
+            RetainedBucket.Entry reservedEntry = reserve(buckets, index, stripe);
             if (reservedEntry != null)
             {
                 buffer = newRetainableByteBuffer(bucket._capacity, direct, retainedBuffer ->
@@ -214,6 +282,37 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
         return buffer;
     }
 
+    private int stripe()
+    {
+        if (_stripes == 1)
+            return 0;
+        return (int)(Thread.currentThread().getId() % _stripes);
+    }
+
+    private RetainedBucket.Entry steal(RetainedBucket[] buckets, int index, int stripe)
+    {
+        for (int i = 1; i < _stripes; i++)
+        {
+            RetainedBucket.Entry entry = buckets[index + (stripe + i) % _stripes].acquire();
+            if (entry != null)
+                return entry;
+        }
+        return null;
+    }
+
+    private RetainedBucket.Entry reserve(RetainedBucket[] buckets, int index, int stripe)
+    {
+        // Try the other stripes if this stripe is full, so that
+        // the whole bucket size is available to all threads.
+        for (int i = 0; i < _stripes; i++)
+        {
+            RetainedBucket.Entry entry = buckets[index + (stripe + i) % _stripes].reserve();
+            if (entry != null)
+                return entry;
+        }
+        return null;
+    }
+
     protected ByteBuffer allocate(int capacity)
     {
         return ByteBuffer.allocate(capacity);
@@ -244,13 +343,34 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
 
     private RetainedBucket bucketFor(int capacity, boolean direct)
     {
-        if (capacity < _minCapacity)
+        int index = stripesIndexFor(capacity);
+        if (index < 0)
             return null;
-        int idx = _bucketIndexFor.applyAsInt(capacity);
         RetainedBucket[] buckets = direct ? _direct : _indirect;
-        if (idx >= buckets.length)
-            return null;
-        return buckets[idx];
+        int stripe = stripe();
+        // Prefer a stripe with idle buffers, so that callers do
+        // not allocate while other stripes retain idle buffers.
+        for (int i = 0; i < _stripes; i++)
+        {
+            RetainedBucket bucket = buckets[index + (stripe + i) % _stripes];
+            if (bucket.getIdleCount() > 0)
+                return bucket;
+        }
+        return buckets[index + stripe];
+    }
+
+    /**
+     * @param capacity the buffer capacity
+     * @return the array index of the first stripe of the bucket for the given capacity, or -1 if the capacity is not pooled
+     */
+    private int stripesIndexFor(int capacity)
+    {
+        if (capacity < _minCapacity)
+            return -1;
+        int idx = _bucketIndexFor.applyAsInt(capacity);
+        if (idx >= _direct.length / _stripes)
+            return -1;
+        return idx * _stripes;
     }
 
     @ManagedAttribute("The number of pooled direct ByteBuffers")
@@ -412,10 +532,11 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
     @Override
     public String toString()
     {
-        return String.format("%s{min=%d,max=%d,buckets=%d,heap=%d/%d,direct=%d/%d}",
+        return String.format("%s{min=%d,max=%d,buckets=%d,stripes=%d,heap=%d/%d,direct=%d/%d}",
             super.toString(),
             _minCapacity, _maxCapacity,
-            _direct.length,
+            _direct.length / _stripes,
+            _stripes,
             _currentHeapMemory.get(), _maxHeapMemory,
             _currentDirectMemory.get(), _maxDirectMemory);
     }
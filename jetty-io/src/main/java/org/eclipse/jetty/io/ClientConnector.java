@@ -31,12 +31,14 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.eclipse.jetty.util.IO;
 import org.eclipse.jetty.util.JavaVersion;
 import org.eclipse.jetty.util.Promise;
 import org.eclipse.jetty.util.annotation.ManagedAttribute;
 import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.annotation.ManagedOperation;
 import org.eclipse.jetty.util.component.ContainerLifeCycle;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
@@ -78,6 +80,7 @@ public class ClientConnector extends ContainerLifeCycle
     public static final String CLIENT_CONNECTION_FACTORY_CONTEXT_KEY = CLIENT_CONNECTOR_CONTEXT_KEY + ".clientConnectionFactory";
     public static final String CONNECTION_PROMISE_CONTEXT_KEY = CLIENT_CONNECTOR_CONTEXT_KEY + ".connectionPromise";
     public static final String APPLICATION_PROTOCOLS_CONTEXT_KEY = CLIENT_CONNECTOR_CONTEXT_KEY + ".applicationProtocols";
+    public static final String SELECTABLE_CHANNEL_CONTEXT_KEY = CLIENT_CONNECTOR_CONTEXT_KEY + ".selectableChannel";
     private static final Logger LOG = LoggerFactory.getLogger(ClientConnector.class);
 
     /**
@@ -92,6 +95,8 @@ public class ClientConnector extends ContainerLifeCycle
     }
 
     private final Configurator configurator;
+    private final LongAdder fullSslHandshakes = new LongAdder();
+    private final LongAdder resumedSslHandshakes = new LongAdder();
     private Executor executor;
     private Scheduler scheduler;
     private ByteBufferPool byteBufferPool;
@@ -342,6 +347,47 @@ public class ClientConnector extends ContainerLifeCycle
         this.receiveBufferSize = receiveBufferSize;
     }
 
+    /**
+     * @return the number of successful full TLS handshakes of the connections created by this ClientConnector
+     */
+    @ManagedAttribute(value = "The number of full TLS handshakes", readonly = true)
+    public long getFullSslHandshakes()
+    {
+        return fullSslHandshakes.sum();
+    }
+
+    /**
+     * @return the number of successful abbreviated TLS handshakes, that resumed a cached TLS session,
+     * of the connections created by this ClientConnector
+     */
+    @ManagedAttribute(value = "The number of resumed TLS handshakes", readonly = true)
+    public long getResumedSslHandshakes()
+    {
+        return resumedSslHandshakes.sum();
+    }
+
+    /**
+     * <p>Records a successful TLS handshake of a connection created by this ClientConnector.</p>
+     *
+     * @param resumed whether the handshake resumed a cached TLS session
+     * @see #getFullSslHandshakes()
+     * @see #getResumedSslHandshakes()
+     */
+    public void onSslHandshakeSucceeded(boolean resumed)
+    {
+        if (resumed)
+            resumedSslHandshakes.increment();
+        else
+            fullSslHandshakes.increment();
+    }
+
+    @ManagedOperation(value = "Resets the TLS handshake statistics", impact = "ACTION")
+    public void resetSslHandshakeStatistics()
+    {
+        fullSslHandshakes.reset();
+        resumedSslHandshakes.reset();
+    }
+
     /**
      * @return the send buffer size in bytes, or -1 for the default value
      */
@@ -409,6 +455,8 @@ public class ClientConnector extends ContainerLifeCycle
             Configurator.ChannelWithAddress channelWithAddress = configurator.newChannelWithAddress(this, address, context);
             channel = channelWithAddress.getSelectableChannel();
             address = channelWithAddress.getSocketAddress();
+            // Allows the caller to abort the connection attempt by closing the channel.
+            context.put(SELECTABLE_CHANNEL_CONTEXT_KEY, channel);
 
             configure(channel);
 
@@ -18,6 +18,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
 
 import org.eclipse.jetty.util.annotation.ManagedAttribute;
@@ -28,6 +29,7 @@ import org.eclipse.jetty.util.component.Dumpable;
 import org.eclipse.jetty.util.statistic.CounterStatistic;
 import org.eclipse.jetty.util.statistic.RateCounter;
 import org.eclipse.jetty.util.statistic.SampleStatistic;
+import org.eclipse.jetty.util.statistic.WindowedHistogramStatistic;
 
 /**
  * <p>A {@link Connection.Listener} that tracks connection statistics.</p>
@@ -37,6 +39,9 @@ import org.eclipse.jetty.util.statistic.SampleStatistic;
  * connections managed by the server or by the client.</p>
  * <p>The statistics for a connection are gathered when the connection
  * is closed.</p>
+ * <p>The distributions of the connection durations and of the bytes
+ * received and sent per connection are recorded in histograms over
+ * a sliding window of one minute, to provide percentiles.</p>
  * <p>ConnectionStatistics instances must be {@link #start() started}
  * to collect statistics, either as part of starting the whole component
  * tree, or explicitly if the component tree has already been started.</p>
@@ -105,10 +110,10 @@ public class ConnectionStatistics extends AbstractLifeCycle implements Connectio
         stats.decrementCount();
         stats.recordDuration(System.currentTimeMillis() - connection.getCreatedTimeStamp());
         long bytesIn = connection.getBytesIn();
-        if (bytesIn > 0)
+        if (bytesIn >= 0)
             stats.recordBytesIn(bytesIn);
         long bytesOut = connection.getBytesOut();
-        if (bytesOut > 0)
+        if (bytesOut >= 0)
             stats.recordBytesOut(bytesOut);
         long messagesIn = connection.getMessagesIn();
         if (messagesIn > 0)
@@ -160,6 +165,48 @@ public class ConnectionStatistics extends AbstractLifeCycle implements Connectio
         return _stats.getConnectionDurationStdDev();
     }
 
+    @ManagedAttribute("The median duration of a connection closed in the last minute in ms")
+    public long getConnectionDurationP50()
+    {
+        return _stats.getConnectionDurationP50();
+    }
+
+    @ManagedAttribute("The 99th percentile of the duration of a connection closed in the last minute in ms")
+    public long getConnectionDurationP99()
+    {
+        return _stats.getConnectionDurationP99();
+    }
+
+    @ManagedAttribute("The 99.9th percentile of the duration of a connection closed in the last minute in ms")
+    public long getConnectionDurationP999()
+    {
+        return _stats.getConnectionDurationP999();
+    }
+
+    @ManagedAttribute("The median number of bytes received by a connection closed in the last minute")
+    public long getReceivedBytesPerConnectionP50()
+    {
+        return _stats.getReceivedBytesPerConnectionP50();
+    }
+
+    @ManagedAttribute("The 99th percentile of the number of bytes received by a connection closed in the last minute")
+    public long getReceivedBytesPerConnectionP99()
+    {
+        return _stats.getReceivedBytesPerConnectionP99();
+    }
+
+    @ManagedAttribute("The median number of bytes sent by a connection closed in the last minute")
+    public long getSentBytesPerConnectionP50()
+    {
+        return _stats.getSentBytesPerConnectionP50();
+    }
+
+    @ManagedAttribute("The 99th percentile of the number of bytes sent by a connection closed in the last minute")
+    public long getSentBytesPerConnectionP99()
+    {
+        return _stats.getSentBytesPerConnectionP99();
+    }
+
     @ManagedAttribute("The total number of connections opened")
     public long getConnectionsTotal()
     {
@@ -226,6 +273,9 @@ public class ConnectionStatistics extends AbstractLifeCycle implements Connectio
     {
         private final CounterStatistic _connections = new CounterStatistic();
         private final SampleStatistic _connectionsDuration = new SampleStatistic();
+        private final WindowedHistogramStatistic _connectionsDurationHistogram = new WindowedHistogramStatistic(1, TimeUnit.MINUTES);
+        private final WindowedHistogramStatistic _bytesInHistogram = new WindowedHistogramStatistic(1, TimeUnit.MINUTES);
+        private final WindowedHistogramStatistic _bytesOutHistogram = new WindowedHistogramStatistic(1, TimeUnit.MINUTES);
         private final LongAdder _bytesIn = new LongAdder();
         private final RateCounter _bytesInRate = new RateCounter();
         private final LongAdder _bytesOut = new LongAdder();
@@ -245,6 +295,9 @@ public class ConnectionStatistics extends AbstractLifeCycle implements Connectio
         {
             _connections.reset();
             _connectionsDuration.reset();
+            _connectionsDurationHistogram.reset();
+            _bytesInHistogram.reset();
+            _bytesOutHistogram.reset();
             _bytesIn.reset();
             _bytesInRate.reset();
             _bytesOut.reset();
@@ -299,6 +352,41 @@ public class ConnectionStatistics extends AbstractLifeCycle implements Connectio
             return _connectionsDuration.getStdDev();
         }
 
+        public long getConnectionDurationP50()
+        {
+            return _connectionsDurationHistogram.getValueAtPercentile(50);
+        }
+
+        public long getConnectionDurationP99()
+        {
+            return _connectionsDurationHistogram.getValueAtPercentile(99);
+        }
+
+        public long getConnectionDurationP999()
+        {
+            return _connectionsDurationHistogram.getValueAtPercentile(99.9);
+        }
+
+        public long getReceivedBytesPerConnectionP50()
+        {
+            return _bytesInHistogram.getValueAtPercentile(50);
+        }
+
+        public long getReceivedBytesPerConnectionP99()
+        {
+            return _bytesInHistogram.getValueAtPercentile(99);
+        }
+
+        public long getSentBytesPerConnectionP50()
+        {
+            return _bytesOutHistogram.getValueAtPercentile(50);
+        }
+
+        public long getSentBytesPerConnectionP99()
+        {
+            return _bytesOutHistogram.getValueAtPercentile(99);
+        }
+
         public long getConnectionsTotal()
         {
             return _connections.getTotal();
@@ -351,18 +439,21 @@ public class ConnectionStatistics extends AbstractLifeCycle implements Connectio
         public void recordDuration(long duration)
         {
             _connectionsDuration.record(duration);
+            _connectionsDurationHistogram.record(duration);
         }
 
         public void recordBytesIn(long bytesIn)
         {
             _bytesIn.add(bytesIn);
             _bytesInRate.add(bytesIn);
+            _bytesInHistogram.record(bytesIn);
         }
 
         public void recordBytesOut(long bytesOut)
         {
             _bytesOut.add(bytesOut);
             _bytesOutRate.add(bytesOut);
+            _bytesOutHistogram.record(bytesOut);
         }
 
         public void recordMessagesIn(long messagesIn)
@@ -383,6 +474,7 @@ public class ConnectionStatistics extends AbstractLifeCycle implements Connectio
             Dumpable.dumpObjects(out, indent, this,
                 String.format("connections=%s", _connections),
                 String.format("durations=%s", _connectionsDuration),
+                String.format("durations histogram=%s", _connectionsDurationHistogram),
                 String.format("bytes in/out=%s/%s", getReceivedBytes(), getSentBytes()),
                 String.format("messages in/out=%s/%s", getReceivedMessages(), getSentMessages()));
         }
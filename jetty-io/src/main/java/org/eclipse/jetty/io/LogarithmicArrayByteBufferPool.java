@@ -81,7 +81,24 @@ public class LogarithmicArrayByteBufferPool extends ArrayByteBufferPool
      */
     public LogarithmicArrayByteBufferPool(int minCapacity, int maxCapacity, int maxQueueLength, long maxHeapMemory, long maxDirectMemory, long retainedHeapMemory, long retainedDirectMemory)
     {
-        super(minCapacity, -1, maxCapacity, maxQueueLength, maxHeapMemory, maxDirectMemory, retainedHeapMemory, retainedDirectMemory);
+        this(minCapacity, maxCapacity, maxQueueLength, maxHeapMemory, maxDirectMemory, retainedHeapMemory, retainedDirectMemory, 1);
+    }
+
+    /**
+     * Creates a new ByteBufferPool with the given configuration.
+     *
+     * @param minCapacity the minimum ByteBuffer capacity
+     * @param maxCapacity the maximum ByteBuffer capacity
+     * @param maxQueueLength the maximum ByteBuffer queue length
+     * @param maxHeapMemory the max heap memory in bytes
+     * @param maxDirectMemory the max direct memory in bytes
+     * @param retainedHeapMemory the max heap memory in bytes, -1 for unlimited retained memory or 0 to use default heuristic
+     * @param retainedDirectMemory the max direct memory in bytes, -1 for unlimited retained memory or 0 to use default heuristic
+     * @param retainedStripes the number of stripes of each bucket of the retained pool, or 0 to use the number of available processors
+     */
+    public LogarithmicArrayByteBufferPool(int minCapacity, int maxCapacity, int maxQueueLength, long maxHeapMemory, long maxDirectMemory, long retainedHeapMemory, long retainedDirectMemory, int retainedStripes)
+    {
+        super(minCapacity, -1, maxCapacity, maxQueueLength, maxHeapMemory, maxDirectMemory, retainedHeapMemory, retainedDirectMemory, retainedStripes);
     }
 
     @Override
@@ -90,6 +107,14 @@ public class LogarithmicArrayByteBufferPool extends ArrayByteBufferPool
         return new LogarithmicRetainablePool(0, maxCapacity, maxBucketSize, retainedHeapMemory, retainedDirectMemory);
     }
 
+    @Override
+    protected RetainableByteBufferPool newRetainableByteBufferPool(int factor, int maxCapacity, int maxBucketSize, long retainedHeapMemory, long retainedDirectMemory, int stripes)
+    {
+        if (stripes == 1)
+            return newRetainableByteBufferPool(factor, maxCapacity, maxBucketSize, retainedHeapMemory, retainedDirectMemory);
+        return new LogarithmicRetainablePool(0, maxCapacity, maxBucketSize, retainedHeapMemory, retainedDirectMemory, stripes);
+    }
+
     @Override
     protected int bucketFor(int capacity)
     {
@@ -147,6 +172,11 @@ public class LogarithmicArrayByteBufferPool extends ArrayByteBufferPool
         }
 
         public LogarithmicRetainablePool(int minCapacity, int maxCapacity, int maxBucketSize, long maxHeapMemory, long maxDirectMemory)
+        {
+            this(minCapacity, maxCapacity, maxBucketSize, maxHeapMemory, maxDirectMemory, 1);
+        }
+
+        public LogarithmicRetainablePool(int minCapacity, int maxCapacity, int maxBucketSize, long maxHeapMemory, long maxDirectMemory, int stripes)
         {
             super(minCapacity,
                 -1,
@@ -155,7 +185,8 @@ public class LogarithmicArrayByteBufferPool extends ArrayByteBufferPool
                 c -> 32 - Integer.numberOfLeadingZeros(c - 1),
                 i -> 1 << i,
                 maxHeapMemory,
-                maxDirectMemory
+                maxDirectMemory,
+                stripes
             );
         }
     }
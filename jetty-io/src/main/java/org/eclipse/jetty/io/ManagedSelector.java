@@ -28,7 +28,6 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
@@ -38,6 +37,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import org.eclipse.jetty.util.IO;
 import org.eclipse.jetty.util.annotation.ManagedAttribute;
@@ -88,6 +88,7 @@ public class ManagedSelector extends ContainerLifeCycle implements Dumpable
     private Deque<SelectorUpdate> _updates = new ArrayDeque<>();
     private Deque<SelectorUpdate> _updateable = new ArrayDeque<>();
     private final SampleStatistic _keyStats = new SampleStatistic();
+    private final SelectedKeys _selectedKeys = new SelectedKeys();
 
     public ManagedSelector(SelectorManager selectorManager, int id)
     {
@@ -178,7 +179,7 @@ public class ManagedSelector extends ContainerLifeCycle implements Dumpable
 
     protected int nioSelect(Selector selector, boolean now) throws IOException
     {
-        return now ? selector.selectNow() : selector.select();
+        return now ? selector.selectNow(_selectedKeys) : selector.select(_selectedKeys);
     }
 
     protected int select(Selector selector) throws IOException
@@ -521,10 +522,59 @@ public class ManagedSelector extends ContainerLifeCycle implements Dumpable
         void replaceKey(SelectionKey newKey);
     }
 
+    /**
+     * <p>Collects the keys selected by {@link Selector#select(Consumer)} and
+     * {@link Selector#selectNow(Consumer)} into a reusable list, so that the
+     * select loop does not add and remove keys to and from the selected-key
+     * set of the {@link Selector}, nor allocate iterators over it.</p>
+     * <p>Only accessed by the thread running the select loop.</p>
+     */
+    private static class SelectedKeys implements Consumer<SelectionKey>
+    {
+        private final List<SelectionKey> _keys = new ArrayList<>();
+        private int _cursor;
+
+        @Override
+        public void accept(SelectionKey key)
+        {
+            _keys.add(key);
+        }
+
+        private void addAll(Set<SelectionKey> keys)
+        {
+            // Keys are only in the selected-key set if select() was called
+            // without an action, for example by an overridden nioSelect().
+            if (!keys.isEmpty())
+            {
+                _keys.addAll(keys);
+                keys.clear();
+            }
+        }
+
+        private int size()
+        {
+            return _keys.size();
+        }
+
+        private SelectionKey next()
+        {
+            return _cursor < _keys.size() ? _keys.get(_cursor++) : null;
+        }
+
+        private void forEach(Consumer<SelectionKey> action)
+        {
+            _keys.forEach(action);
+        }
+
+        private void clear()
+        {
+            _keys.clear();
+            _cursor = 0;
+        }
+    }
+
     private class SelectorProducer implements ExecutionStrategy.Producer
     {
-        private Set<SelectionKey> _keys = Collections.emptySet();
-        private Iterator<SelectionKey> _cursor = Collections.emptyIterator();
 
         @Override
         public Runnable produce()
@@ -619,11 +669,10 @@ public class ManagedSelector extends ContainerLifeCycle implements Dumpable
                             updates = _updates.size();
                         }
 
-                        _keys = selector.selectedKeys();
-                        int selectedKeys = _keys.size();
+                        _selectedKeys.addAll(selector.selectedKeys());
+                        int selectedKeys = _selectedKeys.size();
                         if (selectedKeys > 0)
                             _keyStats.record(selectedKeys);
-                        _cursor = selectedKeys > 0 ? _keys.iterator() : Collections.emptyIterator();
                         if (LOG.isDebugEnabled())
                             LOG.debug("Selector {} processing {} keys, {} updates", selector, selectedKeys, updates);
 
@@ -654,9 +703,9 @@ public class ManagedSelector extends ContainerLifeCycle implements Dumpable
 
         private Runnable processSelected()
         {
-            while (_cursor.hasNext())
+            SelectionKey key;
+            while ((key = _selectedKeys.next()) != null)
             {
-                SelectionKey key = _cursor.next();
                 Object attachment = key.attachment();
                 SelectableChannel channel = key.channel();
                 if (key.isValid())
@@ -708,13 +757,13 @@ public class ManagedSelector extends ContainerLifeCycle implements Dumpable
             // Do update keys for only previously selected keys.
             // This will update only those keys whose selection did not cause an
             // updateKeys update to be submitted.
-            for (SelectionKey key : _keys)
+            _selectedKeys.forEach(key ->
             {
                 Object attachment = key.attachment();
                 if (attachment instanceof Selectable)
                     ((Selectable)attachment).updateKey();
-            }
-            _keys.clear();
+            });
+            _selectedKeys.clear();
         }
 
         @Override
@@ -67,6 +67,13 @@ public class NetworkTrafficSocketChannelEndPoint extends SocketChannelEndPoint
         return flushed;
     }
 
+    @Override
+    public boolean isTransferFromSupported()
+    {
+        // Listeners must be notified of the outgoing bytes.
+        return false;
+    }
+
     @Override
     public void onOpen()
     {
@@ -16,6 +16,7 @@ package org.eclipse.jetty.io;
 import java.io.IOException;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
 
@@ -127,4 +128,46 @@ public class SocketChannelEndPoint extends SelectableChannelEndPoint
 
         return true;
     }
+
+    /**
+     * @return whether {@link #transferFrom(FileChannel, long, long)} may be used to write to this EndPoint
+     */
+    public boolean isTransferFromSupported()
+    {
+        return true;
+    }
+
+    /**
+     * <p>Transfers bytes from a region of the given file directly to the socket,
+     * so that the operating system may send them without copying them through
+     * user space buffers.</p>
+     * <p>Like {@link #flush(ByteBuffer...)}, this method does not block and
+     * may transfer fewer bytes than requested, possibly none if the socket
+     * cannot accept more bytes.</p>
+     *
+     * @param file the file to transfer bytes from
+     * @param position the position within the file of the first byte to transfer
+     * @param count the maximum number of bytes to transfer
+     * @return the number of bytes transferred
+     * @throws IOException if the transfer fails
+     */
+    public long transferFrom(FileChannel file, long position, long count) throws IOException
+    {
+        long transferred;
+        try
+        {
+            transferred = file.transferTo(position, count, getChannel());
+            if (LOG.isDebugEnabled())
+                LOG.debug("transferred {}/{} {}", transferred, count, this);
+        }
+        catch (IOException e)
+        {
+            throw new EofException(e);
+        }
+
+        if (transferred > 0)
+            notIdle();
+
+        return transferred;
+    }
 }
@@ -23,6 +23,7 @@ import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLException;
 import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSession;
 
 import org.eclipse.jetty.io.ByteBufferPool;
 import org.eclipse.jetty.io.ClientConnectionFactory;
@@ -46,6 +47,7 @@ public class SslClientConnectionFactory implements ClientConnectionFactory
     private boolean _directBuffersForEncryption = true;
     private boolean _directBuffersForDecryption = true;
     private boolean _requireCloseMessage;
+    private boolean _eagerHandshake;
 
     public SslClientConnectionFactory(SslContextFactory sslContextFactory, ByteBufferPool byteBufferPool, Executor executor, ClientConnectionFactory connectionFactory)
     {
@@ -98,6 +100,29 @@ public class SslClientConnectionFactory implements ClientConnectionFactory
         _requireCloseMessage = requireCloseMessage;
     }
 
+    /**
+     * @return whether the TLS handshake is started as soon as the connection is opened
+     * @see #setEagerHandshake(boolean)
+     */
+    public boolean isEagerHandshake()
+    {
+        return _eagerHandshake;
+    }
+
+    /**
+     * <p>Sets whether the TLS handshake is started as soon as the connection is opened,
+     * rather than when the application first writes to the connection.</p>
+     * <p>An eager handshake overlaps the TLS handshake with the preparation of the first
+     * write, and allows connections that are opened in advance to complete the handshake,
+     * and therefore cache the TLS session, before they are used.</p>
+     *
+     * @param eagerHandshake whether the TLS handshake is started as soon as the connection is opened
+     */
+    public void setEagerHandshake(boolean eagerHandshake)
+    {
+        _eagerHandshake = eagerHandshake;
+    }
+
     @Override
     public org.eclipse.jetty.io.Connection newConnection(EndPoint endPoint, Map<String, Object> context) throws IOException
     {
@@ -127,6 +152,20 @@ public class SslClientConnectionFactory implements ClientConnectionFactory
         sslConnection.addHandshakeListener(new HTTPSHandshakeListener(context));
         customize(sslConnection, context);
 
+        if (isEagerHandshake())
+        {
+            try
+            {
+                // The SslConnection sends the ClientHello when it is opened.
+                engine.beginHandshake();
+            }
+            catch (SSLException x)
+            {
+                // Let the failure be reported to the listeners when the
+                // SslConnection performs the handshake upon the first write.
+            }
+        }
+
         return sslConnection;
     }
 
@@ -172,6 +211,7 @@ public class SslClientConnectionFactory implements ClientConnectionFactory
 
     private class HTTPSHandshakeListener implements SslHandshakeListener
     {
+        private final long handshakeTime = System.currentTimeMillis();
         private final Map<String, Object> context;
 
         private HTTPSHandshakeListener(Map<String, Object> context)
@@ -181,6 +221,18 @@ public class SslClientConnectionFactory implements ClientConnectionFactory
 
         @Override
         public void handshakeSucceeded(Event event) throws SSLException
+        {
+            verifyHostName(event);
+            ClientConnector connector = (ClientConnector)context.get(ClientConnector.CLIENT_CONNECTOR_CONTEXT_KEY);
+            if (connector != null)
+            {
+                // A resumed TLS session retains the creation time of the cached session.
+                SSLSession session = event.getSSLEngine().getSession();
+                connector.onSslHandshakeSucceeded(session.getCreationTime() < handshakeTime);
+            }
+        }
+
+        private void verifyHostName(Event event) throws SSLException
         {
             HostnameVerifier verifier = sslContextFactory.getHostnameVerifier();
             if (verifier != null)
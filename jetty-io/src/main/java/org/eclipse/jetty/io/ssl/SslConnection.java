@@ -681,7 +681,7 @@ public class SslConnection extends AbstractConnection implements Connection.Upgr
                             int appBufferSize = getApplicationBufferSize();
                             if (_decryptedInput == null)
                             {
-                                if (BufferUtil.space(buffer) > appBufferSize)
+                                if (BufferUtil.space(buffer) >= appBufferSize)
                                     appIn = buffer;
                                 else
                                     appIn = _decryptedInput = _bufferPool.acquire(appBufferSize, _decryptedDirectBuffers);
@@ -252,4 +252,12 @@ public class ArrayByteBufferPoolTest
         bufferPool.release(buffer);
         assertThat(buffer.order(), is(ByteOrder.BIG_ENDIAN));
     }
+
+    @Test
+    public void testRetainedStripes()
+    {
+        ArrayByteBufferPool bufferPool = new ArrayByteBufferPool(0, 1024, 8192, -1, 0, 0, 0, 0, 4);
+        ArrayRetainableByteBufferPool retained = (ArrayRetainableByteBufferPool)bufferPool.asRetainableByteBufferPool();
+        assertThat(retained.getStripes(), is(4));
+    }
 }
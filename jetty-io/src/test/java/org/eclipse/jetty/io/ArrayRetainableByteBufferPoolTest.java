@@ -18,6 +18,7 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
@@ -191,6 +192,88 @@ public class ArrayRetainableByteBufferPoolTest
         assertThat(pool.getDirectMemory(), is(60L));
     }
 
+    @Test
+    public void testMaxBucketSizeWithStripes()
+    {
+        ArrayRetainableByteBufferPool pool = new ArrayRetainableByteBufferPool(0, 10, 20, 4, -1, -1, 4);
+
+        List<RetainableByteBuffer> all = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+        {
+            all.add(pool.acquire(1, true)); // pooled, in any stripe
+        }
+        all.add(pool.acquire(1, true)); // not pooled, all stripes are full
+
+        assertThat(pool.getDirectByteBufferCount(), is(4L));
+        assertThat(pool.getDirectMemory(), is(40L));
+        assertThat(all.get(4).capacity(), is(1));
+
+        all.forEach(RetainableByteBuffer::release);
+
+        assertThat(pool.getAvailableDirectByteBufferCount(), is(4L));
+    }
+
+    @Test
+    public void testMaxBucketSizeNotDivisibleByStripes()
+    {
+        ArrayRetainableByteBufferPool pool = new ArrayRetainableByteBufferPool(0, 10, 20, 5, -1, -1, 4);
+
+        List<RetainableByteBuffer> all = new ArrayList<>();
+        for (int i = 0; i < 8; i++)
+        {
+            all.add(pool.acquire(1, true));
+        }
+
+        // The stripes hold maxBucketSize buffers in total.
+        assertThat(pool.getDirectByteBufferCount(), is(5L));
+        all.forEach(RetainableByteBuffer::release);
+        assertThat(pool.getAvailableDirectByteBufferCount(), is(5L));
+
+        // There cannot be more stripes than maxBucketSize.
+        pool = new ArrayRetainableByteBufferPool(0, 10, 20, 2, -1, -1, 4);
+        assertThat(pool.getStripes(), is(2));
+    }
+
+    @Test
+    public void testPoolForFallsBackToOtherStripes() throws Exception
+    {
+        ArrayRetainableByteBufferPool pool = new ArrayRetainableByteBufferPool(0, 10, 20, Integer.MAX_VALUE, -1, -1, 8);
+
+        // Release a buffer in the stripe of another thread.
+        Thread thread = new Thread(() -> pool.acquire(10, true).release());
+        thread.start();
+        thread.join();
+
+        assertThat(pool.poolFor(10, true).getIdleCount(), is(1));
+    }
+
+    @Test
+    public void testStripesStealReleasedBuffers() throws Exception
+    {
+        ArrayRetainableByteBufferPool pool = new ArrayRetainableByteBufferPool(0, 10, 20, Integer.MAX_VALUE, -1, -1, 8);
+        assertThat(pool.getStripes(), is(8));
+
+        RetainableByteBuffer buffer = pool.acquire(10, true);
+        buffer.release();
+
+        // Whatever their stripe, other threads must reuse the released buffer.
+        for (int i = 0; i < 16; i++)
+        {
+            AtomicReference<RetainableByteBuffer> acquired = new AtomicReference<>();
+            Thread thread = new Thread(() ->
+            {
+                RetainableByteBuffer b = pool.acquire(10, true);
+                acquired.set(b);
+                b.release();
+            });
+            thread.start();
+            thread.join();
+            assertThat(acquired.get(), sameInstance(buffer));
+        }
+
+        assertThat(pool.getDirectByteBufferCount(), is(1L));
+    }
+
     @Test
     public void testBufferReleaseRepools()
     {
@@ -35,6 +35,8 @@ mongodb.version?=@mongodb.version@
 #jetty.session.mongo.collectionName=jettySessions
 #jetty.session.gracePeriod.seconds=3600
 #jetty.session.savePeriod.seconds=0
+#jetty.session.partialUpdates=false
+#jetty.session.mongo.scavengePageSize=0
 
 connection-type=address
 #jetty.session.mongo.host=localhost
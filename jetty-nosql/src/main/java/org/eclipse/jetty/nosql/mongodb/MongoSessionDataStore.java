@@ -15,7 +15,6 @@ package org.eclipse.jetty.nosql.mongodb;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.ObjectOutputStream;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -34,7 +33,6 @@ import org.eclipse.jetty.nosql.NoSqlSessionDataStore;
 import org.eclipse.jetty.server.session.SessionContext;
 import org.eclipse.jetty.server.session.SessionData;
 import org.eclipse.jetty.server.session.UnreadableSessionDataException;
-import org.eclipse.jetty.util.ClassLoadingObjectInputStream;
 import org.eclipse.jetty.util.StringUtil;
 import org.eclipse.jetty.util.annotation.ManagedAttribute;
 import org.eclipse.jetty.util.annotation.ManagedObject;
@@ -147,6 +145,8 @@ public class MongoSessionDataStore extends NoSqlSessionDataStore
      */
     public static final String __ID = "id";
 
+    public static final int DEFAULT_SCAVENGE_PAGE_SIZE = 0;
+
     /**
      * Utility value of 1 for a session version for this context
      */
@@ -157,6 +157,11 @@ public class MongoSessionDataStore extends NoSqlSessionDataStore
      */
     private DBCollection _dbSessions;
 
+    /**
+     * Max number of orphaned sessions deleted by each scavenge delete
+     */
+    private int _scavengePageSize = DEFAULT_SCAVENGE_PAGE_SIZE;
+
     public void setDBCollection(DBCollection collection)
     {
         _dbSessions = collection;
@@ -168,6 +173,28 @@ public class MongoSessionDataStore extends NoSqlSessionDataStore
         return _dbSessions;
     }
 
+    @ManagedAttribute(value = "max number of orphaned sessions deleted per scavenge delete", readonly = true)
+    public int getScavengePageSize()
+    {
+        return _scavengePageSize;
+    }
+
+    /**
+     * <p>Sets the max number of orphaned sessions deleted by each scavenge delete.</p>
+     * <p>By default all the orphaned sessions are removed by a single server-side
+     * delete. Deleting them in pages costs extra round trips for each page, but
+     * means that cleaning a very large backlog runs several short deletes rather
+     * than a single delete that keeps the collection, and its replicas, busy for
+     * a long time.</p>
+     *
+     * @param scavengePageSize the max number of orphaned sessions deleted by each
+     * scavenge delete, or 0 (the default) to delete all the orphaned sessions with a single delete
+     */
+    public void setScavengePageSize(int scavengePageSize)
+    {
+        _scavengePageSize = scavengePageSize;
+    }
+
     @Override
     public SessionData doLoad(String id) throws Exception
     {
@@ -239,10 +266,9 @@ public class MongoSessionDataStore extends NoSqlSessionDataStore
                 else
                 {
                     //attributes have special serialized format
-                    try (ByteArrayInputStream bais = new ByteArrayInputStream(attributes);
-                         ClassLoadingObjectInputStream ois = new ClassLoadingObjectInputStream(bais);)
+                    try (ByteArrayInputStream bais = new ByteArrayInputStream(attributes))
                     {
-                        SessionData.deserializeAttributes(data, ois);
+                        _serializer.deserializeAttributes(data, bais);
                     }
                 }
             }
@@ -439,9 +465,83 @@ public class MongoSessionDataStore extends NoSqlSessionDataStore
         //Delete all session documents where the expiry time (which is always the most
         //up-to-date expiry of all contexts sharing that session id) has already past as
         //at the timeLimit.
+        if (_scavengePageSize <= 0)
+        {
+            BasicDBObject query = new BasicDBObject();
+            query.append(__EXPIRY, new BasicDBObject("$gt", 0).append("$lte", timeLimit));
+            _dbSessions.remove(query, WriteConcern.SAFE);
+            return;
+        }
+
+        int deleted = 0;
+        Set<String> page;
+        do
+        {
+            page = deleteOrphans(timeLimit, _scavengePageSize);
+            deleted += page.size();
+        }
+        while (page.size() >= _scavengePageSize && isRunning());
+
+        if (LOG.isDebugEnabled())
+            LOG.debug("Deleted {} sessions that expired before {}", deleted, timeLimit);
+    }
+
+    /**
+     * Delete a page of session documents, for any context, whose expiry time
+     * has already past as at the timeLimit.
+     *
+     * @param timeLimit the upper limit of the expiry time in msec
+     * @param pageSize the max number of session documents to delete
+     * @return the ids of the deleted sessions
+     */
+    protected Set<String> deleteOrphans(long timeLimit, int pageSize)
+    {
+        Set<String> ids = new HashSet<>();
         BasicDBObject query = new BasicDBObject();
         query.append(__EXPIRY, new BasicDBObject("$gt", 0).append("$lte", timeLimit));
-        _dbSessions.remove(query, WriteConcern.SAFE);
+
+        DBCursor orphans = null;
+        try
+        {
+            orphans = _dbSessions.find(query, new BasicDBObject(__ID, 1)).limit(pageSize);
+            for (DBObject session : orphans)
+            {
+                ids.add((String)session.get(__ID));
+            }
+        }
+        finally
+        {
+            if (orphans != null)
+                orphans.close();
+        }
+
+        if (ids.isEmpty())
+            return ids;
+
+        //only delete the documents that still match the expiry, as a session
+        //may have been accessed since it was found
+        query.append(__ID, new BasicDBObject("$in", ids));
+        WriteResult result = _dbSessions.remove(query, WriteConcern.SAFE);
+        if (result.getN() < ids.size())
+        {
+            //find out which documents were not deleted
+            DBCursor remaining = null;
+            try
+            {
+                remaining = _dbSessions.find(new BasicDBObject(__ID, new BasicDBObject("$in", ids)), new BasicDBObject(__ID, 1));
+                for (DBObject session : remaining)
+                {
+                    ids.remove(session.get(__ID));
+                }
+            }
+            finally
+            {
+                if (remaining != null)
+                    remaining.close();
+            }
+        }
+
+        return ids;
     }
 
     /**
@@ -457,6 +557,17 @@ public class MongoSessionDataStore extends NoSqlSessionDataStore
 
     @Override
     public void doStore(String id, SessionData data, long lastSaveTime) throws Exception
+    {
+        store(id, data, lastSaveTime, true);
+    }
+
+    @Override
+    public void doStoreMetaData(String id, SessionData data, long lastSaveTime) throws Exception
+    {
+        store(id, data, lastSaveTime, false);
+    }
+
+    private void store(String id, SessionData data, long lastSaveTime, boolean withAttributes) throws Exception
     {
         // Form query for upsert
         final BasicDBObject key = new BasicDBObject(__ID, id);
@@ -514,11 +625,13 @@ public class MongoSessionDataStore extends NoSqlSessionDataStore
         sets.put(__ACCESSED, data.getAccessed());
         sets.put(__LAST_ACCESSED, data.getLastAccessed());
 
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-             ObjectOutputStream oos = new ObjectOutputStream(baos);)
+        if (withAttributes)
         {
-            SessionData.serializeAttributes(data, oos);
-            sets.put(getContextSubfield(__ATTRIBUTES), baos.toByteArray());
+            try (ByteArrayOutputStream baos = new ByteArrayOutputStream())
+            {
+                _serializer.serializeAttributes(data, baos);
+                sets.put(getContextSubfield(__ATTRIBUTES), baos.toByteArray());
+            }
         }
 
         // Do the upsert
@@ -549,9 +662,17 @@ public class MongoSessionDataStore extends NoSqlSessionDataStore
             .add("sparse", false)
             .add("unique", true)
             .get());
+
+        //scavenging finds and deletes sessions by expiry time
+        DBObject expiryKey = BasicDBObjectBuilder.start().add(__EXPIRY, 1).get();
+        _dbSessions.createIndex(expiryKey, BasicDBObjectBuilder.start()
+            .add("name", "expiry_1")
+            .add("ns", _dbSessions.getFullName())
+            .add("sparse", false)
+            .add("unique", false)
+            .get());
         if (LOG.isDebugEnabled())
             LOG.debug("Done ensure Mongodb indexes existing");
-        //TODO perhaps index on expiry time?
     }
 
     private String getContextField()
@@ -32,6 +32,7 @@ public class MongoSessionDataStoreFactory extends AbstractSessionDataStoreFactor
     String _host;
     String _connectionString;
     int _port = -1;
+    int _scavengePageSize = MongoSessionDataStore.DEFAULT_SCAVENGE_PAGE_SIZE;
 
     /**
      * @return the host
@@ -113,6 +114,23 @@ public class MongoSessionDataStoreFactory extends AbstractSessionDataStoreFactor
         _collectionName = collectionName;
     }
 
+    /**
+     * @return the max number of orphaned sessions deleted by each scavenge delete
+     */
+    public int getScavengePageSize()
+    {
+        return _scavengePageSize;
+    }
+
+    /**
+     * @param scavengePageSize the max number of orphaned sessions deleted by each
+     * scavenge delete, or 0 (the default) to delete all the orphaned sessions with a single delete
+     */
+    public void setScavengePageSize(int scavengePageSize)
+    {
+        _scavengePageSize = scavengePageSize;
+    }
+
     /**
      * @throws Exception {@link UnknownHostException} if any issue while resolving MongoDB Host
      * @see org.eclipse.jetty.server.session.SessionDataStoreFactory#getSessionDataStore(org.eclipse.jetty.server.session.SessionHandler)
@@ -123,6 +141,9 @@ public class MongoSessionDataStoreFactory extends AbstractSessionDataStoreFactor
         MongoSessionDataStore store = new MongoSessionDataStore();
         store.setGracePeriodSec(getGracePeriodSec());
         store.setSavePeriodSec(getSavePeriodSec());
+        store.setPartialUpdates(isPartialUpdates());
+        store.setSessionDataSerializer(getSessionDataSerializer());
+        store.setScavengePageSize(getScavengePageSize());
         MongoClient mongo;
 
         if (!StringUtil.isBlank(getConnectionString()))
@@ -13,12 +13,21 @@
 
 package org.eclipse.jetty.security;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import javax.security.auth.Subject;
 import javax.servlet.ServletRequest;
 
 import org.eclipse.jetty.server.UserIdentity;
+import org.eclipse.jetty.util.NanoTime;
 import org.eclipse.jetty.util.component.ContainerLifeCycle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +45,10 @@ public abstract class AbstractLoginService extends ContainerLifeCycle implements
     protected IdentityService _identityService = new DefaultIdentityService();
     protected String _name;
     protected boolean _fullValidate = false;
+    private final Map<String, VerifiedCredential> _credentialCache = new ConcurrentHashMap<>();
+    private final byte[] _credentialCacheSalt = new byte[16];
+    private int _credentialCacheSize = 0;
+    private long _credentialCacheTtlMs = TimeUnit.MINUTES.toMillis(1);
 
     protected abstract List<RolePrincipal> loadRoleInfo(UserPrincipal user);
 
@@ -44,6 +57,7 @@ public abstract class AbstractLoginService extends ContainerLifeCycle implements
     protected AbstractLoginService()
     {
         addBean(_identityService);
+        new SecureRandom().nextBytes(_credentialCacheSalt);
     }
 
     @Override
@@ -91,7 +105,7 @@ public abstract class AbstractLoginService extends ContainerLifeCycle implements
             return null;
 
         UserPrincipal userPrincipal = loadUserInfo(username);
-        if (userPrincipal != null && userPrincipal.authenticate(credentials))
+        if (userPrincipal != null && authenticate(userPrincipal, credentials))
         {
             //safe to load the roles
             List<RolePrincipal> roles = loadRoleInfo(userPrincipal);
@@ -115,6 +129,86 @@ public abstract class AbstractLoginService extends ContainerLifeCycle implements
         return null;
     }
 
+    /**
+     * <p>Checks the credentials of a user, avoiding the check if the same
+     * credentials have recently been verified for the same user.</p>
+     * <p>Verified credentials are only remembered as a salted digest, and
+     * only for as long as the store returns the same {@link UserPrincipal}
+     * instance for the user, so that a change to the user (for example a
+     * reload of a {@link PropertyUserStore}) requires a full check.</p>
+     *
+     * @param userPrincipal the user
+     * @param credentials the credentials to check
+     * @return true if the credentials are valid for the user
+     * @see #setCredentialCacheSize(int)
+     */
+    protected boolean authenticate(UserPrincipal userPrincipal, Object credentials)
+    {
+        if (_credentialCacheSize <= 0)
+            return userPrincipal.authenticate(credentials);
+
+        byte[] digest = digest(credentials);
+        if (digest == null)
+            return userPrincipal.authenticate(credentials);
+
+        String username = userPrincipal.getName();
+        VerifiedCredential verified = _credentialCache.get(username);
+        if (verified != null)
+        {
+            if (verified._userPrincipal == userPrincipal &&
+                NanoTime.isBefore(NanoTime.now(), verified._expiry) &&
+                MessageDigest.isEqual(verified._digest, digest))
+                return true;
+            _credentialCache.remove(username, verified);
+        }
+
+        if (!userPrincipal.authenticate(credentials))
+            return false;
+
+        if (_credentialCache.size() >= _credentialCacheSize)
+            pruneCredentialCache();
+        long expiry = NanoTime.now() + TimeUnit.MILLISECONDS.toNanos(_credentialCacheTtlMs);
+        _credentialCache.put(username, new VerifiedCredential(userPrincipal, digest, expiry));
+        return true;
+    }
+
+    private byte[] digest(Object credentials)
+    {
+        byte[] bytes;
+        if (credentials instanceof String)
+            bytes = ((String)credentials).getBytes(StandardCharsets.UTF_8);
+        else if (credentials instanceof char[])
+            bytes = new String((char[])credentials).getBytes(StandardCharsets.UTF_8);
+        else
+            return null; // Cannot cache other credentials, such as DIGEST responses.
+
+        try
+        {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(_credentialCacheSalt);
+            return md.digest(bytes);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            LOG.warn("Unable to digest credentials", e);
+            return null;
+        }
+    }
+
+    private void pruneCredentialCache()
+    {
+        long now = NanoTime.now();
+        _credentialCache.values().removeIf(verified -> !NanoTime.isBefore(now, verified._expiry));
+
+        // Still full of unexpired entries, make room by evicting arbitrary entries.
+        Iterator<VerifiedCredential> iterator = _credentialCache.values().iterator();
+        while (_credentialCache.size() >= _credentialCacheSize && iterator.hasNext())
+        {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
     @Override
     public boolean validate(UserIdentity user)
     {
@@ -155,4 +249,65 @@ public abstract class AbstractLoginService extends ContainerLifeCycle implements
     {
         _fullValidate = fullValidate;
     }
+
+    /**
+     * @return the maximum number of users whose verified credentials are cached
+     */
+    public int getCredentialCacheSize()
+    {
+        return _credentialCacheSize;
+    }
+
+    /**
+     * <p>Sets the maximum number of users whose verified credentials are cached,
+     * so that repeated logins with the same credentials, as with BASIC
+     * authentication, do not repeat expensive credential checks such as
+     * {@code CRYPT:} or {@code MD5:} credentials.</p>
+     *
+     * @param credentialCacheSize the maximum number of cached credentials, or 0 to disable the cache (the default)
+     */
+    public void setCredentialCacheSize(int credentialCacheSize)
+    {
+        _credentialCacheSize = credentialCacheSize;
+        if (credentialCacheSize <= 0)
+            _credentialCache.clear();
+    }
+
+    /**
+     * @return the time in milliseconds that verified credentials are cached for
+     */
+    public long getCredentialCacheTtlMs()
+    {
+        return _credentialCacheTtlMs;
+    }
+
+    /**
+     * @param credentialCacheTtlMs the time in milliseconds that verified credentials are cached for
+     * @see #setCredentialCacheSize(int)
+     */
+    public void setCredentialCacheTtlMs(long credentialCacheTtlMs)
+    {
+        _credentialCacheTtlMs = credentialCacheTtlMs;
+    }
+
+    @Override
+    protected void doStop() throws Exception
+    {
+        _credentialCache.clear();
+        super.doStop();
+    }
+
+    private static class VerifiedCredential
+    {
+        private final UserPrincipal _userPrincipal;
+        private final byte[] _digest;
+        private final long _expiry;
+
+        private VerifiedCredential(UserPrincipal userPrincipal, byte[] digest, long expiry)
+        {
+            _userPrincipal = userPrincipal;
+            _digest = digest;
+            _expiry = expiry;
+        }
+    }
 }
@@ -21,11 +21,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.Set;
 
 import org.eclipse.jetty.util.IO;
 import org.eclipse.jetty.util.PathWatcher;
@@ -224,7 +223,10 @@ public class PropertyUserStore extends UserStore implements PathWatcher.Listener
             properties.load(inputStream);
         }
 
-        Set<String> known = new HashSet<>();
+        // Build the new users aside and then replace the current users in one go,
+        // so that users that are in both the old and the new file can always be found.
+        Map<String, User> users = new HashMap<>();
+        List<Runnable> updates = new ArrayList<>();
 
         for (Map.Entry<Object, Object> entry : properties.entrySet())
         {
@@ -240,27 +242,28 @@ public class PropertyUserStore extends UserStore implements PathWatcher.Listener
 
             if (username.length() > 0)
             {
-                String[] roleArray = IdentityService.NO_ROLES;
-                if (roles != null && roles.length() > 0)
-                    roleArray = StringUtil.csvSplit(roles);
-                known.add(username);
+                String[] roleArray = (roles != null && roles.length() > 0) ? StringUtil.csvSplit(roles) : IdentityService.NO_ROLES;
                 Credential credential = Credential.getCredential(credentials);
-                addUser(username, credential, roleArray);
-                notifyUpdate(username, credential, roleArray);
+                users.put(username, new User(username, credential, roleArray));
+                updates.add(() -> notifyUpdate(username, credential, roleArray));
             }
         }
 
         List<String> currentlyKnownUsers = new ArrayList<>(_users.keySet());
+        if (_firstLoad)
+            _users.putAll(users); // keep the users that may have been added before the initial load
+        else
+            setUsers(users);
+
+        updates.forEach(Runnable::run);
+
         // if its not the initial load then we want to process removed users
         if (!_firstLoad)
         {
             for (String user : currentlyKnownUsers)
             {
-                if (!known.contains(user))
-                {
-                    removeUser(user);
+                if (!users.containsKey(user))
                     notifyRemove(user);
-                }
             }
         }
 
@@ -66,6 +66,20 @@ public class UserStore extends AbstractLifeCycle
     {
         _users.remove(username);
     }
+
+    /**
+     * <p>Replaces all the users of this store with the given users.</p>
+     * <p>The given users are added or replaced before the users that are not
+     * given are removed, so that a user that is both in this store and in the
+     * given users can always be looked up while the users are replaced.</p>
+     *
+     * @param users the users, by username
+     */
+    protected void setUsers(Map<String, User> users)
+    {
+        _users.putAll(users);
+        _users.keySet().retainAll(users.keySet());
+    }
     
     public UserPrincipal getUserPrincipal(String username)
     {
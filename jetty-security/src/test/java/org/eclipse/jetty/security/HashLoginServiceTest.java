@@ -13,13 +13,17 @@
 
 package org.eclipse.jetty.security;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.eclipse.jetty.toolchain.test.MavenTestingUtils;
+import org.eclipse.jetty.util.security.Credential;
 import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -60,4 +64,67 @@ public class HashLoginServiceTest
         assertFalse(store.isStarted());
         assertThat(loginService.getUserStore(), is(notNullValue()));
     }
+
+    @Test
+    public void testCredentialCache() throws Exception
+    {
+        HashLoginService loginService = new HashLoginService("foo");
+        loginService.setCredentialCacheSize(10);
+        UserStore store = new UserStore();
+        CountingCredential credential = new CountingCredential("secret");
+        store.addUser("fred", credential, new String[]{"user"});
+        loginService.setUserStore(store);
+        loginService.start();
+
+        try
+        {
+            assertThat(loginService.login("fred", "secret", null), is(notNullValue()));
+            assertThat(loginService.login("fred", "secret", null), is(notNullValue()));
+            assertEquals(1, credential.checks.get());
+
+            // Wrong credentials are always checked.
+            assertThat(loginService.login("fred", "wrong", null), is(nullValue()));
+            assertThat(loginService.login("fred", "wrong", null), is(nullValue()));
+            assertEquals(3, credential.checks.get());
+
+            // A changed user is checked again.
+            CountingCredential changed = new CountingCredential("secret");
+            store.addUser("fred", changed, new String[]{"user"});
+            assertThat(loginService.login("fred", "secret", null), is(notNullValue()));
+            assertEquals(1, changed.checks.get());
+
+            // Expired credentials are checked again.
+            loginService.setCredentialCacheTtlMs(0);
+            CountingCredential expiring = new CountingCredential("secret");
+            store.addUser("fred", expiring, new String[]{"user"});
+            assertThat(loginService.login("fred", "secret", null), is(notNullValue()));
+            assertThat(loginService.login("fred", "secret", null), is(notNullValue()));
+            assertEquals(2, expiring.checks.get());
+
+            store.removeUser("fred");
+            assertThat(loginService.login("fred", "secret", null), is(nullValue()));
+        }
+        finally
+        {
+            loginService.stop();
+        }
+    }
+
+    private static class CountingCredential extends Credential
+    {
+        private final AtomicInteger checks = new AtomicInteger();
+        private final String password;
+
+        private CountingCredential(String password)
+        {
+            this.password = password;
+        }
+
+        @Override
+        public boolean check(Object credentials)
+        {
+            checks.incrementAndGet();
+            return password.equals(credentials);
+        }
+    }
 }
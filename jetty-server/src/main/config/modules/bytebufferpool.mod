@@ -36,3 +36,7 @@ etc/jetty-bytebufferpool.xml
 
 ## Maximum direct memory retained whilst in use by the pool (0 for heuristic, -1 for unlimited, -2 for no retained).
 #jetty.byteBufferPool.retainedDirectMemory=0
+
+## Number of stripes of each bucket of the retained pool (0 for the number of available processors).
+## Threads acquire from different stripes, so that they contend less on the same buffers.
+#jetty.byteBufferPool.retainedStripes=1
@@ -57,6 +57,9 @@ etc/jetty.xml
 ## Max per-connection header cache size (in nodes)
 # jetty.httpConfig.headerCacheSize=1024
 
+## Whether all header fields may be cached per-connection, not only the common ones
+# jetty.httpConfig.headerCacheAllFields=false
+
 ## Whether, for requests with content, delay dispatch until some content has arrived
 # jetty.httpConfig.delayDispatchUntilContent=true
 
@@ -69,6 +72,9 @@ etc/jetty.xml
 ## Whether to use direct ByteBuffers for reading or writing
 # jetty.httpConfig.useInputDirectByteBuffers=true
 # jetty.httpConfig.useOutputDirectByteBuffers=true
+
+## Whether to transfer file content directly to the network (HTTP/1.1 clear-text only)
+# jetty.httpConfig.useFileChannelTransfer=false
 # end::documentation-http-config[]
 
 # tag::documentation-server-compliance[]
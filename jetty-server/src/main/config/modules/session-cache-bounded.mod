@@ -0,0 +1,30 @@
+# DO NOT EDIT THIS FILE - See: https://eclipse.dev/jetty/documentation/
+
+[description]
+Enable a first level session cache bounded by the number
+and the estimated size of the sessions it holds.
+Sessions over the bounds are written to the session store
+and evicted by a background sweep, approximately least recently accessed first.
+
+[tags]
+session
+
+[provides]
+session-cache
+
+[depends]
+sessions
+
+[xml]
+etc/sessions/session-cache-bounded.xml
+
+[ini-template]
+#jetty.session.evictionPolicy=-1
+#jetty.session.saveOnInactiveEvict=false
+#jetty.session.saveOnCreate=false
+#jetty.session.removeUnloadableSessions=false
+#jetty.session.flushOnResponseCommit=false
+#jetty.session.invalidateOnShutdown=false
+#jetty.session.maxSessions=-1
+#jetty.session.maxBytes=-1
+#jetty.session.sweepInterval.ms=1000
@@ -0,0 +1,27 @@
+# DO NOT EDIT THIS FILE - See: https://eclipse.dev/jetty/documentation/
+
+[description]
+Enables a near cache of SessionData in front of the session-store-cache,
+kept coherent across the nodes of a cluster by invalidations sent with UDP multicast.
+
+[tags]
+session
+
+[depend]
+session-store-cache
+
+[xml]
+etc/sessions/session-data-cache/session-invalidation-multicast.xml
+
+[ini-template]
+## Max age in ms of near cache entries, bounding the use of stale data if invalidations are lost
+#jetty.session.nearCache.maxAge.ms=60000
+## Max number of sessions in the near cache
+#jetty.session.nearCache.maxSessions=10000
+## Time in ms a near cache entry is used without checking its version in the cache or store,
+## relying on invalidations only
+#jetty.session.nearCache.validationInterval.ms=0
+#jetty.session.invalidation.multicast.address=239.255.27.1
+#jetty.session.invalidation.multicast.port=45588
+#jetty.session.invalidation.multicast.timeToLive=1
+#jetty.session.invalidation.multicast.networkInterface=
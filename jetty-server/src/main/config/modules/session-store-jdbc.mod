@@ -27,6 +27,17 @@ db-connection-type?=datasource
 
 #jetty.session.gracePeriod.seconds=3600
 #jetty.session.savePeriod.seconds=0
+#jetty.session.partialUpdates=false
+
+## Interval in ms between batched writes of session data, 0 to write session data synchronously
+#jetty.session.jdbc.writeBehindInterval.ms=0
+## Max number of sessions queued for write behind, before a request thread writes them
+#jetty.session.jdbc.maxWriteBehindSessions=1024
+
+## Max number of expired sessions selected by each scavenge query, 0 to select them all at once
+#jetty.session.jdbc.scavengePageSize=1000
+## Max number of pages of expired sessions selected per scavenge cycle, 0 to select them all every cycle
+#jetty.session.jdbc.scavengeMaxPages=10
 
 #jetty.session.jdbc.blobType=
 #jetty.session.jdbc.longType=
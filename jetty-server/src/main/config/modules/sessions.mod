@@ -22,3 +22,6 @@ etc/sessions/id-manager.xml
 
 ## Period between runs of the session scavenger (in seconds)
 #jetty.sessionScavengeInterval.seconds=600
+
+## Max random delay added to each scavenger run, in percent of the period
+#jetty.sessionScavengeJitter.percent=10
@@ -17,17 +17,22 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
+import org.eclipse.jetty.http.CompressedContentEncoder;
 import org.eclipse.jetty.http.CompressedContentFormat;
 import org.eclipse.jetty.http.DateGenerator;
 import org.eclipse.jetty.http.HttpContent;
@@ -39,15 +44,28 @@ import org.eclipse.jetty.http.PreEncodedHttpField;
 import org.eclipse.jetty.http.PrecompressedHttpContent;
 import org.eclipse.jetty.http.ResourceHttpContent;
 import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.StringUtil;
+import org.eclipse.jetty.util.annotation.ManagedAttribute;
+import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.annotation.ManagedOperation;
 import org.eclipse.jetty.util.resource.Resource;
 import org.eclipse.jetty.util.resource.ResourceFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+@ManagedObject("Cache of static content")
 public class CachedContentFactory implements HttpContent.ContentFactory
 {
     private static final Logger LOG = LoggerFactory.getLogger(CachedContentFactory.class);
     private static final Map<CompressedContentFormat, CachedPrecompressedHttpContent> NO_PRECOMPRESSED = Collections.unmodifiableMap(Collections.emptyMap());
+    private static final Set<String> COMPRESSED_MIME_TYPES = Set.of(
+        "application/compress",
+        "application/zip",
+        "application/gzip",
+        "application/bzip2",
+        "application/brotli",
+        "application/x-xz",
+        "application/x-rar-compressed");
 
     private final ConcurrentMap<String, CachedHttpContent> _cache;
     private final AtomicInteger _cachedSize;
@@ -58,10 +76,18 @@ public class CachedContentFactory implements HttpContent.ContentFactory
     private final boolean _etags;
     private final CompressedContentFormat[] _precompressedFormats;
     private final boolean _useFileMappedBuffer;
+    private final LongAdder _hits = new LongAdder();
+    private final LongAdder _misses = new LongAdder();
+    private final LongAdder _evictions = new LongAdder();
+    private final LongAdder _encodings = new LongAdder();
+    private volatile EvictionPolicy _evictionPolicy = new LRUEvictionPolicy();
+    private final Set<String> _notEncoded = ConcurrentHashMap.newKeySet();
+    private volatile List<CompressedContentEncoder> _encoders = List.of();
 
     private int _maxCachedFileSize = 128 * 1024 * 1024;
     private int _maxCachedFiles = 2048;
     private int _maxCacheSize = 256 * 1024 * 1024;
+    private int _maxEncodedFileSize = 1024 * 1024;
 
     /**
      * Constructor.
@@ -86,16 +112,104 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         _precompressedFormats = precompressedFormats;
     }
 
+    @ManagedAttribute("The size in bytes of the cached content")
     public int getCachedSize()
     {
         return _cachedSize.get();
     }
 
+    @ManagedAttribute("The number of cached files")
     public int getCachedFiles()
     {
         return _cachedFiles.get();
     }
 
+    @ManagedAttribute("The number of requests for content found in the cache")
+    public long getHits()
+    {
+        return _hits.longValue();
+    }
+
+    @ManagedAttribute("The number of requests for content not found in the cache")
+    public long getMisses()
+    {
+        return _misses.longValue();
+    }
+
+    @ManagedAttribute("The number of cached files evicted to respect the cache limits")
+    public long getEvictions()
+    {
+        return _evictions.longValue();
+    }
+
+    @ManagedAttribute("The number of cached files compressed on the fly")
+    public long getEncodings()
+    {
+        return _encodings.longValue();
+    }
+
+    @ManagedOperation(value = "Resets the cache statistics", impact = "ACTION")
+    public void resetStatistics()
+    {
+        _hits.reset();
+        _misses.reset();
+        _evictions.reset();
+        _encodings.reset();
+    }
+
+    /**
+     * @return the encoders used to compress cached files on the fly
+     */
+    public List<CompressedContentEncoder> getEncoders()
+    {
+        return _encoders;
+    }
+
+    /**
+     * <p>Sets the encoders used to compress cached files on the fly.</p>
+     * <p>When a cached file has no valid precompressed resource for the format of an encoder,
+     * the file is compressed with the encoder the first time its precompressed contents are
+     * requested, and the compressed bytes are kept in a direct buffer with the cached file,
+     * so that they count towards {@link #getMaxCacheSize()} and are evicted with the file.
+     * Files are only compressed for clients that accept the encoding, files larger than
+     * {@link #getMaxEncodedFileSize()} or with an already compressed mime type (such as
+     * images or archives) are never compressed, and files that
+     * do not get smaller when compressed are not compressed again until they are modified,
+     * even if they are evicted from the cache in the meantime.</p>
+     *
+     * @param encoders the encoders used to compress cached files on the fly
+     */
+    public void setEncoders(List<CompressedContentEncoder> encoders)
+    {
+        _encoders = List.copyOf(encoders);
+    }
+
+    /**
+     * @return the policy that chooses the cached files to evict
+     */
+    public EvictionPolicy getEvictionPolicy()
+    {
+        return _evictionPolicy;
+    }
+
+    /**
+     * <p>Sets the policy that chooses the cached files to evict when
+     * the cache exceeds {@link #getMaxCachedFiles()} or {@link #getMaxCacheSize()}.</p>
+     * <p>The files already cached are added to the new policy.</p>
+     *
+     * @param evictionPolicy the policy that chooses the cached files to evict
+     */
+    public void setEvictionPolicy(EvictionPolicy evictionPolicy)
+    {
+        _evictionPolicy = Objects.requireNonNull(evictionPolicy);
+        for (Map.Entry<String, CachedHttpContent> entry : _cache.entrySet())
+        {
+            evictionPolicy.onAdded(entry.getKey(), entry.getValue().getContentLengthValue());
+        }
+        shrinkCache();
+    }
+
+    @ManagedAttribute("The maximum size in bytes of a cached file")
     public int getMaxCachedFileSize()
     {
         return _maxCachedFileSize;
@@ -107,6 +221,29 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         shrinkCache();
     }
 
+    /**
+     * @return the maximum size in bytes of a file compressed on the fly
+     */
+    @ManagedAttribute("The maximum size in bytes of a file compressed on the fly")
+    public int getMaxEncodedFileSize()
+    {
+        return _maxEncodedFileSize;
+    }
+
+    /**
+     * <p>Sets the maximum size in bytes of a file compressed on the fly.</p>
+     * <p>A file is read in memory and compressed by the thread of the request
+     * that first accepts the encoding, so this limit should be much smaller than
+     * {@link #getMaxCachedFileSize()}; larger files are served uncompressed.</p>
+     *
+     * @param maxEncodedFileSize the maximum size in bytes of a file compressed on the fly
+     */
+    public void setMaxEncodedFileSize(int maxEncodedFileSize)
+    {
+        _maxEncodedFileSize = maxEncodedFileSize;
+    }
+
+    @ManagedAttribute("The maximum size in bytes of the cached content")
     public int getMaxCacheSize()
     {
         return _maxCacheSize;
@@ -121,6 +258,7 @@ public class CachedContentFactory implements HttpContent.ContentFactory
     /**
      * @return the max number of cached files.
      */
+    @ManagedAttribute("The maximum number of cached files")
     public int getMaxCachedFiles()
     {
         return _maxCachedFiles;
@@ -140,6 +278,7 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         return _useFileMappedBuffer;
     }
 
+    @ManagedOperation(value = "Flushes the cache", impact = "ACTION")
     public void flushCache()
     {
         while (_cache.size() > 0)
@@ -148,7 +287,10 @@ public class CachedContentFactory implements HttpContent.ContentFactory
             {
                 CachedHttpContent content = _cache.remove(path);
                 if (content != null)
+                {
+                    _evictionPolicy.onRemoved(path);
                     content.invalidate();
+                }
             }
         }
     }
@@ -171,7 +313,12 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         // Is the content in this cache?
         CachedHttpContent content = _cache.get(pathInContext);
         if (content != null && (content).isValid())
+        {
+            _hits.increment();
+            _evictionPolicy.onAccessed(pathInContext);
             return content;
+        }
+        _misses.increment();
 
         // try loading the content from our factory.
         Resource resource = _factory.getResource(pathInContext);
@@ -240,6 +387,10 @@ public class CachedContentFactory implements HttpContent.ContentFactory
                                 compressedContent.invalidate();
                                 compressedContent = added;
                             }
+                            else
+                            {
+                                _evictionPolicy.onAdded(compressedPathInContext, compressedContent.getContentLengthValue());
+                            }
                         }
                     }
                     if (compressedContent != null)
@@ -257,6 +408,10 @@ public class CachedContentFactory implements HttpContent.ContentFactory
                 content.invalidate();
                 content = added;
             }
+            else
+            {
+                _evictionPolicy.onAdded(pathInContext, content.getContentLengthValue());
+            }
 
             return content;
         }
@@ -293,29 +448,25 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         // While we need to shrink
         while (_cache.size() > 0 && (_cachedFiles.get() > _maxCachedFiles || _cachedSize.get() > _maxCacheSize))
         {
-            // Scan the entire cache and generate an ordered list by last accessed time.
-            SortedSet<CachedHttpContent> sorted = new TreeSet<>((c1, c2) ->
+            // Ask the policy for the next file to evict, falling back to
+            // any cached file if the policy is not tracking any file.
+            String key = _evictionPolicy.evict();
+            if (key == null)
             {
-                if (c1._lastAccessed < c2._lastAccessed)
-                    return -1;
-
-                if (c1._lastAccessed > c2._lastAccessed)
-                    return 1;
-
-                if (c1._contentLengthValue < c2._contentLengthValue)
-                    return -1;
-
-                return c1._key.compareTo(c2._key);
-            });
-            sorted.addAll(_cache.values());
+                Iterator<String> keys = _cache.keySet().iterator();
+                if (!keys.hasNext())
+                    break;
+                key = keys.next();
+                _evictionPolicy.onRemoved(key);
+            }
 
-            // Invalidate least recently used first
-            for (CachedHttpContent content : sorted)
+            CachedHttpContent content = _cache.remove(key);
+            if (content != null)
             {
-                if (_cachedFiles.get() <= _maxCachedFiles && _cachedSize.get() <= _maxCacheSize)
-                    break;
-                if (content == _cache.remove(content.getKey()))
-                    content.invalidate();
+                if (LOG.isDebugEnabled())
+                    LOG.debug("Evicted {}", content);
+                _evictions.increment();
+                content.invalidate();
             }
         }
     }
@@ -371,6 +522,59 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         return "ResourceCache[" + _parent + "," + _factory + "]@" + hashCode();
     }
 
+    /**
+     * <p>A policy that chooses which cached files to evict when the cache
+     * exceeds its limits.</p>
+     * <p>Cached files are identified by their path in context.
+     * Implementations must be thread-safe, as they are notified concurrently
+     * by the threads serving content.</p>
+     *
+     * @see LRUEvictionPolicy
+     * @see TinyLFUEvictionPolicy
+     */
+    public interface EvictionPolicy
+    {
+        /**
+         * @param key the path in context of a file added to the cache
+         * @param size the size in bytes of the file
+         */
+        void onAdded(String key, long size);
+
+        /**
+         * @param key the path in context of a cached file that has been accessed
+         */
+        void onAccessed(String key);
+
+        /**
+         * @param key the path in context of a file removed from the cache
+         */
+        void onRemoved(String key);
+
+        /**
+         * <p>Chooses the next cached file to evict, and stops tracking it.</p>
+         *
+         * @return the path in context of the file to evict, or null if no file is tracked
+         */
+        String evict();
+    }
+
+    /**
+     * @param contentType the content type of a file, or null if unknown
+     * @return whether the file may get smaller when compressed, that is
+     * whether its mime type is not already a compressed format
+     */
+    static boolean isCompressible(String contentType)
+    {
+        if (contentType == null)
+            return true;
+        String mimeType = StringUtil.asciiToLowerCase(MimeTypes.getContentTypeWithoutCharset(contentType));
+        if (mimeType.startsWith("image/"))
+            return "image/svg+xml".equals(mimeType);
+        if (mimeType.startsWith("audio/") || mimeType.startsWith("video/"))
+            return false;
+        return !COMPRESSED_MIME_TYPES.contains(mimeType);
+    }
+
     /**
      * MetaData associated with a context Resource.
      */
@@ -387,10 +591,12 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         private final long _lastModifiedValue;
         private final HttpField _etag;
         private final Map<CompressedContentFormat, CachedPrecompressedHttpContent> _precompressed;
+        private final Map<CompressedContentFormat, CachedEncodedHttpContent> _encoded = new ConcurrentHashMap<>();
+        private final Set<CompressedContentFormat> _encoding = ConcurrentHashMap.newKeySet();
         private final AtomicReference<ByteBuffer> _indirectBuffer = new AtomicReference<>();
         private final AtomicReference<ByteBuffer> _directBuffer = new AtomicReference<>();
         private final AtomicReference<ByteBuffer> _mappedBuffer = new AtomicReference<>();
-        private volatile long _lastAccessed;
+        private volatile boolean _invalidated;
 
         CachedHttpContent(String pathInContext, Resource resource, Map<CompressedContentFormat, CachedHttpContent> precompressedResources)
         {
@@ -413,8 +619,6 @@ public class CachedContentFactory implements HttpContent.ContentFactory
             if (_cachedFiles.incrementAndGet() > _maxCachedFiles)
                 shrinkCache();
 
-            _lastAccessed = System.currentTimeMillis();
-
             _etag = CachedContentFactory.this._etags ? new PreEncodedHttpField(HttpHeader.ETAG, resource.getWeakETag()) : null;
 
             if (precompressedResources != null)
@@ -462,18 +666,20 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         boolean isValid()
         {
             if (_lastModifiedValue == _resource.lastModified() && _contentLengthValue == _resource.length())
-            {
-                _lastAccessed = System.currentTimeMillis();
                 return true;
-            }
 
-            if (this == _cache.remove(_key))
+            if (_cache.remove(_key, this))
+            {
+                _evictionPolicy.onRemoved(_key);
                 invalidate();
+            }
             return false;
         }
 
         protected void invalidate()
         {
+            _invalidated = true;
+
             ByteBuffer indirect = _indirectBuffer.getAndSet(null);
             if (indirect != null)
                 _cachedSize.addAndGet(-BufferUtil.length(indirect));
@@ -484,6 +690,12 @@ public class CachedContentFactory implements HttpContent.ContentFactory
 
             _mappedBuffer.getAndSet(null);
 
+            for (Map.Entry<CompressedContentFormat, CachedEncodedHttpContent> entry : _encoded.entrySet())
+            {
+                if (_encoded.remove(entry.getKey(), entry.getValue()))
+                    _cachedSize.addAndGet(-(int)entry.getValue().getContentLengthValue());
+            }
+
             _cachedFiles.decrementAndGet();
             _resource.close();
         }
@@ -654,19 +866,164 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         @Override
         public Map<CompressedContentFormat, ? extends HttpContent> getPrecompressedContents()
         {
-            if (_precompressed.size() == 0)
-                return null;
-            Map<CompressedContentFormat, CachedPrecompressedHttpContent> ret = _precompressed;
+            return getPrecompressedContents(null);
+        }
+
+        /**
+         * <p>Returns the valid precompressed variants of this content, compressing it
+         * on the fly with the configured encoders for the formats that have no precompressed
+         * resource and whose encoding is accepted by the client.</p>
+         * <p>When another thread is already compressing this content with an encoder,
+         * the variant of that encoder is omitted rather than waiting for it.</p>
+         *
+         * @param acceptedEncodings the encodings accepted by the client,
+         * or null to only return the variants that are already available
+         * @return the precompressed variants, or null if there are none
+         */
+        @Override
+        public Map<CompressedContentFormat, ? extends HttpContent> getPrecompressedContents(List<String> acceptedEncodings)
+        {
+            Map<CompressedContentFormat, PrecompressedHttpContent> ret = null;
             for (Map.Entry<CompressedContentFormat, CachedPrecompressedHttpContent> entry : _precompressed.entrySet())
             {
                 if (!entry.getValue().isValid())
                 {
-                    if (ret == _precompressed)
+                    if (ret == null)
                         ret = new HashMap<>(_precompressed);
                     ret.remove(entry.getKey());
                 }
             }
-            return ret;
+
+            // Add the variants compressed on the fly for the formats without a precompressed resource.
+            for (CompressedContentEncoder encoder : _encoders)
+            {
+                CompressedContentFormat format = encoder.getFormat();
+                if ((ret == null ? _precompressed : ret).containsKey(format))
+                    continue;
+                CachedEncodedHttpContent encoded = _encoded.get(format);
+                if (encoded == null && isAccepted(acceptedEncodings, format))
+                    encoded = encode(encoder);
+                if (encoded != null)
+                {
+                    if (ret == null)
+                        ret = new HashMap<>(_precompressed);
+                    ret.put(format, encoded);
+                }
+            }
+
+            if (ret == null)
+                return _precompressed.isEmpty() ? null : _precompressed;
+            return ret.isEmpty() ? null : ret;
+        }
+
+        /**
+         * @return whether this content may have variants compressed on the fly
+         * for clients that accept the encoding of a configured encoder
+         */
+        boolean isEncodable()
+        {
+            if (!isEncodableSize() || !isCompressible(getContentTypeValue()))
+                return false;
+            for (CompressedContentEncoder encoder : _encoders)
+            {
+                CompressedContentFormat format = encoder.getFormat();
+                if (!_precompressed.containsKey(format) && !_notEncoded.contains(notEncodedKey(format)))
+                    return true;
+            }
+            return false;
+        }
+
+        private boolean isEncodableSize()
+        {
+            return _contentLengthValue > 0 && _contentLengthValue < _maxCachedFileSize && _contentLengthValue <= _maxEncodedFileSize;
+        }
+
+        private boolean isAccepted(List<String> acceptedEncodings, CompressedContentFormat format)
+        {
+            if (acceptedEncodings == null)
+                return false;
+            for (String encoding : acceptedEncodings)
+            {
+                if ("*".equals(encoding) || format.getEncoding().equals(encoding))
+                    return true;
+            }
+            return false;
+        }
+
+        private String notEncodedKey(CompressedContentFormat format)
+        {
+            return _resource + "|" + _lastModifiedValue + "|" + _contentLengthValue + "|" + format.getEncoding();
+        }
+
+        private void notEncoded(CompressedContentFormat format)
+        {
+            // Bound the memory of the files not worth compressing, it is only an optimization.
+            if (_notEncoded.size() >= Math.max(_maxCachedFiles, 1024))
+                _notEncoded.clear();
+            _notEncoded.add(notEncodedKey(format));
+        }
+
+        private CachedEncodedHttpContent encode(CompressedContentEncoder encoder)
+        {
+            CompressedContentFormat format = encoder.getFormat();
+            if (!isEncodableSize() || !isCompressible(getContentTypeValue()))
+                return null;
+            if (_notEncoded.contains(notEncodedKey(format)))
+                return null;
+
+            // Only one thread compresses a given format, the others serve the content as is.
+            if (!_encoding.add(format))
+                return null;
+            try
+            {
+                ByteBuffer encoded;
+                try
+                {
+                    ByteBuffer content = BufferUtil.toBuffer(_resource, false);
+                    encoded = encoder.encode(content);
+                }
+                catch (IOException | RuntimeException x)
+                {
+                    if (LOG.isDebugEnabled())
+                        LOG.debug("Unable to encode {} with {}", this, encoder, x);
+                    notEncoded(format);
+                    return null;
+                }
+
+                // Only cache the compressed variant if it is worth it.
+                if (encoded.remaining() >= _contentLengthValue)
+                {
+                    notEncoded(format);
+                    return null;
+                }
+
+                // Keep the compressed bytes off-heap.
+                ByteBuffer buffer = BufferUtil.allocateDirect(encoded.remaining());
+                BufferUtil.append(buffer, encoded);
+                CachedEncodedHttpContent content = new CachedEncodedHttpContent(this, format, buffer);
+                CachedEncodedHttpContent existing = _encoded.putIfAbsent(format, content);
+                if (existing != null)
+                    return existing;
+                _cachedSize.addAndGet(buffer.remaining());
+
+                // If this content was invalidated while compressing, undo the accounting
+                // unless invalidate() already removed the variant and did it.
+                if (_invalidated)
+                {
+                    if (_encoded.remove(format, content))
+                        _cachedSize.addAndGet(-buffer.remaining());
+                    return null;
+                }
+
+                _encodings.increment();
+                if (_cachedSize.get() > _maxCacheSize)
+                    shrinkCache();
+                return content;
+            }
+            finally
+            {
+                _encoding.remove(format);
+            }
         }
     }
 
@@ -712,4 +1069,90 @@ public class CachedContentFactory implements HttpContent.ContentFactory
             return "Cached" + super.toString();
         }
     }
+
+    /**
+     * <p>The variant of a cached file compressed on the fly by a {@link CompressedContentEncoder}.</p>
+     */
+    public class CachedEncodedHttpContent extends PrecompressedHttpContent
+    {
+        private final CachedHttpContent _content;
+        private final CompressedContentFormat _format;
+        private final ByteBuffer _buffer;
+        private final HttpField _contentLength;
+        private final HttpField _etag;
+
+        CachedEncodedHttpContent(CachedHttpContent content, CompressedContentFormat format, ByteBuffer buffer)
+        {
+            super(content, content, format);
+            _content = content;
+            _format = format;
+            _buffer = buffer;
+            _contentLength = new PreEncodedHttpField(HttpHeader.CONTENT_LENGTH, Long.toString(buffer.remaining()));
+            _etag = (CachedContentFactory.this._etags) ? new PreEncodedHttpField(HttpHeader.ETAG, _content.getResource().getWeakETag(format.getEtagSuffix())) : null;
+        }
+
+        public boolean isValid()
+        {
+            return _content.isValid();
+        }
+
+        @Override
+        public HttpField getETag()
+        {
+            if (_etag != null)
+                return _etag;
+            return super.getETag();
+        }
+
+        @Override
+        public String getETagValue()
+        {
+            if (_etag != null)
+                return _etag.getValue();
+            return super.getETagValue();
+        }
+
+        @Override
+        public ByteBuffer getIndirectBuffer()
+        {
+            // The compressed bytes are only kept off-heap.
+            return _buffer.asReadOnlyBuffer();
+        }
+
+        @Override
+        public ByteBuffer getDirectBuffer()
+        {
+            return _buffer.asReadOnlyBuffer();
+        }
+
+        @Override
+        public HttpField getContentLength()
+        {
+            return _contentLength;
+        }
+
+        @Override
+        public long getContentLengthValue()
+        {
+            return _buffer.remaining();
+        }
+
+        @Override
+        public InputStream getInputStream()
+        {
+            return new ByteArrayInputStream(BufferUtil.toArray(_buffer));
+        }
+
+        @Override
+        public ReadableByteChannel getReadableByteChannel()
+        {
+            return Channels.newChannel(getInputStream());
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("CachedEncodedHttpContent@%x{e=%s,r=%s,l=%d}", hashCode(), _format, _content.getResource(), _buffer.remaining());
+        }
+    }
 }
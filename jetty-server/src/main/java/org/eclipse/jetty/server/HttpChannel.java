@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.EventListener;
 import java.util.List;
@@ -54,6 +55,7 @@ import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.HostPort;
 import org.eclipse.jetty.util.SharedBlockingCallback.Blocker;
 import org.eclipse.jetty.util.StringUtil;
+import org.eclipse.jetty.util.VirtualThreads;
 import org.eclipse.jetty.util.thread.Scheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -107,7 +109,7 @@ public abstract class HttpChannel implements Runnable, HttpOutput.Interceptor
         _state = new HttpChannelState(this);
         _request = new Request(this, newHttpInput(_state));
         _response = new Response(this, newHttpOutput());
-        _executor = connector.getServer().getThreadPool();
+        _executor = executorFor(connector.getServer().getThreadPool());
         _requestLog = connector.getServer().getRequestLog();
         _combinedListener = (connector instanceof AbstractConnector)
             ? ((AbstractConnector)connector).getHttpChannelListeners()
@@ -1123,6 +1125,38 @@ public abstract class HttpChannel implements Runnable, HttpOutput.Interceptor
         sendResponse(null, content, complete, callback);
     }
 
+    /**
+     * @return whether file content can be transferred directly to the network by this channel
+     * @see #transferContent(FileChannel, long, long, Callback)
+     */
+    boolean isFileChannelTransferSupported()
+    {
+        return _transport instanceof HttpConnection && ((HttpConnection)_transport).isFileChannelTransferSupported();
+    }
+
+    /**
+     * <p>Non-Blocking transfer of a region of a file directly to the network,
+     * as content of a response that has already been committed.</p>
+     *
+     * @param file the file to transfer content from
+     * @param position the position within the file of the first byte to transfer
+     * @param count the number of bytes to transfer
+     * @param callback Callback when complete or failed
+     * @see HttpConnection#transferFrom(FileChannel, long, long, Callback)
+     */
+    void transferContent(FileChannel file, long position, long count, Callback callback)
+    {
+        ((HttpConnection)_transport).transferFrom(file, position, count, new Callback.Nested(callback)
+        {
+            @Override
+            public void succeeded()
+            {
+                _written += count;
+                super.succeeded();
+            }
+        });
+    }
+
     @Override
     public void resetBuffer()
     {
@@ -1136,6 +1170,17 @@ public abstract class HttpChannel implements Runnable, HttpOutput.Interceptor
         return null;
     }
 
+    /**
+     * @param executor the server thread pool
+     * @return the executor to use to dispatch the handling of requests, which
+     * executes tasks in virtual threads if the thread pool is configured to use them
+     */
+    static Executor executorFor(Executor executor)
+    {
+        Executor virtualExecutor = VirtualThreads.getVirtualThreadsExecutor(executor);
+        return virtualExecutor == null ? executor : virtualExecutor;
+    }
+
     protected void execute(Runnable task)
     {
         _executor.execute(task);
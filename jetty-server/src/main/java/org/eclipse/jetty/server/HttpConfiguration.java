@@ -58,6 +58,7 @@ public class HttpConfiguration implements Dumpable
     private int _responseHeaderSize = 8 * 1024;
     private int _headerCacheSize = 1024;
     private boolean _headerCacheCaseSensitive = false;
+    private boolean _headerCacheAllFields = false;
     private int _securePort;
     private long _idleTimeout = -1;
     private String _secureScheme = HttpScheme.HTTPS.asString();
@@ -69,6 +70,7 @@ public class HttpConfiguration implements Dumpable
     private int _maxErrorDispatches = 10;
     private boolean _useInputDirectByteBuffers = true;
     private boolean _useOutputDirectByteBuffers = true;
+    private boolean _useFileChannelTransfer;
     private long _minRequestDataRate;
     private long _minResponseDataRate;
     private HttpCompliance _httpCompliance = HttpCompliance.RFC7230;
@@ -131,6 +133,7 @@ public class HttpConfiguration implements Dumpable
         _responseHeaderSize = config._responseHeaderSize;
         _headerCacheSize = config._headerCacheSize;
         _headerCacheCaseSensitive = config._headerCacheCaseSensitive;
+        _headerCacheAllFields = config._headerCacheAllFields;
         _secureScheme = config._secureScheme;
         _securePort = config._securePort;
         _idleTimeout = config._idleTimeout;
@@ -142,6 +145,7 @@ public class HttpConfiguration implements Dumpable
         _maxErrorDispatches = config._maxErrorDispatches;
         _useInputDirectByteBuffers = config._useInputDirectByteBuffers;
         _useOutputDirectByteBuffers = config._useOutputDirectByteBuffers;
+        _useFileChannelTransfer = config._useFileChannelTransfer;
         _minRequestDataRate = config._minRequestDataRate;
         _minResponseDataRate = config._minResponseDataRate;
         _httpCompliance = config._httpCompliance;
@@ -218,6 +222,12 @@ public class HttpConfiguration implements Dumpable
         return _headerCacheCaseSensitive;
     }
 
+    @ManagedAttribute("True if all header fields may be cached, not only the common ones")
+    public boolean isHeaderCacheAllFields()
+    {
+        return _headerCacheAllFields;
+    }
+
     @ManagedAttribute("The port to which Integral or Confidential security constraints are redirected")
     public int getSecurePort()
     {
@@ -365,6 +375,28 @@ public class HttpConfiguration implements Dumpable
         return _useOutputDirectByteBuffers;
     }
 
+    /**
+     * <p>Sets whether file content sent by {@link HttpOutput} may be transferred directly
+     * to the network with {@code FileChannel.transferTo()}, without copying it through
+     * user space buffers.</p>
+     * <p>The direct transfer is only used for HTTP/1.1 connections over clear-text sockets, when no
+     * {@link HttpOutput.Interceptor} is installed and the response content length is known;
+     * otherwise the file content is written through buffers as usual.
+     * {@link HttpChannel.Listener}s are not notified of the content transferred directly.</p>
+     *
+     * @param useFileChannelTransfer whether to transfer file content directly to the network
+     */
+    public void setUseFileChannelTransfer(boolean useFileChannelTransfer)
+    {
+        _useFileChannelTransfer = useFileChannelTransfer;
+    }
+
+    @ManagedAttribute("Whether to transfer file content directly to the network")
+    public boolean isUseFileChannelTransfer()
+    {
+        return _useFileChannelTransfer;
+    }
+
     /**
      * <p>Sets the {@link Customizer}s that are invoked for every
      * request received.</p>
@@ -445,6 +477,23 @@ public class HttpConfiguration implements Dumpable
         this._headerCacheCaseSensitive = headerCacheCaseSensitive;
     }
 
+    /**
+     * <p>Sets whether all the request header fields may be added to the per-connection header field cache.</p>
+     * <p>By default only the fields of common headers whose values are likely to be repeated
+     * (such as {@code Host}, {@code Accept} or {@code User-Agent}) are cached.
+     * When all fields are cached, any field repeated on a persistent connection is matched
+     * directly from the input buffer without allocating, which benefits clients that send
+     * the same custom headers with every request; however fields with unique values
+     * fill the cache, which is then cleared.</p>
+     *
+     * @param headerCacheAllFields whether all header fields may be cached
+     * @see #setHeaderCacheSize(int)
+     */
+    public void setHeaderCacheAllFields(boolean headerCacheAllFields)
+    {
+        _headerCacheAllFields = headerCacheAllFields;
+    }
+
     /**
      * <p>Sets the TCP/IP port used for CONFIDENTIAL and INTEGRAL redirections.</p>
      *
@@ -755,6 +804,7 @@ public class HttpConfiguration implements Dumpable
             "requestHeaderSize=" + _requestHeaderSize,
             "responseHeaderSize=" + _responseHeaderSize,
             "headerCacheSize=" + _headerCacheSize,
+            "headerCacheAllFields=" + _headerCacheAllFields,
             "secureScheme=" + _secureScheme,
             "securePort=" + _securePort,
             "idleTimeout=" + _idleTimeout,
@@ -769,7 +819,8 @@ public class HttpConfiguration implements Dumpable
             "requestCookieCompliance=" + _requestCookieCompliance,
             "responseCookieCompliance=" + _responseCookieCompliance,
             "notifyRemoteAsyncErrors=" + _notifyRemoteAsyncErrors,
-            "relativeRedirectAllowed=" + _relativeRedirectAllowed
+            "relativeRedirectAllowed=" + _relativeRedirectAllowed,
+            "useFileChannelTransfer=" + _useFileChannelTransfer
         );
     }
 
@@ -13,8 +13,10 @@
 
 package org.eclipse.jetty.server;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.WritePendingException;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.LongAdder;
@@ -36,6 +38,7 @@ import org.eclipse.jetty.io.EndPoint;
 import org.eclipse.jetty.io.EofException;
 import org.eclipse.jetty.io.RetainableByteBuffer;
 import org.eclipse.jetty.io.RetainableByteBufferPool;
+import org.eclipse.jetty.io.SocketChannelEndPoint;
 import org.eclipse.jetty.io.WriteFlusher;
 import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.Callback;
@@ -137,6 +140,7 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
         HttpParser parser = new HttpParser(newRequestHandler(), getHttpConfiguration().getRequestHeaderSize(), compliance);
         parser.setHeaderCacheSize(getHttpConfiguration().getHeaderCacheSize());
         parser.setHeaderCacheCaseSensitive(getHttpConfiguration().isHeaderCacheCaseSensitive());
+        parser.setHeaderCacheAllFields(getHttpConfiguration().isHeaderCacheAllFields());
         return parser;
     }
 
@@ -504,7 +508,7 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
                     // Dispatched to handle a pipelined request
                     try
                     {
-                        getExecutor().execute(this);
+                        HttpChannel.executorFor(getExecutor()).execute(this);
                     }
                     catch (RejectedExecutionException e)
                     {
@@ -546,7 +550,7 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
         if (isRequestBufferEmpty())
             fillInterested();
         else
-            getExecutor().execute(this);
+            HttpChannel.executorFor(getExecutor()).execute(this);
     }
 
     @Override
@@ -590,6 +594,35 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
         }
     }
 
+    /**
+     * @return whether file content can be transferred directly to this connection's {@link EndPoint}
+     * @see #transferFrom(FileChannel, long, long, Callback)
+     */
+    public boolean isFileChannelTransferSupported()
+    {
+        EndPoint endPoint = getEndPoint();
+        return endPoint instanceof SocketChannelEndPoint && ((SocketChannelEndPoint)endPoint).isTransferFromSupported();
+    }
+
+    /**
+     * <p>Transfers a region of a file directly to this connection's {@link EndPoint},
+     * as response content following headers that have already been sent.</p>
+     * <p>The region is written without any framing, so the response must have
+     * been committed with a content length that delimits the transferred bytes.</p>
+     *
+     * @param file the file to transfer content from
+     * @param position the position within the file of the first byte to transfer
+     * @param count the number of bytes to transfer
+     * @param callback the callback notified when the transfer is complete
+     * @see #isFileChannelTransferSupported()
+     */
+    public void transferFrom(FileChannel file, long position, long count, Callback callback)
+    {
+        if (LOG.isDebugEnabled())
+            LOG.debug("transferFrom {} {}/{} {}", file, position, count, this);
+        new TransferCallback(file, position, count, callback).iterate();
+    }
+
     HttpInput.Content newContent(ByteBuffer c)
     {
         return new Content(c);
@@ -919,4 +952,92 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
             return String.format("%s[i=%s,cb=%s]", super.toString(), _info, _callback);
         }
     }
+
+    private class TransferCallback extends IteratingCallback
+    {
+        private final FileChannel _file;
+        private final Callback _callback;
+        private long _position;
+        private long _remaining;
+        private ByteBuffer _buffer;
+
+        private TransferCallback(FileChannel file, long position, long count, Callback callback)
+        {
+            _file = file;
+            _position = position;
+            _remaining = count;
+            _callback = callback;
+        }
+
+        @Override
+        public InvocationType getInvocationType()
+        {
+            return _callback.getInvocationType();
+        }
+
+        @Override
+        protected Action process() throws Exception
+        {
+            releaseBuffer();
+
+            // Don't transfer the content if this is a HEAD response, or any other type of response that should have no content
+            if (_channel.getRequest().isHead() || _generator.isNoContent())
+                return Action.SUCCEEDED;
+
+            SocketChannelEndPoint endPoint = (SocketChannelEndPoint)getEndPoint();
+            while (_remaining > 0)
+            {
+                long transferred = endPoint.transferFrom(_file, _position, _remaining);
+                if (transferred > 0)
+                {
+                    bytesOut.add(transferred);
+                    _position += transferred;
+                    _remaining -= transferred;
+                    continue;
+                }
+
+                // The socket cannot accept more bytes, so read a chunk of the file and
+                // let the WriteFlusher write it once the EndPoint is writable again.
+                _buffer = _bufferPool.acquire((int)Math.min(_config.getOutputBufferSize(), _remaining), isUseOutputDirectByteBuffers());
+                BufferUtil.clearToFill(_buffer);
+                _buffer.limit((int)Math.min(_buffer.capacity(), _remaining));
+                int read = _file.read(_buffer, _position);
+                BufferUtil.flipToFlush(_buffer, 0);
+                if (read < 0)
+                    throw new EOFException("Unexpected EOF transferring " + _file);
+                bytesOut.add(read);
+                _position += read;
+                _remaining -= read;
+                endPoint.write(this, _buffer);
+                return Action.SCHEDULED;
+            }
+            return Action.SUCCEEDED;
+        }
+
+        private void releaseBuffer()
+        {
+            if (_buffer != null)
+                _bufferPool.release(_buffer);
+            _buffer = null;
+        }
+
+        @Override
+        protected void onCompleteSuccess()
+        {
+            _callback.succeeded();
+        }
+
+        @Override
+        protected void onCompleteFailure(Throwable x)
+        {
+            releaseBuffer();
+            _callback.failed(x);
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%s[p=%d,r=%d,cb=%s]", super.toString(), _position, _remaining, _callback);
+        }
+    }
 }
@@ -13,10 +13,12 @@
 
 package org.eclipse.jetty.server;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritePendingException;
 import java.nio.charset.Charset;
@@ -1172,6 +1174,23 @@ public class HttpOutput extends ServletOutputStream implements Runnable
         }
     }
 
+    /**
+     * Blocking send of a region of file content.
+     *
+     * @param in The file content to send
+     * @param position The position within the file of the first byte to send
+     * @param count The number of bytes to send
+     * @throws IOException if the send fails
+     */
+    public void sendContent(FileChannel in, long position, long count) throws IOException
+    {
+        try (Blocker blocker = _writeBlocker.acquire())
+        {
+            sendContent(in, position, count, blocker);
+            blocker.block();
+        }
+    }
+
     /**
      * Blocking send of HTTP content.
      *
@@ -1250,6 +1269,26 @@ public class HttpOutput extends ServletOutputStream implements Runnable
             new ReadableByteChannelWritingCB(in, callback).iterate();
     }
 
+    /**
+     * Asynchronous send of a region of file content.
+     * The channel will be closed after sending the region.
+     * <p>If {@link HttpConfiguration#isUseFileChannelTransfer()} is true, the region
+     * may be transferred directly to the network, without copying it through buffers.</p>
+     *
+     * @param in The file content to send
+     * @param position The position within the file of the first byte to send
+     * @param count The number of bytes to send
+     * @param callback The callback to use to notify success or failure
+     */
+    public void sendContent(FileChannel in, long position, long count, Callback callback)
+    {
+        if (LOG.isDebugEnabled())
+            LOG.debug("sendContent(file={},{}/{},{})", in, position, count, callback);
+
+        if (prepareSendContent(0, callback))
+            new FileChannelWritingCB(in, position, count, callback).iterate();
+    }
+
     private boolean prepareSendContent(int len, Callback callback)
     {
         try (AutoLock l = _channelState.lock())
@@ -1323,6 +1362,16 @@ public class HttpOutput extends ServletOutputStream implements Runnable
             if (LOG.isDebugEnabled())
                 LOG.debug("Unable to access ReadableByteChannel for content {}", httpContent, x);
         }
+        if (rbc instanceof FileChannel && _channel.getHttpConfiguration().isUseFileChannelTransfer())
+        {
+            long length = httpContent.getContentLengthValue();
+            if (length >= 0)
+            {
+                // Close of the file is done by the async sendContent
+                sendContent((FileChannel)rbc, 0, length, callback);
+                return;
+            }
+        }
         if (rbc != null)
         {
             // Close of the rbc is done by the async sendContent
@@ -1868,6 +1917,130 @@ public class HttpOutput extends ServletOutputStream implements Runnable
         }
     }
 
+    /**
+     * An iterating callback that will take content from a region of a
+     * FileChannel and write it to the {@link HttpChannel}.
+     * If {@link HttpConfiguration#isUseFileChannelTransfer()} is true and the response
+     * can be sent without interception or framing, the response is committed and then the
+     * region is transferred directly to the network by {@link HttpChannel#transferContent(FileChannel, long, long, Callback)}.
+     * Otherwise a {@link ByteBuffer} of size {@link HttpOutput#getBufferSize()} is used that will be direct if
+     * {@link HttpChannel#isUseOutputDirectByteBuffers()} is true.
+     */
+    private class FileChannelWritingCB extends NestedChannelWriteCB
+    {
+        private final FileChannel _in;
+        private final boolean _transfer;
+        private ByteBuffer _buffer;
+        private long _position;
+        private long _remaining;
+        private boolean _committed;
+        private boolean _eof;
+        private boolean _closed;
+
+        private FileChannelWritingCB(FileChannel in, long position, long count, Callback callback)
+        {
+            super(callback, true);
+            _in = in;
+            _position = position;
+            _remaining = count;
+            _transfer = count > 0 && isFileChannelTransfer(count);
+        }
+
+        @Override
+        protected Action process() throws Exception
+        {
+            // Only return if EOF has previously been reached and thus
+            // a write done with EOF=true
+            if (_eof)
+            {
+                if (LOG.isDebugEnabled())
+                    LOG.debug("EOF of {}", this);
+                if (!_closed)
+                {
+                    _closed = true;
+                    release();
+                }
+                return Action.SUCCEEDED;
+            }
+
+            if (_transfer)
+            {
+                // Commit the response, so that only content remains to be written.
+                if (!_committed)
+                {
+                    _committed = true;
+                    channelWrite(BufferUtil.EMPTY_BUFFER, false, this);
+                    return Action.SCHEDULED;
+                }
+
+                if (_remaining > 0)
+                {
+                    long position = _position;
+                    long count = _remaining;
+                    _position += count;
+                    _remaining = 0;
+                    _written += count;
+                    _channel.transferContent(_in, position, count, this);
+                    return Action.SCHEDULED;
+                }
+
+                _eof = true;
+                channelWrite(BufferUtil.EMPTY_BUFFER, true, this);
+                return Action.SCHEDULED;
+            }
+
+            if (_buffer == null)
+                _buffer = _channel.getByteBufferPool().acquire(getBufferSize(), _channel.isUseOutputDirectByteBuffers());
+
+            // Read from the file until buffer full or the region is read
+            BufferUtil.clearToFill(_buffer);
+            _buffer.limit((int)Math.min(_buffer.capacity(), _remaining));
+            while (_buffer.hasRemaining())
+            {
+                int read = _in.read(_buffer, _position);
+                if (read < 0)
+                    throw new EOFException("Unexpected EOF reading " + _in);
+                _position += read;
+            }
+
+            // write what we have
+            BufferUtil.flipToFlush(_buffer, 0);
+            _remaining -= _buffer.remaining();
+            _written += _buffer.remaining();
+            _eof = _remaining == 0;
+            channelWrite(_buffer, _eof, this);
+
+            return Action.SCHEDULED;
+        }
+
+        private void release()
+        {
+            if (_buffer != null)
+                _channel.getByteBufferPool().release(_buffer);
+            IO.close(_in);
+        }
+
+        @Override
+        public void onCompleteFailure(Throwable x)
+        {
+            release();
+            super.onCompleteFailure(x);
+        }
+    }
+
+    private boolean isFileChannelTransfer(long count)
+    {
+        if (!_channel.getHttpConfiguration().isUseFileChannelTransfer())
+            return false;
+        // Interceptors, such as the GzipHttpOutputInterceptor, need to see the content.
+        if (_interceptor != _channel)
+            return false;
+        // The content is transferred without any framing, so its length must be known.
+        if (_channel.getResponse().getLongContentLength() != count)
+            return false;
+        return _channel.isFileChannelTransferSupported();
+    }
+
     private static class WriteBlocker extends SharedBlockingCallback
     {
         private final HttpChannel _channel;
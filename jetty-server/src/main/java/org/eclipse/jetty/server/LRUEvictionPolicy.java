@@ -0,0 +1,81 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jetty.util.thread.AutoLock;
+
+/**
+ * <p>A {@link CachedContentFactory.EvictionPolicy} that evicts the least recently used file first.</p>
+ * <p>All operations take constant time.</p>
+ */
+public class LRUEvictionPolicy implements CachedContentFactory.EvictionPolicy
+{
+    private final AutoLock _lock = new AutoLock();
+    private final Map<String, Boolean> _entries = new LinkedHashMap<>(16, 0.75F, true);
+
+    @Override
+    public void onAdded(String key, long size)
+    {
+        try (AutoLock l = _lock.lock())
+        {
+            _entries.put(key, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public void onAccessed(String key)
+    {
+        try (AutoLock l = _lock.lock())
+        {
+            // An access ordered map moves the entry to the end.
+            _entries.get(key);
+        }
+    }
+
+    @Override
+    public void onRemoved(String key)
+    {
+        try (AutoLock l = _lock.lock())
+        {
+            _entries.remove(key);
+        }
+    }
+
+    @Override
+    public String evict()
+    {
+        try (AutoLock l = _lock.lock())
+        {
+            Iterator<String> keys = _entries.keySet().iterator();
+            if (!keys.hasNext())
+                return null;
+            String key = keys.next();
+            keys.remove();
+            return key;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        try (AutoLock l = _lock.lock())
+        {
+            return String.format("%s@%x{size=%d}", getClass().getSimpleName(), hashCode(), _entries.size());
+        }
+    }
+}
@@ -18,6 +18,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.InvalidPathException;
 import java.util.Collection;
@@ -273,13 +275,13 @@ public class ResourceService
                 return true;
 
             // Precompressed variant available?
-            Map<CompressedContentFormat, ? extends HttpContent> precompressedContents = checkPrecompressedVariants ? content.getPrecompressedContents() : null;
+            List<String> preferredEncodings = checkPrecompressedVariants ? getPreferredEncodingOrder(request) : null;
+            Map<CompressedContentFormat, ? extends HttpContent> precompressedContents = checkPrecompressedVariants ? content.getPrecompressedContents(preferredEncodings) : null;
             if (precompressedContents != null && precompressedContents.size() > 0)
             {
                 // Tell caches that response may vary by accept-encoding
                 response.addHeader(HttpHeader.VARY.asString(), HttpHeader.ACCEPT_ENCODING.asString());
 
-                List<String> preferredEncodings = getPreferredEncodingOrder(request);
                 CompressedContentFormat precompressedContentEncoding = getBestPrecompressedContent(preferredEncodings, precompressedContents.keySet());
                 if (precompressedContentEncoding != null)
                 {
@@ -290,6 +292,11 @@ public class ResourceService
                     response.setHeader(HttpHeader.CONTENT_ENCODING.asString(), precompressedContentEncoding.getEncoding());
                 }
             }
+            else if (checkPrecompressedVariants && content instanceof CachedContentFactory.CachedHttpContent && ((CachedContentFactory.CachedHttpContent)content).isEncodable())
+            {
+                // The content is compressed on the fly for clients that accept the encoding.
+                response.addHeader(HttpHeader.VARY.asString(), HttpHeader.ACCEPT_ENCODING.asString());
+            }
 
             // TODO this should be done by HttpContent#getContentEncoding
             if (isGzippedContent(pathInContext))
@@ -783,6 +790,19 @@ public class ResourceService
                     response.addDateHeader(HttpHeader.DATE.asString(), System.currentTimeMillis());
                 response.setHeader(HttpHeader.CONTENT_RANGE.asString(),
                     singleSatisfiableRange.toHeaderRangeString(content_length));
+
+                // if we can, do a bypass write of the file region
+                if (!include && !written && ((HttpOutput)out).getHttpChannel().getHttpConfiguration().isUseFileChannelTransfer())
+                {
+                    ReadableByteChannel channel = content.getReadableByteChannel();
+                    if (channel instanceof FileChannel)
+                    {
+                        ((HttpOutput)out).sendContent((FileChannel)channel, singleSatisfiableRange.getFirst(), singleLength);
+                        return true;
+                    }
+                    IO.close(channel);
+                }
+
                 writeContent(content, out, singleSatisfiableRange.getFirst(), singleLength);
                 return true;
             }
@@ -35,6 +35,15 @@ public class ServletAttributes implements Attributes
         _asyncAttributes = new AsyncAttributes(_attributes, requestURI, contextPath, pathInContext, servletPathMapping, queryString);
     }
 
+    /**
+     * Remove the standard async attributes, so that they are not seen by a
+     * dispatch that is not the result of an async dispatch by the application.
+     */
+    public void clearAsyncAttributes()
+    {
+        _asyncAttributes = null;
+    }
+
     private Attributes getAttributes()
     {
         return (_asyncAttributes == null) ? _attributes : _asyncAttributes;
@@ -42,6 +42,7 @@ public class SslConnectionFactory extends AbstractConnectionFactory implements C
     private boolean _directBuffersForEncryption = false;
     private boolean _directBuffersForDecryption = false;
     private boolean _ensureSecureRequestCustomizer = true;
+    private boolean _decryptToApplicationBuffers = false;
 
     public SslConnectionFactory()
     {
@@ -86,6 +87,27 @@ public class SslConnectionFactory extends AbstractConnectionFactory implements C
         return _directBuffersForEncryption;
     }
 
+    public boolean isDecryptToApplicationBuffers()
+    {
+        return _decryptToApplicationBuffers;
+    }
+
+    /**
+     * <p>Sets whether the input buffers of the next protocol connections are sized so that
+     * TLS records can be decrypted directly into them.</p>
+     * <p>The {@link SslConnection} decrypts directly into the buffer of the next protocol
+     * connection only when it has room for the SSL application buffer size, otherwise it
+     * decrypts into an intermediate buffer and copies the decrypted bytes.
+     * When enabled, the input buffer size of the next protocol connections is raised to at
+     * least the SSL application buffer size, trading memory for one copy less per read.</p>
+     *
+     * @param decryptToApplicationBuffers whether to decrypt directly into the next protocol buffers
+     */
+    public void setDecryptToApplicationBuffers(boolean decryptToApplicationBuffers)
+    {
+        _decryptToApplicationBuffers = decryptToApplicationBuffers;
+    }
+
     public String getNextProtocol()
     {
         return _nextProtocol;
@@ -162,6 +184,14 @@ public class SslConnectionFactory extends AbstractConnectionFactory implements C
         Connection connection = next.newConnection(connector, decryptedEndPoint);
         decryptedEndPoint.setConnection(connection);
 
+        if (isDecryptToApplicationBuffers() && connection instanceof AbstractConnection)
+        {
+            AbstractConnection nextConnection = (AbstractConnection)connection;
+            int applicationBufferSize = engine.getSession().getApplicationBufferSize();
+            if (nextConnection.getInputBufferSize() < applicationBufferSize)
+                nextConnection.setInputBufferSize(applicationBufferSize);
+        }
+
         return sslConnection;
     }
 
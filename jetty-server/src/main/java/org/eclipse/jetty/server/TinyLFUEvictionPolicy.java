@@ -0,0 +1,265 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jetty.util.thread.AutoLock;
+
+/**
+ * <p>A {@link CachedContentFactory.EvictionPolicy} based on the W-TinyLFU algorithm,
+ * that keeps frequently accessed files cached while large numbers of files are accessed
+ * only once, for example by crawlers scanning a site.</p>
+ * <p>Files added to the cache enter a small LRU admission window. Files leaving the
+ * window enter the probation segment of a segmented LRU, and files accessed while on
+ * probation are promoted to its protected segment. When a file must be evicted, the
+ * oldest file of the window competes with the oldest file on probation: the one with
+ * the lowest access frequency per byte, as estimated by a compact frequency sketch, is
+ * evicted, so that a large file must be accessed proportionally more often than the
+ * small files it would displace to be admitted in the cache.</p>
+ * <p>All operations take constant time.</p>
+ */
+public class TinyLFUEvictionPolicy implements CachedContentFactory.EvictionPolicy
+{
+    private final AutoLock _lock = new AutoLock();
+    private final Map<String, Long> _window = new LinkedHashMap<>(16, 0.75F, true);
+    private final Map<String, Long> _probation = new LinkedHashMap<>(16, 0.75F, true);
+    private final Map<String, Long> _protected = new LinkedHashMap<>(16, 0.75F, true);
+    private final FrequencySketch _sketch;
+    private final int _maxWindow;
+    private final int _maxProtected;
+
+    public TinyLFUEvictionPolicy()
+    {
+        this(2048);
+    }
+
+    /**
+     * @param maxEntries the expected maximum number of cached files, used to size the segments and the frequency sketch
+     */
+    public TinyLFUEvictionPolicy(int maxEntries)
+    {
+        if (maxEntries <= 0)
+            throw new IllegalArgumentException("Invalid max entries " + maxEntries);
+        _maxWindow = Math.max(1, maxEntries / 100);
+        _maxProtected = Math.max(1, (maxEntries - _maxWindow) * 4 / 5);
+        _sketch = new FrequencySketch(maxEntries);
+    }
+
+    @Override
+    public void onAdded(String key, long size)
+    {
+        try (AutoLock l = _lock.lock())
+        {
+            _sketch.increment(key);
+            _window.put(key, Math.max(1L, size));
+            // Files leaving the window are admitted on probation,
+            // until the cache is full and files must be evicted.
+            while (_window.size() > _maxWindow)
+            {
+                moveOldest(_window, _probation);
+            }
+        }
+    }
+
+    @Override
+    public void onAccessed(String key)
+    {
+        try (AutoLock l = _lock.lock())
+        {
+            _sketch.increment(key);
+
+            // Access ordered maps move the entry to the end.
+            if (_window.get(key) != null || _protected.get(key) != null)
+                return;
+
+            Long size = _probation.remove(key);
+            if (size != null)
+            {
+                _protected.put(key, size);
+                while (_protected.size() > _maxProtected)
+                {
+                    moveOldest(_protected, _probation);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onRemoved(String key)
+    {
+        try (AutoLock l = _lock.lock())
+        {
+            if (_window.remove(key) == null && _probation.remove(key) == null)
+                _protected.remove(key);
+        }
+    }
+
+    @Override
+    public String evict()
+    {
+        try (AutoLock l = _lock.lock())
+        {
+            Map.Entry<String, Long> candidate = oldest(_window);
+            Map<String, Long> main = _probation.isEmpty() ? _protected : _probation;
+            Map.Entry<String, Long> victim = oldest(main);
+
+            if (victim == null)
+                return candidate == null ? null : removeOldest(_window);
+
+            if (candidate == null)
+                return removeOldest(main);
+
+            // The admission filter: the window candidate replaces the victim
+            // only if it is accessed more frequently per byte, comparing
+            // frequency(candidate) / size(candidate) > frequency(victim) / size(victim).
+            long candidateWeight = _sketch.frequency(candidate.getKey()) * victim.getValue();
+            long victimWeight = _sketch.frequency(victim.getKey()) * candidate.getValue();
+            if (candidateWeight > victimWeight)
+            {
+                moveOldest(_window, _probation);
+                return removeOldest(main);
+            }
+            return removeOldest(_window);
+        }
+    }
+
+    private static Map.Entry<String, Long> oldest(Map<String, Long> segment)
+    {
+        Iterator<Map.Entry<String, Long>> entries = segment.entrySet().iterator();
+        return entries.hasNext() ? entries.next() : null;
+    }
+
+    private static String removeOldest(Map<String, Long> segment)
+    {
+        Iterator<String> keys = segment.keySet().iterator();
+        String key = keys.next();
+        keys.remove();
+        return key;
+    }
+
+    private static void moveOldest(Map<String, Long> from, Map<String, Long> to)
+    {
+        Iterator<Map.Entry<String, Long>> entries = from.entrySet().iterator();
+        Map.Entry<String, Long> oldest = entries.next();
+        String key = oldest.getKey();
+        Long size = oldest.getValue();
+        entries.remove();
+        to.put(key, size);
+    }
+
+    @Override
+    public String toString()
+    {
+        try (AutoLock l = _lock.lock())
+        {
+            return String.format("%s@%x{window=%d/%d,probation=%d,protected=%d/%d}",
+                getClass().getSimpleName(),
+                hashCode(),
+                _window.size(),
+                _maxWindow,
+                _probation.size(),
+                _protected.size(),
+                _maxProtected);
+        }
+    }
+
+    /**
+     * <p>A count-min sketch of 4-bit counters that estimates the access frequency of keys.</p>
+     * <p>Once the number of recorded accesses reaches a sample size proportional to the
+     * maximum number of entries, all the counters are halved, so that the estimated
+     * frequencies favour recent accesses.</p>
+     */
+    private static class FrequencySketch
+    {
+        private static final long[] SEEDS = {0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] _table;
+        private final int _mask;
+        private final int _sampleSize;
+        private int _size;
+
+        private FrequencySketch(int maxEntries)
+        {
+            // One long, holding sixteen 4-bit counters, per entry.
+            int length = Math.min(maxEntries, 1 << 22);
+            length = length == 1 ? 1 : Integer.highestOneBit(length - 1) << 1;
+            _table = new long[length];
+            _mask = (length << 4) - 1;
+            _sampleSize = 10 * Math.min(maxEntries, Integer.MAX_VALUE / 10);
+        }
+
+        private int frequency(String key)
+        {
+            int hash = spread(key.hashCode());
+            int frequency = 15;
+            for (int i = 0; i < SEEDS.length; ++i)
+            {
+                int index = indexOf(hash, i);
+                int count = (int)((_table[index >>> 4] >>> ((index & 15) << 2)) & 0xFL);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        private void increment(String key)
+        {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; ++i)
+            {
+                added |= incrementAt(indexOf(hash, i));
+            }
+            if (added && ++_size >= _sampleSize)
+                reset();
+        }
+
+        private boolean incrementAt(int index)
+        {
+            int offset = (index & 15) << 2;
+            long mask = 0xFL << offset;
+            int i = index >>> 4;
+            if ((_table[i] & mask) == mask)
+                return false;
+            _table[i] += 1L << offset;
+            return true;
+        }
+
+        private void reset()
+        {
+            for (int i = 0; i < _table.length; ++i)
+            {
+                _table[i] = (_table[i] >>> 1) & RESET_MASK;
+            }
+            _size = _size / 2;
+        }
+
+        private int indexOf(int hash, int i)
+        {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return ((int)h) & _mask;
+        }
+
+        private static int spread(int x)
+        {
+            x = ((x >>> 16) ^ x) * 0x45D9F3B;
+            x = ((x >>> 16) ^ x) * 0x45D9F3B;
+            return (x >>> 16) ^ x;
+        }
+    }
+}
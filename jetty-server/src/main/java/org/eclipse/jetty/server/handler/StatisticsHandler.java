@@ -15,6 +15,7 @@ package org.eclipse.jetty.server.handler;
 
 import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
 import javax.servlet.AsyncEvent;
@@ -35,9 +36,17 @@ import org.eclipse.jetty.util.annotation.ManagedOperation;
 import org.eclipse.jetty.util.component.Graceful;
 import org.eclipse.jetty.util.statistic.CounterStatistic;
 import org.eclipse.jetty.util.statistic.SampleStatistic;
+import org.eclipse.jetty.util.statistic.WindowedHistogramStatistic;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * <p>A {@link HandlerWrapper} that gathers statistics about the requests it handles.</p>
+ * <p>In addition to the statistics gathered since {@link #statsReset()} was last called,
+ * the distributions of the request, dispatch and async wait times are recorded in
+ * histograms over a sliding window of one minute, to provide percentiles such as
+ * {@link #getRequestTimeP99()}.</p>
+ */
 @ManagedObject("Request Statistics Gathering")
 public class StatisticsHandler extends HandlerWrapper implements Graceful
 {
@@ -50,6 +59,9 @@ public class StatisticsHandler extends HandlerWrapper implements Graceful
     private final CounterStatistic _dispatchedStats = new CounterStatistic();
     private final SampleStatistic _dispatchedTimeStats = new SampleStatistic();
     private final CounterStatistic _asyncWaitStats = new CounterStatistic();
+    private final WindowedHistogramStatistic _requestTimeHistogram = new WindowedHistogramStatistic(1, TimeUnit.MINUTES);
+    private final WindowedHistogramStatistic _dispatchedTimeHistogram = new WindowedHistogramStatistic(1, TimeUnit.MINUTES);
+    private final WindowedHistogramStatistic _asyncWaitTimeHistogram = new WindowedHistogramStatistic(1, TimeUnit.MINUTES);
 
     private final LongAdder _asyncDispatches = new LongAdder();
     private final LongAdder _expires = new LongAdder();
@@ -65,8 +77,15 @@ public class StatisticsHandler extends HandlerWrapper implements Graceful
 
     private boolean _gracefulShutdownWaitsForRequests = true;
 
-    private final AsyncListener _onCompletion = new AsyncListener()
+    private class AsyncCompletionListener implements AsyncListener
     {
+        private final long _asyncWaitStart;
+
+        private AsyncCompletionListener(long asyncWaitStart)
+        {
+            _asyncWaitStart = asyncWaitStart;
+        }
+
         @Override
         public void onStartAsync(AsyncEvent event)
         {
@@ -89,16 +108,19 @@ public class StatisticsHandler extends HandlerWrapper implements Graceful
         public void onComplete(AsyncEvent event)
         {
             Request request = ((AsyncContextEvent)event).getHttpChannelState().getBaseRequest();
-            long elapsed = System.currentTimeMillis() - request.getTimeStamp();
+            long now = System.currentTimeMillis();
+            long elapsed = now - request.getTimeStamp();
             _requestStats.decrement();
             _requestTimeStats.record(elapsed);
+            _requestTimeHistogram.record(elapsed);
             updateResponse(request, false);
             _asyncWaitStats.decrement();
+            _asyncWaitTimeHistogram.record(now - _asyncWaitStart);
 
             if (_shutdown.isShutdown())
                 _shutdown.check();
         }
-    };
+    }
 
     public StatisticsHandler()
     {
@@ -128,6 +150,9 @@ public class StatisticsHandler extends HandlerWrapper implements Graceful
         _dispatchedStats.reset();
         _dispatchedTimeStats.reset();
         _asyncWaitStats.reset();
+        _requestTimeHistogram.reset();
+        _dispatchedTimeHistogram.reset();
+        _asyncWaitTimeHistogram.reset();
 
         _asyncDispatches.reset();
         _expires.reset();
@@ -184,18 +209,20 @@ public class StatisticsHandler extends HandlerWrapper implements Graceful
 
             _dispatchedStats.decrement();
             _dispatchedTimeStats.record(dispatched);
+            _dispatchedTimeHistogram.record(dispatched);
 
             if (state.isInitial())
             {
                 if (state.isAsyncStarted())
                 {
-                    state.addListener(_onCompletion);
+                    state.addListener(new AsyncCompletionListener(now));
                     _asyncWaitStats.increment();
                 }
                 else
                 {
                     _requestStats.decrement();
                     _requestTimeStats.record(dispatched);
+                    _requestTimeHistogram.record(dispatched);
                     updateResponse(baseRequest, thrownError);
                 }
             }
@@ -360,6 +387,36 @@ public class StatisticsHandler extends HandlerWrapper implements Graceful
         return _requestTimeStats.getStdDev();
     }
 
+    /**
+     * @return the median time (in milliseconds) of request handling
+     * over the last minute
+     */
+    @ManagedAttribute("median time spent handling requests in the last minute (in ms)")
+    public long getRequestTimeP50()
+    {
+        return _requestTimeHistogram.getValueAtPercentile(50);
+    }
+
+    /**
+     * @return the 99th percentile of the time (in milliseconds) of request handling
+     * over the last minute
+     */
+    @ManagedAttribute("99th percentile of the time spent handling requests in the last minute (in ms)")
+    public long getRequestTimeP99()
+    {
+        return _requestTimeHistogram.getValueAtPercentile(99);
+    }
+
+    /**
+     * @return the 99.9th percentile of the time (in milliseconds) of request handling
+     * over the last minute
+     */
+    @ManagedAttribute("99.9th percentile of the time spent handling requests in the last minute (in ms)")
+    public long getRequestTimeP999()
+    {
+        return _requestTimeHistogram.getValueAtPercentile(99.9);
+    }
+
     /**
      * @return the number of dispatches seen by this handler
      * since {@link #statsReset()} was last called, excluding
@@ -437,6 +494,36 @@ public class StatisticsHandler extends HandlerWrapper implements Graceful
         return _dispatchedTimeStats.getStdDev();
     }
 
+    /**
+     * @return the median time (in milliseconds) of request dispatch
+     * over the last minute
+     */
+    @ManagedAttribute("median time spent in dispatch handling in the last minute (in ms)")
+    public long getDispatchedTimeP50()
+    {
+        return _dispatchedTimeHistogram.getValueAtPercentile(50);
+    }
+
+    /**
+     * @return the 99th percentile of the time (in milliseconds) of request dispatch
+     * over the last minute
+     */
+    @ManagedAttribute("99th percentile of the time spent in dispatch handling in the last minute (in ms)")
+    public long getDispatchedTimeP99()
+    {
+        return _dispatchedTimeHistogram.getValueAtPercentile(99);
+    }
+
+    /**
+     * @return the 99.9th percentile of the time (in milliseconds) of request dispatch
+     * over the last minute
+     */
+    @ManagedAttribute("99.9th percentile of the time spent in dispatch handling in the last minute (in ms)")
+    public long getDispatchedTimeP999()
+    {
+        return _dispatchedTimeHistogram.getValueAtPercentile(99.9);
+    }
+
     /**
      * @return the number of requests handled by this handler
      * since {@link #statsReset()} was last called, including
@@ -469,6 +556,39 @@ public class StatisticsHandler extends HandlerWrapper implements Graceful
         return (int)_asyncWaitStats.getMax();
     }
 
+    /**
+     * @return the median time (in milliseconds) async requests waited
+     * between the end of their initial dispatch and their completion,
+     * over the last minute
+     */
+    @ManagedAttribute("median time async requests waited in the last minute (in ms)")
+    public long getAsyncWaitTimeP50()
+    {
+        return _asyncWaitTimeHistogram.getValueAtPercentile(50);
+    }
+
+    /**
+     * @return the 99th percentile of the time (in milliseconds) async requests waited
+     * between the end of their initial dispatch and their completion,
+     * over the last minute
+     */
+    @ManagedAttribute("99th percentile of the time async requests waited in the last minute (in ms)")
+    public long getAsyncWaitTimeP99()
+    {
+        return _asyncWaitTimeHistogram.getValueAtPercentile(99);
+    }
+
+    /**
+     * @return the 99.9th percentile of the time (in milliseconds) async requests waited
+     * between the end of their initial dispatch and their completion,
+     * over the last minute
+     */
+    @ManagedAttribute("99.9th percentile of the time async requests waited in the last minute (in ms)")
+    public long getAsyncWaitTimeP999()
+    {
+        return _asyncWaitTimeHistogram.getValueAtPercentile(99.9);
+    }
+
     /**
      * @return the number of requests that have been asynchronously dispatched
      */
@@ -593,6 +713,7 @@ public class StatisticsHandler extends HandlerWrapper implements Graceful
         sb.append("Mean request time: ").append(getRequestTimeMean()).append("<br />\n");
         sb.append("Max request time: ").append(getRequestTimeMax()).append("<br />\n");
         sb.append("Request time standard deviation: ").append(getRequestTimeStdDev()).append("<br />\n");
+        sb.append("Request time p50/p99/p999 (last minute): ").append(getRequestTimeP50()).append('/').append(getRequestTimeP99()).append('/').append(getRequestTimeP999()).append("<br />\n");
 
         sb.append("<h2>Dispatches:</h2>\n");
         sb.append("Total dispatched: ").append(getDispatched()).append("<br />\n");
@@ -602,6 +723,7 @@ public class StatisticsHandler extends HandlerWrapper implements Graceful
         sb.append("Mean dispatched time: ").append(getDispatchedTimeMean()).append("<br />\n");
         sb.append("Max dispatched time: ").append(getDispatchedTimeMax()).append("<br />\n");
         sb.append("Dispatched time standard deviation: ").append(getDispatchedTimeStdDev()).append("<br />\n");
+        sb.append("Dispatched time p50/p99/p999 (last minute): ").append(getDispatchedTimeP50()).append('/').append(getDispatchedTimeP99()).append('/').append(getDispatchedTimeP999()).append("<br />\n");
 
         sb.append("Total requests suspended: ").append(getAsyncRequests()).append("<br />\n");
         sb.append("Total requests expired: ").append(getExpires()).append("<br />\n");
@@ -16,10 +16,14 @@ package org.eclipse.jetty.server.session;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import javax.servlet.http.HttpServletRequest;
 
+import org.eclipse.jetty.util.NanoTime;
 import org.eclipse.jetty.util.StringUtil;
 import org.eclipse.jetty.util.annotation.ManagedAttribute;
 import org.eclipse.jetty.util.annotation.ManagedObject;
@@ -101,6 +105,28 @@ public abstract class AbstractSessionCache extends ContainerLifeCycle implements
      */
     protected boolean _invalidateOnShutdown;
 
+    /**
+     * The sessions that are being loaded by {@link #prefetch(String)}
+     */
+    private final ConcurrentMap<String, CompletableFuture<Void>> _prefetches = new ConcurrentHashMap<>();
+
+    /**
+     * The sessions that {@link #prefetch(String)} found did not exist in the
+     * SessionDataStore, with the time they were looked for, so that the following
+     * get(id) does not go to the store again.
+     */
+    private final ConcurrentMap<String, Long> _prefetchMisses = new ConcurrentHashMap<>();
+
+    /**
+     * How long a prefetch that found no session is remembered
+     */
+    private static final long PREFETCH_MISS_TTL_MS = 5000;
+
+    /**
+     * The maximum number of prefetches that found no session that are remembered
+     */
+    private static final int PREFETCH_MISS_MAX = 1024;
+
     /**
      * Create a new Session object from pre-existing session data
      *
@@ -337,6 +363,13 @@ public abstract class AbstractSessionCache extends ContainerLifeCycle implements
             if (LOG.isDebugEnabled())
                 LOG.debug("Session {} not found locally in {}, attempting to load", id, this);
 
+            if (isPrefetchMiss(k))
+            {
+                if (LOG.isDebugEnabled())
+                    LOG.debug("Session {} not found by prefetch, not loading again", id);
+                return null;
+            }
+
             try
             {
                 Session s = loadSession(k);
@@ -385,6 +418,75 @@ public abstract class AbstractSessionCache extends ContainerLifeCycle implements
         return session;
     }
 
+    /**
+     * Asynchronously load the session data from the SessionDataStore
+     * and add a Session for it to the cache.
+     *
+     * @see org.eclipse.jetty.server.session.SessionCache#prefetch(java.lang.String)
+     */
+    @Override
+    public CompletableFuture<Void> prefetch(String id)
+    {
+        if (_sessionDataStore == null || doGet(id) != null)
+            return CompletableFuture.completedFuture(null);
+
+        CompletableFuture<Void> prefetch = new CompletableFuture<>();
+        CompletableFuture<Void> existing = _prefetches.putIfAbsent(id, prefetch);
+        if (existing != null)
+            return existing;
+
+        _sessionDataStore.loadAsync(id).whenComplete((data, x) ->
+        {
+            //only use the data if the session was not deleted while it was being loaded
+            _prefetches.computeIfPresent(id, (k, f) ->
+            {
+                if (f != prefetch)
+                    return f;
+
+                if (x != null)
+                {
+                    //get(id) will load the session again and handle the failure
+                    if (LOG.isDebugEnabled())
+                        LOG.debug("Unable to prefetch session {}", id, x);
+                }
+                else if (data == null)
+                {
+                    //remember the miss so get(id) does not look in the store again
+                    if (_prefetchMisses.size() >= PREFETCH_MISS_MAX)
+                        _prefetchMisses.clear();
+                    _prefetchMisses.put(id, NanoTime.now());
+                }
+                else
+                {
+                    data.setLastNode(_context.getWorkerName()); //we are going to manage the node
+                    Session session = newSession(data);
+                    try (AutoLock lock = session.lock())
+                    {
+                        session.setResident(true);
+                    }
+                    if (doPutIfAbsent(id, session) != null && LOG.isDebugEnabled())
+                        LOG.debug("Session {} already in cache, discarding prefetched session", id);
+                }
+                return null;
+            });
+            prefetch.complete(null);
+        });
+        return prefetch;
+    }
+
+    /**
+     * Consume the record of a recent {@link #prefetch(String)} that found no
+     * session for the id.
+     *
+     * @param id the session id
+     * @return true if a prefetch recently found that the session does not exist
+     */
+    private boolean isPrefetchMiss(String id)
+    {
+        Long miss = _prefetchMisses.remove(id);
+        return miss != null && NanoTime.millisSince(miss) < PREFETCH_MISS_TTL_MS;
+    }
+
     /**
      * Load the info for the session from the session data store
      *
@@ -441,6 +543,7 @@ public abstract class AbstractSessionCache extends ContainerLifeCycle implements
             if (!session.isValid())
                 throw new IllegalStateException("Session " + id + " is not valid");
 
+            _prefetchMisses.remove(id); //the session exists now
             if (doPutIfAbsent(id, session) == null)
             {
                 session.setResident(true); //its in the cache
@@ -641,6 +744,10 @@ public abstract class AbstractSessionCache extends ContainerLifeCycle implements
     @Override
     public Session delete(String id) throws Exception
     {
+        //discard any session being prefetched
+        _prefetches.remove(id);
+        _prefetchMisses.remove(id);
+
         //get the session, if its not in memory, this will load it
         Session session = getAndEnter(id, false);
 
@@ -782,6 +889,8 @@ public abstract class AbstractSessionCache extends ContainerLifeCycle implements
             session.setIdChanged(true); //session id changed
 
             doPutIfAbsent(newId, session); //put the new id into our map
+            _prefetches.remove(oldId); //discard any prefetch of the old id
+            _prefetchMisses.remove(newId);
             doDelete(oldId); //take old out of map
 
             if (_sessionDataStore != null)
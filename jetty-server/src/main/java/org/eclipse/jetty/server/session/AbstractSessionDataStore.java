@@ -15,9 +15,13 @@ package org.eclipse.jetty.server.session;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
+import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.util.FuturePromise;
 import org.eclipse.jetty.util.annotation.ManagedAttribute;
 import org.eclipse.jetty.util.annotation.ManagedObject;
@@ -41,6 +45,8 @@ public abstract class AbstractSessionDataStore extends ContainerLifeCycle implem
     protected long _lastExpiryCheckTime = 0; //last time in ms that getExpired was called
     protected long _lastOrphanSweepTime = 0; //last time in ms that we deleted orphaned sessions
     protected int _savePeriodSec = DEFAULT_SAVE_PERIOD_SEC; //time in sec between saves
+    protected boolean _partialUpdates; //only store metadata if no attribute was set
+    protected SessionDataSerializer _serializer = new JavaSessionDataSerializer();
     
     /**
      * Check if a session for the given id exists.
@@ -60,6 +66,25 @@ public abstract class AbstractSessionDataStore extends ContainerLifeCycle implem
      */
     public abstract void doStore(String id, SessionData data, long lastSaveTime) throws Exception;
 
+    /**
+     * Store only the metadata of a previously stored session, because
+     * no attribute has been set or removed since it was last stored.
+     * <p>
+     * This method is only called if {@link #isPartialUpdates() partial updates}
+     * are enabled. Implementations that can update the session metadata without
+     * serializing the session attributes should override this method, which
+     * by default stores the whole session.
+     *
+     * @param id identity of session to store
+     * @param data info of the session
+     * @param lastSaveTime time of previous save
+     * @throws Exception if unable to store data
+     */
+    public void doStoreMetaData(String id, SessionData data, long lastSaveTime) throws Exception
+    {
+        doStore(id, data, lastSaveTime);
+    }
+
     /**
      * Load the session from persistent store.
      *
@@ -69,6 +94,35 @@ public abstract class AbstractSessionDataStore extends ContainerLifeCycle implem
      */
     public abstract SessionData doLoad(String id) throws Exception;
 
+    /**
+     * Asynchronously load the session from persistent store.
+     * <p>
+     * By default, the blocking {@link #doLoad(String)} is called in the
+     * scope of the context by a thread of the {@link #getExecutor() executor}.
+     * Implementations that have an asynchronous client for the persistent
+     * store should override this method.
+     *
+     * @param id the id of the session to load
+     * @return a future completed with the re-inflated session, or with null if
+     * there is no such session
+     */
+    public CompletableFuture<SessionData> doLoadAsync(String id)
+    {
+        CompletableFuture<SessionData> result = new CompletableFuture<>();
+        execute(() -> _context.run(() ->
+        {
+            try
+            {
+                result.complete(doLoad(id));
+            }
+            catch (Throwable x)
+            {
+                result.completeExceptionally(x);
+            }
+        }));
+        return result;
+    }
+
     /**
      * Implemented by subclasses to resolve which sessions in this context 
      * that are being managed by this node that should be expired.
@@ -157,6 +211,46 @@ public abstract class AbstractSessionDataStore extends ContainerLifeCycle implem
         return result.getOrThrow();
     }
 
+    @Override
+    public CompletableFuture<SessionData> loadAsync(String id)
+    {
+        if (!isStarted())
+            return CompletableFuture.failedFuture(new IllegalStateException("Not started"));
+
+        return doLoadAsync(id);
+    }
+
+    /**
+     * @return the executor used to perform blocking I/O for {@link #loadAsync(String)},
+     * by default the thread pool of the Server, or null if the I/O is to be performed
+     * by the calling thread
+     */
+    protected Executor getExecutor()
+    {
+        SessionHandler handler = _context == null ? null : _context.getSessionHandler();
+        Server server = handler == null ? null : handler.getServer();
+        return server == null ? null : server.getThreadPool();
+    }
+
+    private void execute(Runnable task)
+    {
+        Executor executor = getExecutor();
+        if (executor != null)
+        {
+            try
+            {
+                executor.execute(task);
+                return;
+            }
+            catch (RejectedExecutionException x)
+            {
+                if (LOG.isDebugEnabled())
+                    LOG.debug("Executing in calling thread", x);
+            }
+        }
+        task.run();
+    }
+
     @Override
     public void store(String id, SessionData data) throws Exception
     {
@@ -188,7 +282,10 @@ public abstract class AbstractSessionDataStore extends ContainerLifeCycle implem
                 try
                 {
                     //call the specific store method, passing in previous save time
-                    doStore(id, data, lastSave);
+                    if (_partialUpdates && lastSave > 0 && !data.isDirty())
+                        doStoreMetaData(id, data, lastSave);
+                    else
+                        doStore(id, data, lastSave);
                     data.clean(); //unset all dirty flags
                     result.succeeded(null);
                 }
@@ -367,6 +464,54 @@ public abstract class AbstractSessionDataStore extends ContainerLifeCycle implem
         _savePeriodSec = savePeriodSec;
     }
 
+    /**
+     * @return true if only the metadata is stored when no attribute has been set or removed
+     */
+    @ManagedAttribute(value = "only store metadata if no attribute was set", readonly = true)
+    public boolean isPartialUpdates()
+    {
+        return _partialUpdates;
+    }
+
+    /**
+     * Whether to only store the session metadata (for example the access and
+     * expiry times), rather than the whole session, if no attribute has been
+     * set or removed since the session was last stored.
+     * <p>
+     * This avoids serializing the session attributes on every request, but
+     * changes to the state of an attribute value are not stored unless the
+     * attribute is set again with {@link javax.servlet.http.HttpSession#setAttribute(String, Object)}.
+     *
+     * @param partialUpdates true to only store the metadata of sessions whose attributes did not change
+     * @see #doStoreMetaData(String, SessionData, long)
+     */
+    public void setPartialUpdates(boolean partialUpdates)
+    {
+        _partialUpdates = partialUpdates;
+    }
+
+    /**
+     * @return the serializer of the session attributes
+     */
+    @ManagedAttribute(value = "serializer of the session attributes", readonly = true)
+    public SessionDataSerializer getSessionDataSerializer()
+    {
+        return _serializer;
+    }
+
+    /**
+     * The serializer of the session attributes, for the stores that persist
+     * the attributes as bytes. By default, a {@link JavaSessionDataSerializer}.
+     *
+     * @param serializer the serializer of the session attributes
+     * @see CompactSessionDataSerializer
+     */
+    public void setSessionDataSerializer(SessionDataSerializer serializer)
+    {
+        checkStarted();
+        _serializer = serializer == null ? new JavaSessionDataSerializer() : serializer;
+    }
+
     @Override
     public String toString()
     {
@@ -21,6 +21,8 @@ public abstract class AbstractSessionDataStoreFactory implements SessionDataStor
 
     int _gracePeriodSec = AbstractSessionDataStore.DEFAULT_GRACE_PERIOD_SEC;
     int _savePeriodSec = AbstractSessionDataStore.DEFAULT_SAVE_PERIOD_SEC;
+    boolean _partialUpdates;
+    SessionDataSerializer _serializer;
 
     /**
      * @return the gracePeriodSec
@@ -53,4 +55,38 @@ public abstract class AbstractSessionDataStoreFactory implements SessionDataStor
     {
         _savePeriodSec = savePeriodSec;
     }
+
+    /**
+     * @return whether only the metadata is stored when no attribute has been set or removed
+     */
+    public boolean isPartialUpdates()
+    {
+        return _partialUpdates;
+    }
+
+    /**
+     * @param partialUpdates true to only store the metadata of sessions whose attributes did not change
+     * @see AbstractSessionDataStore#setPartialUpdates(boolean)
+     */
+    public void setPartialUpdates(boolean partialUpdates)
+    {
+        _partialUpdates = partialUpdates;
+    }
+
+    /**
+     * @return the serializer of the session attributes, or null to use the store default
+     */
+    public SessionDataSerializer getSessionDataSerializer()
+    {
+        return _serializer;
+    }
+
+    /**
+     * @param serializer the serializer of the session attributes
+     * @see AbstractSessionDataStore#setSessionDataSerializer(SessionDataSerializer)
+     */
+    public void setSessionDataSerializer(SessionDataSerializer serializer)
+    {
+        _serializer = serializer;
+    }
 }
@@ -0,0 +1,504 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server.session;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.eclipse.jetty.util.annotation.ManagedAttribute;
+import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.annotation.ManagedOperation;
+import org.eclipse.jetty.util.thread.AutoLock;
+import org.eclipse.jetty.util.thread.Scheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * BoundedSessionCache
+ *
+ * A {@link DefaultSessionCache} that bounds the number of sessions it holds,
+ * and optionally their estimated size in bytes.
+ *
+ * The bounds are enforced by a background sweep, scheduled periodically and
+ * also as soon as the number of sessions exceeds the maximum, so that the
+ * request path never pays for eviction. When over the bounds, the sweep evicts
+ * sessions that are not in use by a request, after writing them through to the
+ * {@link SessionDataStore}. The eviction order is approximately LRU: each eviction
+ * picks the least recently accessed session of a small sample, taken in turn
+ * from the whole cache, so that the cost of a sweep is proportional to the
+ * number of sessions evicted rather than to the size of the cache.
+ *
+ * As evicted sessions must be reloaded from the SessionDataStore, this cache
+ * should not be used with the {@link NullSessionDataStore}.
+ */
+@ManagedObject
+public class BoundedSessionCache extends DefaultSessionCache
+{
+    private static final Logger LOG = LoggerFactory.getLogger(BoundedSessionCache.class);
+
+    public static final long DEFAULT_SWEEP_INTERVAL_MS = 1000;
+
+    private static final int EVICTION_SAMPLES = 16;
+
+    private final ConcurrentMap<String, Session> _sessions;
+    private final AtomicBoolean _sweepScheduled = new AtomicBoolean();
+    private final AutoLock _taskLock = new AutoLock();
+    private final AutoLock _sweepLock = new AutoLock();
+    private final LongAdder _hits = new LongAdder();
+    private final LongAdder _misses = new LongAdder();
+    private final LongAdder _loads = new LongAdder();
+    private final LongAdder _evictions = new LongAdder();
+    private final ConcurrentMap<String, Long> _sizes = new ConcurrentHashMap<>();
+    private final AtomicLong _bytes = new AtomicLong();
+    private Iterator<Map.Entry<String, Session>> _samples;
+    private int _maxSessions = -1;
+    private long _maxBytes = -1;
+    private long _sweepIntervalMs = DEFAULT_SWEEP_INTERVAL_MS;
+    private Scheduler _scheduler;
+    private Scheduler.Task _sweepTask;
+
+    /**
+     * @param manager The SessionHandler related to this SessionCache
+     */
+    public BoundedSessionCache(SessionHandler manager)
+    {
+        this(manager, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * @param manager The SessionHandler related to this SessionCache
+     * @param sessions The session map implementation to use
+     */
+    public BoundedSessionCache(SessionHandler manager, ConcurrentMap<String, Session> sessions)
+    {
+        super(manager, sessions);
+        _sessions = sessions;
+    }
+
+    /**
+     * @return the maximum number of sessions in the cache, or -1 if unbounded
+     */
+    @ManagedAttribute(value = "max number of sessions in cache before eviction", readonly = true)
+    public int getMaxSessions()
+    {
+        return _maxSessions;
+    }
+
+    /**
+     * @param maxSessions the maximum number of sessions in the cache, or -1 if unbounded
+     */
+    public void setMaxSessions(int maxSessions)
+    {
+        _maxSessions = maxSessions;
+    }
+
+    /**
+     * @return the maximum estimated size in bytes of the sessions in the cache, or -1 if unbounded
+     */
+    @ManagedAttribute(value = "max estimated bytes of sessions in cache before eviction", readonly = true)
+    public long getMaxBytes()
+    {
+        return _maxBytes;
+    }
+
+    /**
+     * Bound the estimated size of the sessions in the cache.
+     * The size of a session is estimated with {@link #estimateSize(Session)}
+     * when it is added to the cache and when the last request using it exits,
+     * and the estimates are kept as a running total, so this bound may be
+     * exceeded by the attributes set while a session is in use.
+     *
+     * @param maxBytes the maximum estimated size in bytes of the sessions in the cache, or -1 if unbounded
+     */
+    public void setMaxBytes(long maxBytes)
+    {
+        _maxBytes = maxBytes;
+    }
+
+    /**
+     * @return the interval in milliseconds between sweeps
+     */
+    @ManagedAttribute(value = "interval in ms between eviction sweeps", readonly = true)
+    public long getSweepIntervalMs()
+    {
+        return _sweepIntervalMs;
+    }
+
+    /**
+     * @param sweepIntervalMs the interval in milliseconds between sweeps, or a value
+     * &lt;= 0 to only sweep when the maximum number of sessions is exceeded
+     */
+    public void setSweepIntervalMs(long sweepIntervalMs)
+    {
+        _sweepIntervalMs = sweepIntervalMs;
+    }
+
+    /**
+     * @return the number of lookups that found the session in the cache
+     */
+    @ManagedAttribute(value = "lookups that found the session in cache", readonly = true)
+    public long getHits()
+    {
+        return _hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that did not find the session in the cache
+     */
+    @ManagedAttribute(value = "lookups that did not find the session in cache", readonly = true)
+    public long getMisses()
+    {
+        return _misses.sum();
+    }
+
+    /**
+     * @return the number of sessions loaded from the SessionDataStore
+     */
+    @ManagedAttribute(value = "sessions loaded from the session data store", readonly = true)
+    public long getLoads()
+    {
+        return _loads.sum();
+    }
+
+    /**
+     * @return the running total of the estimated size in bytes of the sessions in the cache,
+     * or 0 if the size of the sessions is not bounded
+     */
+    @ManagedAttribute(value = "estimated bytes of sessions in cache", readonly = true)
+    public long getBytes()
+    {
+        return _bytes.get();
+    }
+
+    /**
+     * @return the number of sessions evicted to enforce the bounds
+     */
+    @ManagedAttribute(value = "sessions evicted to enforce the bounds", readonly = true)
+    public long getEvictions()
+    {
+        return _evictions.sum();
+    }
+
+    @Override
+    public void resetStats()
+    {
+        super.resetStats();
+        _hits.reset();
+        _misses.reset();
+        _loads.reset();
+        _evictions.reset();
+    }
+
+    @Override
+    protected void doStart() throws Exception
+    {
+        super.doStart();
+        if (_sessionDataStore instanceof NullSessionDataStore && (_maxSessions >= 0 || _maxBytes >= 0))
+            LOG.warn("Sessions evicted from {} will be lost with {}", this, _sessionDataStore);
+        _scheduler = _handler.getScheduler();
+        if (_scheduler == null)
+            LOG.warn("No scheduler, sessions will only be evicted by explicit sweeps of {}", this);
+        if (_sweepIntervalMs > 0)
+            scheduleSweep(_sweepIntervalMs);
+    }
+
+    @Override
+    protected void doStop() throws Exception
+    {
+        try (AutoLock lock = _taskLock.lock())
+        {
+            if (_sweepTask != null)
+                _sweepTask.cancel();
+            _sweepTask = null;
+            _scheduler = null;
+        }
+        super.doStop();
+    }
+
+    @Override
+    public Session doPutIfAbsent(String id, Session session)
+    {
+        Session s = super.doPutIfAbsent(id, session);
+        // Also called when the last request using the session exits, when its size may have changed.
+        if (s == null || s == session)
+        {
+            updateSize(id, session);
+            checkBounds();
+        }
+        return s;
+    }
+
+    @Override
+    public Session doDelete(String id)
+    {
+        Session s = super.doDelete(id);
+        if (s != null)
+        {
+            Long size = _sizes.remove(id);
+            if (size != null)
+                _bytes.addAndGet(-size);
+        }
+        return s;
+    }
+
+    @Override
+    protected Session doComputeIfAbsent(String id, Function<String, Session> mappingFunction)
+    {
+        Session session = doGet(id);
+        if (session != null)
+        {
+            _hits.increment();
+            return session;
+        }
+
+        AtomicBoolean loaded = new AtomicBoolean();
+        session = super.doComputeIfAbsent(id, k ->
+        {
+            loaded.set(true);
+            Session s = mappingFunction.apply(k);
+            if (s != null)
+                _loads.increment();
+            return s;
+        });
+
+        // The session may have been added concurrently since the lookup above.
+        if (loaded.get())
+            _misses.increment();
+        else
+            _hits.increment();
+
+        if (session != null && loaded.get())
+        {
+            updateSize(id, session);
+            checkBounds();
+        }
+        return session;
+    }
+
+    private void updateSize(String id, Session session)
+    {
+        if (getMaxBytes() < 0)
+            return;
+        long size = estimateSize(session);
+        Long previous = _sizes.put(id, size);
+        _bytes.addAndGet(previous == null ? size : size - previous);
+        // Do not count a session removed concurrently.
+        if (_sessions.get(id) != session && _sizes.remove(id, size))
+            _bytes.addAndGet(-size);
+    }
+
+    private boolean isOverBounds()
+    {
+        int maxSessions = getMaxSessions();
+        long maxBytes = getMaxBytes();
+        return (maxSessions >= 0 && _sessions.size() > maxSessions) || (maxBytes >= 0 && _bytes.get() > maxBytes);
+    }
+
+    private void checkBounds()
+    {
+        if (isOverBounds() && _sweepScheduled.compareAndSet(false, true))
+            scheduleSweep(0);
+    }
+
+    private void scheduleSweep(long delayMs)
+    {
+        try (AutoLock lock = _taskLock.lock())
+        {
+            if (_scheduler == null || !isRunning())
+                return;
+            if (delayMs <= 0)
+            {
+                if (_sweepTask != null)
+                    _sweepTask.cancel();
+                _sweepTask = _scheduler.schedule(this::runSweep, 0, TimeUnit.MILLISECONDS);
+            }
+            else if (_sweepTask == null)
+            {
+                _sweepTask = _scheduler.schedule(this::runSweep, delayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void runSweep()
+    {
+        try (AutoLock lock = _taskLock.lock())
+        {
+            _sweepTask = null;
+        }
+        _sweepScheduled.set(false);
+
+        try
+        {
+            sweep();
+        }
+        catch (Throwable x)
+        {
+            LOG.warn("Unable to sweep {}", this, x);
+        }
+        finally
+        {
+            if (_sweepIntervalMs > 0)
+                scheduleSweep(_sweepIntervalMs);
+        }
+    }
+
+    /**
+     * Evict approximately the least recently accessed sessions that are not in use
+     * until the cache is within its bounds.
+     *
+     * @return the number of sessions evicted
+     */
+    @ManagedOperation(value = "evict sessions until the cache is within its bounds", impact = "ACTION")
+    public int sweep()
+    {
+        if (getMaxSessions() < 0 && getMaxBytes() < 0)
+            return 0;
+
+        try (AutoLock lock = _sweepLock.lock())
+        {
+            int evicted = 0;
+            // Give up when all the sessions have been sampled without finding one to evict.
+            int unsuccessful = 0;
+            while (isOverBounds() && unsuccessful < _sessions.size() + EVICTION_SAMPLES)
+            {
+                Session oldest = null;
+                long oldestAccessed = Long.MAX_VALUE;
+                for (int i = 0; i < EVICTION_SAMPLES; ++i)
+                {
+                    Map.Entry<String, Session> sample = nextSample();
+                    if (sample == null)
+                        break;
+                    Session session = sample.getValue();
+                    // The iteration may return a session removed since.
+                    if (_sessions.get(sample.getKey()) != session)
+                        continue;
+                    // Correct the size of sessions that changed without being released.
+                    updateSize(sample.getKey(), session);
+                    long accessed = session.getSessionData().getAccessed();
+                    if (session.getRequests() <= 0 && accessed < oldestAccessed)
+                    {
+                        oldest = session;
+                        oldestAccessed = accessed;
+                    }
+                }
+
+                if (oldest != null && evict(oldest))
+                {
+                    ++evicted;
+                    unsuccessful = 0;
+                }
+                else
+                {
+                    unsuccessful += EVICTION_SAMPLES;
+                }
+            }
+
+            if (LOG.isDebugEnabled())
+                LOG.debug("Swept {} sessions from {}, {} sessions of ~{} bytes remain", evicted, this, _sessions.size(), _bytes.get());
+            return evicted;
+        }
+    }
+
+    /**
+     * @return the next session to sample for eviction, cycling through the whole cache, or null if empty
+     */
+    private Map.Entry<String, Session> nextSample()
+    {
+        if (_samples == null || !_samples.hasNext())
+        {
+            _samples = _sessions.entrySet().iterator();
+            if (!_samples.hasNext())
+                return null;
+        }
+        return _samples.next();
+    }
+
+    /**
+     * Write a session through to the SessionDataStore, then remove it from the cache.
+     * Sessions that are in use, invalid or no longer resident are not evicted.
+     *
+     * @param session the session to evict
+     * @return true if the session was evicted
+     */
+    protected boolean evict(Session session)
+    {
+        try (AutoLock lock = session.lock())
+        {
+            if (!session.isValid() || !session.isResident() || session.getRequests() > 0)
+                return false;
+
+            if (LOG.isDebugEnabled())
+                LOG.debug("Evicting session {} from bounded cache", session.getId());
+
+            if (_sessionDataStore.isPassivating())
+                session.willPassivate();
+
+            //Fake being dirty to force the write
+            session.getSessionData().setDirty(true);
+            _sessionDataStore.store(session.getId(), session.getSessionData());
+
+            doDelete(session.getId());
+            session.setResident(false);
+            _evictions.increment();
+            return true;
+        }
+        catch (Exception e)
+        {
+            LOG.warn("Unable to evict session {}", session.getId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Estimate the memory retained by a session, used to enforce {@link #getMaxBytes()}.
+     * Strings, byte arrays and boxed primitives are sized from their content,
+     * other attribute values are assumed to be a fixed size.
+     *
+     * @param session the session
+     * @return the estimated size of the session in bytes
+     */
+    protected long estimateSize(Session session)
+    {
+        SessionData data = session.getSessionData();
+        long size = 256 + 2L * data.getId().length();
+        for (String name : data.getKeys())
+        {
+            size += 64 + 2L * name.length();
+            Object value = data.getAttribute(name);
+            if (value instanceof CharSequence)
+                size += 40 + 2L * ((CharSequence)value).length();
+            else if (value instanceof byte[])
+                size += 16 + ((byte[])value).length;
+            else if (value instanceof Number || value instanceof Boolean || value instanceof Character)
+                size += 16;
+            else if (value != null)
+                size += 256;
+        }
+        return size;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s@%x[evict=%d,maxSessions=%d,maxBytes=%d]",
+            this.getClass().getName(), this.hashCode(), _evictionPolicy, _maxSessions, _maxBytes);
+    }
+}
@@ -0,0 +1,84 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server.session;
+
+/**
+ * BoundedSessionCacheFactory
+ *
+ * Factory for creating new BoundedSessionCaches.
+ */
+public class BoundedSessionCacheFactory extends AbstractSessionCacheFactory
+{
+    int _maxSessions = -1;
+    long _maxBytes = -1;
+    long _sweepIntervalMs = BoundedSessionCache.DEFAULT_SWEEP_INTERVAL_MS;
+
+    /**
+     * @return the maxSessions
+     */
+    public int getMaxSessions()
+    {
+        return _maxSessions;
+    }
+
+    /**
+     * @param maxSessions the maxSessions to set
+     */
+    public void setMaxSessions(int maxSessions)
+    {
+        _maxSessions = maxSessions;
+    }
+
+    /**
+     * @return the maxBytes
+     */
+    public long getMaxBytes()
+    {
+        return _maxBytes;
+    }
+
+    /**
+     * @param maxBytes the maxBytes to set
+     */
+    public void setMaxBytes(long maxBytes)
+    {
+        _maxBytes = maxBytes;
+    }
+
+    /**
+     * @return the sweepIntervalMs
+     */
+    public long getSweepIntervalMs()
+    {
+        return _sweepIntervalMs;
+    }
+
+    /**
+     * @param sweepIntervalMs the sweepIntervalMs to set
+     */
+    public void setSweepIntervalMs(long sweepIntervalMs)
+    {
+        _sweepIntervalMs = sweepIntervalMs;
+    }
+
+    @Override
+    public SessionCache newSessionCache(SessionHandler handler)
+    {
+        BoundedSessionCache cache = new BoundedSessionCache(handler);
+        cache.setMaxSessions(getMaxSessions());
+        cache.setMaxBytes(getMaxBytes());
+        cache.setSweepIntervalMs(getSweepIntervalMs());
+        return cache;
+    }
+}
@@ -13,8 +13,20 @@
 
 package org.eclipse.jetty.server.session;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
+import org.eclipse.jetty.util.annotation.ManagedAttribute;
+import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.annotation.ManagedOperation;
 import org.eclipse.jetty.util.component.ContainerLifeCycle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,10 +48,34 @@ import org.slf4j.LoggerFactory;
  * deletes, the data is deleted first from the SessionDataStore, and then from the
  * cache. There is no transaction manager ensuring atomic operations, so it is
  * possible that failures can result in cache inconsistency.
+ *
+ * If a {@link SessionDataInvalidator} is configured, a near cache of serialized
+ * session data is also kept in memory in front of the cache. Every write or
+ * delete is announced to the other nodes with the last saved time of the session
+ * data as its version, and a node drops its near cache entry when another node
+ * announces a different version. A node that serves a session last seen on
+ * another node therefore only reloads it from the cache or the store if it was
+ * changed in the meantime, which suits clusters without sticky load balancing.
+ * As invalidations may be lost, a near cache entry is only used after checking its
+ * version against {@link SessionDataMap#getLastSaved(String)} of the cache, or
+ * of the store if the cache does not have the session. An entry validated less than
+ * {@link #getNearCacheValidationIntervalMs()} ago is used without that check, so
+ * that invalidations only allow to skip it. The near cache holds at most {@link #getNearCacheMaxSessions()} sessions, and
+ * its entries older than {@link #getNearCacheMaxAgeMs()} are swept periodically.
  */
+@ManagedObject
 public class CachingSessionDataStore extends ContainerLifeCycle implements SessionDataStore
 {
     private static final Logger LOG = LoggerFactory.getLogger(CachingSessionDataStore.class);
+
+    public static final long DEFAULT_NEAR_CACHE_MAX_AGE_MS = 60000;
+
+    public static final int DEFAULT_NEAR_CACHE_MAX_SESSIONS = 10000;
+
+    public static final long DEFAULT_NEAR_CACHE_VALIDATION_INTERVAL_MS = 0;
+
+    private static final int INVALIDATION_STRIPES = 256;
+
     /**
      * The actual store for the session data
      */
@@ -50,16 +86,44 @@ public class CachingSessionDataStore extends ContainerLifeCycle implements Sessi
      */
     protected SessionDataMap _cache;
 
+    /**
+     * The transport of near cache invalidations, or null if there is no near cache
+     */
+    protected SessionDataInvalidator _invalidator;
+
+    private final ConcurrentMap<String, NearCacheEntry> _nearCache = new ConcurrentHashMap<>();
+    private final AtomicLongArray _invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+    private final AtomicLong _nextSweep = new AtomicLong();
+    private final LongAdder _nearCacheHits = new LongAdder();
+    private final LongAdder _nearCacheMisses = new LongAdder();
+    private long _nearCacheMaxAgeMs = DEFAULT_NEAR_CACHE_MAX_AGE_MS;
+    private int _nearCacheMaxSessions = DEFAULT_NEAR_CACHE_MAX_SESSIONS;
+    private long _nearCacheValidationIntervalMs = DEFAULT_NEAR_CACHE_VALIDATION_INTERVAL_MS;
+    private SessionContext _context;
+
     /**
      * @param cache the front cache to use
      * @param store the actual store for the the session data
      */
     public CachingSessionDataStore(SessionDataMap cache, SessionDataStore store)
+    {
+        this(cache, store, null);
+    }
+
+    /**
+     * @param cache the front cache to use
+     * @param store the actual store for the the session data
+     * @param invalidator the transport of near cache invalidations, or null for no near cache
+     */
+    public CachingSessionDataStore(SessionDataMap cache, SessionDataStore store, SessionDataInvalidator invalidator)
     {
         _cache = cache;
         addBean(_cache, true);
         _store = store;
         addBean(_store, true);
+        _invalidator = invalidator;
+        if (_invalidator != null)
+            addBean(_invalidator, true);
     }
 
     /**
@@ -78,11 +142,117 @@ public class CachingSessionDataStore extends ContainerLifeCycle implements Sessi
         return _cache;
     }
 
+    /**
+     * @return the transport of near cache invalidations, or null if there is no near cache
+     */
+    public SessionDataInvalidator getSessionDataInvalidator()
+    {
+        return _invalidator;
+    }
+
+    /**
+     * @return the max time in milliseconds a session is served from the near cache
+     * before being reloaded, or a value &lt;= 0 for no limit
+     */
+    @ManagedAttribute(value = "max age in ms of near cache entries", readonly = true)
+    public long getNearCacheMaxAgeMs()
+    {
+        return _nearCacheMaxAgeMs;
+    }
+
+    /**
+     * As invalidations may be lost, the max age bounds the time a node can use
+     * stale session data from its near cache.
+     *
+     * @param nearCacheMaxAgeMs the max time in milliseconds a session is served from
+     * the near cache before being reloaded, or a value &lt;= 0 for no limit
+     */
+    public void setNearCacheMaxAgeMs(long nearCacheMaxAgeMs)
+    {
+        _nearCacheMaxAgeMs = nearCacheMaxAgeMs;
+    }
+
+    /**
+     * @return the max number of sessions in the near cache, or a value &lt;= 0 for no limit
+     */
+    @ManagedAttribute(value = "max number of sessions in the near cache", readonly = true)
+    public int getNearCacheMaxSessions()
+    {
+        return _nearCacheMaxSessions;
+    }
+
+    /**
+     * When the near cache is full, an arbitrary entry is dropped to make room
+     * for a new one.
+     *
+     * @param nearCacheMaxSessions the max number of sessions in the near cache,
+     * or a value &lt;= 0 for no limit
+     */
+    public void setNearCacheMaxSessions(int nearCacheMaxSessions)
+    {
+        _nearCacheMaxSessions = nearCacheMaxSessions;
+    }
+
+    /**
+     * @return the time in milliseconds a near cache entry is used without checking
+     * its version, or a value &lt;= 0 to check it on every load
+     */
+    @ManagedAttribute(value = "time in ms a near cache entry is used without checking its version", readonly = true)
+    public long getNearCacheValidationIntervalMs()
+    {
+        return _nearCacheValidationIntervalMs;
+    }
+
+    /**
+     * Within this interval, a node relies on invalidations only and may use stale
+     * session data from its near cache if an invalidation is lost.
+     *
+     * @param nearCacheValidationIntervalMs the time in milliseconds a near cache entry
+     * is used without checking its version, or a value &lt;= 0 to check it on every load
+     */
+    public void setNearCacheValidationIntervalMs(long nearCacheValidationIntervalMs)
+    {
+        _nearCacheValidationIntervalMs = nearCacheValidationIntervalMs;
+    }
+
+    @ManagedAttribute(value = "number of sessions in the near cache", readonly = true)
+    public int getNearCacheSize()
+    {
+        return _nearCache.size();
+    }
+
+    @ManagedAttribute(value = "loads served by the near cache", readonly = true)
+    public long getNearCacheHits()
+    {
+        return _nearCacheHits.sum();
+    }
+
+    @ManagedAttribute(value = "loads not served by the near cache", readonly = true)
+    public long getNearCacheMisses()
+    {
+        return _nearCacheMisses.sum();
+    }
+
+    @ManagedOperation(value = "reset near cache statistics", impact = "ACTION")
+    public void resetStats()
+    {
+        _nearCacheHits.reset();
+        _nearCacheMisses.reset();
+    }
+
     @Override
     public SessionData load(String id) throws Exception
     {
         SessionData d = null;
 
+        long invalidations = getInvalidations(id);
+        if (_invalidator != null)
+        {
+            d = loadNear(id);
+            if (d != null)
+                return d; //near cache hit
+        }
+
         try
         {
             //check to see if the session data is already in the cache
@@ -93,15 +263,36 @@ public class CachingSessionDataStore extends ContainerLifeCycle implements Sessi
             LOG.warn("Unable to load id {}", id, e);
         }
 
-        if (d != null)
-            return d; //cache hit
+        if (d == null)
+        {
+            //cache miss - go get it from the store
+            d = _store.load(id);
+        }
 
-        //cache miss - go get it from the store
-        d = _store.load(id);
+        if (d != null && _invalidator != null)
+            storeNear(id, d, invalidations);
 
         return d;
     }
 
+    @Override
+    public long getLastSaved(String id) throws Exception
+    {
+        long lastSaved = -1;
+        try
+        {
+            lastSaved = _cache.getLastSaved(id);
+        }
+        catch (Exception e)
+        {
+            LOG.warn("Unable to read last saved time of id {}", id, e);
+        }
+
+        if (lastSaved < 0)
+            lastSaved = _store.getLastSaved(id);
+        return lastSaved;
+    }
+
     @Override
     public boolean delete(String id) throws Exception
     {
@@ -110,6 +301,13 @@ public class CachingSessionDataStore extends ContainerLifeCycle implements Sessi
         //and from the cache
         _cache.delete(id);
 
+        if (_invalidator != null)
+        {
+            _invalidations.incrementAndGet(stripe(id));
+            _nearCache.remove(id);
+            invalidate(id, -1);
+        }
+
         return deleted;
     }
 
@@ -117,20 +315,218 @@ public class CachingSessionDataStore extends ContainerLifeCycle implements Sessi
     public Set<String> getExpired(Set<String> candidates)
     {
         //pass thru to the delegate store
-        return _store.getExpired(candidates);
+        Set<String> expired = _store.getExpired(candidates);
+        if (_invalidator != null)
+        {
+            if (expired != null)
+                expired.forEach(_nearCache::remove);
+            sweepNearCache(System.currentTimeMillis());
+        }
+        return expired;
     }
 
     @Override
     public void store(String id, SessionData data) throws Exception
     {
         long lastSaved = data.getLastSaved();
+        long invalidations = getInvalidations(id);
 
         //write to the SessionDataStore first
         _store.store(id, data);
 
         //if the store saved it, then update the cache too
         if (data.getLastSaved() != lastSaved)
+        {
             _cache.store(id, data);
+
+            if (_invalidator != null)
+            {
+                storeNear(id, data, invalidations);
+                invalidate(id, data.getLastSaved());
+            }
+        }
+    }
+
+    private void invalidate(String id, long version)
+    {
+        try
+        {
+            _invalidator.invalidate(id, version);
+        }
+        catch (Exception e)
+        {
+            LOG.warn("Unable to invalidate session {} on other nodes", id, e);
+        }
+    }
+
+    /**
+     * Invalidations are counted per stripe of session ids, so that an invalidation only
+     * prevents the near caching of the sessions of the same stripe being loaded or stored.
+     */
+    private static int stripe(String id)
+    {
+        return (id.hashCode() & Integer.MAX_VALUE) % INVALIDATION_STRIPES;
+    }
+
+    private long getInvalidations(String id)
+    {
+        return _invalidations.get(stripe(id));
+    }
+
+    private void onInvalidate(String id, long version)
+    {
+        _invalidations.incrementAndGet(stripe(id));
+        //keep the entry only if we already have the announced version
+        _nearCache.computeIfPresent(id, (k, entry) -> entry._data.getLastSaved() == version ? entry : null);
+    }
+
+    private SessionData loadNear(String id)
+    {
+        NearCacheEntry entry = _nearCache.get(id);
+        long now = System.currentTimeMillis();
+        if (entry != null && _nearCacheMaxAgeMs > 0 && now - entry._time > _nearCacheMaxAgeMs)
+        {
+            _nearCache.remove(id, entry);
+            entry = null;
+        }
+
+        if (entry != null && now - entry._validated >= _nearCacheValidationIntervalMs && !validateNear(id, entry, now))
+        {
+            _nearCache.remove(id, entry);
+            entry = null;
+        }
+
+        if (entry == null)
+        {
+            _nearCacheMisses.increment();
+            return null;
+        }
+
+        SessionData metaData = entry._data;
+        byte[] attributes = entry._attributes;
+        SessionData data = _store.newSessionData(id, metaData.getCreated(), metaData.getAccessed(),
+            metaData.getLastAccessed(), metaData.getMaxInactiveMs());
+        data.copy(metaData);
+
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        _context.run(() ->
+        {
+            try
+            {
+                getSessionDataSerializer().deserializeAttributes(data, new ByteArrayInputStream(attributes));
+            }
+            catch (Exception e)
+            {
+                failure.set(e);
+            }
+        });
+        if (failure.get() != null)
+        {
+            if (LOG.isDebugEnabled())
+                LOG.debug("Unable to read session {} from near cache", id, failure.get());
+            _nearCache.remove(id, entry);
+            _nearCacheMisses.increment();
+            return null;
+        }
+
+        data.clean();
+        _nearCacheHits.increment();
+        return data;
+    }
+
+    /**
+     * @return true if the near cache entry has the version of the cache or the store
+     */
+    private boolean validateNear(String id, NearCacheEntry entry, long now)
+    {
+        try
+        {
+            long lastSaved = getLastSaved(id);
+            if (lastSaved != entry._data.getLastSaved())
+            {
+                if (LOG.isDebugEnabled())
+                    LOG.debug("Stale session {} in near cache, saved {} != {}", id, entry._data.getLastSaved(), lastSaved);
+                return false;
+            }
+            entry._validated = now;
+            return true;
+        }
+        catch (Exception e)
+        {
+            if (LOG.isDebugEnabled())
+                LOG.debug("Unable to validate session {} in near cache", id, e);
+            return false;
+        }
+    }
+
+    private void storeNear(String id, SessionData data, long invalidations)
+    {
+        //only plain session data can be rebuilt from the near cache
+        if (data.getClass() != SessionData.class)
+            return;
+
+        try
+        {
+            ByteArrayOutputStream attributes = new ByteArrayOutputStream();
+            getSessionDataSerializer().serializeAttributes(data, attributes);
+
+            SessionData metaData = new SessionData(id, data.getContextPath(), data.getVhost(), data.getCreated(),
+                data.getAccessed(), data.getLastAccessed(), data.getMaxInactiveMs());
+            metaData.setCookieSet(data.getCookieSet());
+            metaData.setExpiry(data.getExpiry());
+            metaData.setLastNode(data.getLastNode());
+            metaData.setLastSaved(data.getLastSaved());
+
+            NearCacheEntry entry = new NearCacheEntry(metaData, attributes.toByteArray());
+            makeRoom(id, entry._time);
+            _nearCache.put(id, entry);
+            //an invalidation may have been received while the session data was loaded or stored
+            if (getInvalidations(id) != invalidations)
+                _nearCache.remove(id, entry);
+        }
+        catch (Exception e)
+        {
+            if (LOG.isDebugEnabled())
+                LOG.debug("Unable to near cache session {}", id, e);
+            _nearCache.remove(id);
+        }
+    }
+
+    private void makeRoom(String id, long now)
+    {
+        sweepNearCache(now);
+        int maxSessions = getNearCacheMaxSessions();
+        if (maxSessions <= 0)
+            return;
+        Iterator<String> ids = _nearCache.keySet().iterator();
+        while (_nearCache.size() >= maxSessions && !_nearCache.containsKey(id) && ids.hasNext())
+        {
+            ids.next();
+            ids.remove();
+        }
+    }
+
+    /**
+     * Removes the near cache entries older than the max age, at most once per max age period.
+     *
+     * @param now the current time in milliseconds
+     */
+    private void sweepNearCache(long now)
+    {
+        long maxAge = getNearCacheMaxAgeMs();
+        if (maxAge <= 0)
+            return;
+        long nextSweep = _nextSweep.get();
+        if (now < nextSweep || !_nextSweep.compareAndSet(nextSweep, now + maxAge))
+            return;
+        _nearCache.values().removeIf(entry -> now - entry._time > maxAge);
+    }
+
+    private SessionDataSerializer getSessionDataSerializer()
+    {
+        if (_store instanceof AbstractSessionDataStore)
+            return ((AbstractSessionDataStore)_store).getSessionDataSerializer();
+        return new JavaSessionDataSerializer();
     }
 
     @Override
@@ -143,6 +539,7 @@ public class CachingSessionDataStore extends ContainerLifeCycle implements Sessi
     protected void doStop() throws Exception
     {
         super.doStop();
+        _nearCache.clear();
     }
 
     @Override
@@ -176,6 +573,9 @@ public class CachingSessionDataStore extends ContainerLifeCycle implements Sessi
         //pass through
         _store.initialize(context);
         _cache.initialize(context);
+        _context = context;
+        if (_invalidator != null)
+            _invalidator.initialize(context, this::onInvalidate);
     }
 
     @Override
@@ -183,4 +583,18 @@ public class CachingSessionDataStore extends ContainerLifeCycle implements Sessi
     {
         return _store.newSessionData(id, created, accessed, lastAccessed, maxInactiveMs);
     }
+
+    private static class NearCacheEntry
+    {
+        private final SessionData _data;
+        private final byte[] _attributes;
+        private final long _time = System.currentTimeMillis();
+        private volatile long _validated = _time;
+
+        private NearCacheEntry(SessionData data, byte[] attributes)
+        {
+            _data = data;
+            _attributes = attributes;
+        }
+    }
 }
@@ -26,6 +26,14 @@ public class CachingSessionDataStoreFactory extends AbstractSessionDataStoreFact
 
     protected SessionDataMapFactory _mapFactory;
 
+    protected SessionDataInvalidatorFactory _invalidatorFactory;
+
+    protected long _nearCacheMaxAgeMs = CachingSessionDataStore.DEFAULT_NEAR_CACHE_MAX_AGE_MS;
+
+    protected int _nearCacheMaxSessions = CachingSessionDataStore.DEFAULT_NEAR_CACHE_MAX_SESSIONS;
+
+    protected long _nearCacheValidationIntervalMs = CachingSessionDataStore.DEFAULT_NEAR_CACHE_VALIDATION_INTERVAL_MS;
+
     /**
      * @return the SessionDataMapFactory
      */
@@ -51,9 +59,83 @@ public class CachingSessionDataStoreFactory extends AbstractSessionDataStoreFact
         _sessionStoreFactory = factory;
     }
 
+    /**
+     * @return the SessionDataInvalidatorFactory, or null if there is no near cache
+     */
+    public SessionDataInvalidatorFactory getSessionDataInvalidatorFactory()
+    {
+        return _invalidatorFactory;
+    }
+
+    /**
+     * @param invalidatorFactory the factory for the transport of near cache
+     * invalidations, or null for no near cache
+     */
+    public void setSessionDataInvalidatorFactory(SessionDataInvalidatorFactory invalidatorFactory)
+    {
+        _invalidatorFactory = invalidatorFactory;
+    }
+
+    /**
+     * @return the max age in milliseconds of near cache entries
+     */
+    public long getNearCacheMaxAgeMs()
+    {
+        return _nearCacheMaxAgeMs;
+    }
+
+    /**
+     * @param nearCacheMaxAgeMs the max age in milliseconds of near cache entries
+     * @see CachingSessionDataStore#setNearCacheMaxAgeMs(long)
+     */
+    public void setNearCacheMaxAgeMs(long nearCacheMaxAgeMs)
+    {
+        _nearCacheMaxAgeMs = nearCacheMaxAgeMs;
+    }
+
+    /**
+     * @return the max number of sessions in the near cache
+     */
+    public int getNearCacheMaxSessions()
+    {
+        return _nearCacheMaxSessions;
+    }
+
+    /**
+     * @param nearCacheMaxSessions the max number of sessions in the near cache
+     * @see CachingSessionDataStore#setNearCacheMaxSessions(int)
+     */
+    public void setNearCacheMaxSessions(int nearCacheMaxSessions)
+    {
+        _nearCacheMaxSessions = nearCacheMaxSessions;
+    }
+
+    /**
+     * @return the time in milliseconds a near cache entry is used without checking its version
+     */
+    public long getNearCacheValidationIntervalMs()
+    {
+        return _nearCacheValidationIntervalMs;
+    }
+
+    /**
+     * @param nearCacheValidationIntervalMs the time in milliseconds a near cache entry is used
+     * without checking its version
+     * @see CachingSessionDataStore#setNearCacheValidationIntervalMs(long)
+     */
+    public void setNearCacheValidationIntervalMs(long nearCacheValidationIntervalMs)
+    {
+        _nearCacheValidationIntervalMs = nearCacheValidationIntervalMs;
+    }
+
     @Override
     public SessionDataStore getSessionDataStore(SessionHandler handler) throws Exception
     {
-        return new CachingSessionDataStore(_mapFactory.getSessionDataMap(), _sessionStoreFactory.getSessionDataStore(handler));
+        SessionDataInvalidator invalidator = _invalidatorFactory == null ? null : _invalidatorFactory.getSessionDataInvalidator();
+        CachingSessionDataStore store = new CachingSessionDataStore(_mapFactory.getSessionDataMap(), _sessionStoreFactory.getSessionDataStore(handler), invalidator);
+        store.setNearCacheMaxAgeMs(getNearCacheMaxAgeMs());
+        store.setNearCacheMaxSessions(getNearCacheMaxSessions());
+        store.setNearCacheValidationIntervalMs(getNearCacheValidationIntervalMs());
+        return store;
     }
 }
@@ -0,0 +1,249 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server.session;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jetty.util.ClassLoadingObjectInputStream;
+
+/**
+ * CompactSessionDataSerializer
+ *
+ * Serializes the session attributes in a compact binary format.
+ * <p>
+ * Attribute values that are strings, boxed primitives or byte arrays are written
+ * as a type tag followed by their binary representation, avoiding the class
+ * descriptors and the reflection of Java serialization. Other attribute values are
+ * written after them with Java serialization, recording which classloader should
+ * be used to load them as {@link JavaSessionDataSerializer} does.
+ * <p>
+ * Attributes serialized by {@link JavaSessionDataSerializer} can also be
+ * deserialized, so that sessions persisted before switching to this
+ * serializer can still be loaded.
+ */
+public class CompactSessionDataSerializer implements SessionDataSerializer
+{
+    private static final int MAGIC = 0x4A534401; // "JSD" + format version 1
+    private static final int MAX_UTF_LENGTH = 0xFFFF / 3; // writeUTF() limit in the worst case
+    private static final byte END = 0;
+    private static final byte STRING = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte BOOLEAN = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte FLOAT = 6;
+    private static final byte SHORT = 7;
+    private static final byte BYTE = 8;
+    private static final byte CHARACTER = 9;
+    private static final byte BYTES = 10;
+    private static final byte OBJECT = -1;
+
+    private final JavaSessionDataSerializer _javaSerializer = new JavaSessionDataSerializer();
+
+    @Override
+    public void serializeAttributes(SessionData data, OutputStream out) throws IOException
+    {
+        DataOutputStream dos = new DataOutputStream(out);
+        dos.writeInt(MAGIC);
+
+        List<Map.Entry<String, Object>> objects = null;
+        for (Map.Entry<String, Object> entry : data._attributes.entrySet())
+        {
+            Object value = entry.getValue();
+            byte type = typeOf(value);
+            if (type == OBJECT)
+            {
+                if (objects == null)
+                    objects = new ArrayList<>();
+                objects.add(entry);
+                continue;
+            }
+
+            dos.writeByte(type);
+            dos.writeUTF(entry.getKey());
+            switch (type)
+            {
+                case STRING:
+                    dos.writeUTF((String)value);
+                    break;
+                case INTEGER:
+                    dos.writeInt((Integer)value);
+                    break;
+                case LONG:
+                    dos.writeLong((Long)value);
+                    break;
+                case BOOLEAN:
+                    dos.writeBoolean((Boolean)value);
+                    break;
+                case DOUBLE:
+                    dos.writeDouble((Double)value);
+                    break;
+                case FLOAT:
+                    dos.writeFloat((Float)value);
+                    break;
+                case SHORT:
+                    dos.writeShort((Short)value);
+                    break;
+                case BYTE:
+                    dos.writeByte((Byte)value);
+                    break;
+                case CHARACTER:
+                    dos.writeChar((Character)value);
+                    break;
+                case BYTES:
+                    byte[] bytes = (byte[])value;
+                    dos.writeInt(bytes.length);
+                    dos.write(bytes);
+                    break;
+                default:
+                    throw new IllegalStateException();
+            }
+        }
+        dos.writeByte(END);
+
+        // Java serialization is only used, last, if there are other attribute values.
+        dos.writeInt(objects == null ? 0 : objects.size());
+        dos.flush();
+        if (objects != null)
+        {
+            ObjectOutputStream oos = new ObjectOutputStream(out);
+            for (Map.Entry<String, Object> entry : objects)
+            {
+                oos.writeUTF(entry.getKey());
+                oos.writeBoolean(SessionData.isServerClassLoader(entry.getValue().getClass()));
+                oos.writeObject(entry.getValue());
+            }
+            oos.flush();
+        }
+    }
+
+    @Override
+    public void deserializeAttributes(SessionData data, InputStream in) throws IOException, ClassNotFoundException
+    {
+        if (!in.markSupported())
+            in = new BufferedInputStream(in);
+        DataInputStream dis = new DataInputStream(in);
+
+        in.mark(4);
+        if (dis.readInt() != MAGIC)
+        {
+            in.reset();
+            _javaSerializer.deserializeAttributes(data, in);
+            return;
+        }
+
+        Map<String, Object> attributes = new ConcurrentHashMap<>();
+        byte type;
+        while ((type = dis.readByte()) != END)
+        {
+            String name = dis.readUTF();
+            switch (type)
+            {
+                case STRING:
+                    attributes.put(name, dis.readUTF());
+                    break;
+                case INTEGER:
+                    attributes.put(name, dis.readInt());
+                    break;
+                case LONG:
+                    attributes.put(name, dis.readLong());
+                    break;
+                case BOOLEAN:
+                    attributes.put(name, dis.readBoolean());
+                    break;
+                case DOUBLE:
+                    attributes.put(name, dis.readDouble());
+                    break;
+                case FLOAT:
+                    attributes.put(name, dis.readFloat());
+                    break;
+                case SHORT:
+                    attributes.put(name, dis.readShort());
+                    break;
+                case BYTE:
+                    attributes.put(name, dis.readByte());
+                    break;
+                case CHARACTER:
+                    attributes.put(name, dis.readChar());
+                    break;
+                case BYTES:
+                    byte[] bytes = new byte[dis.readInt()];
+                    dis.readFully(bytes);
+                    attributes.put(name, bytes);
+                    break;
+                default:
+                    throw new StreamCorruptedException("Unknown attribute type " + type);
+            }
+        }
+
+        int objects = dis.readInt();
+        if (objects > 0)
+        {
+            ClassLoadingObjectInputStream ois = new ClassLoadingObjectInputStream(in);
+            ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+            ClassLoader serverLoader = SessionData.class.getClassLoader();
+            for (int i = 0; i < objects; i++)
+            {
+                String name = ois.readUTF();
+                boolean isServerClassLoader = ois.readBoolean();
+                attributes.put(name, ois.readObject(isServerClassLoader ? serverLoader : contextLoader));
+            }
+        }
+
+        data._attributes = attributes;
+    }
+
+    private static byte typeOf(Object value)
+    {
+        Class<?> clazz = value.getClass();
+        if (clazz == String.class)
+            return ((String)value).length() <= MAX_UTF_LENGTH ? STRING : OBJECT;
+        if (clazz == Integer.class)
+            return INTEGER;
+        if (clazz == Long.class)
+            return LONG;
+        if (clazz == Boolean.class)
+            return BOOLEAN;
+        if (clazz == Double.class)
+            return DOUBLE;
+        if (clazz == Float.class)
+            return FLOAT;
+        if (clazz == Short.class)
+            return SHORT;
+        if (clazz == Byte.class)
+            return BYTE;
+        if (clazz == Character.class)
+            return CHARACTER;
+        if (clazz == byte[].class)
+            return BYTES;
+        return OBJECT;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s@%x", this.getClass().getName(), this.hashCode());
+    }
+}
@@ -63,6 +63,7 @@ public class FileSessionDataStoreFactory extends AbstractSessionDataStoreFactory
         fsds.setStoreDir(getStoreDir());
         fsds.setGracePeriodSec(getGracePeriodSec());
         fsds.setSavePeriodSec(getSavePeriodSec());
+        fsds.setSessionDataSerializer(getSessionDataSerializer());
         return fsds;
     }
 }
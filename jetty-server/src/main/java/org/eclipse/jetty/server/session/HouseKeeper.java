@@ -13,6 +13,7 @@
 
 package org.eclipse.jetty.server.session;
 
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jetty.server.SessionIdManager;
@@ -35,6 +36,7 @@ public class HouseKeeper extends AbstractLifeCycle
 {
     private static final Logger LOG = LoggerFactory.getLogger(HouseKeeper.class);
     public static final long DEFAULT_PERIOD_MS = 1000L * 60 * 10;
+    public static final int DEFAULT_JITTER_PERCENT = 10;
 
     private final AutoLock _lock = new AutoLock();
     protected SessionIdManager _sessionIdManager;
@@ -43,6 +45,7 @@ public class HouseKeeper extends AbstractLifeCycle
     protected Runner _runner;
     protected boolean _ownScheduler = false;
     private long _intervalMs = DEFAULT_PERIOD_MS;
+    private int _jitterPercent = DEFAULT_JITTER_PERCENT;
 
     /**
      * Runner
@@ -62,7 +65,7 @@ public class HouseKeeper extends AbstractLifeCycle
                 try (AutoLock l = _lock.lock())
                 {
                     if (_scheduler != null && _scheduler.isRunning())
-                        _task = _scheduler.schedule(this, _intervalMs, TimeUnit.MILLISECONDS);
+                        _task = _scheduler.schedule(this, nextDelayMs(), TimeUnit.MILLISECONDS);
                 }
             }
         }
@@ -127,7 +130,7 @@ public class HouseKeeper extends AbstractLifeCycle
                 _runner = new Runner();
             if (LOG.isDebugEnabled())
                 LOG.debug("{} scavenging every {}ms", _sessionIdManager.getWorkerName(), _intervalMs);
-            _task = _scheduler.schedule(_runner, _intervalMs, TimeUnit.MILLISECONDS);
+            _task = _scheduler.schedule(_runner, nextDelayMs(), TimeUnit.MILLISECONDS);
         }
     }
 
@@ -194,12 +197,6 @@ public class HouseKeeper extends AbstractLifeCycle
 
                     _intervalMs = sec * 1000L;
 
-                    //add a bit of variability into the scavenge time so that not all
-                    //nodes with the same scavenge interval sync up
-                    long tenPercent = _intervalMs / 10;
-                    if ((System.currentTimeMillis() % 2) == 0)
-                        _intervalMs += tenPercent;
-
                     if (isStarting() || isStarted())
                     {
                         startScavenging();
@@ -227,6 +224,50 @@ public class HouseKeeper extends AbstractLifeCycle
         }
     }
 
+    /**
+     * Get the maximum random delay added to each scavenge cycle,
+     * as a percentage of the interval between cycles.
+     *
+     * @return the jitter percentage
+     */
+    @ManagedAttribute(value = "max random delay added to each scavenge cycle, in percent of the interval", readonly = true)
+    public int getJitterPercent()
+    {
+        try (AutoLock l = _lock.lock())
+        {
+            return _jitterPercent;
+        }
+    }
+
+    /**
+     * Set the maximum random delay added to each scavenge cycle, as a
+     * percentage of the interval between cycles. A different delay is
+     * chosen for every cycle, so that the nodes of a cluster sharing a
+     * session store spread their scavenges over time rather than
+     * querying the store at the same time.
+     *
+     * @param jitterPercent the jitter percentage, 0 for a fixed interval
+     */
+    public void setJitterPercent(int jitterPercent)
+    {
+        if (jitterPercent < 0 || jitterPercent > 100)
+            throw new IllegalArgumentException("Invalid jitter percentage " + jitterPercent);
+        try (AutoLock l = _lock.lock())
+        {
+            _jitterPercent = jitterPercent;
+        }
+    }
+
+    long nextDelayMs()
+    {
+        //add a bit of variability into the scavenge time so that not all
+        //nodes with the same scavenge interval sync up
+        long jitter = _intervalMs * _jitterPercent / 100;
+        if (jitter <= 0)
+            return _intervalMs;
+        return _intervalMs + ThreadLocalRandom.current().nextLong(jitter + 1);
+    }
+
     /**
      * Periodically do session housekeeping
      */
@@ -261,7 +302,7 @@ public class HouseKeeper extends AbstractLifeCycle
     {
         try (AutoLock l = _lock.lock())
         {
-            return super.toString() + "[interval=" + _intervalMs + ", ownscheduler=" + _ownScheduler + "]";
+            return super.toString() + "[interval=" + _intervalMs + ", jitter=" + _jitterPercent + "%, ownscheduler=" + _ownScheduler + "]";
         }
     }
 }
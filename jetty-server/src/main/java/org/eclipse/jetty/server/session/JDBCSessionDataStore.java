@@ -16,20 +16,29 @@ package org.eclipse.jetty.server.session;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
-import java.io.ObjectOutputStream;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
-import org.eclipse.jetty.util.ClassLoadingObjectInputStream;
 import org.eclipse.jetty.util.StringUtil;
 import org.eclipse.jetty.util.annotation.ManagedAttribute;
 import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.annotation.ManagedOperation;
+import org.eclipse.jetty.util.thread.AutoLock;
+import org.eclipse.jetty.util.thread.ScheduledExecutorScheduler;
+import org.eclipse.jetty.util.thread.Scheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,6 +46,17 @@ import org.slf4j.LoggerFactory;
  * JDBCSessionDataStore
  *
  * Session data stored in database
+ * <p>
+ * By default, session data is written to the database synchronously
+ * when the last request leaves the session. If a write behind interval
+ * is {@link #setWriteBehindIntervalMs(long) configured}, the session data
+ * is instead queued and periodically written with JDBC batch updates: multiple
+ * writes of the same session between two flushes are coalesced so that only
+ * the last one reaches the database, and all pending writes are flushed when
+ * this store is stopped. Loads, existence and expiry checks of a session with
+ * a pending write use the pending session data rather than flushing it. A write that cannot be performed is logged and dropped,
+ * and the session will be written again the next time it is released. As the insert of a
+ * session may have been dropped, an update that matches no row inserts the session instead.
  */
 @ManagedObject
 public class JDBCSessionDataStore extends AbstractSessionDataStore
@@ -48,10 +68,29 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
      */
     public static final String NULL_CONTEXT_PATH = "/";
 
+    public static final int DEFAULT_MAX_WRITE_BEHIND_SESSIONS = 1024;
+
+    public static final int DEFAULT_SCAVENGE_PAGE_SIZE = 1000;
+
+    public static final int DEFAULT_SCAVENGE_MAX_PAGES = 10;
+
     protected boolean _initialized = false;
     protected DatabaseAdaptor _dbAdaptor;
     protected SessionTableSchema _sessionTableSchema;
     protected boolean _schemaProvided;
+    protected long _writeBehindIntervalMs;
+    protected int _maxWriteBehindSessions = DEFAULT_MAX_WRITE_BEHIND_SESSIONS;
+    protected int _scavengePageSize = DEFAULT_SCAVENGE_PAGE_SIZE;
+    protected int _scavengeMaxPages = DEFAULT_SCAVENGE_MAX_PAGES;
+
+    private final AutoLock _writeBehindLock = new AutoLock();
+    private final AutoLock _flushLock = new AutoLock();
+    private final Map<String, PendingWrite> _writeBehind = new LinkedHashMap<>();
+    private final Map<String, PendingWrite> _flushing = new HashMap<>();
+    private final ExpiredCursor _myExpiredCursor = new ExpiredCursor();
+    private final ExpiredCursor _expiredCursor = new ExpiredCursor();
+    private Scheduler _writeBehindScheduler;
+    private Scheduler.Task _writeBehindTask;
 
     private static final ByteArrayInputStream EMPTY = new ByteArrayInputStream(new byte[0]);
 
@@ -285,6 +324,19 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
             return "create index " + indexName + " on " + getSchemaTableName() + " (" + getIdColumn() + ", " + getContextPathColumn() + ")";
         }
 
+        /**
+         * The index over the context, virtual host and expiry time lets the scavenge queries
+         * find and page through the expired sessions of a context with a range scan.
+         *
+         * @param indexName the name of the index
+         * @return the statement to create the index
+         */
+        public String getCreateIndexOverContextExpiryStatementAsString(String indexName)
+        {
+            return "create index " + indexName + " on " + getSchemaTableName() + " (" + getContextPathColumn() + ", " +
+                getVirtualHostColumn() + ", " + getExpiryTimeColumn() + ", " + getIdColumn() + ")";
+        }
+
         public String getAlterTableForMaxIntervalAsString()
         {
             if (_dbAdaptor == null)
@@ -312,14 +364,28 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
                 " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         }
 
-        public PreparedStatement getUpdateSessionStatement(Connection connection, String id, SessionContext context)
-            throws SQLException
+        public String getUpdateSessionStatementAsString()
         {
-            String s = "update " + getSchemaTableName() +
+            return "update " + getSchemaTableName() +
                 " set " + getLastNodeColumn() + " = ?, " + getAccessTimeColumn() + " = ?, " +
                 getLastAccessTimeColumn() + " = ?, " + getLastSavedTimeColumn() + " = ?, " + getExpiryTimeColumn() + " = ?, " +
                 getMaxIntervalColumn() + " = ?, " + getMapColumn() + " = ? where " + getIdColumn() + " = ? and " + getContextPathColumn() +
                 " = ? and " + getVirtualHostColumn() + " = ?";
+        }
+
+        public String getUpdateSessionMetaDataStatementAsString()
+        {
+            return "update " + getSchemaTableName() +
+                " set " + getLastNodeColumn() + " = ?, " + getAccessTimeColumn() + " = ?, " +
+                getLastAccessTimeColumn() + " = ?, " + getLastSavedTimeColumn() + " = ?, " + getExpiryTimeColumn() + " = ?, " +
+                getMaxIntervalColumn() + " = ? where " + getIdColumn() + " = ? and " + getContextPathColumn() +
+                " = ? and " + getVirtualHostColumn() + " = ?";
+        }
+
+        public PreparedStatement getUpdateSessionStatement(Connection connection, String id, SessionContext context)
+            throws SQLException
+        {
+            String s = getUpdateSessionStatementAsString();
 
             String cp = context.getCanonicalContextPath();
             if (_dbAdaptor.isEmptyStringNull() && StringUtil.isBlank(cp))
@@ -380,6 +446,105 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
             statement.setLong(4, expiry);
             return statement;
         }
+
+        /**
+         * Get a page of the sessions of a context that expired before the given time,
+         * in expiry time and id order, starting after the last session of the previous page.
+         *
+         * @param connection the connection
+         * @param canonicalContextPath the context path
+         * @param vhost the virtual host
+         * @param expiry the time before which the sessions expired
+         * @param afterExpiry the expiry time of the last session of the previous page, or 0 for the first page
+         * @param afterId the id of the last session of the previous page, or the empty string for the first page
+         * @param pageSize the max number of sessions in the page
+         * @return the statement to select the page
+         * @throws SQLException if the statement cannot be prepared
+         */
+        public PreparedStatement getExpiredSessionsStatement(Connection connection, String canonicalContextPath, String vhost, long expiry,
+                                                             long afterExpiry, String afterId, int pageSize)
+            throws SQLException
+        {
+            if (_dbAdaptor == null)
+                throw new IllegalStateException("No DB adaptor");
+
+            String cp = canonicalContextPath;
+            if (_dbAdaptor.isEmptyStringNull() && StringUtil.isBlank(cp))
+                cp = NULL_CONTEXT_PATH;
+
+            PreparedStatement statement = connection.prepareStatement("select " + getIdColumn() + ", " + getExpiryTimeColumn() +
+                " from " + getSchemaTableName() + " where " + getContextPathColumn() + " = ? and " +
+                getVirtualHostColumn() + " = ? and " +
+                getExpiryTimeColumn() + " >0 and " + getExpiryTimeColumn() + " <= ? and " +
+                getPageConditionAsString() + getPageOrderAsString());
+
+            statement.setString(1, cp);
+            statement.setString(2, vhost);
+            statement.setLong(3, expiry);
+            setPageParameters(statement, 4, afterExpiry, afterId);
+            statement.setMaxRows(pageSize);
+            return statement;
+        }
+
+        /**
+         * Get a page of the sessions of a context managed by this node that expired before
+         * the given time, in expiry time and id order, starting after the last session of
+         * the previous page.
+         *
+         * @param connection the connection
+         * @param sessionContext the session context
+         * @param expiry the time before which the sessions expired
+         * @param afterExpiry the expiry time of the last session of the previous page, or 0 for the first page
+         * @param afterId the id of the last session of the previous page, or the empty string for the first page
+         * @param pageSize the max number of sessions in the page
+         * @return the statement to select the page
+         * @throws SQLException if the statement cannot be prepared
+         */
+        public PreparedStatement getMyExpiredSessionsStatement(Connection connection, SessionContext sessionContext, long expiry,
+                                                               long afterExpiry, String afterId, int pageSize)
+            throws SQLException
+        {
+            if (_dbAdaptor == null)
+                throw new IllegalStateException("No DB adaptor");
+
+            String cp = sessionContext.getCanonicalContextPath();
+            if (_dbAdaptor.isEmptyStringNull() && StringUtil.isBlank(cp))
+                cp = NULL_CONTEXT_PATH;
+
+            PreparedStatement statement = connection.prepareStatement("select " + getIdColumn() + ", " + getExpiryTimeColumn() +
+                " from " + getSchemaTableName() + " where " +
+                getLastNodeColumn() + " = ? and " +
+                getContextPathColumn() + " = ? and " +
+                getVirtualHostColumn() + " = ? and " +
+                getExpiryTimeColumn() + " >0 and " + getExpiryTimeColumn() + " <= ? and " +
+                getPageConditionAsString() + getPageOrderAsString());
+
+            statement.setString(1, sessionContext.getWorkerName());
+            statement.setString(2, cp);
+            statement.setString(3, sessionContext.getVhost());
+            statement.setLong(4, expiry);
+            setPageParameters(statement, 5, afterExpiry, afterId);
+            statement.setMaxRows(pageSize);
+            return statement;
+        }
+
+        private String getPageConditionAsString()
+        {
+            return "(" + getExpiryTimeColumn() + " > ? or (" + getExpiryTimeColumn() + " = ? and " + getIdColumn() + " > ?))";
+        }
+
+        private String getPageOrderAsString()
+        {
+            return " order by " + getExpiryTimeColumn() + ", " + getIdColumn();
+        }
+
+        private void setPageParameters(PreparedStatement statement, int index, long afterExpiry, String afterId)
+            throws SQLException
+        {
+            statement.setLong(index, afterExpiry);
+            statement.setLong(index + 1, afterExpiry);
+            statement.setString(index + 2, afterId);
+        }
     
         public PreparedStatement getCheckSessionExistsStatement(Connection connection, SessionContext context)
             throws SQLException
@@ -421,6 +586,27 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
             return statement;
         }
 
+        public PreparedStatement getLastSavedStatement(Connection connection, String id, SessionContext contextId)
+            throws SQLException
+        {
+            if (_dbAdaptor == null)
+                throw new IllegalStateException("No DB adaptor");
+
+            String cp = contextId.getCanonicalContextPath();
+            if (_dbAdaptor.isEmptyStringNull() && StringUtil.isBlank(cp))
+                cp = NULL_CONTEXT_PATH;
+
+            PreparedStatement statement = connection.prepareStatement("select " + getLastSavedTimeColumn() +
+                " from " + getSchemaTableName() +
+                " where " + getIdColumn() + " = ? and " + getContextPathColumn() +
+                " = ? and " + getVirtualHostColumn() + " = ?");
+            statement.setString(1, id);
+            statement.setString(2, cp);
+            statement.setString(3, contextId.getVhost());
+
+            return statement;
+        }
+
         public PreparedStatement getUpdateStatement(Connection connection, String id, SessionContext contextId)
             throws SQLException
         {
@@ -567,9 +753,11 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
                 //make some indexes on the JettySessions table
                 String index1 = "idx_" + getTableName() + "_expiry";
                 String index2 = "idx_" + getTableName() + "_session";
+                String index3 = "idx_" + getTableName() + "_ctx_expiry";
 
                 boolean index1Exists = false;
                 boolean index2Exists = false;
+                boolean index3Exists = false;
                 try (ResultSet result = metaData.getIndexInfo(catalogName, schemaName, tableName, false, true))
                 {
                     while (result.next())
@@ -579,12 +767,16 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
                             index1Exists = true;
                         else if (index2.equalsIgnoreCase(idxName))
                             index2Exists = true;
+                        else if (index3.equalsIgnoreCase(idxName))
+                            index3Exists = true;
                     }
                 }
                 if (!index1Exists)
                     statement.executeUpdate(getCreateIndexOverExpiryStatementAsString(index1));
                 if (!index2Exists)
                     statement.executeUpdate(getCreateIndexOverSessionStatementAsString(index2));
+                if (!index3Exists)
+                    statement.executeUpdate(getCreateIndexOverContextExpiryStatementAsString(index3));
             }
         }
 
@@ -609,13 +801,38 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
             throw new IllegalStateException("No jdbc config");
 
         initialize();
+        if (_writeBehindIntervalMs > 0)
+        {
+            _writeBehindScheduler = new ScheduledExecutorScheduler(String.format("JDBCSessionDataStore-WriteBehind-%x", hashCode()), true);
+            addBean(_writeBehindScheduler, true);
+        }
         super.doStart();
+        if (_writeBehindScheduler != null)
+            scheduleWriteBehind();
     }
 
     @Override
     protected void doStop() throws Exception
     {
+        if (_writeBehindTask != null)
+        {
+            _writeBehindTask.cancel();
+            _writeBehindTask = null;
+        }
+        try
+        {
+            flush();
+        }
+        catch (Exception e)
+        {
+            LOG.warn("Unable to flush sessions", e);
+        }
         super.doStop();
+        if (_writeBehindScheduler != null)
+        {
+            removeBean(_writeBehindScheduler);
+            _writeBehindScheduler = null;
+        }
         _initialized = false;
         if (!_schemaProvided)
             _sessionTableSchema = null;
@@ -643,6 +860,26 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
     @Override
     public SessionData doLoad(String id) throws Exception
     {
+        PendingWrite pending = getPendingWrite(id);
+        if (pending != null && pending._attributes != null)
+        {
+            SessionData data = newSessionData(id, pending._created, pending._accessed, pending._lastAccessed, pending._maxInactiveMs);
+            pending.applyTo(data);
+            data.setContextPath(_context.getCanonicalContextPath());
+            data.setVhost(_context.getVhost());
+            try (InputStream is = new ByteArrayInputStream(pending._attributes))
+            {
+                _serializer.deserializeAttributes(data, is);
+            }
+            catch (Exception e)
+            {
+                throw new UnreadableSessionDataException(id, _context, e);
+            }
+            if (LOG.isDebugEnabled())
+                LOG.debug("LOADED pending session {}", data);
+            return data;
+        }
+
         try (Connection connection = _dbAdaptor.getConnection();
              PreparedStatement statement = _sessionTableSchema.getLoadStatement(connection, id, _context);
              ResultSet result = statement.executeQuery())
@@ -662,16 +899,19 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
                 data.setContextPath(_context.getCanonicalContextPath());
                 data.setVhost(_context.getVhost());
 
-                try (InputStream is = _dbAdaptor.getBlobInputStream(result, _sessionTableSchema.getMapColumn());
-                     ClassLoadingObjectInputStream ois = new ClassLoadingObjectInputStream(is))
+                try (InputStream is = _dbAdaptor.getBlobInputStream(result, _sessionTableSchema.getMapColumn()))
                 {
-                    SessionData.deserializeAttributes(data, ois);
+                    _serializer.deserializeAttributes(data, is);
                 }
                 catch (Exception e)
                 {
                     throw new UnreadableSessionDataException(id, _context, e);
                 }
 
+                // Only the metadata of the session is pending.
+                if (pending != null)
+                    pending.applyTo(data);
+
                 if (LOG.isDebugEnabled())
                     LOG.debug("LOADED session {}", data);
             }
@@ -685,15 +925,25 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
     @Override
     public boolean delete(String id) throws Exception
     {
-        try (Connection connection = _dbAdaptor.getConnection();
-             PreparedStatement statement = _sessionTableSchema.getDeleteStatement(connection, id, _context))
+        // Hold the flush lock so that a concurrent flush cannot write the session after it is deleted.
+        try (AutoLock f = _flushLock.lock())
         {
-            connection.setAutoCommit(true);
-            int rows = statement.executeUpdate();
-            if (LOG.isDebugEnabled())
-                LOG.debug("Deleted Session {}:{}", id, (rows > 0));
+            boolean pending;
+            try (AutoLock l = _writeBehindLock.lock())
+            {
+                pending = _writeBehind.remove(id) != null;
+            }
+
+            try (Connection connection = _dbAdaptor.getConnection();
+                 PreparedStatement statement = _sessionTableSchema.getDeleteStatement(connection, id, _context))
+            {
+                connection.setAutoCommit(true);
+                int rows = statement.executeUpdate();
+                if (LOG.isDebugEnabled())
+                    LOG.debug("Deleted Session {}:{}", id, (rows > 0));
 
-            return rows > 0;
+                return pending || rows > 0;
+            }
         }
     }
 
@@ -703,6 +953,12 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
         if (data == null || id == null)
             return;
 
+        if (isWriteBehind())
+        {
+            writeBehind(id, data, lastSaveTime <= 0);
+            return;
+        }
+
         if (lastSaveTime <= 0)
         {
             doInsert(id, data);
@@ -713,6 +969,18 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
         }
     }
 
+    @Override
+    public void doStoreMetaData(String id, SessionData data, long lastSaveTime) throws Exception
+    {
+        if (data == null || id == null)
+            return;
+
+        if (isWriteBehind())
+            writeBehind(id, data, null, false);
+        else
+            doUpdateMetaData(id, data);
+    }
+
     protected void doInsert(String id, SessionData data)
         throws Exception
     {
@@ -741,14 +1009,9 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
                 statement.setLong(10, data.getExpiry());
                 statement.setLong(11, data.getMaxInactiveMs());
 
-                try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                     ObjectOutputStream oos = new ObjectOutputStream(baos))
-                {
-                    SessionData.serializeAttributes(data, oos);
-                    byte[] bytes = baos.toByteArray();
-                    ByteArrayInputStream bais = new ByteArrayInputStream(bytes);
-                    statement.setBinaryStream(12, bais, bytes.length); //attribute map as blob
-                }
+                byte[] bytes = serializeAttributes(data);
+                ByteArrayInputStream bais = new ByteArrayInputStream(bytes);
+                statement.setBinaryStream(12, bais, bytes.length); //attribute map as blob
 
                 statement.executeUpdate();
                 if (LOG.isDebugEnabled())
@@ -772,21 +1035,376 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
                 statement.setLong(5, data.getExpiry());
                 statement.setLong(6, data.getMaxInactiveMs());
 
-                try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                     ObjectOutputStream oos = new ObjectOutputStream(baos))
+                byte[] bytes = serializeAttributes(data);
+                try (ByteArrayInputStream bais = new ByteArrayInputStream(bytes))
+                {
+                    statement.setBinaryStream(7, bais, bytes.length); //attribute map as blob
+                }
+
+                statement.executeUpdate();
+
+                if (LOG.isDebugEnabled())
+                    LOG.debug("Updated session {}", data);
+            }
+        }
+    }
+
+    /**
+     * <p>Queues the session data to be written by the next {@link #flush()}.</p>
+     * <p>The session data is snapshot, so that it can be further modified
+     * while the write is pending. A pending write of the same session is
+     * replaced, as only the last write needs to reach the database.</p>
+     *
+     * @param id the session id
+     * @param data the session data
+     * @param insert whether the session was never written to the database
+     * @throws Exception if the session attributes cannot be serialized
+     */
+    protected void writeBehind(String id, SessionData data, boolean insert) throws Exception
+    {
+        writeBehind(id, data, serializeAttributes(data), insert);
+    }
+
+    private void writeBehind(String id, SessionData data, byte[] attributes, boolean insert) throws Exception
+    {
+        boolean full;
+        try (AutoLock l = _writeBehindLock.lock())
+        {
+            PendingWrite previous = _writeBehind.get(id);
+            if (previous != null)
+            {
+                // A session that was never written must be inserted, even if written again since.
+                insert |= previous._insert;
+                // A metadata only write must not lose the attributes of a pending write.
+                if (attributes == null)
+                    attributes = previous._attributes;
+            }
+            _writeBehind.put(id, new PendingWrite(id, data, attributes, insert));
+            full = _writeBehind.size() >= _maxWriteBehindSessions;
+        }
+
+        if (LOG.isDebugEnabled())
+            LOG.debug("Queued session {} for write behind, insert={}", id, insert);
+
+        // Apply back pressure when the queue is full.
+        if (full)
+            flush();
+    }
+
+    /**
+     * <p>Writes all the pending session data to the database with batch updates.</p>
+     * <p>If the batch fails, the sessions are written one by one, and the sessions that
+     * still cannot be written are dropped, to be written again when next released.</p>
+     *
+     * @throws Exception if the sessions cannot be written
+     */
+    @ManagedOperation(value = "Writes the pending sessions to the database", impact = "ACTION")
+    public void flush() throws Exception
+    {
+        try (AutoLock f = _flushLock.lock())
+        {
+            List<PendingWrite> writes;
+            try (AutoLock l = _writeBehindLock.lock())
+            {
+                if (_writeBehind.isEmpty())
+                    return;
+                writes = new ArrayList<>(_writeBehind.values());
+                // Keep the writes visible to loads until they reach the database.
+                _flushing.putAll(_writeBehind);
+                _writeBehind.clear();
+            }
+
+            try
+            {
+                writeBatch(writes);
+            }
+            catch (Exception e)
+            {
+                if (LOG.isDebugEnabled())
+                    LOG.debug("Unable to batch write {} sessions", writes.size(), e);
+                for (PendingWrite write : writes)
+                {
+                    try
+                    {
+                        write(write);
+                    }
+                    catch (Exception x)
+                    {
+                        LOG.warn("Unable to write session {}", write._id, x);
+                    }
+                }
+            }
+            finally
+            {
+                try (AutoLock l = _writeBehindLock.lock())
+                {
+                    _flushing.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * @param id the session id
+     * @return the write of the session that is queued or being flushed, or null
+     */
+    private PendingWrite getPendingWrite(String id)
+    {
+        if (!isWriteBehind())
+            return null;
+        try (AutoLock l = _writeBehindLock.lock())
+        {
+            PendingWrite pending = _writeBehind.get(id);
+            return pending != null ? pending : _flushing.get(id);
+        }
+    }
+
+    /**
+     * @return a snapshot of the writes that are queued or being flushed, by session id
+     */
+    private Map<String, PendingWrite> getPendingWrites()
+    {
+        if (!isWriteBehind())
+            return Collections.emptyMap();
+        try (AutoLock l = _writeBehindLock.lock())
+        {
+            if (_writeBehind.isEmpty() && _flushing.isEmpty())
+                return Collections.emptyMap();
+            Map<String, PendingWrite> pending = new HashMap<>(_flushing);
+            pending.putAll(_writeBehind);
+            return pending;
+        }
+    }
+
+    /**
+     * Corrects the expired sessions found in the database with the expiry of the pending writes,
+     * which are more recent than the database.
+     *
+     * @param pending the pending writes
+     * @param time the time at or before which sessions are expired
+     * @param expired the expired sessions found in the database, corrected in place
+     */
+    private void applyPendingExpiry(Map<String, PendingWrite> pending, long time, Set<String> expired)
+    {
+        for (PendingWrite write : pending.values())
+        {
+            if (write._expiry > 0 && write._expiry <= time)
+                expired.add(write._id);
+            else
+                expired.remove(write._id);
+        }
+    }
+
+    private void writeBatch(List<PendingWrite> writes) throws Exception
+    {
+        try (Connection connection = _dbAdaptor.getConnection())
+        {
+            connection.setAutoCommit(false);
+            try (PreparedStatement inserts = connection.prepareStatement(_sessionTableSchema.getInsertSessionStatementAsString());
+                 PreparedStatement updates = connection.prepareStatement(_sessionTableSchema.getUpdateSessionStatementAsString());
+                 PreparedStatement metaDataUpdates = connection.prepareStatement(_sessionTableSchema.getUpdateSessionMetaDataStatementAsString()))
+            {
+                int insertCount = 0;
+                List<PendingWrite> updated = new ArrayList<>();
+                List<PendingWrite> metaDataUpdated = new ArrayList<>();
+                for (PendingWrite write : writes)
                 {
-                    SessionData.serializeAttributes(data, oos);
-                    byte[] bytes = baos.toByteArray();
-                    try (ByteArrayInputStream bais = new ByteArrayInputStream(bytes))
+                    if (write._insert)
                     {
-                        statement.setBinaryStream(7, bais, bytes.length); //attribute map as blob
+                        setInsertParameters(inserts, write, write._attributes);
+                        inserts.addBatch();
+                        ++insertCount;
                     }
+                    else if (write._attributes == null)
+                    {
+                        setUpdateParameters(metaDataUpdates, write);
+                        metaDataUpdates.addBatch();
+                        metaDataUpdated.add(write);
+                    }
+                    else
+                    {
+                        setUpdateParameters(updates, write);
+                        updates.addBatch();
+                        updated.add(write);
+                    }
+                }
+                if (insertCount > 0)
+                    inserts.executeBatch();
+                List<PendingWrite> unmatched = new ArrayList<>();
+                if (!updated.isEmpty())
+                    addUnmatched(updated, updates.executeBatch(), unmatched);
+                if (!metaDataUpdated.isEmpty())
+                    addUnmatched(metaDataUpdated, metaDataUpdates.executeBatch(), unmatched);
+
+                // The insert of these sessions may have been dropped, so insert them now.
+                for (PendingWrite write : unmatched)
+                {
+                    setInsertParameters(inserts, write, getAttributes(write));
+                    inserts.addBatch();
                 }
+                if (!unmatched.isEmpty())
+                    inserts.executeBatch();
+                connection.commit();
+
+                if (LOG.isDebugEnabled())
+                    LOG.debug("Batch inserted {}, updated {}, updated metadata of {} and reinserted {} sessions",
+                        insertCount, updated.size(), metaDataUpdated.size(), unmatched.size());
+            }
+            catch (SQLException e)
+            {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
 
+    /**
+     * Adds the writes whose update did not match any row to the unmatched writes.
+     *
+     * @param writes the writes of a batch update
+     * @param counts the update counts of the batch
+     * @param unmatched the writes that did not update any row
+     */
+    private static void addUnmatched(List<PendingWrite> writes, int[] counts, List<PendingWrite> unmatched)
+    {
+        for (int i = 0; i < writes.size(); ++i)
+        {
+            // SUCCESS_NO_INFO is a success, as the driver does not know how many rows were updated.
+            int count = i < counts.length ? counts[i] : Statement.EXECUTE_FAILED;
+            if (count == 0 || count == Statement.EXECUTE_FAILED)
+                unmatched.add(writes.get(i));
+        }
+    }
+
+    private void write(PendingWrite write) throws Exception
+    {
+        try (Connection connection = _dbAdaptor.getConnection())
+        {
+            connection.setAutoCommit(true);
+            if (!write._insert)
+            {
+                String update = write._attributes == null
+                    ? _sessionTableSchema.getUpdateSessionMetaDataStatementAsString()
+                    : _sessionTableSchema.getUpdateSessionStatementAsString();
+                try (PreparedStatement statement = connection.prepareStatement(update))
+                {
+                    setUpdateParameters(statement, write);
+                    // The insert of the session may have been dropped, so fall through to insert it.
+                    if (statement.executeUpdate() > 0)
+                        return;
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(_sessionTableSchema.getInsertSessionStatementAsString()))
+            {
+                setInsertParameters(statement, write, getAttributes(write));
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * @param write the pending write
+     * @return the serialized attributes of the write, or the current attributes of
+     * the session for a metadata only write, which must be written in full if the
+     * session is not in the database
+     * @throws Exception if the session attributes cannot be serialized
+     */
+    private byte[] getAttributes(PendingWrite write) throws Exception
+    {
+        return write._attributes != null ? write._attributes : serializeAttributes(write._data);
+    }
+
+    private byte[] serializeAttributes(SessionData data) throws Exception
+    {
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream())
+        {
+            _serializer.serializeAttributes(data, baos);
+            return baos.toByteArray();
+        }
+    }
+
+    private String getContextPath()
+    {
+        String cp = _context.getCanonicalContextPath();
+        if (_dbAdaptor.isEmptyStringNull() && StringUtil.isBlank(cp))
+            cp = NULL_CONTEXT_PATH;
+        return cp;
+    }
+
+    private void setInsertParameters(PreparedStatement statement, PendingWrite write, byte[] attributes) throws SQLException
+    {
+        statement.setString(1, write._id); //session id
+        statement.setString(2, getContextPath()); //context path
+        statement.setString(3, _context.getVhost()); //first vhost
+        statement.setString(4, write._lastNode); //my node id
+        statement.setLong(5, write._accessed); //accessTime
+        statement.setLong(6, write._lastAccessed); //lastAccessTime
+        statement.setLong(7, write._created); //time created
+        statement.setLong(8, write._cookieSet); //time cookie was set
+        statement.setLong(9, write._lastSaved); //last saved time
+        statement.setLong(10, write._expiry);
+        statement.setLong(11, write._maxInactiveMs);
+        statement.setBinaryStream(12, new ByteArrayInputStream(attributes), attributes.length); //attribute map as blob
+    }
+
+    private void setUpdateParameters(PreparedStatement statement, PendingWrite write) throws SQLException
+    {
+        int index = 1;
+        statement.setString(index++, write._lastNode); //should be my node id
+        statement.setLong(index++, write._accessed); //accessTime
+        statement.setLong(index++, write._lastAccessed); //lastAccessTime
+        statement.setLong(index++, write._lastSaved); //last saved time
+        statement.setLong(index++, write._expiry);
+        statement.setLong(index++, write._maxInactiveMs);
+        if (write._attributes != null)
+            statement.setBinaryStream(index++, new ByteArrayInputStream(write._attributes), write._attributes.length); //attribute map as blob
+        statement.setString(index++, write._id);
+        statement.setString(index++, getContextPath());
+        statement.setString(index, _context.getVhost());
+    }
+
+    private void scheduleWriteBehind()
+    {
+        _writeBehindTask = _writeBehindScheduler.schedule(this::runWriteBehind, _writeBehindIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void runWriteBehind()
+    {
+        try
+        {
+            flush();
+        }
+        catch (Throwable x)
+        {
+            LOG.warn("Unable to flush sessions", x);
+        }
+        finally
+        {
+            if (isRunning())
+                scheduleWriteBehind();
+        }
+    }
+
+    /**
+     * Update the session metadata, without the session attributes.
+     *
+     * @param id the session id
+     * @param data the session data
+     * @throws Exception if the session cannot be updated
+     */
+    protected void doUpdateMetaData(String id, SessionData data)
+        throws Exception
+    {
+        try (Connection connection = _dbAdaptor.getConnection())
+        {
+            connection.setAutoCommit(true);
+            try (PreparedStatement statement = connection.prepareStatement(_sessionTableSchema.getUpdateSessionMetaDataStatementAsString()))
+            {
+                setUpdateParameters(statement, new PendingWrite(id, data, null, false));
                 statement.executeUpdate();
 
                 if (LOG.isDebugEnabled())
-                    LOG.debug("Updated session {}", data);
+                    LOG.debug("Updated session metadata {}", data);
             }
         }
     }
@@ -796,7 +1414,10 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
     {
         if (LOG.isDebugEnabled())
             LOG.debug("Getting expired sessions at time {}", time);
-        
+
+        // Pending writes may have updated the expiry of the candidates.
+        Map<String, PendingWrite> pending = getPendingWrites();
+
         Set<String> expiredSessionKeys = new HashSet<>();
         try (Connection connection = _dbAdaptor.getConnection())
         {
@@ -808,21 +1429,10 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
                 LOG.debug("{} - Searching for sessions for context {} managed by me and expired before {}",  
                     _context.getWorkerName(), _context.getCanonicalContextPath(), upperBound);
 
-            try (PreparedStatement statement = _sessionTableSchema.getMyExpiredSessionsStatement(connection, _context, upperBound))
-            {
-                try (ResultSet result = statement.executeQuery())
-                {
-                    while (result.next())
-                    {
-                        String sessionId = result.getString(_sessionTableSchema.getIdColumn());
-                        long exp = result.getLong(_sessionTableSchema.getExpiryTimeColumn());
-                        expiredSessionKeys.add(sessionId);
-                        if (LOG.isDebugEnabled())
-                            LOG.debug("{} - Found expired sessionId={}, in context={}, expiry={}",
-                                _context.getWorkerName(), sessionId, _context.getCanonicalContextPath(), exp);
-                    }
-                }
-            }
+            selectExpired(_myExpiredCursor, (afterExpiry, afterId) -> _scavengePageSize > 0
+                ? _sessionTableSchema.getMyExpiredSessionsStatement(connection, _context, upperBound, afterExpiry, afterId, _scavengePageSize)
+                : _sessionTableSchema.getMyExpiredSessionsStatement(connection, _context, upperBound), expiredSessionKeys);
+            applyPendingExpiry(pending, upperBound, expiredSessionKeys);
 
             Set<String> notExpiredInDB = new HashSet<>();
             for (String k : candidates)
@@ -830,7 +1440,7 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
                 //there are some keys that the sessioncache thought had expired, but were not
                 //found in our query either because it is no longer in the db, or its
                 //expiry time was updated
-                if (!expiredSessionKeys.contains(k))
+                if (!expiredSessionKeys.contains(k) && !pending.containsKey(k))
                     notExpiredInDB.add(k);
             }
 
@@ -878,30 +1488,23 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
     public Set<String> doGetExpired(long timeLimit)
     {
         Set<String> expired = new HashSet<>();
-        
+
+        // Pending writes may have updated the expiry of the sessions.
+        Map<String, PendingWrite> pending = getPendingWrites();
+
         //Get sessions for my context but managed by any node that expired at or before the timeLimit   
         try (Connection connection = _dbAdaptor.getConnection())
         {
             connection.setAutoCommit(true);
-            try (PreparedStatement selectExpiredSessions = _sessionTableSchema.getExpiredSessionsStatement(connection, _context.getCanonicalContextPath(),
-                                                                                                           _context.getVhost(), timeLimit))
-            {
-                if (LOG.isDebugEnabled()) 
-                    LOG.debug("{}- Searching for sessions for context {} expired before {}", _context.getWorkerName(), _context.getCanonicalContextPath(), timeLimit);
-
-                try (ResultSet result = selectExpiredSessions.executeQuery())
-                {
-                    while (result.next())
-                    {
-                        String sessionId = result.getString(_sessionTableSchema.getIdColumn());
-                        long exp = result.getLong(_sessionTableSchema.getExpiryTimeColumn());
-                        expired.add(sessionId);
-                        if (LOG.isDebugEnabled())
-                            LOG.debug("{}- Found expired sessionId={} for context={} expiry={}",
-                                _context.getWorkerName(), sessionId, _context.getCanonicalContextPath(), exp);
-                    }
-                }
-            }
+            if (LOG.isDebugEnabled()) 
+                LOG.debug("{}- Searching for sessions for context {} expired before {}", _context.getWorkerName(), _context.getCanonicalContextPath(), timeLimit);
+
+            selectExpired(_expiredCursor, (afterExpiry, afterId) -> _scavengePageSize > 0
+                ? _sessionTableSchema.getExpiredSessionsStatement(connection, _context.getCanonicalContextPath(), _context.getVhost(), timeLimit,
+                    afterExpiry, afterId, _scavengePageSize)
+                : _sessionTableSchema.getExpiredSessionsStatement(connection, _context.getCanonicalContextPath(), _context.getVhost(), timeLimit),
+                expired);
+            applyPendingExpiry(pending, timeLimit, expired);
             return expired;
         }
         catch (Exception e)
@@ -911,6 +1514,74 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
         } 
     }
 
+    /**
+     * Select the ids of expired sessions, one page at a time if paging is enabled,
+     * so that the database never has to produce all the expired sessions in one go.
+     * At most {@link #getScavengeMaxPages()} pages are selected per call: the next call
+     * resumes after the last session selected, and starts over once all the pages
+     * have been selected, so that the work of each scavenge cycle is bounded.
+     *
+     * @param cursor the last session selected by the previous call
+     * @param query the query for a page, given the last session of the previous page
+     * @param expired the set to add the ids of the expired sessions to
+     * @throws SQLException if the query fails
+     */
+    private void selectExpired(ExpiredCursor cursor, ExpiredPageQuery query, Set<String> expired)
+        throws SQLException
+    {
+        long afterExpiry = cursor._afterExpiry;
+        String afterId = cursor._afterId;
+        int pages = 0;
+        while (true)
+        {
+            int rows = 0;
+            try (PreparedStatement statement = query.prepare(afterExpiry, afterId);
+                 ResultSet result = statement.executeQuery())
+            {
+                while (result.next())
+                {
+                    ++rows;
+                    afterId = result.getString(_sessionTableSchema.getIdColumn());
+                    afterExpiry = result.getLong(_sessionTableSchema.getExpiryTimeColumn());
+                    expired.add(afterId);
+                    if (LOG.isDebugEnabled())
+                        LOG.debug("{} - Found expired sessionId={}, in context={}, expiry={}",
+                            _context.getWorkerName(), afterId, _context.getCanonicalContextPath(), afterExpiry);
+                }
+            }
+            if (_scavengePageSize <= 0 || rows < _scavengePageSize)
+            {
+                // All the expired sessions have been selected, start over next time.
+                cursor._afterExpiry = 0;
+                cursor._afterId = "";
+                return;
+            }
+            if (_scavengeMaxPages > 0 && ++pages >= _scavengeMaxPages)
+            {
+                cursor._afterExpiry = afterExpiry;
+                cursor._afterId = afterId;
+                if (LOG.isDebugEnabled())
+                    LOG.debug("{} - Selected {} pages of expired sessions, resuming after {} next time", _context.getWorkerName(), pages, afterId);
+                return;
+            }
+        }
+    }
+
+    /**
+     * The last expired session selected by a scavenge cycle.
+     */
+    private static class ExpiredCursor
+    {
+        private long _afterExpiry;
+        private String _afterId = "";
+    }
+
+    @FunctionalInterface
+    private interface ExpiredPageQuery
+    {
+        PreparedStatement prepare(long afterExpiry, String afterId) throws SQLException;
+    }
+
     @Override
     public void doCleanOrphans(long time)
     {
@@ -944,6 +1615,102 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
         _schemaProvided = true;
     }
 
+    /**
+     * @return the interval in milliseconds between writes of the queued session data,
+     * or 0 if session data is written synchronously
+     */
+    @ManagedAttribute(value = "interval in ms between write behind flushes, 0 for synchronous writes", readonly = true)
+    public long getWriteBehindIntervalMs()
+    {
+        return _writeBehindIntervalMs;
+    }
+
+    /**
+     * <p>Sets the interval in milliseconds between writes of the queued session data.</p>
+     * <p>A value greater than 0 enables write behind: session data is queued rather
+     * than written synchronously by the request thread, and the queued session data
+     * is periodically written to the database with JDBC batch updates.</p>
+     *
+     * @param writeBehindIntervalMs the interval in milliseconds between writes of the
+     * queued session data, or 0 to write session data synchronously
+     */
+    public void setWriteBehindIntervalMs(long writeBehindIntervalMs)
+    {
+        checkStarted();
+        _writeBehindIntervalMs = writeBehindIntervalMs;
+    }
+
+    public boolean isWriteBehind()
+    {
+        return _writeBehindIntervalMs > 0;
+    }
+
+    @ManagedAttribute(value = "max number of queued sessions before a write behind flush", readonly = true)
+    public int getMaxWriteBehindSessions()
+    {
+        return _maxWriteBehindSessions;
+    }
+
+    /**
+     * @param maxWriteBehindSessions the max number of queued sessions, after which
+     * the request thread that queues a session writes all the queued sessions
+     */
+    public void setMaxWriteBehindSessions(int maxWriteBehindSessions)
+    {
+        checkStarted();
+        _maxWriteBehindSessions = maxWriteBehindSessions;
+    }
+
+    @ManagedAttribute(value = "max number of expired sessions selected per scavenge query", readonly = true)
+    public int getScavengePageSize()
+    {
+        return _scavengePageSize;
+    }
+
+    /**
+     * <p>Sets the max number of expired sessions selected by each scavenge query.</p>
+     * <p>The expired sessions are paged through in expiry time order, so that
+     * scavenging a large table runs several short queries rather than a single
+     * query returning all the expired sessions.</p>
+     *
+     * @param scavengePageSize the max number of expired sessions selected by each
+     * scavenge query, or 0 to select all the expired sessions with a single query
+     */
+    public void setScavengePageSize(int scavengePageSize)
+    {
+        checkStarted();
+        _scavengePageSize = scavengePageSize;
+    }
+
+    @ManagedAttribute(value = "max number of pages of expired sessions selected per scavenge cycle", readonly = true)
+    public int getScavengeMaxPages()
+    {
+        return _scavengeMaxPages;
+    }
+
+    /**
+     * <p>Sets the max number of pages of expired sessions selected per scavenge cycle.</p>
+     * <p>When more expired sessions remain, the next scavenge cycle resumes after the
+     * last expired session selected, so that each cycle does a bounded amount of work.</p>
+     *
+     * @param scavengeMaxPages the max number of pages of expired sessions selected
+     * per scavenge cycle, or 0 to select all the pages in each cycle
+     */
+    public void setScavengeMaxPages(int scavengeMaxPages)
+    {
+        checkStarted();
+        _scavengeMaxPages = scavengeMaxPages;
+    }
+
+    @ManagedAttribute(value = "number of sessions queued for write behind", readonly = true)
+    public int getWriteBehindSessions()
+    {
+        try (AutoLock l = _writeBehindLock.lock())
+        {
+            return _writeBehind.size();
+        }
+    }
+
     @Override
     @ManagedAttribute(value = "does this store serialize sessions", readonly = true)
     public boolean isPassivating()
@@ -951,10 +1718,34 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
         return true;
     }
 
+    @Override
+    public long getLastSaved(String id) throws Exception
+    {
+        if (!isStarted())
+            throw new IllegalStateException("Not started");
+
+        PendingWrite pending = getPendingWrite(id);
+        if (pending != null)
+            return pending._lastSaved;
+
+        try (Connection connection = _dbAdaptor.getConnection();
+             PreparedStatement statement = _sessionTableSchema.getLastSavedStatement(connection, id, _context);
+             ResultSet result = statement.executeQuery())
+        {
+            if (!result.next())
+                return -1;
+            return result.getLong(_sessionTableSchema.getLastSavedTimeColumn());
+        }
+    }
+
     @Override
     public boolean doExists(String id)
         throws Exception
     {
+        PendingWrite pending = getPendingWrite(id);
+        if (pending != null)
+            return pending._expiry <= 0 || pending._expiry > System.currentTimeMillis();
+
         try (Connection connection = _dbAdaptor.getConnection())
         {
             connection.setAutoCommit(true);
@@ -981,4 +1772,51 @@ public class JDBCSessionDataStore extends AbstractSessionDataStore
             }
         }
     }
+
+    /**
+     * A snapshot of the session data queued for write behind,
+     * without attributes if only the metadata is written.
+     */
+    private static class PendingWrite
+    {
+        private final SessionData _data;
+        private final String _id;
+        private final String _lastNode;
+        private final long _accessed;
+        private final long _lastAccessed;
+        private final long _created;
+        private final long _cookieSet;
+        private final long _lastSaved;
+        private final long _expiry;
+        private final long _maxInactiveMs;
+        private final byte[] _attributes;
+        private final boolean _insert;
+
+        private PendingWrite(String id, SessionData data, byte[] attributes, boolean insert)
+        {
+            _data = data;
+            _id = id;
+            _lastNode = data.getLastNode();
+            _accessed = data.getAccessed();
+            _lastAccessed = data.getLastAccessed();
+            _created = data.getCreated();
+            _cookieSet = data.getCookieSet();
+            _lastSaved = data.getLastSaved();
+            _expiry = data.getExpiry();
+            _maxInactiveMs = data.getMaxInactiveMs();
+            _attributes = attributes;
+            _insert = insert;
+        }
+
+        private void applyTo(SessionData data)
+        {
+            data.setAccessed(_accessed);
+            data.setLastAccessed(_lastAccessed);
+            data.setMaxInactiveMs(_maxInactiveMs);
+            data.setCookieSet(_cookieSet);
+            data.setLastNode(_lastNode);
+            data.setLastSaved(_lastSaved);
+            data.setExpiry(_expiry);
+        }
+    }
 }
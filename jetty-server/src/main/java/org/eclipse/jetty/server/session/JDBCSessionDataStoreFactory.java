@@ -29,6 +29,13 @@ public class JDBCSessionDataStoreFactory extends AbstractSessionDataStoreFactory
      */
     JDBCSessionDataStore.SessionTableSchema _schema;
 
+    long _writeBehindIntervalMs;
+
+    int _maxWriteBehindSessions = JDBCSessionDataStore.DEFAULT_MAX_WRITE_BEHIND_SESSIONS;
+
+    int _scavengePageSize = JDBCSessionDataStore.DEFAULT_SCAVENGE_PAGE_SIZE;
+    int _scavengeMaxPages = JDBCSessionDataStore.DEFAULT_SCAVENGE_MAX_PAGES;
+
     @Override
     public SessionDataStore getSessionDataStore(SessionHandler handler)
     {
@@ -37,6 +44,12 @@ public class JDBCSessionDataStoreFactory extends AbstractSessionDataStoreFactory
         ds.setSessionTableSchema(_schema);
         ds.setGracePeriodSec(getGracePeriodSec());
         ds.setSavePeriodSec(getSavePeriodSec());
+        ds.setPartialUpdates(isPartialUpdates());
+        ds.setSessionDataSerializer(getSessionDataSerializer());
+        ds.setWriteBehindIntervalMs(getWriteBehindIntervalMs());
+        ds.setMaxWriteBehindSessions(getMaxWriteBehindSessions());
+        ds.setScavengePageSize(getScavengePageSize());
+        ds.setScavengeMaxPages(getScavengeMaxPages());
         return ds;
     }
 
@@ -55,4 +68,75 @@ public class JDBCSessionDataStoreFactory extends AbstractSessionDataStoreFactory
     {
         _schema = schema;
     }
+
+    /**
+     * @return the interval in milliseconds between writes of the queued session data
+     */
+    public long getWriteBehindIntervalMs()
+    {
+        return _writeBehindIntervalMs;
+    }
+
+    /**
+     * @param writeBehindIntervalMs the interval in milliseconds between writes of the
+     * queued session data, or 0 to write session data synchronously
+     * @see JDBCSessionDataStore#setWriteBehindIntervalMs(long)
+     */
+    public void setWriteBehindIntervalMs(long writeBehindIntervalMs)
+    {
+        _writeBehindIntervalMs = writeBehindIntervalMs;
+    }
+
+    /**
+     * @return the max number of sessions queued for write behind
+     */
+    public int getMaxWriteBehindSessions()
+    {
+        return _maxWriteBehindSessions;
+    }
+
+    /**
+     * @param maxWriteBehindSessions the max number of sessions queued for write behind
+     * @see JDBCSessionDataStore#setMaxWriteBehindSessions(int)
+     */
+    public void setMaxWriteBehindSessions(int maxWriteBehindSessions)
+    {
+        _maxWriteBehindSessions = maxWriteBehindSessions;
+    }
+
+    /**
+     * @return the max number of expired sessions selected per scavenge query
+     */
+    public int getScavengePageSize()
+    {
+        return _scavengePageSize;
+    }
+
+    /**
+     * @param scavengePageSize the max number of expired sessions selected per scavenge query,
+     * or 0 to select all the expired sessions with a single query
+     * @see JDBCSessionDataStore#setScavengePageSize(int)
+     */
+    public void setScavengePageSize(int scavengePageSize)
+    {
+        _scavengePageSize = scavengePageSize;
+    }
+
+    /**
+     * @return the max number of pages of expired sessions selected per scavenge cycle
+     */
+    public int getScavengeMaxPages()
+    {
+        return _scavengeMaxPages;
+    }
+
+    /**
+     * @param scavengeMaxPages the max number of pages of expired sessions selected per scavenge cycle,
+     * or 0 to select all the pages in each cycle
+     * @see JDBCSessionDataStore#setScavengeMaxPages(int)
+     */
+    public void setScavengeMaxPages(int scavengeMaxPages)
+    {
+        _scavengeMaxPages = scavengeMaxPages;
+    }
 }
@@ -0,0 +1,52 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server.session;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+import org.eclipse.jetty.util.ClassLoadingObjectInputStream;
+
+/**
+ * JavaSessionDataSerializer
+ *
+ * Serializes the session attributes with Java serialization, as
+ * {@link SessionData#serializeAttributes(SessionData, ObjectOutputStream)} does.
+ * This is the format used by default by the session data stores.
+ */
+public class JavaSessionDataSerializer implements SessionDataSerializer
+{
+    @Override
+    public void serializeAttributes(SessionData data, OutputStream out) throws IOException
+    {
+        ObjectOutputStream oos = new ObjectOutputStream(out);
+        SessionData.serializeAttributes(data, oos);
+        oos.flush();
+    }
+
+    @Override
+    public void deserializeAttributes(SessionData data, InputStream in) throws IOException, ClassNotFoundException
+    {
+        ClassLoadingObjectInputStream ois = new ClassLoadingObjectInputStream(in);
+        SessionData.deserializeAttributes(data, ois);
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s@%x", this.getClass().getName(), this.hashCode());
+    }
+}
@@ -0,0 +1,279 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jetty.util.StringUtil;
+import org.eclipse.jetty.util.annotation.ManagedAttribute;
+import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * MulticastSessionDataInvalidator
+ *
+ * A {@link SessionDataInvalidator} that sends invalidations as UDP multicast
+ * datagrams, suitable for the nodes of a cluster on the same local network.
+ *
+ * Delivery of datagrams is not guaranteed, so a lost invalidation may let a node
+ * use stale session data from its near cache: the near cache max age of the
+ * {@link CachingSessionDataStore} bounds how long. Invalidations are not
+ * authenticated, but at worst a forged invalidation causes the session data to
+ * be reloaded.
+ */
+@ManagedObject
+public class MulticastSessionDataInvalidator extends AbstractLifeCycle implements SessionDataInvalidator
+{
+    private static final Logger LOG = LoggerFactory.getLogger(MulticastSessionDataInvalidator.class);
+
+    public static final String DEFAULT_ADDRESS = "239.255.27.1";
+    public static final int DEFAULT_PORT = 45588;
+    private static final int MAGIC = 0x4A534901;
+    private static final int MAX_DATAGRAM_SIZE = 1024;
+
+    private final LongAdder _sent = new LongAdder();
+    private final LongAdder _received = new LongAdder();
+    private String _address = DEFAULT_ADDRESS;
+    private int _port = DEFAULT_PORT;
+    private int _timeToLive = 1;
+    private String _networkInterface;
+    private SessionContext _context;
+    private InvalidationListener _listener;
+    private String _contextKey;
+    private MulticastSocket _socket;
+    private InetSocketAddress _group;
+    private Thread _receiver;
+    private String _instanceId;
+
+    @Override
+    public void initialize(SessionContext context, InvalidationListener listener) throws Exception
+    {
+        if (isStarted())
+            throw new IllegalStateException("Context set after invalidator started");
+        _context = Objects.requireNonNull(context);
+        _listener = Objects.requireNonNull(listener);
+        _contextKey = context.getCanonicalContextPath() + "_" + context.getVhost();
+    }
+
+    @ManagedAttribute(value = "multicast group address", readonly = true)
+    public String getAddress()
+    {
+        return _address;
+    }
+
+    /**
+     * @param address the multicast group address
+     */
+    public void setAddress(String address)
+    {
+        checkStarted();
+        _address = address;
+    }
+
+    @ManagedAttribute(value = "multicast group port", readonly = true)
+    public int getPort()
+    {
+        return _port;
+    }
+
+    /**
+     * @param port the multicast group port
+     */
+    public void setPort(int port)
+    {
+        checkStarted();
+        _port = port;
+    }
+
+    @ManagedAttribute(value = "time to live of the datagrams", readonly = true)
+    public int getTimeToLive()
+    {
+        return _timeToLive;
+    }
+
+    /**
+     * @param timeToLive the time to live of the datagrams, 1 to stay on the local network
+     */
+    public void setTimeToLive(int timeToLive)
+    {
+        checkStarted();
+        _timeToLive = timeToLive;
+    }
+
+    @ManagedAttribute(value = "network interface used for multicast", readonly = true)
+    public String getNetworkInterface()
+    {
+        return _networkInterface;
+    }
+
+    /**
+     * @param networkInterface the name of the network interface used for multicast,
+     * or null to use the system default
+     */
+    public void setNetworkInterface(String networkInterface)
+    {
+        checkStarted();
+        _networkInterface = networkInterface;
+    }
+
+    @ManagedAttribute(value = "invalidations sent", readonly = true)
+    public long getInvalidationsSent()
+    {
+        return _sent.sum();
+    }
+
+    @ManagedAttribute(value = "invalidations received", readonly = true)
+    public long getInvalidationsReceived()
+    {
+        return _received.sum();
+    }
+
+    @Override
+    protected void doStart() throws Exception
+    {
+        if (_context == null)
+            throw new IllegalStateException("No SessionContext");
+
+        NetworkInterface networkInterface = null;
+        if (!StringUtil.isBlank(_networkInterface))
+        {
+            networkInterface = NetworkInterface.getByName(_networkInterface);
+            if (networkInterface == null)
+                throw new IllegalStateException("Unknown network interface " + _networkInterface);
+        }
+
+        //the worker name is not unique across nodes by default, so use a random id to recognize our own datagrams
+        _instanceId = UUID.randomUUID().toString();
+        _group = new InetSocketAddress(InetAddress.getByName(_address), _port);
+        _socket = new MulticastSocket(_port);
+        _socket.setTimeToLive(_timeToLive);
+        if (networkInterface != null)
+            _socket.setNetworkInterface(networkInterface);
+        _socket.joinGroup(_group, networkInterface);
+
+        _receiver = new Thread(this::receive, String.format("Session-Invalidator-%x", hashCode()));
+        _receiver.setDaemon(true);
+        _receiver.start();
+        super.doStart();
+    }
+
+    @Override
+    protected void doStop() throws Exception
+    {
+        super.doStop();
+        MulticastSocket socket = _socket;
+        _socket = null;
+        if (socket != null)
+            socket.close();
+        Thread receiver = _receiver;
+        _receiver = null;
+        if (receiver != null)
+            receiver.join(1000);
+    }
+
+    @Override
+    public void invalidate(String id, long version) throws Exception
+    {
+        MulticastSocket socket = _socket;
+        if (socket == null)
+            throw new IllegalStateException("Not started");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes))
+        {
+            out.writeInt(MAGIC);
+            out.writeUTF(_instanceId);
+            out.writeUTF(_contextKey);
+            out.writeUTF(id);
+            out.writeLong(version);
+        }
+        socket.send(new DatagramPacket(bytes.toByteArray(), bytes.size(), _group));
+        _sent.increment();
+    }
+
+    private void receive()
+    {
+        byte[] buffer = new byte[MAX_DATAGRAM_SIZE];
+        while (true)
+        {
+            MulticastSocket socket = _socket;
+            if (socket == null || socket.isClosed())
+                return;
+            try
+            {
+                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                socket.receive(packet);
+                onDatagram(packet);
+            }
+            catch (IOException e)
+            {
+                if (!socket.isClosed())
+                    LOG.warn("Unable to receive invalidation", e);
+            }
+        }
+    }
+
+    private void onDatagram(DatagramPacket packet)
+    {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(packet.getData(), packet.getOffset(), packet.getLength())))
+        {
+            if (in.readInt() != MAGIC)
+                return;
+            String instanceId = in.readUTF();
+            String contextKey = in.readUTF();
+            String id = in.readUTF();
+            long version = in.readLong();
+
+            //ignore our own invalidations, and those for other contexts
+            if (instanceId.equals(_instanceId) || !contextKey.equals(_contextKey))
+                return;
+
+            _received.increment();
+            if (LOG.isDebugEnabled())
+                LOG.debug("Invalidation from {} of session {} version {}", instanceId, id, version);
+            _listener.onInvalidate(id, version);
+        }
+        catch (Throwable x)
+        {
+            if (LOG.isDebugEnabled())
+                LOG.debug("Ignoring invalid datagram from {}", packet.getSocketAddress(), x);
+        }
+    }
+
+    private void checkStarted()
+    {
+        if (isStarted())
+            throw new IllegalStateException("Already started");
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s@%x[%s:%d,ttl=%d]", getClass().getSimpleName(), hashCode(), _address, _port, _timeToLive);
+    }
+}
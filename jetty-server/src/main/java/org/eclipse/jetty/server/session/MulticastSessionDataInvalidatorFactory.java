@@ -0,0 +1,103 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server.session;
+
+/**
+ * MulticastSessionDataInvalidatorFactory
+ *
+ * Factory for creating new MulticastSessionDataInvalidators.
+ */
+public class MulticastSessionDataInvalidatorFactory implements SessionDataInvalidatorFactory
+{
+    protected String _address = MulticastSessionDataInvalidator.DEFAULT_ADDRESS;
+    protected int _port = MulticastSessionDataInvalidator.DEFAULT_PORT;
+    protected int _timeToLive = 1;
+    protected String _networkInterface;
+
+    /**
+     * @return the multicast group address
+     */
+    public String getAddress()
+    {
+        return _address;
+    }
+
+    /**
+     * @param address the multicast group address
+     */
+    public void setAddress(String address)
+    {
+        _address = address;
+    }
+
+    /**
+     * @return the multicast group port
+     */
+    public int getPort()
+    {
+        return _port;
+    }
+
+    /**
+     * @param port the multicast group port
+     */
+    public void setPort(int port)
+    {
+        _port = port;
+    }
+
+    /**
+     * @return the time to live of the datagrams
+     */
+    public int getTimeToLive()
+    {
+        return _timeToLive;
+    }
+
+    /**
+     * @param timeToLive the time to live of the datagrams
+     */
+    public void setTimeToLive(int timeToLive)
+    {
+        _timeToLive = timeToLive;
+    }
+
+    /**
+     * @return the name of the network interface used for multicast
+     */
+    public String getNetworkInterface()
+    {
+        return _networkInterface;
+    }
+
+    /**
+     * @param networkInterface the name of the network interface used for multicast,
+     * or null to use the system default
+     */
+    public void setNetworkInterface(String networkInterface)
+    {
+        _networkInterface = networkInterface;
+    }
+
+    @Override
+    public SessionDataInvalidator getSessionDataInvalidator()
+    {
+        MulticastSessionDataInvalidator invalidator = new MulticastSessionDataInvalidator();
+        invalidator.setAddress(getAddress());
+        invalidator.setPort(getPort());
+        invalidator.setTimeToLive(getTimeToLive());
+        invalidator.setNetworkInterface(getNetworkInterface());
+        return invalidator;
+    }
+}
@@ -13,6 +13,7 @@
 
 package org.eclipse.jetty.server.session;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import javax.servlet.http.HttpServletRequest;
 
@@ -64,6 +65,13 @@ public class NullSessionCache extends AbstractSessionCache
         return null;
     }
 
+    @Override
+    public CompletableFuture<Void> prefetch(String id)
+    {
+        //nothing to prefetch into
+        return CompletableFuture.completedFuture(null);
+    }
+
     @Override
     public Session doPutIfAbsent(String id, Session session)
     {
@@ -85,12 +85,14 @@ public class Session implements SessionHandler.SessionIf
 
     protected boolean _newSession;
 
-    protected State _state = State.VALID; // state of the session:valid,invalid
-    // or being invalidated
+    // state of the session:valid,invalid or being invalidated. It is only
+    // changed while holding the lock, but it is volatile so that attributes
+    // can be read optimistically without the lock, see isValidForOptimisticRead()
+    protected volatile State _state = State.VALID;
 
     protected AutoLock _lock = new AutoLock();
     protected Condition _stateChangeCompleted = _lock.newCondition();
-    protected boolean _resident = false;
+    protected volatile boolean _resident = false;
     protected final SessionInactivityTimer _sessionInactivityTimer;
 
     /**
@@ -408,18 +410,13 @@ public class Session implements SessionHandler.SessionIf
 
     public boolean isValid()
     {
-        try (AutoLock l = _lock.lock())
-        {
-            return _state == State.VALID;
-        }
+        return _state == State.VALID;
     }
 
     public boolean isInvalid()
     {
-        try (AutoLock l = _lock.lock())
-        {
-            return _state == State.INVALID || _state == State.INVALIDATING;
-        }
+        State state = _state;
+        return state == State.INVALID || state == State.INVALIDATING;
     }
 
     public long getCookieSetTime()
@@ -644,9 +641,33 @@ public class Session implements SessionHandler.SessionIf
             throw new IllegalStateException("Invalid for read: id=" + _sessionData.getId() + " not resident");
     }
 
+    /**
+     * <p>Check whether the session data can be read without holding the lock.</p>
+     * <p>Attributes are held in a concurrent map, so a read does not need the lock
+     * to be consistent, but only to be ordered against invalidation. A valid and
+     * resident session only stops being valid by changing its state before any
+     * attribute is removed, so a read is valid if this method returns true both
+     * before and after the read (as for a {@link java.util.concurrent.locks.StampedLock}
+     * optimistic read). Otherwise the read must be retried holding the lock, so that
+     * it is either completed before the invalidation, or fails after it.</p>
+     *
+     * @return true if the session is valid and resident
+     */
+    protected boolean isValidForOptimisticRead()
+    {
+        return _state == State.VALID && _resident;
+    }
+
     @Override
     public Object getAttribute(String name)
     {
+        if (isValidForOptimisticRead())
+        {
+            Object value = _sessionData.getAttribute(name);
+            if (isValidForOptimisticRead())
+                return value;
+        }
+
         try (AutoLock l = _lock.lock())
         {
             checkValidForRead();
@@ -658,36 +679,42 @@ public class Session implements SessionHandler.SessionIf
     @Deprecated(since = "Servlet API 2.2")
     public Object getValue(String name)
     {
-        try (AutoLock l = _lock.lock())
-        {
-            checkValidForRead();
-            return _sessionData.getAttribute(name);
-        }
+        return getAttribute(name);
     }
 
     @Override
     public Enumeration<String> getAttributeNames()
     {
+        if (isValidForOptimisticRead())
+        {
+            Iterator<String> itor = _sessionData.getKeys().iterator();
+            if (isValidForOptimisticRead())
+                return newEnumeration(itor);
+        }
+
         try (AutoLock l = _lock.lock())
         {
             checkValidForRead();
-            final Iterator<String> itor = _sessionData.getKeys().iterator();
-            return new Enumeration<>()
-            {
+            return newEnumeration(_sessionData.getKeys().iterator());
+        }
+    }
 
-                @Override
-                public boolean hasMoreElements()
-                {
-                    return itor.hasNext();
-                }
+    private static Enumeration<String> newEnumeration(Iterator<String> itor)
+    {
+        return new Enumeration<>()
+        {
+            @Override
+            public boolean hasMoreElements()
+            {
+                return itor.hasNext();
+            }
 
-                @Override
-                public String nextElement()
-                {
-                    return itor.next();
-                }
-            };
-        }
+            @Override
+            public String nextElement()
+            {
+                return itor.next();
+            }
+        };
     }
 
     public int getAttributes()
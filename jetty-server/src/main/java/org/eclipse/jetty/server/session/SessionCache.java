@@ -14,6 +14,7 @@
 package org.eclipse.jetty.server.session;
 
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import javax.servlet.http.HttpServletRequest;
 
 import org.eclipse.jetty.util.component.LifeCycle;
@@ -112,6 +113,22 @@ public interface SessionCache extends LifeCycle
      */
     Session get(String id) throws Exception;
 
+    /**
+     * Asynchronously load a Session into the cache, so that a subsequent
+     * {@link #get(String)} does not need to wait for the SessionDataStore.
+     * Nothing is loaded if the Session is already in the cache.
+     * The default implementation does nothing.
+     *
+     * @param id the session id
+     * @return a future completed once the Session has been loaded into the
+     * cache, or it is known that it could not be. The future is never completed
+     * exceptionally, as any failure will be reported by {@link #get(String)}.
+     */
+    default CompletableFuture<Void> prefetch(String id)
+    {
+        return CompletableFuture.completedFuture(null);
+    }
+
     /**
      * Finish using a Session. This is called by the SessionHandler
      * once a request is finished with a Session. SessionCache
@@ -54,6 +54,7 @@ public class SessionData implements Serializable
     protected boolean _dirty;
     protected long _lastSaved; //time in msec since last save
     protected boolean _metaDataDirty; //non-attribute data has changed
+    protected transient Set<String> _dirtyAttributes = ConcurrentHashMap.newKeySet(); //names of changed attributes
 
     /**
      * Serialize the attribute map of the session.
@@ -75,42 +76,54 @@ public class SessionData implements Serializable
             out.writeUTF(entry.getKey());
 
             Class<?> clazz = entry.getValue().getClass();
-            ClassLoader loader = clazz.getClassLoader();
-            ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
-            
-            boolean isContextLoader;
-
-            if (loader == contextLoader) //is it the context classloader?
-                isContextLoader = true;
-            else if (contextLoader == null) //not context classloader
-                isContextLoader = false;
-            else if (contextLoader instanceof ClassVisibilityChecker)
+            boolean isServerLoader = isServerClassLoader(clazz);
+            if (LOG.isDebugEnabled())
+                LOG.debug("Attribute {} class={} isServerLoader={}", entry.getKey(), clazz.getName(), isServerLoader);
+            out.writeBoolean(isServerLoader);
+            out.writeObject(entry.getValue());
+        }
+    }
+
+    /**
+     * Whether the class of an attribute value must be loaded by the server
+     * classloader rather than by the context classloader when deserialized.
+     *
+     * @param clazz the class of the attribute value
+     * @return true if the server classloader must be used to load the class
+     */
+    static boolean isServerClassLoader(Class<?> clazz)
+    {
+        ClassLoader loader = clazz.getClassLoader();
+        ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+
+        boolean isContextLoader;
+
+        if (loader == contextLoader) //is it the context classloader?
+            isContextLoader = true;
+        else if (contextLoader == null) //not context classloader
+            isContextLoader = false;
+        else if (contextLoader instanceof ClassVisibilityChecker)
+        {
+            //Clazz not loaded by context classloader, but ask if loadable by context classloader,
+            //because preferable to use context classloader if possible (eg for deep structures).
+            ClassVisibilityChecker checker = (ClassVisibilityChecker)(contextLoader);
+            isContextLoader = (checker.isSystemClass(clazz) && !(checker.isServerClass(clazz)));
+        }
+        else
+        {
+            //Class wasn't loaded by context classloader, but try loading from context loader,
+            //because preferable to use context classloader if possible (eg for deep structures).
+            try
             {
-                //Clazz not loaded by context classloader, but ask if loadable by context classloader,
-                //because preferable to use context classloader if possible (eg for deep structures).
-                ClassVisibilityChecker checker = (ClassVisibilityChecker)(contextLoader);
-                isContextLoader = (checker.isSystemClass(clazz) && !(checker.isServerClass(clazz)));
+                Class<?> result = contextLoader.loadClass(clazz.getName());
+                isContextLoader = (result == clazz); //only if TTCL loaded this instance of the class
             }
-            else
+            catch (Throwable e)
             {
-                //Class wasn't loaded by context classloader, but try loading from context loader,
-                //because preferable to use context classloader if possible (eg for deep structures).
-                try
-                {
-                    Class<?> result = contextLoader.loadClass(clazz.getName());
-                    isContextLoader = (result == clazz); //only if TTCL loaded this instance of the class
-                }
-                catch (Throwable e)
-                {
-                    isContextLoader = false; //TCCL can't see the class
-                }
+                isContextLoader = false; //TCCL can't see the class
             }
-            
-            if (LOG.isDebugEnabled())
-                LOG.debug("Attribute {} class={} isServerLoader={}", entry.getKey(), clazz.getName(), (!isContextLoader));
-            out.writeBoolean(!isContextLoader);
-            out.writeObject(entry.getValue());
         }
+        return !isContextLoader;
     }
 
     /**
@@ -234,9 +247,19 @@ public class SessionData implements Serializable
 
     public void setDirty(String name)
     {
+        _dirtyAttributes.add(name);
         setDirty(true);
     }
 
+    /**
+     * @return the names of the attributes that have been set or removed
+     * since the session data was last {@link #clean() cleaned}
+     */
+    public Set<String> getDirtyAttributes()
+    {
+        return Collections.unmodifiableSet(_dirtyAttributes);
+    }
+
     /**
      * @return the metaDataDirty
      */
@@ -287,6 +310,7 @@ public class SessionData implements Serializable
     {
         setDirty(false);
         setMetaDataDirty(false);
+        _dirtyAttributes.clear();
     }
 
     public void putAllAttributes(Map<String, Object> attributes)
@@ -483,6 +507,7 @@ public class SessionData implements Serializable
         _lastNode = in.readUTF(); //last managing node
         _expiry = in.readLong();
         _maxInactiveMs = in.readLong();
+        _dirtyAttributes = ConcurrentHashMap.newKeySet();
         deserializeAttributes(this, in);
     }
 
@@ -0,0 +1,62 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server.session;
+
+import org.eclipse.jetty.util.component.LifeCycle;
+
+/**
+ * SessionDataInvalidator
+ *
+ * A transport that notifies the other nodes of a cluster that the
+ * session data they may have cached locally has been changed or deleted.
+ * Used by the {@link CachingSessionDataStore} to keep a near cache of
+ * session data coherent, without reloading the session data from the
+ * shared cache or store for every request.
+ */
+public interface SessionDataInvalidator extends LifeCycle
+{
+    /**
+     * Initialize this invalidator for the given context. A SessionDataInvalidator
+     * can only be used by one context(/session manager).
+     *
+     * @param context the context associated
+     * @param listener the listener notified of the invalidations sent by other nodes
+     * for the same context
+     * @throws Exception if unable to initialize
+     */
+    void initialize(SessionContext context, InvalidationListener listener) throws Exception;
+
+    /**
+     * Notify the other nodes that the session data has changed.
+     *
+     * @param id the session id
+     * @param version the version of the session data after the change, ie its last saved
+     * time, or -1 if the session data was deleted
+     * @throws Exception if unable to send the notification
+     */
+    void invalidate(String id, long version) throws Exception;
+
+    /**
+     * Listener for the invalidations sent by other nodes.
+     */
+    interface InvalidationListener
+    {
+        /**
+         * @param id the session id
+         * @param version the version of the session data after the change,
+         * or -1 if the session data was deleted
+         */
+        void onInvalidate(String id, long version);
+    }
+}
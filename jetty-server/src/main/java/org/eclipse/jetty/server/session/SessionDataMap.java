@@ -41,6 +41,22 @@ public interface SessionDataMap extends LifeCycle
      */
     public SessionData load(String id) throws Exception;
 
+    /**
+     * Read the time the session data was last saved, which identifies
+     * its version. This default implementation loads the whole session
+     * data, implementations should override it if they can read the
+     * last saved time more cheaply.
+     *
+     * @param id identity of session
+     * @return the last saved time of the session data, or -1 if there is no such session
+     * @throws Exception if unable to read the session data
+     */
+    public default long getLastSaved(String id) throws Exception
+    {
+        SessionData data = load(id);
+        return data == null ? -1 : data.getLastSaved();
+    }
+
     /**
      * Store the session data.
      *
@@ -0,0 +1,51 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server.session;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * SessionDataSerializer
+ *
+ * Converts the attributes of a {@link SessionData} to and from the bytes
+ * persisted by a {@link SessionDataStore}.
+ * <p>
+ * The attributes are always the last part of a persisted session, so
+ * implementations may read the input stream ahead of the attributes.
+ *
+ * @see AbstractSessionDataStore#setSessionDataSerializer(SessionDataSerializer)
+ */
+public interface SessionDataSerializer
+{
+    /**
+     * Serialize the attributes of the session.
+     *
+     * @param data the SessionData for which to serialize the attributes
+     * @param out the stream to which to serialize, which is flushed but not closed
+     * @throws IOException if the attributes cannot be serialized
+     */
+    void serializeAttributes(SessionData data, OutputStream out) throws IOException;
+
+    /**
+     * De-serialize the attributes of the session, replacing its existing attributes.
+     *
+     * @param data the SessionData for which to deserialize the attributes
+     * @param in the stream from which to deserialize, which is not closed
+     * @throws IOException if the attributes cannot be deserialized
+     * @throws ClassNotFoundException if the class of an attribute value cannot be loaded
+     */
+    void deserializeAttributes(SessionData data, InputStream in) throws IOException, ClassNotFoundException;
+}
@@ -14,6 +14,7 @@
 package org.eclipse.jetty.server.session;
 
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * SessionDataStore
@@ -63,4 +64,27 @@ public interface SessionDataStore extends SessionDataMap
      * @throws Exception if problem checking existence with persistence layer
      */
     public boolean exists(String id) throws Exception;
+
+    /**
+     * Asynchronously read in session data.
+     *
+     * The default implementation calls {@link #load(String)} on
+     * the calling thread. Implementations that can perform the
+     * I/O without blocking the calling thread should override it.
+     *
+     * @param id identity of session to load
+     * @return a future completed with the SessionData matching the id,
+     * or with null if there is no such session
+     */
+    public default CompletableFuture<SessionData> loadAsync(String id)
+    {
+        try
+        {
+            return CompletableFuture.completedFuture(load(id));
+        }
+        catch (Throwable x)
+        {
+            return CompletableFuture.failedFuture(x);
+        }
+    }
 }
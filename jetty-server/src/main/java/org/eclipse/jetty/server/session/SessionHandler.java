@@ -14,6 +14,7 @@
 package org.eclipse.jetty.server.session;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -23,9 +24,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.DispatcherType;
 import javax.servlet.ServletException;
 import javax.servlet.SessionCookieConfig;
@@ -46,9 +52,11 @@ import org.eclipse.jetty.http.HttpCookie;
 import org.eclipse.jetty.http.Syntax;
 import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServletAttributes;
 import org.eclipse.jetty.server.SessionIdManager;
 import org.eclipse.jetty.server.handler.ContextHandler;
 import org.eclipse.jetty.server.handler.ScopedHandler;
+import org.eclipse.jetty.util.Attributes;
 import org.eclipse.jetty.util.StringUtil;
 import org.eclipse.jetty.util.annotation.ManagedAttribute;
 import org.eclipse.jetty.util.annotation.ManagedObject;
@@ -118,6 +126,16 @@ public class SessionHandler extends ScopedHandler
      */
     public static final String __MaxAgeProperty = "org.eclipse.jetty.servlet.MaxAge";
 
+    /**
+     * Request attribute set while a request is suspended until its session is prefetched.
+     */
+    private static final String PREFETCH_ATTRIBUTE = SessionHandler.class.getName() + ".prefetch";
+
+    /**
+     * Default time in ms that a request is suspended waiting for its session to be prefetched.
+     */
+    public static final long DEFAULT_PREFETCH_TIMEOUT = 30000;
+
     public static final Set<SessionTrackingMode> DEFAULT_SESSION_TRACKING_MODES =
         Collections.unmodifiableSet(
             new HashSet<>(
@@ -184,6 +202,8 @@ public class SessionHandler extends ScopedHandler
 
     protected boolean _usingURLs;
     protected boolean _usingCookies = true;
+    protected boolean _prefetchSessions;
+    protected long _prefetchTimeout = DEFAULT_PREFETCH_TIMEOUT;
 
     protected Set<String> _candidateSessionIdsForExpiry = ConcurrentHashMap.newKeySet();
 
@@ -885,6 +905,56 @@ public class SessionHandler extends ScopedHandler
         _usingCookies = usingCookies;
     }
 
+    /**
+     * @return true if the session of a request is loaded asynchronously before the request is handled
+     * @see #setPrefetchSessions(boolean)
+     */
+    @ManagedAttribute("if true, sessions are loaded asynchronously before requests are handled")
+    public boolean isPrefetchSessions()
+    {
+        return _prefetchSessions;
+    }
+
+    /**
+     * If true, when a request has a session cookie for a session that is not
+     * in the SessionCache, the request is suspended while the session is
+     * loaded asynchronously from the SessionDataStore, and then handled with
+     * the session already in the cache. This avoids blocking the thread that
+     * handles the request while the session data is read from a remote store.
+     *
+     * @param prefetchSessions true to prefetch sessions before handling requests
+     * @see SessionDataStore#loadAsync(String)
+     */
+    public void setPrefetchSessions(boolean prefetchSessions)
+    {
+        _prefetchSessions = prefetchSessions;
+    }
+
+    /**
+     * @return the time in ms that a request is suspended waiting for its session to be prefetched
+     * @see #setPrefetchTimeout(long)
+     */
+    @ManagedAttribute("time in ms that a request waits for its session to be prefetched")
+    public long getPrefetchTimeout()
+    {
+        return _prefetchTimeout;
+    }
+
+    /**
+     * The maximum time that a request is suspended while its session is
+     * prefetched. If the session has not been loaded by then, the request
+     * is handled anyway and the session is loaded synchronously.
+     *
+     * @param prefetchTimeout the time in ms to wait for a prefetch, must be greater than 0
+     * @see #setPrefetchSessions(boolean)
+     */
+    public void setPrefetchTimeout(long prefetchTimeout)
+    {
+        if (prefetchTimeout <= 0)
+            throw new IllegalArgumentException("Prefetch timeout must be > 0");
+        _prefetchTimeout = prefetchTimeout;
+    }
+
     /**
      * Get a known existing session
      *
@@ -1485,6 +1555,7 @@ public class SessionHandler extends ScopedHandler
         SessionHandler oldSessionHandler = null;
         HttpSession oldSession = null;
         HttpSession existingSession = null;
+        boolean prefetched = false;
 
         try
         {
@@ -1492,10 +1563,25 @@ public class SessionHandler extends ScopedHandler
                 LOG.debug("Entering scope {}, dispatch={} asyncstarted={}", this, baseRequest.getDispatcherType(), baseRequest
                     .isAsyncStarted());
 
+            if (baseRequest.getDispatcherType() == DispatcherType.ASYNC && baseRequest.getAttribute(PREFETCH_ATTRIBUTE) == this)
+            {
+                //the session has been prefetched, continue the original dispatch as if
+                //the request had never been suspended
+                prefetched = true;
+                baseRequest.removeAttribute(PREFETCH_ATTRIBUTE);
+                baseRequest.setDispatcherType(DispatcherType.REQUEST);
+                Attributes attributes = Attributes.unwrap(baseRequest.getAttributes());
+                if (attributes instanceof ServletAttributes)
+                    ((ServletAttributes)attributes).clearAsyncAttributes();
+            }
+
             switch (baseRequest.getDispatcherType())
             {
                 case REQUEST:
                 {
+                    if (_prefetchSessions && !prefetched && prefetchSession(baseRequest, request))
+                        return;
+
                     //there are no previous sessionhandlers or sessions for dispatch=REQUEST
                     //look for a session for this context
                     baseRequest.setSession(null);
@@ -1570,6 +1656,10 @@ public class SessionHandler extends ScopedHandler
                 baseRequest.setSessionHandler(oldSessionHandler);
                 baseRequest.setSession(oldSession);
             }
+
+            //handlers outside this one were called for the async dispatch
+            if (prefetched)
+                baseRequest.setDispatcherType(DispatcherType.ASYNC);
         }
     }
 
@@ -1580,6 +1670,90 @@ public class SessionHandler extends ScopedHandler
         nextHandle(target, baseRequest, request, response);
     }
 
+    /**
+     * Start loading the sessions for the session cookies of the request into
+     * the SessionCache, and if they cannot be loaded immediately, suspend the
+     * request until they have been loaded or the prefetch timeout expires.
+     * <p>
+     * The request is dispatched again with {@link DispatcherType#ASYNC} to the
+     * handlers outside this SessionHandler, and is continued by this
+     * SessionHandler as the original {@link DispatcherType#REQUEST} dispatch.
+     *
+     * @param baseRequest the request to check
+     * @param request the request to check
+     * @return true if the request has been suspended and will be dispatched
+     * again once the sessions have been loaded
+     * @see #setPrefetchTimeout(long)
+     */
+    protected boolean prefetchSession(Request baseRequest, HttpServletRequest request)
+    {
+        if (!isUsingCookies() || !baseRequest.isAsyncSupported())
+            return false;
+
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null)
+            return false;
+
+        //like checkRequestedSessionId, consider every session cookie
+        List<CompletableFuture<Void>> prefetches = new ArrayList<>();
+        String sessionCookie = getSessionCookieName(getSessionCookieConfig());
+        for (Cookie cookie : cookies)
+        {
+            if (sessionCookie.equalsIgnoreCase(cookie.getName()))
+            {
+                String id = _sessionIdManager.getId(cookie.getValue());
+                CompletableFuture<Void> prefetch = _sessionCache.prefetch(id);
+                if (!prefetch.isDone())
+                    prefetches.add(prefetch);
+            }
+        }
+        if (prefetches.isEmpty())
+            return false;
+
+        if (LOG.isDebugEnabled())
+            LOG.debug("Suspending request until {} session(s) prefetched", prefetches.size());
+        AsyncContext async = baseRequest.startAsync();
+        async.setTimeout(_prefetchTimeout);
+        baseRequest.setAttribute(PREFETCH_ATTRIBUTE, this);
+
+        //dispatch only once, either when the sessions are loaded or on timeout
+        AtomicBoolean dispatched = new AtomicBoolean();
+        async.addListener(new AsyncListener()
+        {
+            @Override
+            public void onComplete(AsyncEvent event)
+            {
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event)
+            {
+                if (dispatched.compareAndSet(false, true))
+                {
+                    if (LOG.isDebugEnabled())
+                        LOG.debug("Timeout prefetching session(s) for {}", baseRequest);
+                    event.getAsyncContext().dispatch();
+                }
+            }
+
+            @Override
+            public void onError(AsyncEvent event)
+            {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event)
+            {
+            }
+        });
+        CompletableFuture.allOf(prefetches.toArray(new CompletableFuture[0])).whenComplete((v, x) ->
+        {
+            if (dispatched.compareAndSet(false, true))
+                async.dispatch();
+        });
+        return true;
+    }
+
     /**
      * Look for a requested session ID in cookies and URI parameters
      *
@@ -0,0 +1,258 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.http.HttpTester;
+import org.eclipse.jetty.io.ManagedSelector;
+import org.eclipse.jetty.io.SocketChannelEndPoint;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.eclipse.jetty.server.handler.ResourceHandler;
+import org.eclipse.jetty.toolchain.test.jupiter.WorkDir;
+import org.eclipse.jetty.toolchain.test.jupiter.WorkDirExtension;
+import org.eclipse.jetty.util.IO;
+import org.eclipse.jetty.util.resource.PathResource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(WorkDirExtension.class)
+public class FileChannelTransferTest
+{
+    public WorkDir workDir;
+    private Server _server;
+    private ServerConnector _connector;
+    private Path _file;
+    private byte[] _bytes;
+    private final AtomicLong _transferred = new AtomicLong();
+    private volatile boolean _transferFromSupported = true;
+
+    @BeforeEach
+    public void prepare() throws Exception
+    {
+        _bytes = new byte[4 * 1024 * 1024 + 123];
+        new Random().nextBytes(_bytes);
+        _file = workDir.getEmptyPathDir().resolve("content.bin");
+        Files.write(_file, _bytes);
+    }
+
+    private void start(boolean useFileChannelTransfer) throws Exception
+    {
+        start(useFileChannelTransfer, new AbstractHandler()
+        {
+            @Override
+            public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException
+            {
+                baseRequest.setHandled(true);
+                long position = Long.parseLong(request.getParameter("position"));
+                long count = Long.parseLong(request.getParameter("count"));
+                response.setContentLengthLong(count);
+                FileChannel file = FileChannel.open(_file, StandardOpenOption.READ);
+                baseRequest.getResponse().getHttpOutput().sendContent(file, position, count);
+            }
+        });
+    }
+
+    private void start(boolean useFileChannelTransfer, Handler handler) throws Exception
+    {
+        _server = new Server();
+        HttpConfiguration httpConfig = new HttpConfiguration();
+        httpConfig.setUseFileChannelTransfer(useFileChannelTransfer);
+        _connector = new ServerConnector(_server, new HttpConnectionFactory(httpConfig))
+        {
+            @Override
+            protected SocketChannelEndPoint newEndPoint(SocketChannel channel, ManagedSelector selectSet, SelectionKey key)
+            {
+                // Count the bytes written with FileChannel.transferTo().
+                SocketChannelEndPoint endPoint = new SocketChannelEndPoint(channel, selectSet, key, getScheduler())
+                {
+                    @Override
+                    public boolean isTransferFromSupported()
+                    {
+                        return _transferFromSupported;
+                    }
+
+                    @Override
+                    public long transferFrom(FileChannel file, long position, long count) throws IOException
+                    {
+                        long transferred = super.transferFrom(file, position, count);
+                        _transferred.addAndGet(transferred);
+                        return transferred;
+                    }
+                };
+                endPoint.setIdleTimeout(getIdleTimeout());
+                return endPoint;
+            }
+        };
+        _server.addConnector(_connector);
+        _server.setHandler(handler);
+        _server.start();
+    }
+
+    private void assertTransferred(boolean transferred)
+    {
+        if (transferred)
+            assertThat(_transferred.get(), greaterThan(0L));
+        else
+            assertEquals(0, _transferred.get());
+    }
+
+    @AfterEach
+    public void dispose() throws Exception
+    {
+        if (_server != null)
+            _server.stop();
+    }
+
+    private HttpTester.Response request(String method, long position, long count) throws IOException
+    {
+        try (Socket socket = new Socket("localhost", _connector.getLocalPort()))
+        {
+            OutputStream output = socket.getOutputStream();
+            String request =
+                method + " /?position=" + position + "&count=" + count + " HTTP/1.1\r\n" +
+                    "Host: localhost\r\n" +
+                    "Connection: close\r\n" +
+                    "\r\n";
+            output.write(request.getBytes(StandardCharsets.UTF_8));
+            output.flush();
+
+            HttpTester.Input input = HttpTester.from(socket.getInputStream());
+            return HttpTester.parseResponse(input);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    public void testSendWholeFile(boolean useFileChannelTransfer) throws Exception
+    {
+        start(useFileChannelTransfer);
+
+        HttpTester.Response response = request("GET", 0, _bytes.length);
+        assertEquals(HttpStatus.OK_200, response.getStatus());
+        assertEquals(_bytes.length, response.getLongField("Content-Length"));
+        assertArrayEquals(_bytes, response.getContentBytes());
+        assertTransferred(useFileChannelTransfer);
+    }
+
+    @Test
+    public void testSendWholeFileTransferFromNotSupported() throws Exception
+    {
+        _transferFromSupported = false;
+        start(true);
+
+        HttpTester.Response response = request("GET", 0, _bytes.length);
+        assertEquals(HttpStatus.OK_200, response.getStatus());
+        assertEquals(_bytes.length, response.getLongField("Content-Length"));
+        assertArrayEquals(_bytes, response.getContentBytes());
+        assertTransferred(false);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    public void testSendFileRegion(boolean useFileChannelTransfer) throws Exception
+    {
+        start(useFileChannelTransfer);
+
+        int position = 1000;
+        int count = 2 * 1024 * 1024 + 17;
+        HttpTester.Response response = request("GET", position, count);
+        assertEquals(HttpStatus.OK_200, response.getStatus());
+        assertEquals(count, response.getLongField("Content-Length"));
+        assertArrayEquals(Arrays.copyOfRange(_bytes, position, position + count), response.getContentBytes());
+        assertTransferred(useFileChannelTransfer);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    public void testResourceRange(boolean useFileChannelTransfer) throws Exception
+    {
+        ResourceHandler resourceHandler = new ResourceHandler();
+        resourceHandler.setBaseResource(new PathResource(_file.getParent()));
+        start(useFileChannelTransfer, resourceHandler);
+
+        int first = 1000;
+        int last = first + 2 * 1024 * 1024 + 16;
+        try (Socket socket = new Socket("localhost", _connector.getLocalPort()))
+        {
+            OutputStream output = socket.getOutputStream();
+            String request =
+                "GET /" + _file.getFileName() + " HTTP/1.1\r\n" +
+                    "Host: localhost\r\n" +
+                    "Range: bytes=" + first + "-" + last + "\r\n" +
+                    "Connection: close\r\n" +
+                    "\r\n";
+            output.write(request.getBytes(StandardCharsets.UTF_8));
+            output.flush();
+
+            HttpTester.Response response = HttpTester.parseResponse(HttpTester.from(socket.getInputStream()));
+            assertEquals(HttpStatus.PARTIAL_CONTENT_206, response.getStatus());
+            assertEquals("bytes " + first + "-" + last + "/" + _bytes.length, response.get("Content-Range"));
+            assertEquals(last - first + 1, response.getLongField("Content-Length"));
+            assertArrayEquals(Arrays.copyOfRange(_bytes, first, last + 1), response.getContentBytes());
+        }
+        assertTransferred(useFileChannelTransfer);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    public void testSendFileRegionHead(boolean useFileChannelTransfer) throws Exception
+    {
+        start(useFileChannelTransfer);
+
+        try (Socket socket = new Socket("localhost", _connector.getLocalPort()))
+        {
+            OutputStream output = socket.getOutputStream();
+            String request =
+                "HEAD /?position=0&count=" + _bytes.length + " HTTP/1.1\r\n" +
+                    "Host: localhost\r\n" +
+                    "Connection: close\r\n" +
+                    "\r\n";
+            output.write(request.getBytes(StandardCharsets.UTF_8));
+            output.flush();
+
+            String response = IO.toString(socket.getInputStream(), StandardCharsets.ISO_8859_1);
+            assertThat(response, startsWith("HTTP/1.1 200 OK"));
+            assertThat(response, containsString("Content-Length: " + _bytes.length));
+            assertThat(response, endsWith("\r\n\r\n"));
+        }
+    }
+}
@@ -17,13 +17,20 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
 
+import org.eclipse.jetty.http.CompressedContentEncoder;
 import org.eclipse.jetty.http.CompressedContentFormat;
+import org.eclipse.jetty.http.GzipContentEncoder;
 import org.eclipse.jetty.http.HttpContent;
 import org.eclipse.jetty.http.MimeTypes;
 import org.eclipse.jetty.http.ResourceHttpContent;
@@ -31,6 +38,7 @@ import org.eclipse.jetty.toolchain.test.FS;
 import org.eclipse.jetty.toolchain.test.jupiter.WorkDir;
 import org.eclipse.jetty.toolchain.test.jupiter.WorkDirExtension;
 import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.IO;
 import org.eclipse.jetty.util.resource.PathResource;
 import org.eclipse.jetty.util.resource.Resource;
 import org.eclipse.jetty.util.resource.ResourceCollection;
@@ -38,11 +46,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(WorkDirExtension.class)
@@ -356,6 +371,250 @@ public class ResourceCacheTest
         assertEquals(getContent(cache, "four"), "4 - four (no extension)");
     }
 
+    @Test
+    public void testStatistics() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        for (int i = 0; i < 4; i++)
+        {
+            makeFile(basePath.resolve(i + ".txt"), "content " + i);
+        }
+
+        CachedContentFactory cache = new CachedContentFactory(null, new PathResource(basePath), new MimeTypes(), false, false, CompressedContentFormat.NONE);
+        cache.setMaxCachedFiles(3);
+
+        for (int i = 0; i < 3; i++)
+        {
+            assertEquals("content " + i, getContent(cache, i + ".txt"));
+        }
+        assertEquals(0, cache.getHits());
+        assertEquals(3, cache.getMisses());
+
+        // Access 0.txt so that the least recently used file is 1.txt.
+        assertEquals("content 0", getContent(cache, "0.txt"));
+        assertEquals(1, cache.getHits());
+
+        assertEquals("content 3", getContent(cache, "3.txt"));
+        assertEquals(3, cache.getCachedFiles());
+        assertEquals(1, cache.getEvictions());
+
+        assertEquals("content 1", getContent(cache, "1.txt"));
+        assertEquals(1, cache.getHits());
+        assertEquals(5, cache.getMisses());
+        assertEquals(2, cache.getEvictions());
+
+        cache.resetStatistics();
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+        assertEquals(0, cache.getEvictions());
+    }
+
+    @Test
+    public void testTinyLFUEvictionPolicyKeepsFrequentlyUsedFiles() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        int maxCachedFiles = 10;
+        for (int i = 0; i < 10 * maxCachedFiles; i++)
+        {
+            makeFile(basePath.resolve(i + ".txt"), "content " + i);
+        }
+
+        CachedContentFactory cache = new CachedContentFactory(null, new PathResource(basePath), new MimeTypes(), false, false, CompressedContentFormat.NONE);
+        cache.setMaxCachedFiles(maxCachedFiles);
+        cache.setEvictionPolicy(new TinyLFUEvictionPolicy(maxCachedFiles));
+
+        // Frequently access a few files.
+        int hotFiles = 5;
+        for (int round = 0; round < 4; round++)
+        {
+            for (int i = 0; i < hotFiles; i++)
+            {
+                assertEquals("content " + i, getContent(cache, i + ".txt"));
+            }
+        }
+
+        // Scan all the other files once.
+        for (int i = hotFiles; i < 10 * maxCachedFiles; i++)
+        {
+            assertEquals("content " + i, getContent(cache, i + ".txt"));
+        }
+        assertThat(cache.getCachedFiles(), lessThanOrEqualTo(maxCachedFiles));
+
+        // The frequently accessed files are still cached.
+        cache.resetStatistics();
+        for (int i = 0; i < hotFiles; i++)
+        {
+            assertEquals("content " + i, getContent(cache, i + ".txt"));
+        }
+        assertEquals(hotFiles, cache.getHits());
+        assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    public void testTinyLFUEvictionPolicyWeighsFileSize() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        int smallFiles = 5;
+        for (int i = 0; i < smallFiles; i++)
+        {
+            makeFile(basePath.resolve(i + ".txt"), String.valueOf(i).repeat(100));
+        }
+        makeFile(basePath.resolve("large.txt"), "L".repeat(900));
+
+        CachedContentFactory cache = new CachedContentFactory(null, new PathResource(basePath), new MimeTypes(), false, false, CompressedContentFormat.NONE);
+        cache.setMaxCacheSize(1000);
+        cache.setEvictionPolicy(new TinyLFUEvictionPolicy(10));
+
+        for (int round = 0; round < 3; round++)
+        {
+            for (int i = 0; i < smallFiles; i++)
+            {
+                assertEquals(String.valueOf(i).repeat(100), getContent(cache, i + ".txt"));
+            }
+        }
+
+        // The large file is accessed more often than each small file,
+        // but less often per byte, so it does not displace them.
+        for (int round = 0; round < 4; round++)
+        {
+            assertEquals("L".repeat(900), getContent(cache, "large.txt"));
+        }
+        assertThat(cache.getCachedSize(), lessThanOrEqualTo(cache.getMaxCacheSize()));
+
+        cache.resetStatistics();
+        for (int i = 0; i < smallFiles; i++)
+        {
+            assertEquals(String.valueOf(i).repeat(100), getContent(cache, i + ".txt"));
+        }
+        assertEquals(smallFiles, cache.getHits());
+        assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    public void testEncodedContent() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        String text = "compressible text content ".repeat(100);
+        makeFile(basePath.resolve("text.txt"), text);
+        byte[] random = new byte[1024];
+        new Random().nextBytes(random);
+        Files.write(basePath.resolve("random.bin"), random);
+
+        CachedContentFactory cache = new CachedContentFactory(null, new PathResource(basePath), new MimeTypes(), false, true, CompressedContentFormat.NONE);
+        CompressedContentEncoder encoder = CompressedContentEncoder.forEncoding("gzip");
+        assertThat(encoder, instanceOf(GzipContentEncoder.class));
+        cache.setEncoders(List.of(encoder));
+
+        HttpContent content = cache.getContent("text.txt", cache.getMaxCachedFileSize());
+        // Not compressed for clients that do not accept the encoding.
+        assertThat(content.getPrecompressedContents(), nullValue());
+        assertThat(content.getPrecompressedContents(List.of("br", "identity")), nullValue());
+        assertEquals(0, cache.getEncodings());
+
+        Map<CompressedContentFormat, ? extends HttpContent> variants = content.getPrecompressedContents(List.of("gzip"));
+        assertThat(variants.keySet(), contains(CompressedContentFormat.GZIP));
+        HttpContent gzip = variants.get(CompressedContentFormat.GZIP);
+        assertEquals("gzip", gzip.getContentEncodingValue());
+        assertThat(gzip.getETagValue(), containsString("--gzip"));
+        assertThat(gzip.getContentLengthValue(), lessThan((long)text.length()));
+        assertTrue(gzip.getDirectBuffer().isDirect());
+        try (InputStream input = new GZIPInputStream(gzip.getInputStream()))
+        {
+            assertEquals(text, IO.toString(input, UTF_8));
+        }
+        assertEquals(gzip.getContentLengthValue(), cache.getCachedSize());
+
+        // The compressed variant is cached.
+        assertSame(gzip, cache.getContent("text.txt", cache.getMaxCachedFileSize()).getPrecompressedContents().get(CompressedContentFormat.GZIP));
+        assertEquals(1, cache.getEncodings());
+
+        // Incompressible content has no compressed variant.
+        content = cache.getContent("random.bin", cache.getMaxCachedFileSize());
+        assertThat(content.getPrecompressedContents(List.of("gzip")), nullValue());
+        assertThat(content.getPrecompressedContents(List.of("gzip")), nullValue());
+        assertEquals(1, cache.getEncodings());
+
+        cache.flushCache();
+        assertEquals(0, cache.getCachedSize());
+
+        // Incompressible content is not compressed again once evicted.
+        content = cache.getContent("random.bin", cache.getMaxCachedFileSize());
+        assertThat(content.getPrecompressedContents(List.of("*")), nullValue());
+        assertEquals(1, cache.getEncodings());
+    }
+
+    @Test
+    public void testEncodedContentSkipsCompressedMimeTypes() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        String text = "compressible text content ".repeat(100);
+        makeFile(basePath.resolve("image.png"), text);
+        makeFile(basePath.resolve("archive.zip"), text);
+        makeFile(basePath.resolve("image.svg"), text);
+
+        CachedContentFactory cache = new CachedContentFactory(null, new PathResource(basePath), new MimeTypes(), false, true, CompressedContentFormat.NONE);
+        cache.setEncoders(List.of(CompressedContentEncoder.forEncoding("gzip")));
+
+        assertThat(cache.getContent("image.png", cache.getMaxCachedFileSize()).getPrecompressedContents(List.of("gzip")), nullValue());
+        assertThat(cache.getContent("archive.zip", cache.getMaxCachedFileSize()).getPrecompressedContents(List.of("gzip")), nullValue());
+        assertEquals(0, cache.getEncodings());
+
+        assertThat(cache.getContent("image.svg", cache.getMaxCachedFileSize()).getPrecompressedContents(List.of("gzip")).keySet(), contains(CompressedContentFormat.GZIP));
+        assertEquals(1, cache.getEncodings());
+    }
+
+    @Test
+    public void testEncodedContentSkipsLargeFiles() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        String text = "compressible text content ".repeat(100);
+        makeFile(basePath.resolve("small.txt"), text);
+        makeFile(basePath.resolve("large.txt"), text + text);
+
+        CachedContentFactory cache = new CachedContentFactory(null, new PathResource(basePath), new MimeTypes(), false, true, CompressedContentFormat.NONE);
+        cache.setEncoders(List.of(CompressedContentEncoder.forEncoding("gzip")));
+        cache.setMaxEncodedFileSize(text.length());
+
+        HttpContent large = cache.getContent("large.txt", cache.getMaxCachedFileSize());
+        assertFalse(((CachedContentFactory.CachedHttpContent)large).isEncodable());
+        assertThat(large.getPrecompressedContents(List.of("gzip")), nullValue());
+        assertEquals(0, cache.getEncodings());
+
+        HttpContent small = cache.getContent("small.txt", cache.getMaxCachedFileSize());
+        assertThat(small.getPrecompressedContents(List.of("gzip")).keySet(), contains(CompressedContentFormat.GZIP));
+        assertEquals(1, cache.getEncodings());
+    }
+
+    @Test
+    public void testEncodedContentInvalidatedWhileEncoding() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        makeFile(basePath.resolve("text.txt"), "compressible text content ".repeat(100));
+
+        CachedContentFactory cache = new CachedContentFactory(null, new PathResource(basePath), new MimeTypes(), false, true, CompressedContentFormat.NONE);
+        CompressedContentEncoder gzip = CompressedContentEncoder.forEncoding("gzip");
+        cache.setEncoders(List.of(new CompressedContentEncoder()
+        {
+            @Override
+            public CompressedContentFormat getFormat()
+            {
+                return gzip.getFormat();
+            }
+
+            @Override
+            public ByteBuffer encode(ByteBuffer content) throws IOException
+            {
+                // Invalidate the content while it is being compressed.
+                cache.flushCache();
+                return gzip.encode(content);
+            }
+        }));
+
+        HttpContent content = cache.getContent("text.txt", cache.getMaxCachedFileSize());
+        assertThat(content.getPrecompressedContents(List.of("gzip")), nullValue());
+        assertEquals(0, cache.getCachedSize());
+    }
+
     static String getContent(CachedContentFactory rc, String path) throws Exception
     {
         HttpContent content = rc.getContent(path, rc.getMaxCachedFileSize());
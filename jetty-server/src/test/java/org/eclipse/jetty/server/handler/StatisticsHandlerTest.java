@@ -42,6 +42,7 @@ import org.junit.jupiter.api.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -818,6 +819,13 @@ public class StatisticsHandlerTest
         assertTrue(_statsHandler.getDispatchedTimeTotal() < _statsHandler.getRequestTimeTotal());
         assertEquals(_statsHandler.getDispatchedTimeTotal(), _statsHandler.getDispatchedTimeMax());
         assertEquals(_statsHandler.getDispatchedTimeTotal(), _statsHandler.getDispatchedTimeMean(), 0.01);
+
+        // With a single sample, all the percentiles are that sample.
+        assertEquals(_statsHandler.getRequestTimeMax(), _statsHandler.getRequestTimeP50());
+        assertEquals(_statsHandler.getRequestTimeMax(), _statsHandler.getRequestTimeP999());
+        assertEquals(_statsHandler.getDispatchedTimeMax(), _statsHandler.getDispatchedTimeP99());
+        assertThat(_statsHandler.getAsyncWaitTimeP99(), greaterThanOrEqualTo(requestTime * 3 / 4));
+        assertThat(_statsHandler.getAsyncWaitTimeP99(), lessThanOrEqualTo(_statsHandler.getRequestTimeP99()));
     }
 
     @Test
@@ -14,12 +14,18 @@
 package org.eclipse.jetty.server.session;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
 
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.util.thread.Scheduler;
 import org.junit.jupiter.api.Test;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
@@ -126,4 +132,44 @@ public class HouseKeeperTest
         assertNotNull(hk.getScheduler());
         assertTrue(hk.isOwnScheduler());
     }
+
+    @Test
+    public void testJitter() throws Exception
+    {
+        TestHouseKeeper hk = new TestHouseKeeper();
+        hk.setSessionIdManager(new TestSessionIdManager(new Server()));
+        assertEquals(HouseKeeper.DEFAULT_JITTER_PERCENT, hk.getJitterPercent());
+        assertThrows(IllegalArgumentException.class, () -> hk.setJitterPercent(-1));
+        assertThrows(IllegalArgumentException.class, () -> hk.setJitterPercent(101));
+
+        //the jitter is applied to each cycle, not to the configured interval
+        hk.setIntervalSec(50000);
+        hk.start();
+        try
+        {
+            assertEquals(50000, hk.getIntervalSec());
+            assertNotNull(hk.getTask());
+
+            //every cycle gets a fresh delay within the jitter
+            Set<Long> delays = new HashSet<>();
+            for (int i = 0; i < 100; i++)
+            {
+                long delay = hk.nextDelayMs();
+                assertThat(delay, greaterThanOrEqualTo(50000_000L));
+                assertThat(delay, lessThanOrEqualTo(55000_000L));
+                delays.add(delay);
+            }
+            assertThat(delays.size(), greaterThan(1));
+
+            hk.setJitterPercent(0);
+            assertEquals(50000_000L, hk.nextDelayMs());
+            hk.setIntervalSec(60000);
+            assertEquals(60000, hk.getIntervalSec());
+            assertNotNull(hk.getTask());
+        }
+        finally
+        {
+            hk.stop();
+        }
+    }
 }
@@ -0,0 +1,119 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SessionDataSerializerTest
+{
+    private static SessionData newSessionData()
+    {
+        long now = System.currentTimeMillis();
+        SessionData data = new SessionData("1234", "/", "0.0.0.0", now, now, now, TimeUnit.MINUTES.toMillis(10));
+        data.setAttribute("string", "value");
+        data.setAttribute("integer", 1);
+        data.setAttribute("long", 2L);
+        data.setAttribute("boolean", true);
+        data.setAttribute("double", 3.0D);
+        data.setAttribute("float", 4.0F);
+        data.setAttribute("short", (short)5);
+        data.setAttribute("byte", (byte)6);
+        data.setAttribute("char", 'x');
+        data.setAttribute("bytes", new byte[]{7, 8, 9});
+        List<String> list = new ArrayList<>();
+        list.add("a");
+        data.setAttribute("list", list);
+        data.setAttribute("longString", "y".repeat(100_000));
+        return data;
+    }
+
+    private static byte[] serialize(SessionDataSerializer serializer, SessionData data) throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.serializeAttributes(data, out);
+        return out.toByteArray();
+    }
+
+    private static SessionData deserialize(SessionDataSerializer serializer, byte[] bytes) throws Exception
+    {
+        SessionData data = new SessionData("1234", "/", "0.0.0.0", 0, 0, 0, 0);
+        serializer.deserializeAttributes(data, new ByteArrayInputStream(bytes));
+        return data;
+    }
+
+    private static void assertAttributesEqual(SessionData expected, SessionData actual)
+    {
+        assertEquals(expected.getKeys(), actual.getKeys());
+        for (String name : expected.getKeys())
+        {
+            Object value = expected.getAttribute(name);
+            if (value instanceof byte[])
+                assertArrayEquals((byte[])value, (byte[])actual.getAttribute(name));
+            else
+                assertEquals(value, actual.getAttribute(name));
+        }
+    }
+
+    @Test
+    public void testCompactRoundTrip() throws Exception
+    {
+        SessionData data = newSessionData();
+        CompactSessionDataSerializer serializer = new CompactSessionDataSerializer();
+        SessionData copy = deserialize(serializer, serialize(serializer, data));
+        assertAttributesEqual(data, copy);
+        assertEquals(Short.class, copy.getAttribute("short").getClass());
+        assertEquals(Character.class, copy.getAttribute("char").getClass());
+    }
+
+    @Test
+    public void testCompactRoundTripPrimitivesOnly() throws Exception
+    {
+        SessionData data = newSessionData();
+        data.setAttribute("list", null);
+        data.setAttribute("longString", null);
+        CompactSessionDataSerializer serializer = new CompactSessionDataSerializer();
+        byte[] compact = serialize(serializer, data);
+        assertAttributesEqual(data, deserialize(serializer, compact));
+
+        byte[] java = serialize(new JavaSessionDataSerializer(), data);
+        assertThat(compact.length, lessThan(java.length));
+    }
+
+    @Test
+    public void testCompactReadsJavaSerialization() throws Exception
+    {
+        SessionData data = newSessionData();
+        byte[] java = serialize(new JavaSessionDataSerializer(), data);
+        assertAttributesEqual(data, deserialize(new CompactSessionDataSerializer(), java));
+    }
+
+    @Test
+    public void testEmptyAttributes() throws Exception
+    {
+        SessionData data = new SessionData("1234", "/", "0.0.0.0", 0, 0, 0, 0);
+        CompactSessionDataSerializer serializer = new CompactSessionDataSerializer();
+        assertEquals(0, deserialize(serializer, serialize(serializer, data)).getKeys().size());
+    }
+}
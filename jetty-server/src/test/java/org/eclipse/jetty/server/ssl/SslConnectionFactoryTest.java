@@ -26,6 +26,7 @@ import java.util.Queue;
 import java.util.concurrent.LinkedBlockingQueue;
 import javax.net.ssl.SNIHostName;
 import javax.net.ssl.SNIServerName;
+import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLParameters;
 import javax.net.ssl.SSLSocket;
 import javax.net.ssl.SSLSocketFactory;
@@ -36,6 +37,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.eclipse.jetty.http.HttpVersion;
 import org.eclipse.jetty.io.Connection;
 import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnection;
 import org.eclipse.jetty.server.HttpConnectionFactory;
 import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.Server;
@@ -183,6 +185,39 @@ public class SslConnectionFactoryTest
         assertEquals(0, history.size());
     }
 
+    @Test
+    public void testDecryptToApplicationBuffers() throws Exception
+    {
+        _server.stop();
+        SslConnectionFactory sslConnectionFactory = _connector.getBean(SslConnectionFactory.class);
+        sslConnectionFactory.setDecryptToApplicationBuffers(true);
+        Queue<Integer> inputBufferSizes = new LinkedBlockingQueue<>();
+        _connector.addBean(new Connection.Listener()
+        {
+            @Override
+            public void onOpened(Connection connection)
+            {
+                if (connection instanceof HttpConnection)
+                    inputBufferSizes.add(((HttpConnection)connection).getInputBufferSize());
+            }
+
+            @Override
+            public void onClosed(Connection connection)
+            {
+            }
+        });
+        _server.start();
+        _port = _connector.getLocalPort();
+
+        String response = getResponse("127.0.0.1", null);
+        assertThat(response, Matchers.containsString("host=127.0.0.1"));
+
+        SSLEngine engine = sslConnectionFactory.getSslContextFactory().newSSLEngine();
+        Integer inputBufferSize = inputBufferSizes.poll();
+        assertNotNull(inputBufferSize);
+        assertThat(inputBufferSize, Matchers.greaterThanOrEqualTo(engine.getSession().getApplicationBufferSize()));
+    }
+
     @Test
     public void testServerWithoutHttpConnectionFactory() throws Exception
     {
@@ -15,6 +15,7 @@ package org.eclipse.jetty.servlet;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.StringTokenizer;
@@ -25,6 +26,7 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.eclipse.jetty.http.CompressedContentEncoder;
 import org.eclipse.jetty.http.CompressedContentFormat;
 import org.eclipse.jetty.http.HttpContent;
 import org.eclipse.jetty.http.HttpHeader;
@@ -34,8 +36,10 @@ import org.eclipse.jetty.server.CachedContentFactory;
 import org.eclipse.jetty.server.ResourceContentFactory;
 import org.eclipse.jetty.server.ResourceService;
 import org.eclipse.jetty.server.ResourceService.WelcomeFactory;
+import org.eclipse.jetty.server.TinyLFUEvictionPolicy;
 import org.eclipse.jetty.server.handler.ContextHandler;
 import org.eclipse.jetty.server.handler.ResourceHandler;
+import org.eclipse.jetty.util.StringUtil;
 import org.eclipse.jetty.util.URIUtil;
 import org.eclipse.jetty.util.resource.Resource;
 import org.eclipse.jetty.util.resource.ResourceFactory;
@@ -102,6 +106,18 @@ import org.slf4j.LoggerFactory;
  *  maxCacheSize      The maximum total size of the cache or 0 for no cache.
  *  maxCachedFileSize The maximum size of a file to cache
  *  maxCachedFiles    The maximum number of files to cache
+ *  cacheEvictionPolicy
+ *                    The policy that chooses the cached files to evict: either "lru"
+ *                    to evict the least recently used files (the default), or "tinylfu"
+ *                    to keep frequently used files cached while infrequently used files
+ *                    are scanned (see {@link org.eclipse.jetty.server.TinyLFUEvictionPolicy}).
+ *  cachedEncodings   If set to a comma separated list of content encodings (eg "gzip"),
+ *                    cached files without a precompressed resource are compressed on the fly
+ *                    with the {@link org.eclipse.jetty.http.CompressedContentEncoder} for each
+ *                    encoding, and the compressed variants are cached with the files.
+ *                    Encoders other than gzip may be provided with the ServiceLoader.
+ *  maxEncodedFileSize
+ *                    The maximum size of a file compressed on the fly for cachedEncodings
  *
  *  useFileMappedBuffer
  *                    If set to true, it will use mapped file buffer to serve static content
@@ -260,7 +276,20 @@ public class DefaultServlet extends HttpServlet implements ResourceFactory, Welc
                     _cache.setMaxCachedFileSize(maxCachedFileSize);
                 if (maxCachedFiles >= -1)
                     _cache.setMaxCachedFiles(maxCachedFiles);
+                String evictionPolicy = getInitParameter("cacheEvictionPolicy");
+                if ("tinylfu".equalsIgnoreCase(evictionPolicy))
+                    _cache.setEvictionPolicy(new TinyLFUEvictionPolicy(Math.max(1, _cache.getMaxCachedFiles())));
+                else if (evictionPolicy != null && !"lru".equalsIgnoreCase(evictionPolicy))
+                    throw new UnavailableException("Unknown cacheEvictionPolicy " + evictionPolicy);
+                String cachedEncodings = getInitParameter("cachedEncodings");
+                if (cachedEncodings != null)
+                    setCachedEncodings(cachedEncodings);
+                int maxEncodedFileSize = getInitInt("maxEncodedFileSize", -1);
+                if (maxEncodedFileSize >= 0)
+                    _cache.setMaxEncodedFileSize(maxEncodedFileSize);
                 _servletContext.setAttribute(resourceCache == null ? "resourceCache" : resourceCache, _cache);
+                if (_contextHandler != null)
+                    _contextHandler.addBean(_cache);
             }
         }
         catch (Exception e)
@@ -304,6 +333,24 @@ public class DefaultServlet extends HttpServlet implements ResourceFactory, Welc
             LOG.debug("resource base = {}", _resourceBase);
     }
 
+    private void setCachedEncodings(String cachedEncodings) throws UnavailableException
+    {
+        List<CompressedContentEncoder> encoders = new ArrayList<>();
+        List<CompressedContentFormat> formats = new ArrayList<>(Arrays.asList(_resourceService.getPrecompressedFormats()));
+        for (String encoding : StringUtil.csvSplit(cachedEncodings))
+        {
+            CompressedContentEncoder encoder = CompressedContentEncoder.forEncoding(encoding);
+            if (encoder == null)
+                throw new UnavailableException("Unknown cachedEncodings " + encoding);
+            encoders.add(encoder);
+            // The ResourceService only serves the compressed variants of its formats.
+            if (formats.stream().noneMatch(format -> format.getEncoding().equals(encoder.getFormat().getEncoding())))
+                formats.add(encoder.getFormat());
+        }
+        _cache.setEncoders(encoders);
+        _resourceService.setPrecompressedFormats(formats.toArray(new CompressedContentFormat[0]));
+    }
+
     private CompressedContentFormat[] parsePrecompressedFormats(String precompressed, Boolean gzip, CompressedContentFormat[] dft)
     {
         if (precompressed == null && gzip == null)
@@ -486,7 +533,11 @@ public class DefaultServlet extends HttpServlet implements ResourceFactory, Welc
     public void destroy()
     {
         if (_cache != null)
+        {
             _cache.flushCache();
+            if (_contextHandler != null)
+                _contextHandler.removeBean(_cache);
+        }
         super.destroy();
     }
 
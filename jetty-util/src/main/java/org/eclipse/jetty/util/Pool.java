@@ -24,6 +24,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
 import org.eclipse.jetty.util.annotation.ManagedAttribute;
@@ -47,6 +48,7 @@ import org.slf4j.LoggerFactory;
 public class Pool<T> implements AutoCloseable, Dumpable
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(Pool.class);
+    private static final int ACQUIRE_LEAST_TRIES = 3;
 
     private final List<Entry> entries = new CopyOnWriteArrayList<>();
     private final int maxEntries;
@@ -434,6 +436,62 @@ public class Pool<T> implements AutoCloseable, Dumpable
         }
     }
 
+    /**
+     * <p>Acquires the entry from the pool whose pooled object has the least cost.</p>
+     * <p>The cost of each acquirable entry is computed only once, and then the
+     * entries are tried in order of increasing cost, so that if the entry with
+     * the least cost cannot be acquired (for example because it has been acquired
+     * concurrently) the entry with the next least cost is tried.
+     * After {@value #ACQUIRE_LEAST_TRIES} failed attempts, any entry is acquired
+     * with {@link #acquire()}.
+     * As the costs may change concurrently, the order is a best effort.</p>
+     *
+     * @param cost a function that computes the cost of using a pooled object
+     * @return the acquired entry with the least cost or null if none is available.
+     */
+    public Entry acquireLeast(ToDoubleFunction<T> cost)
+    {
+        if (closed)
+            return null;
+
+        int size = entries.size();
+        if (size == 0)
+            return null;
+
+        @SuppressWarnings("unchecked")
+        Entry[] candidates = (Entry[])new Pool.Entry[size];
+        double[] costs = new double[size];
+        int count = 0;
+        for (Entry entry : entries)
+        {
+            if (count == size)
+                break;
+            if (entry.canAcquire())
+            {
+                candidates[count] = entry;
+                costs[count] = cost.applyAsDouble(entry.getPooled());
+                ++count;
+            }
+        }
+
+        for (int tries = Math.min(count, ACQUIRE_LEAST_TRIES); tries-- > 0;)
+        {
+            // Select the untried candidate with the least cost.
+            int best = -1;
+            for (int i = 0; i < count; ++i)
+            {
+                if (candidates[i] != null && (best < 0 || costs[i] < costs[best]))
+                    best = i;
+            }
+            Entry entry = candidates[best];
+            if (entry.tryAcquire())
+                return entry;
+            candidates[best] = null;
+        }
+
+        return count > ACQUIRE_LEAST_TRIES ? acquire() : null;
+    }
+
     /**
      * <p>Acquires an entry from the pool,
      * reserving and creating a new entry if necessary.</p>
@@ -517,6 +575,30 @@ public class Pool<T> implements AutoCloseable, Dumpable
         return removed;
     }
 
+    /**
+     * <p>Removes an entry from the pool, only if it is idle.</p>
+     * <p>Unlike {@link #remove(Pool.Entry)}, an entry that is concurrently
+     * acquired is not removed, so that its pooled object may be disposed
+     * without affecting a user of the pooled object.</p>
+     *
+     * @param entry the value to remove
+     * @return true if the entry was idle and has been removed, false otherwise
+     */
+    public boolean removeIdle(Entry entry)
+    {
+        if (closed)
+            return false;
+
+        if (!entry.tryRemoveIdle())
+            return false;
+
+        boolean removed = entries.remove(entry);
+        if (!removed && LOGGER.isDebugEnabled())
+            LOGGER.debug("Attempt to remove an object from the pool that does not exist: {}", entry);
+
+        return removed;
+    }
+
     public boolean isClosed()
     {
         return closed;
@@ -671,6 +753,11 @@ public class Pool<T> implements AutoCloseable, Dumpable
          */
         abstract boolean tryAcquire();
 
+        /**
+         * @return whether this Entry could be acquired at the time of the call
+         */
+        abstract boolean canAcquire();
+
         /**
          * <p>Tries to release this Entry.</p>
          *
@@ -686,6 +773,13 @@ public class Pool<T> implements AutoCloseable, Dumpable
          */
         abstract boolean tryRemove();
 
+        /**
+         * <p>Tries to remove the entry by marking it as closed, only if it is idle.</p>
+         *
+         * @return whether the entry was idle and can be removed from the containing pool
+         */
+        abstract boolean tryRemoveIdle();
+
         /**
          * @return whether this Entry is closed
          */
@@ -762,6 +856,12 @@ public class Pool<T> implements AutoCloseable, Dumpable
             }
         }
 
+        @Override
+        boolean canAcquire()
+        {
+            return state.get() == 0;
+        }
+
         @Override
         boolean tryRelease()
         {
@@ -784,6 +884,12 @@ public class Pool<T> implements AutoCloseable, Dumpable
             return true;
         }
 
+        @Override
+        boolean tryRemoveIdle()
+        {
+            return state.compareAndSet(0, -1);
+        }
+
         @Override
         public boolean isClosed()
         {
@@ -897,6 +1003,21 @@ public class Pool<T> implements AutoCloseable, Dumpable
             }
         }
 
+        @Override
+        boolean canAcquire()
+        {
+            long encoded = state.get();
+            int usageCount = AtomicBiInteger.getHi(encoded);
+            if (usageCount < 0)
+                return false;
+            T pooled = getPooled();
+            int maxUsageCount = getMaxUsageCount(pooled);
+            if (maxUsageCount > 0 && usageCount >= maxUsageCount)
+                return false;
+            int maxMultiplexed = getMaxMultiplex(pooled);
+            return maxMultiplexed <= 0 || AtomicBiInteger.getLo(encoded) < maxMultiplexed;
+        }
+
         /**
          * <p>Tries to release the entry if possible by decrementing the multiplex
          * count unless the entity is closed.</p>
@@ -952,6 +1073,21 @@ public class Pool<T> implements AutoCloseable, Dumpable
             }
         }
 
+        @Override
+        boolean tryRemoveIdle()
+        {
+            while (true)
+            {
+                long encoded = state.get();
+                int usageCount = AtomicBiInteger.getHi(encoded);
+                int multiplexCount = AtomicBiInteger.getLo(encoded);
+                if (usageCount < 0 || multiplexCount != 0)
+                    return false;
+                if (state.compareAndSet(encoded, -1, 0))
+                    return true;
+            }
+        }
+
         @Override
         public boolean isClosed()
         {
@@ -18,7 +18,9 @@ import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -26,6 +28,8 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.jetty.util.annotation.ManagedAttribute;
 import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.annotation.ManagedOperation;
+import org.eclipse.jetty.util.thread.AutoLock;
 import org.eclipse.jetty.util.thread.Scheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -193,4 +197,290 @@ public interface SocketAddressResolver
             });
         }
     }
+
+    /**
+     * <p>A {@link SocketAddressResolver} that caches the results of another {@link SocketAddressResolver}.</p>
+     * <p>Successful resolutions are cached for the {@link #getTimeToLive() time to live},
+     * and failed resolutions for the {@link #getNegativeTimeToLive() negative time to live}.
+     * When a cached result is used after three quarters of its time to live, it is refreshed
+     * in the background while the cached result is still returned, so that frequently
+     * resolved hosts never wait for a DNS resolution.
+     * If the refresh fails, the cached result is used until it expires.</p>
+     * <p>Concurrent resolutions of the same host are coalesced, so that at most one
+     * resolution per host is performed by the wrapped resolver at any time, rather
+     * than one per connection attempt.</p>
+     * <p>Example usage:</p>
+     * <pre>
+     * SocketAddressResolver resolver = new SocketAddressResolver.Caching(new SocketAddressResolver.Async(executor, scheduler, timeout));
+     * httpClient.setSocketAddressResolver(resolver);
+     * </pre>
+     */
+    @ManagedObject("The caching address resolver")
+    public static class Caching implements SocketAddressResolver
+    {
+        private static final Logger LOG = LoggerFactory.getLogger(SocketAddressResolver.class);
+
+        private final AutoLock lock = new AutoLock();
+        private final Map<String, Resolution> resolutions = new LinkedHashMap<>(16, 0.75F, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Resolution> eldest)
+            {
+                return size() > maxEntries;
+            }
+        };
+        private final SocketAddressResolver resolver;
+        private long timeToLive = TimeUnit.SECONDS.toMillis(30);
+        private long negativeTimeToLive = TimeUnit.SECONDS.toMillis(5);
+        private int maxEntries = 1024;
+
+        /**
+         * @param resolver the resolver whose results are cached
+         */
+        public Caching(SocketAddressResolver resolver)
+        {
+            this.resolver = resolver;
+        }
+
+        public SocketAddressResolver getSocketAddressResolver()
+        {
+            return resolver;
+        }
+
+        /**
+         * @return the time, in milliseconds, successful resolutions are cached for
+         */
+        @ManagedAttribute("The time, in milliseconds, successful resolutions are cached for")
+        public long getTimeToLive()
+        {
+            return timeToLive;
+        }
+
+        /**
+         * @param timeToLive the time, in milliseconds, successful resolutions are cached for
+         */
+        public void setTimeToLive(long timeToLive)
+        {
+            this.timeToLive = timeToLive;
+        }
+
+        /**
+         * @return the time, in milliseconds, failed resolutions are cached for
+         */
+        @ManagedAttribute("The time, in milliseconds, failed resolutions are cached for")
+        public long getNegativeTimeToLive()
+        {
+            return negativeTimeToLive;
+        }
+
+        /**
+         * @param negativeTimeToLive the time, in milliseconds, failed resolutions are cached for
+         */
+        public void setNegativeTimeToLive(long negativeTimeToLive)
+        {
+            this.negativeTimeToLive = negativeTimeToLive;
+        }
+
+        /**
+         * @return the max number of hosts whose resolution is cached
+         */
+        @ManagedAttribute("The max number of hosts whose resolution is cached")
+        public int getMaxEntries()
+        {
+            return maxEntries;
+        }
+
+        /**
+         * @param maxEntries the max number of hosts whose resolution is cached
+         */
+        public void setMaxEntries(int maxEntries)
+        {
+            this.maxEntries = maxEntries;
+        }
+
+        /**
+         * @return the number of hosts whose resolution is cached
+         */
+        @ManagedAttribute(value = "The number of hosts whose resolution is cached", readonly = true)
+        public int getSize()
+        {
+            try (AutoLock l = lock.lock())
+            {
+                return resolutions.size();
+            }
+        }
+
+        /**
+         * <p>Removes all the cached resolutions.</p>
+         */
+        @ManagedOperation(value = "Removes all the cached resolutions", impact = "ACTION")
+        public void clear()
+        {
+            try (AutoLock l = lock.lock())
+            {
+                resolutions.clear();
+            }
+        }
+
+        @Override
+        public void resolve(String host, int port, Promise<List<InetSocketAddress>> promise)
+        {
+            long now = NanoTime.now();
+            Resolution resolution;
+            List<InetSocketAddress> addresses = null;
+            Throwable failure = null;
+            boolean resolve = false;
+            try (AutoLock l = lock.lock())
+            {
+                resolution = resolutions.get(host);
+                if (resolution == null)
+                {
+                    resolution = new Resolution(host);
+                    resolutions.put(host, resolution);
+                }
+
+                if (resolution.isValid(now))
+                {
+                    addresses = resolution.addresses;
+                    failure = resolution.failure;
+                    // Refresh in the background before the resolution expires.
+                    if (addresses != null && !resolution.resolving && !NanoTime.isBefore(now, resolution.refreshTime))
+                    {
+                        resolution.resolving = true;
+                        resolve = true;
+                    }
+                }
+                else
+                {
+                    resolution.waiters.add(new Waiter(port, promise));
+                    if (!resolution.resolving)
+                    {
+                        resolution.resolving = true;
+                        resolve = true;
+                    }
+                }
+            }
+
+            if (LOG.isDebugEnabled())
+                LOG.debug("Resolving {} cached={} resolve={}", host, addresses != null || failure != null, resolve);
+
+            if (addresses != null)
+                promise.succeeded(toSocketAddresses(addresses, port));
+            else if (failure != null)
+                promise.failed(failure);
+
+            if (resolve)
+                resolve(resolution, port);
+        }
+
+        private void resolve(Resolution resolution, int port)
+        {
+            resolver.resolve(resolution.host, port, new Promise<>()
+            {
+                @Override
+                public void succeeded(List<InetSocketAddress> result)
+                {
+                    complete(resolution, new ArrayList<>(result), null);
+                }
+
+                @Override
+                public void failed(Throwable x)
+                {
+                    complete(resolution, null, x);
+                }
+            });
+        }
+
+        private void complete(Resolution resolution, List<InetSocketAddress> addresses, Throwable failure)
+        {
+            long now = NanoTime.now();
+            List<Waiter> waiters;
+            try (AutoLock l = lock.lock())
+            {
+                resolution.resolving = false;
+                if (addresses != null)
+                {
+                    long ttl = TimeUnit.MILLISECONDS.toNanos(getTimeToLive());
+                    resolution.addresses = addresses;
+                    resolution.failure = null;
+                    resolution.expireTime = now + ttl;
+                    resolution.refreshTime = now + ttl * 3 / 4;
+                }
+                else if (!resolution.isValid(now) || resolution.addresses == null)
+                {
+                    // Keep using a previous successful resolution until it expires.
+                    resolution.addresses = null;
+                    resolution.failure = failure;
+                    resolution.expireTime = now + TimeUnit.MILLISECONDS.toNanos(getNegativeTimeToLive());
+                }
+                waiters = new ArrayList<>(resolution.waiters);
+                resolution.waiters.clear();
+            }
+
+            if (LOG.isDebugEnabled())
+                LOG.debug("Resolved {} to {}", resolution.host, addresses != null ? addresses : failure);
+
+            for (Waiter waiter : waiters)
+            {
+                if (addresses != null)
+                    waiter.promise.succeeded(toSocketAddresses(addresses, waiter.port));
+                else
+                    waiter.promise.failed(failure);
+            }
+        }
+
+        private static List<InetSocketAddress> toSocketAddresses(List<InetSocketAddress> addresses, int port)
+        {
+            List<InetSocketAddress> result = new ArrayList<>(addresses.size());
+            for (InetSocketAddress address : addresses)
+            {
+                if (address.getPort() == port)
+                    result.add(address);
+                else if (address.isUnresolved())
+                    result.add(InetSocketAddress.createUnresolved(address.getHostString(), port));
+                else
+                    result.add(new InetSocketAddress(address.getAddress(), port));
+            }
+            return result;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%s@%x[%s]", getClass().getSimpleName(), hashCode(), resolver);
+        }
+
+        private static class Resolution
+        {
+            private final List<Waiter> waiters = new ArrayList<>();
+            private final String host;
+            private List<InetSocketAddress> addresses;
+            private Throwable failure;
+            private long expireTime;
+            private long refreshTime;
+            private boolean resolving;
+
+            private Resolution(String host)
+            {
+                this.host = host;
+            }
+
+            private boolean isValid(long now)
+            {
+                return (addresses != null || failure != null) && NanoTime.isBefore(now, expireTime);
+            }
+        }
+
+        private static class Waiter
+        {
+            private final int port;
+            private final Promise<List<InetSocketAddress>> promise;
+
+            private Waiter(int port, Promise<List<InetSocketAddress>> promise)
+            {
+                this.port = port;
+                this.promise = promise;
+            }
+        }
+    }
 }
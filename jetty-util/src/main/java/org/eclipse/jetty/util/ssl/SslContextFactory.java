@@ -349,13 +349,13 @@ public abstract class SslContextFactory extends AbstractLifeCycle implements Dum
         }
 
         // Initialize cache
-        SSLSessionContext serverContext = context.getServerSessionContext();
-        if (serverContext != null)
+        SSLSessionContext sessionContext = getSSLSessionContext(context);
+        if (sessionContext != null)
         {
             if (getSslSessionCacheSize() > -1)
-                serverContext.setSessionCacheSize(getSslSessionCacheSize());
+                sessionContext.setSessionCacheSize(getSslSessionCacheSize());
             if (getSslSessionTimeout() > -1)
-                serverContext.setSessionTimeout(getSslSessionTimeout());
+                sessionContext.setSessionTimeout(getSslSessionTimeout());
         }
 
         // select the protocols and ciphers
@@ -372,6 +372,16 @@ public abstract class SslContextFactory extends AbstractLifeCycle implements Dum
         }
     }
 
+    /**
+     * @param context the SSLContext
+     * @return the cache of the TLS sessions of the given SSLContext that is configured
+     * by {@link #setSslSessionCacheSize(int)} and {@link #setSslSessionTimeout(int)}
+     */
+    protected SSLSessionContext getSSLSessionContext(SSLContext context)
+    {
+        return context.getServerSessionContext();
+    }
+
     @Override
     public String dump()
     {
@@ -2091,6 +2101,7 @@ public abstract class SslContextFactory extends AbstractLifeCycle implements Dum
         }
     }
 
+    @ManagedObject
     public static class Client extends SslContextFactory
     {
         private SniProvider sniProvider = (sslEngine, serverNames) -> serverNames;
@@ -2113,6 +2124,37 @@ public abstract class SslContextFactory extends AbstractLifeCycle implements Dum
             super.checkConfiguration();
         }
 
+        /**
+         * <p>Returns the client TLS session cache, whose size and timeout are configured by
+         * {@link #setSslSessionCacheSize(int)} and {@link #setSslSessionTimeout(int)}.</p>
+         * <p>Client TLS sessions (and TLS 1.3 session tickets) are cached by peer host and port,
+         * so that new connections to the same origin resume the TLS session with an abbreviated
+         * handshake, provided that {@link #isSessionCachingEnabled() session caching is enabled}.</p>
+         *
+         * @param context the SSLContext
+         * @return the client TLS session cache
+         */
+        @Override
+        protected SSLSessionContext getSSLSessionContext(SSLContext context)
+        {
+            return context.getClientSessionContext();
+        }
+
+        /**
+         * @return the number of TLS sessions in the client TLS session cache
+         */
+        @ManagedAttribute("The number of cached TLS sessions")
+        public int getSslSessionCount()
+        {
+            SSLContext context = getSslContext();
+            if (context == null)
+                return 0;
+            SSLSessionContext sessionContext = getSSLSessionContext(context);
+            if (sessionContext == null)
+                return 0;
+            return Collections.list(sessionContext.getIds()).size();
+        }
+
         @Override
         public void customize(SSLEngine sslEngine)
         {
@@ -0,0 +1,211 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.util.statistic;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Statistics on the distribution of a sampled value.</p>
+ * <p>Records non-negative samples in log-linear buckets, in the style of HdrHistogram:
+ * values are grouped by their power of 2, and each power of 2 is split in a number of
+ * linear sub-buckets that depends on the configured precision, so that the value at
+ * any percentile is estimated with a bounded relative error of {@code 2^(1-precision)}.
+ * For example, the default precision of 6 bits estimates values within about 3%.</p>
+ * <p>Recording a sample is lock-free and does not allocate.
+ * Histograms with the same precision can be merged, for example to aggregate the
+ * histograms of several time intervals as {@link WindowedHistogramStatistic} does.</p>
+ */
+public class HistogramStatistic
+{
+    public static final int DEFAULT_PRECISION = 6;
+
+    private final int _precision;
+    private final int _halfSubBuckets;
+    private final AtomicLongArray _counts;
+    private final LongAdder _count = new LongAdder();
+    private final LongAdder _total = new LongAdder();
+    private final LongAccumulator _max = new LongAccumulator(Math::max, 0L);
+
+    public HistogramStatistic()
+    {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * @param precision the number of bits of precision of the recorded values, between 2 and 16
+     */
+    public HistogramStatistic(int precision)
+    {
+        if (precision < 2 || precision > 16)
+            throw new IllegalArgumentException("Invalid precision " + precision);
+        _precision = precision;
+        _halfSubBuckets = 1 << (precision - 1);
+        // Enough buckets to record Long.MAX_VALUE.
+        _counts = new AtomicLongArray((65 - precision) * _halfSubBuckets);
+    }
+
+    /**
+     * @return the number of bits of precision of the recorded values
+     */
+    public int getPrecision()
+    {
+        return _precision;
+    }
+
+    /**
+     * Resets the statistics.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < _counts.length(); ++i)
+        {
+            _counts.set(i, 0);
+        }
+        _count.reset();
+        _total.reset();
+        _max.reset();
+    }
+
+    /**
+     * Records a sample value.
+     *
+     * @param sample the value to record, negative values are recorded as zero
+     */
+    public void record(long sample)
+    {
+        if (sample < 0)
+            sample = 0;
+        _counts.incrementAndGet(indexOf(sample));
+        _count.increment();
+        _total.add(sample);
+        _max.accumulate(sample);
+    }
+
+    /**
+     * <p>Adds the samples recorded by the given histogram to this histogram.</p>
+     *
+     * @param other the histogram to merge into this histogram
+     * @throws IllegalArgumentException if the histograms have different precisions
+     */
+    public void merge(HistogramStatistic other)
+    {
+        if (other._precision != _precision)
+            throw new IllegalArgumentException("Cannot merge histograms with different precisions");
+        for (int i = 0; i < _counts.length(); ++i)
+        {
+            long count = other._counts.get(i);
+            if (count > 0)
+                _counts.addAndGet(i, count);
+        }
+        _count.add(other._count.sum());
+        _total.add(other._total.sum());
+        _max.accumulate(other._max.get());
+    }
+
+    /**
+     * @return the number of samples recorded
+     */
+    public long getCount()
+    {
+        return _count.sum();
+    }
+
+    /**
+     * @return the sum of all the recorded samples
+     */
+    public long getTotal()
+    {
+        return _total.sum();
+    }
+
+    /**
+     * @return the max value of the recorded samples
+     */
+    public long getMax()
+    {
+        return _max.get();
+    }
+
+    /**
+     * @return the average value of the samples recorded, or zero if there are no samples
+     */
+    public double getMean()
+    {
+        long count = getCount();
+        return count > 0 ? (double)getTotal() / count : 0.0D;
+    }
+
+    /**
+     * <p>Returns an estimate of the value below which the given percentage of the recorded samples fall.</p>
+     * <p>For example, {@code getValueAtPercentile(99)} returns the 99th percentile of the samples.</p>
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the value at the given percentile, or zero if there are no samples
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("Invalid percentile " + percentile);
+        long count = getCount();
+        if (count == 0)
+            return 0;
+        long target = Math.max(1, (long)Math.ceil(percentile / 100.0D * count));
+        long max = getMax();
+        long cumulative = 0;
+        for (int i = 0; i < _counts.length(); ++i)
+        {
+            cumulative += _counts.get(i);
+            if (cumulative >= target)
+                return Math.min(highestValueAt(i), max);
+        }
+        // Concurrent records may make the count larger than the bucket counts.
+        return max;
+    }
+
+    private int indexOf(long value)
+    {
+        if (value < 2L * _halfSubBuckets)
+            return (int)value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (_precision - 1);
+        int mantissa = (int)(value >>> shift);
+        return shift * _halfSubBuckets + mantissa;
+    }
+
+    private long highestValueAt(int index)
+    {
+        if (index < 2 * _halfSubBuckets)
+            return index;
+        int shift = index / _halfSubBuckets - 1;
+        long mantissa = index - (long)shift * _halfSubBuckets;
+        long highest = ((mantissa + 1) << shift) - 1;
+        // The last bucket may overflow.
+        return highest < 0 ? Long.MAX_VALUE : highest;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s@%x{count=%d,max=%d,mean=%f,p50=%d,p99=%d,p999=%d}",
+            getClass().getSimpleName(),
+            hashCode(),
+            getCount(),
+            getMax(),
+            getMean(),
+            getValueAtPercentile(50),
+            getValueAtPercentile(99),
+            getValueAtPercentile(99.9));
+    }
+}
@@ -0,0 +1,146 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.util.statistic;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.jetty.util.NanoTime;
+
+/**
+ * <p>Statistics on the distribution of a sampled value over a sliding time window.</p>
+ * <p>The window is split in a number of intervals, each with its own {@link HistogramStatistic}.
+ * Samples are recorded in the histogram of the current interval, and the histogram of an
+ * interval is reset when it is reused for a later interval.
+ * The statistics of the window are those of the histograms of the last intervals merged together,
+ * so they cover a period between the window minus one interval and the whole window.</p>
+ * <p>Recording a sample is lock-free; a sample recorded concurrently with the reset of an
+ * expired interval may be lost.</p>
+ */
+public class WindowedHistogramStatistic
+{
+    private final HistogramStatistic[] _histograms;
+    private final AtomicLongArray _intervals;
+    private final long _nanoInterval;
+    private final long _window;
+    private final TimeUnit _units;
+
+    /**
+     * @param window the window duration
+     * @param units the window duration units
+     */
+    public WindowedHistogramStatistic(long window, TimeUnit units)
+    {
+        this(window, units, 4, HistogramStatistic.DEFAULT_PRECISION);
+    }
+
+    /**
+     * @param window the window duration
+     * @param units the window duration units
+     * @param intervals the number of intervals the window is split in
+     * @param precision the number of bits of precision of the recorded values
+     */
+    public WindowedHistogramStatistic(long window, TimeUnit units, int intervals, int precision)
+    {
+        if (intervals < 1)
+            throw new IllegalArgumentException("Invalid intervals " + intervals);
+        long nanoWindow = units.toNanos(window);
+        if (nanoWindow < intervals)
+            throw new IllegalArgumentException("Invalid window " + window + " " + units);
+        _window = window;
+        _units = units;
+        _nanoInterval = nanoWindow / intervals;
+        _histograms = new HistogramStatistic[intervals];
+        _intervals = new AtomicLongArray(intervals);
+        long interval = interval(NanoTime.now());
+        for (int i = 0; i < intervals; ++i)
+        {
+            _histograms[i] = new HistogramStatistic(precision);
+            // Mark all histograms as expired.
+            _intervals.set(i, interval - intervals);
+        }
+    }
+
+    public long getWindow()
+    {
+        return _window;
+    }
+
+    public TimeUnit getUnits()
+    {
+        return _units;
+    }
+
+    /**
+     * Resets the statistics.
+     */
+    public void reset()
+    {
+        for (HistogramStatistic histogram : _histograms)
+        {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Records a sample value.
+     *
+     * @param sample the value to record, negative values are recorded as zero
+     */
+    public void record(long sample)
+    {
+        long interval = interval(NanoTime.now());
+        int index = (int)Math.floorMod(interval, (long)_histograms.length);
+        long current = _intervals.get(index);
+        if (current != interval && _intervals.compareAndSet(index, current, interval))
+            _histograms[index].reset();
+        _histograms[index].record(sample);
+    }
+
+    /**
+     * @return a new histogram with the samples recorded in the current window
+     */
+    public HistogramStatistic snapshot()
+    {
+        long interval = interval(NanoTime.now());
+        HistogramStatistic result = new HistogramStatistic(_histograms[0].getPrecision());
+        for (int i = 0; i < _histograms.length; ++i)
+        {
+            if (interval - _intervals.get(i) < _histograms.length)
+                result.merge(_histograms[i]);
+        }
+        return result;
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100
+     * @return the value at the given percentile of the samples recorded in the current window
+     * @see HistogramStatistic#getValueAtPercentile(double)
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        return snapshot().getValueAtPercentile(percentile);
+    }
+
+    private long interval(long nanoTime)
+    {
+        return Math.floorDiv(nanoTime, _nanoInterval);
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s@%x{window=%d %s,%s}", getClass().getSimpleName(), hashCode(), _window, _units, snapshot());
+    }
+}
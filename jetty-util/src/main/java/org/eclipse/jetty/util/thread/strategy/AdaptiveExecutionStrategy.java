@@ -60,6 +60,10 @@ import org.slf4j.LoggerFactory;
  * <dl>
  *     <dt>PC</dt>
  *     <dd>If the produced task is {@link Invocable.InvocationType#NON_BLOCKING}.</dd>
+ *     <dt>PEC</dt>
+ *     <dd>If the produced task is {@link Invocable.InvocationType#BLOCKING} and the executor
+ *     is configured to use virtual threads: the task is executed in a virtual thread and
+ *     the producing platform thread continues to produce.</dd>
  *     <dt>EPC</dt>
  *     <dd>If the producing thread is not {@link Invocable.InvocationType#NON_BLOCKING}
  *     and a pending producer thread is available, either because there is already a pending producer
@@ -330,6 +334,11 @@ public class AdaptiveExecutionStrategy extends ContainerLifeCycle implements Exe
             case BLOCKING:
                 // The produced task may block.
 
+                // If virtual threads are used, use PEC: the task is consumed in a
+                // virtual thread, so that it does not block a platform thread.
+                if (_virtualExecutor != null)
+                    return SubStrategy.PRODUCE_EXECUTE_CONSUME;
+
                 // If the calling producing thread may also block
                 if (!nonBlocking)
                 {
@@ -345,6 +345,93 @@ public class PoolTest
         assertNull(pool.acquire());
     }
 
+    @ParameterizedTest
+    @MethodSource(value = "strategy")
+    public void testAcquireLeast(Factory factory)
+    {
+        Pool<CloseableHolder> pool = factory.getPool(3);
+        pool.setMaxMultiplex(2);
+        pool.reserve().enable(new CloseableHolder("a"), false);
+        pool.reserve().enable(new CloseableHolder("b"), false);
+        pool.reserve().enable(new CloseableHolder("c"), false);
+        Map<String, Double> costs = new HashMap<>();
+        costs.put("a", 3.0);
+        costs.put("b", 1.0);
+        costs.put("c", 2.0);
+
+        // Entries are acquired by increasing cost, skipping those at max multiplex.
+        assertThat(pool.acquireLeast(h -> costs.get(h.value)).getPooled().value, is("b"));
+        assertThat(pool.acquireLeast(h -> costs.get(h.value)).getPooled().value, is("b"));
+        assertThat(pool.acquireLeast(h -> costs.get(h.value)).getPooled().value, is("c"));
+        costs.put("a", 0.0);
+        Pool<CloseableHolder>.Entry a = pool.acquireLeast(h -> costs.get(h.value));
+        assertThat(a.getPooled().value, is("a"));
+        assertThat(pool.acquireLeast(h -> costs.get(h.value)).getPooled().value, is("a"));
+        assertThat(pool.acquireLeast(h -> costs.get(h.value)).getPooled().value, is("c"));
+        assertNull(pool.acquireLeast(h -> costs.get(h.value)));
+
+        pool.release(a);
+        assertThat(pool.acquireLeast(h -> costs.get(h.value)), sameInstance(a));
+
+        pool.close();
+        assertNull(pool.acquireLeast(h -> costs.get(h.value)));
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = "strategy")
+    public void testAcquireLeastComputesCostsOnce(Factory factory)
+    {
+        Pool<CloseableHolder> pool = factory.getPool(10);
+        for (int i = 0; i < 10; i++)
+        {
+            pool.reserve().enable(new CloseableHolder(Integer.toString(i)), false);
+        }
+        AtomicInteger calls = new AtomicInteger();
+
+        // The cost of each acquirable entry is computed once per acquisition.
+        for (int i = 0; i < 10; i++)
+        {
+            calls.set(0);
+            Pool<CloseableHolder>.Entry entry = pool.acquireLeast(h ->
+            {
+                calls.incrementAndGet();
+                return Double.parseDouble(h.value);
+            });
+            assertThat(entry.getPooled().value, is(Integer.toString(i)));
+            assertThat(calls.get(), is(10 - i));
+        }
+        assertNull(pool.acquireLeast(h -> Double.parseDouble(h.value)));
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = "strategy")
+    public void testRemoveIdle(Factory factory)
+    {
+        Pool<CloseableHolder> pool = factory.getPool(3);
+        pool.reserve().enable(new CloseableHolder("a"), false);
+        pool.reserve().enable(new CloseableHolder("b"), false);
+        Pool<CloseableHolder>.Entry reserved = pool.reserve();
+
+        Pool<CloseableHolder>.Entry acquired = pool.acquire();
+        Pool<CloseableHolder>.Entry idle = pool.values().stream()
+            .filter(entry -> entry != acquired && entry != reserved)
+            .findFirst()
+            .orElseThrow();
+
+        // Only idle entries are removed.
+        assertThat(pool.removeIdle(reserved), is(false));
+        assertThat(pool.removeIdle(acquired), is(false));
+        assertThat(acquired.isClosed(), is(false));
+        assertThat(pool.removeIdle(idle), is(true));
+        assertThat(idle.isClosed(), is(true));
+        assertThat(pool.removeIdle(idle), is(false));
+        assertThat(pool.size(), is(2));
+
+        assertThat(pool.release(acquired), is(true));
+        assertThat(pool.removeIdle(acquired), is(true));
+        assertThat(pool.size(), is(1));
+    }
+
     @ParameterizedTest
     @MethodSource(value = "strategy")
     public void testRemoveMultiplexed(Factory factory)
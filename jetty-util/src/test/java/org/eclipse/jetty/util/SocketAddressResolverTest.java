@@ -0,0 +1,177 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.util;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SocketAddressResolverTest
+{
+    @Test
+    public void testCachingCoalescesConcurrentResolutions() throws Exception
+    {
+        PendingResolver pending = new PendingResolver();
+        SocketAddressResolver.Caching resolver = new SocketAddressResolver.Caching(pending);
+
+        FuturePromise<List<InetSocketAddress>> promise1 = new FuturePromise<>();
+        FuturePromise<List<InetSocketAddress>> promise2 = new FuturePromise<>();
+        resolver.resolve("host", 80, promise1);
+        resolver.resolve("host", 8080, promise2);
+        assertEquals(1, pending.requests.size());
+        assertFalse(promise1.isDone());
+
+        pending.succeed(0, "127.0.0.1");
+        assertEquals(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), 80), promise1.get().get(0));
+        assertEquals(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), 8080), promise2.get().get(0));
+
+        // The resolution is now cached.
+        FuturePromise<List<InetSocketAddress>> promise3 = new FuturePromise<>();
+        resolver.resolve("host", 443, promise3);
+        assertEquals(1, pending.requests.size());
+        assertEquals(443, promise3.get().get(0).getPort());
+        assertEquals(1, resolver.getSize());
+    }
+
+    @Test
+    public void testCachingExpiresAndRefreshes() throws Exception
+    {
+        PendingResolver pending = new PendingResolver();
+        SocketAddressResolver.Caching resolver = new SocketAddressResolver.Caching(pending);
+        resolver.setTimeToLive(1000);
+
+        resolver.resolve("host", 80, new FuturePromise<>());
+        pending.succeed(0, "127.0.0.1");
+
+        // After 3/4 of the TTL, the cached resolution is used but refreshed in the background.
+        Thread.sleep(800);
+        FuturePromise<List<InetSocketAddress>> promise1 = new FuturePromise<>();
+        resolver.resolve("host", 80, promise1);
+        assertEquals(InetAddress.getByName("127.0.0.1"), promise1.get().get(0).getAddress());
+        assertEquals(2, pending.requests.size());
+
+        // A failed refresh does not discard the cached resolution.
+        pending.fail(1, new UnknownHostException());
+        FuturePromise<List<InetSocketAddress>> promise2 = new FuturePromise<>();
+        resolver.resolve("host", 80, promise2);
+        assertTrue(promise2.isDone());
+
+        // After the TTL, the resolution is performed again.
+        Thread.sleep(300);
+        FuturePromise<List<InetSocketAddress>> promise3 = new FuturePromise<>();
+        resolver.resolve("host", 80, promise3);
+        assertFalse(promise3.isDone());
+        assertEquals(3, pending.requests.size());
+        pending.succeed(2, "127.0.0.2");
+        assertEquals(InetAddress.getByName("127.0.0.2"), promise3.get().get(0).getAddress());
+    }
+
+    @Test
+    public void testCachingNegativeResolution() throws Exception
+    {
+        PendingResolver pending = new PendingResolver();
+        SocketAddressResolver.Caching resolver = new SocketAddressResolver.Caching(pending);
+        resolver.setNegativeTimeToLive(200);
+
+        FuturePromise<List<InetSocketAddress>> promise1 = new FuturePromise<>();
+        resolver.resolve("unknown", 80, promise1);
+        pending.fail(0, new UnknownHostException());
+        assertThat(failureOf(promise1), instanceOf(UnknownHostException.class));
+
+        // The failure is cached.
+        FuturePromise<List<InetSocketAddress>> promise2 = new FuturePromise<>();
+        resolver.resolve("unknown", 80, promise2);
+        assertThat(failureOf(promise2), instanceOf(UnknownHostException.class));
+        assertEquals(1, pending.requests.size());
+
+        Thread.sleep(250);
+        resolver.resolve("unknown", 80, new FuturePromise<>());
+        assertEquals(2, pending.requests.size());
+    }
+
+    @Test
+    public void testCachingMaxEntries()
+    {
+        PendingResolver pending = new PendingResolver();
+        SocketAddressResolver.Caching resolver = new SocketAddressResolver.Caching(pending);
+        resolver.setMaxEntries(2);
+        for (int i = 0; i < 4; ++i)
+        {
+            resolver.resolve("host" + i, 80, new FuturePromise<>());
+        }
+        assertThat(resolver.getSize(), is(2));
+    }
+
+    private static Throwable failureOf(FuturePromise<?> promise)
+    {
+        try
+        {
+            promise.get();
+            return null;
+        }
+        catch (Throwable x)
+        {
+            return x instanceof ExecutionException ? x.getCause() : x;
+        }
+    }
+
+    private static class PendingResolver implements SocketAddressResolver
+    {
+        private final List<Request> requests = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void resolve(String host, int port, Promise<List<InetSocketAddress>> promise)
+        {
+            requests.add(new Request(port, promise));
+        }
+
+        private void succeed(int index, String address) throws Exception
+        {
+            Request request = requests.get(index);
+            List<InetSocketAddress> result = new ArrayList<>();
+            result.add(new InetSocketAddress(InetAddress.getByName(address), request.port));
+            request.promise.succeeded(result);
+        }
+
+        private void fail(int index, Throwable failure)
+        {
+            requests.get(index).promise.failed(failure);
+        }
+    }
+
+    private static class Request
+    {
+        private final int port;
+        private final Promise<List<InetSocketAddress>> promise;
+
+        private Request(int port, Promise<List<InetSocketAddress>> promise)
+        {
+            this.port = port;
+            this.promise = promise;
+        }
+    }
+}
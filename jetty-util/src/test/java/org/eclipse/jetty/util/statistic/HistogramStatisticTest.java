@@ -0,0 +1,142 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.util.statistic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HistogramStatisticTest
+{
+    @Test
+    public void testEmpty()
+    {
+        HistogramStatistic histogram = new HistogramStatistic();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void testSmallValuesAreExact()
+    {
+        HistogramStatistic histogram = new HistogramStatistic();
+        for (int i = 1; i <= 50; ++i)
+        {
+            histogram.record(i);
+        }
+        assertEquals(50, histogram.getCount());
+        assertEquals(50, histogram.getMax());
+        assertEquals(25, histogram.getValueAtPercentile(50));
+        assertEquals(50, histogram.getValueAtPercentile(100));
+        assertEquals(1, histogram.getValueAtPercentile(0));
+        assertThat(histogram.getMean(), closeTo(25.5D, 0.001D));
+    }
+
+    @Test
+    public void testPercentilesWithinPrecision()
+    {
+        HistogramStatistic histogram = new HistogramStatistic();
+        Random random = new Random();
+        List<Long> samples = new ArrayList<>();
+        for (int i = 0; i < 100_000; ++i)
+        {
+            // Spread samples over several orders of magnitude.
+            long sample = (long)Math.exp(random.nextDouble() * 20);
+            samples.add(sample);
+            histogram.record(sample);
+        }
+        Collections.sort(samples);
+
+        double error = 1.0D / (1 << (HistogramStatistic.DEFAULT_PRECISION - 1));
+        for (double percentile : new double[]{50, 90, 99, 99.9})
+        {
+            long expected = samples.get((int)Math.ceil(percentile / 100 * samples.size()) - 1);
+            long actual = histogram.getValueAtPercentile(percentile);
+            assertThat("p" + percentile, (double)actual, closeTo(expected, expected * error + 1));
+        }
+        assertEquals(samples.get(samples.size() - 1), histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testLargeValues()
+    {
+        HistogramStatistic histogram = new HistogramStatistic();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-1);
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testMerge()
+    {
+        HistogramStatistic histogram1 = new HistogramStatistic();
+        HistogramStatistic histogram2 = new HistogramStatistic();
+        for (int i = 1; i <= 10; ++i)
+        {
+            histogram1.record(i);
+            histogram2.record(i + 10);
+        }
+
+        HistogramStatistic merged = new HistogramStatistic();
+        merged.merge(histogram1);
+        merged.merge(histogram2);
+        assertEquals(20, merged.getCount());
+        assertEquals(20, merged.getMax());
+        assertEquals(10, merged.getValueAtPercentile(50));
+        assertEquals(210, merged.getTotal());
+
+        assertThrows(IllegalArgumentException.class, () -> merged.merge(new HistogramStatistic(8)));
+    }
+
+    @Test
+    public void testReset()
+    {
+        HistogramStatistic histogram = new HistogramStatistic();
+        histogram.record(1000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+
+    @Test
+    public void testWindowedExpiresOldIntervals() throws Exception
+    {
+        WindowedHistogramStatistic histogram = new WindowedHistogramStatistic(500, TimeUnit.MILLISECONDS, 2, HistogramStatistic.DEFAULT_PRECISION);
+        histogram.record(10);
+        histogram.record(20);
+        assertEquals(2, histogram.snapshot().getCount());
+        assertEquals(20, histogram.getValueAtPercentile(100));
+
+        // After the whole window, the samples have expired.
+        Thread.sleep(600);
+        assertEquals(0, histogram.snapshot().getCount());
+
+        histogram.record(30);
+        HistogramStatistic snapshot = histogram.snapshot();
+        assertEquals(1, snapshot.getCount());
+        assertEquals(30, snapshot.getMax());
+    }
+}
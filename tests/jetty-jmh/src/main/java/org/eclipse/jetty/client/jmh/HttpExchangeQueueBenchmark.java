@@ -0,0 +1,100 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.client.jmh;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Queue;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.HttpConversation;
+import org.eclipse.jetty.client.HttpDestination;
+import org.eclipse.jetty.client.HttpExchange;
+import org.eclipse.jetty.client.HttpExchangeQueue;
+import org.eclipse.jetty.client.HttpRequest;
+import org.eclipse.jetty.client.Origin;
+import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <p>Compares the queue previously used for the exchanges of a
+ * {@link HttpDestination} with {@link HttpExchangeQueue}, when many
+ * threads queue exchanges while other threads send them.</p>
+ */
+@State(Scope.Benchmark)
+public class HttpExchangeQueueBenchmark
+{
+    @Param({"blocking", "lock-free", "lock-free/priorities"})
+    public static String QUEUE_TYPE;
+
+    private Queue<HttpExchange> queue;
+    private HttpExchange exchange;
+
+    @Setup
+    public void setUp() throws Exception
+    {
+        int maxCapacity = 1024;
+        switch (QUEUE_TYPE)
+        {
+            case "blocking":
+                queue = new BlockingArrayQueue<>(32, 32, maxCapacity);
+                break;
+            case "lock-free":
+                queue = new HttpExchangeQueue(maxCapacity);
+                break;
+            case "lock-free/priorities":
+                queue = new HttpExchangeQueue(maxCapacity, 3);
+                break;
+            default:
+                throw new AssertionError("Unknown queue type: " + QUEUE_TYPE);
+        }
+
+        HttpClient httpClient = new HttpClient();
+        HttpDestination httpDestination = new HttpDestination(httpClient, new Origin("http", "localhost", 8080), false)
+        {
+        };
+        HttpRequest httpRequest = new HttpRequest(httpClient, new HttpConversation(), new URI("http://localhost:8080")) {};
+        exchange = new HttpExchange(httpDestination, httpRequest, new ArrayList<>());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public HttpExchange testOfferPoll()
+    {
+        if (!queue.offer(exchange))
+            throw new AssertionError("from thread " + Thread.currentThread().getName());
+        return queue.poll();
+    }
+
+    public static void main(String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+            .include(HttpExchangeQueueBenchmark.class.getSimpleName())
+            .warmupIterations(3)
+            .measurementIterations(3)
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+}
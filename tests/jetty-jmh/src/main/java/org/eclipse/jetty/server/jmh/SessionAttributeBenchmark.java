@@ -0,0 +1,118 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.handler.ContextHandler;
+import org.eclipse.jetty.server.session.Session;
+import org.eclipse.jetty.server.session.SessionCache;
+import org.eclipse.jetty.server.session.SessionData;
+import org.eclipse.jetty.server.session.SessionHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <p>Measures the throughput of concurrent attribute reads on a single
+ * {@link Session}, as for concurrent AJAX requests of the same client,
+ * with and without a concurrent writer.</p>
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+public class SessionAttributeBenchmark
+{
+    private Server server;
+    private Session session;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws Exception
+    {
+        server = new Server();
+        ContextHandler context = new ContextHandler("/");
+        SessionHandler sessionHandler = new SessionHandler();
+        context.setHandler(sessionHandler);
+        server.setHandler(context);
+        server.start();
+
+        SessionCache cache = sessionHandler.getSessionCache();
+        long now = System.currentTimeMillis();
+        SessionData data = new SessionData("node0abcdefghijklmnop", "/", "0.0.0.0", now, now, now, TimeUnit.MINUTES.toMillis(30));
+        session = cache.newSession(data);
+        cache.add(data.getId(), session);
+        session.setAttribute("user", "jane.doe@example.com");
+        session.setAttribute("locale", "en_US");
+        session.setAttribute("visits", 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopTrial() throws Exception
+    {
+        server.stop();
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @Threads(4)
+    public Object testGetAttribute()
+    {
+        return session.getAttribute("user");
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @Group("readWrite")
+    @GroupThreads(3)
+    public Object testGetAttributeWithWriter()
+    {
+        return session.getAttribute("user");
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void testSetAttribute()
+    {
+        session.setAttribute("visits", (Integer)session.getAttribute("visits") + 1);
+    }
+
+    public static void main(String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+            .include(SessionAttributeBenchmark.class.getSimpleName())
+            .warmupIterations(10)
+            .measurementIterations(10)
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,121 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.server.session.CompactSessionDataSerializer;
+import org.eclipse.jetty.server.session.JavaSessionDataSerializer;
+import org.eclipse.jetty.server.session.SessionData;
+import org.eclipse.jetty.server.session.SessionDataSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <p>Compares the time and the allocation rate (with the GC profiler)
+ * of serializing typical session attributes with Java serialization
+ * and with the compact session data serializer.</p>
+ */
+@State(Scope.Thread)
+@Threads(1)
+@Warmup(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+public class SessionDataSerializerBenchmark
+{
+    @Param({"JAVA", "COMPACT"})
+    String serializerType;
+
+    private SessionDataSerializer serializer;
+    private SessionData data;
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws Exception
+    {
+        serializer = "COMPACT".equals(serializerType) ? new CompactSessionDataSerializer() : new JavaSessionDataSerializer();
+
+        long now = System.currentTimeMillis();
+        data = new SessionData("node0abcdefghijklmnop", "/", "0.0.0.0", now, now, now, TimeUnit.MINUTES.toMillis(30));
+        data.setAttribute("user", "jane.doe@example.com");
+        data.setAttribute("userId", 123456789L);
+        data.setAttribute("locale", "en_US");
+        data.setAttribute("authenticated", Boolean.TRUE);
+        data.setAttribute("visits", 42);
+        data.setAttribute("balance", 1234.56D);
+        data.setAttribute("csrf", new byte[32]);
+        List<String> cart = new ArrayList<>();
+        for (int i = 0; i < 5; ++i)
+        {
+            cart.add("SKU-" + i);
+        }
+        data.setAttribute("cart", cart);
+
+        serialized = serialize();
+    }
+
+    private byte[] serialize() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.serializeAttributes(data, out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    public byte[] testSerialize() throws Exception
+    {
+        return serialize();
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    public SessionData testDeserialize() throws Exception
+    {
+        serializer.deserializeAttributes(data, new ByteArrayInputStream(serialized));
+        return data;
+    }
+
+    public static void main(String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+            .include(SessionDataSerializerBenchmark.class.getSimpleName())
+            .warmupIterations(10)
+            .measurementIterations(10)
+            .addProfiler(GCProfiler.class)
+            .forks(1)
+            .threads(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+}
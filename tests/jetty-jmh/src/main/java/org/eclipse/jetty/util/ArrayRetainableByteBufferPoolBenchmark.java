@@ -0,0 +1,83 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.util;
+
+import org.eclipse.jetty.io.ArrayRetainableByteBufferPool;
+import org.eclipse.jetty.io.RetainableByteBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@State(Scope.Benchmark)
+public class ArrayRetainableByteBufferPoolBenchmark
+{
+    @Param({
+        "1",
+        "8",
+        "0"
+    })
+    public static int STRIPES;
+
+    private ArrayRetainableByteBufferPool pool;
+
+    @Setup
+    public void setUp() throws Exception
+    {
+        pool = new ArrayRetainableByteBufferPool(0, -1, -1, Integer.MAX_VALUE, 0L, 0L, STRIPES);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        pool.clear();
+        pool = null;
+    }
+
+    @Benchmark
+    public void testAcquireRelease()
+    {
+        RetainableByteBuffer buffer = pool.acquire(2048, true);
+        buffer.release();
+    }
+
+    @Benchmark
+    public void testAcquireReleaseTwo()
+    {
+        RetainableByteBuffer buffer1 = pool.acquire(2048, true);
+        RetainableByteBuffer buffer2 = pool.acquire(2048, true);
+        buffer2.release();
+        buffer1.release();
+    }
+
+    public static void main(String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+            .include(ArrayRetainableByteBufferPoolBenchmark.class.getSimpleName())
+            .warmupIterations(3)
+            .measurementIterations(3)
+            .forks(1)
+            .threads(64)
+            // .addProfiler(GCProfiler.class)
+            .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -22,6 +22,7 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import javax.servlet.AsyncContext;
+import javax.servlet.DispatcherType;
 import javax.servlet.ReadListener;
 import javax.servlet.ServletException;
 import javax.servlet.ServletInputStream;
@@ -96,6 +97,43 @@ public class VirtualThreadsTest extends AbstractTest<TransportScenario>
         assertEquals(HttpStatus.OK_200, response.getStatus(), " for transport " + transport);
     }
 
+    @ParameterizedTest
+    @ArgumentsSource(TransportProvider.class)
+    public void testAsyncDispatchInvokedOnVirtualThread(Transport transport) throws Exception
+    {
+        // No virtual thread support in FCGI server-side.
+        Assumptions.assumeTrue(transport != Transport.FCGI);
+
+        init(transport);
+        scenario.prepareServer(new EmptyServerHandler()
+        {
+            @Override
+            protected void service(String target, Request jettyRequest, HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException
+            {
+                if (!VirtualThreads.isVirtualThread())
+                    response.setStatus(HttpStatus.NOT_IMPLEMENTED_501);
+
+                if (request.getDispatcherType() == DispatcherType.REQUEST)
+                {
+                    AsyncContext asyncContext = request.startAsync();
+                    // Dispatch from a platform thread.
+                    new Thread(asyncContext::dispatch).start();
+                }
+            }
+        });
+        ThreadPool threadPool = scenario.server.getThreadPool();
+        if (threadPool instanceof VirtualThreads.Configurable)
+            ((VirtualThreads.Configurable)threadPool).setVirtualThreadsExecutor(VirtualThreads.getDefaultVirtualThreadsExecutor());
+        scenario.server.start();
+        scenario.startClient();
+
+        ContentResponse response = scenario.client.newRequest(scenario.newURI())
+            .timeout(5, TimeUnit.SECONDS)
+            .send();
+
+        assertEquals(HttpStatus.OK_200, response.getStatus(), " for transport " + transport);
+    }
+
     @ParameterizedTest
     @ArgumentsSource(TransportProvider.class)
     public void testServletCallbacksInvokedOnVirtualThread(Transport transport) throws Exception
@@ -13,6 +13,10 @@
 
 package org.eclipse.jetty.server.session;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.session.infinispan.EmbeddedQueryManager;
 import org.eclipse.jetty.session.infinispan.InfinispanSessionData;
@@ -31,7 +35,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * InfinispanSessionDataStoreTest
@@ -143,6 +149,55 @@ public class InfinispanSessionDataStoreTest extends AbstractSessionDataStoreTest
         assertThrows(UnreadableSessionDataException.class, () -> store.load("222"));
     }
 
+    @Test
+    public void testCleanOrphansPaged() throws Exception
+    {
+        //create the SessionDataStore
+        ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
+        context.setContextPath("/test");
+        context.setClassLoader(_contextClassLoader);
+        InfinispanSessionDataStoreFactory factory = (InfinispanSessionDataStoreFactory)createSessionDataStoreFactory();
+        factory.setGracePeriodSec(GRACE_PERIOD_SEC);
+        factory.setScavengePageSize(3);
+        SessionDataStore store = factory.getSessionDataStore(context.getSessionHandler());
+        SessionContext sessionContext = new SessionContext("foo", context.getServletContext());
+        store.initialize(sessionContext);
+
+        long now = System.currentTimeMillis();
+
+        //persist more long ago expired sessions, for our context and another, than fit in a page
+        List<SessionData> oldSessions = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+        {
+            SessionData oldSession = store.newSessionData("old" + i, 100, 101, 100, TimeUnit.MINUTES.toMillis(60));
+            if (i % 2 == 0)
+                oldSession.setContextPath("_other");
+            oldSession.setExpiry(200);
+            oldSession.setLastNode("me");
+            persistSession(oldSession);
+            assertTrue(checkSessionExists(oldSession));
+            oldSessions.add(oldSession);
+        }
+
+        //persist a non expired session
+        SessionData unexpiredSession = store.newSessionData("unexpired", 100, now + 10, now + 5, TimeUnit.MINUTES.toMillis(60));
+        unexpiredSession.setExpiry(now + TimeUnit.MINUTES.toMillis(10));
+        unexpiredSession.setLastNode("me");
+        persistSession(unexpiredSession);
+
+        store.start();
+
+        ((AbstractSessionDataStore)store).cleanOrphans(now - TimeUnit.SECONDS.toMillis(10 * GRACE_PERIOD_SEC));
+
+        //all the old sessions should be gone
+        for (SessionData oldSession : oldSessions)
+        {
+            assertFalse(checkSessionExists(oldSession));
+        }
+        //unexpired session should still be there
+        assertTrue(checkSessionExists(unexpiredSession));
+    }
+
     @Override
     public boolean checkSessionPersisted(SessionData data) throws Exception
     {
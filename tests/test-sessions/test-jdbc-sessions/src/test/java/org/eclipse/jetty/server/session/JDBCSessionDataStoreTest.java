@@ -13,11 +13,25 @@
 
 package org.eclipse.jetty.server.session;
 
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 /**
  * JDBCSessionDataStoreTest
  */
@@ -69,6 +83,182 @@ public class JDBCSessionDataStoreTest extends AbstractSessionDataStoreTest
         super.testCleanOrphans();
     }
 
+    @Test
+    public void testScavengePaging() throws Exception
+    {
+        ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
+        context.setContextPath("/test");
+
+        JDBCSessionDataStoreFactory factory = (JDBCSessionDataStoreFactory)createSessionDataStoreFactory();
+        factory.setGracePeriodSec(GRACE_PERIOD_SEC);
+        factory.setScavengePageSize(2);
+        JDBCSessionDataStore store = (JDBCSessionDataStore)factory.getSessionDataStore(context.getSessionHandler());
+        SessionContext sessionContext = new SessionContext("foo", context.getServletContext());
+        store.initialize(sessionContext);
+        store.start();
+
+        long now = System.currentTimeMillis();
+        //some sessions expire at the same time, so that they are split across pages
+        long[] expiries = {RECENT_TIMESTAMP, RECENT_TIMESTAMP, RECENT_TIMESTAMP + 1, RECENT_TIMESTAMP + 1, RECENT_TIMESTAMP + 2};
+        for (int i = 0; i < expiries.length; ++i)
+        {
+            SessionData data = store.newSessionData("page" + i, 100, 101, 100, TimeUnit.MINUTES.toMillis(60));
+            data.setLastNode(sessionContext.getWorkerName());
+            data.setExpiry(expiries[i]);
+            persistSession(data);
+        }
+        SessionData unexpired = store.newSessionData("unexpired", 100, now, now - 1, TimeUnit.MINUTES.toMillis(60));
+        unexpired.setLastNode(sessionContext.getWorkerName());
+        unexpired.setExpiry(now + TimeUnit.MINUTES.toMillis(10));
+        persistSession(unexpired);
+
+        Set<String> mine = store.doCheckExpired(Collections.emptySet(), now);
+        assertThat(mine, containsInAnyOrder("page0", "page1", "page2", "page3", "page4"));
+        Set<String> all = store.doGetExpired(now);
+        assertThat(all, containsInAnyOrder("page0", "page1", "page2", "page3", "page4"));
+        store.stop();
+    }
+
+    @Test
+    public void testScavengeMaxPages() throws Exception
+    {
+        ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
+        context.setContextPath("/test");
+
+        JDBCSessionDataStoreFactory factory = (JDBCSessionDataStoreFactory)createSessionDataStoreFactory();
+        factory.setGracePeriodSec(GRACE_PERIOD_SEC);
+        factory.setScavengePageSize(2);
+        factory.setScavengeMaxPages(2);
+        JDBCSessionDataStore store = (JDBCSessionDataStore)factory.getSessionDataStore(context.getSessionHandler());
+        SessionContext sessionContext = new SessionContext("foo", context.getServletContext());
+        store.initialize(sessionContext);
+        store.start();
+
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 5; ++i)
+        {
+            SessionData data = store.newSessionData("max" + i, 100, 101, 100, TimeUnit.MINUTES.toMillis(60));
+            data.setLastNode(sessionContext.getWorkerName());
+            data.setExpiry(RECENT_TIMESTAMP + i);
+            persistSession(data);
+        }
+
+        //each cycle selects at most 2 pages, the next cycle resumes where the previous one stopped
+        assertThat(store.doGetExpired(now), containsInAnyOrder("max0", "max1", "max2", "max3"));
+        assertThat(store.doGetExpired(now), containsInAnyOrder("max4"));
+        //then starts over
+        assertThat(store.doGetExpired(now), containsInAnyOrder("max0", "max1", "max2", "max3"));
+        store.stop();
+    }
+
+    @Test
+    public void testWriteBehind() throws Exception
+    {
+        ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
+        context.setContextPath("/test");
+
+        JDBCSessionDataStoreFactory factory = (JDBCSessionDataStoreFactory)createSessionDataStoreFactory();
+        factory.setGracePeriodSec(GRACE_PERIOD_SEC);
+        factory.setWriteBehindIntervalMs(TimeUnit.HOURS.toMillis(1));
+        factory.setMaxWriteBehindSessions(3);
+        JDBCSessionDataStore store = (JDBCSessionDataStore)factory.getSessionDataStore(context.getSessionHandler());
+        SessionContext sessionContext = new SessionContext("foo", context.getServletContext());
+        store.initialize(sessionContext);
+        store.start();
+
+        long now = System.currentTimeMillis();
+        SessionData data1 = store.newSessionData("wb1", 100, now, now - 1, -1);
+        data1.setLastNode(sessionContext.getWorkerName());
+        data1.setAttribute("a", "1");
+        store.store("wb1", data1);
+
+        //the write is queued, not performed
+        assertFalse(checkSessionExists(data1));
+        assertEquals(1, store.getWriteBehindSessions());
+
+        //writes of the same session are coalesced
+        data1.setAttribute("a", "2");
+        store.store("wb1", data1);
+        assertEquals(1, store.getWriteBehindSessions());
+
+        store.flush();
+        assertEquals(0, store.getWriteBehindSessions());
+        assertTrue(checkSessionPersisted(data1));
+
+        //loading a session serves the pending write without flushing it
+        data1.setAttribute("a", "3");
+        store.store("wb1", data1);
+        SessionData loaded = store.load("wb1");
+        assertNotNull(loaded);
+        assertEquals("3", loaded.getAttribute("a"));
+        assertTrue(store.exists("wb1"));
+        assertEquals(1, store.getWriteBehindSessions());
+
+        //a pending session not yet inserted is visible too
+        SessionData data4 = store.newSessionData("wb4", 100, now, now - 1, -1);
+        data4.setAttribute("d", "1");
+        store.store("wb4", data4);
+        assertFalse(checkSessionExists(data4));
+        assertTrue(store.exists("wb4"));
+        assertEquals("1", store.load("wb4").getAttribute("d"));
+        assertThat(store.doGetExpired(now + 1), not(hasItem("wb4")));
+        store.flush();
+
+        //a full queue is flushed by the thread that queues the session
+        SessionData data2 = store.newSessionData("wb2", 100, now, now - 1, -1);
+        SessionData data3 = store.newSessionData("wb3", 100, now, now - 1, -1);
+        data1.setAttribute("a", "4");
+        store.store("wb1", data1);
+        store.store("wb2", data2);
+        assertEquals(2, store.getWriteBehindSessions());
+        store.store("wb3", data3);
+        assertEquals(0, store.getWriteBehindSessions());
+        assertTrue(checkSessionPersisted(data1));
+        assertTrue(checkSessionPersisted(data2));
+        assertTrue(checkSessionPersisted(data3));
+
+        //stopping the store flushes the pending writes
+        data2.setAttribute("b", "1");
+        store.store("wb2", data2);
+        store.stop();
+        assertTrue(checkSessionPersisted(data2));
+    }
+
+    @Test
+    public void testWriteBehindDroppedInsert() throws Exception
+    {
+        ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
+        context.setContextPath("/test");
+
+        JDBCSessionDataStoreFactory factory = (JDBCSessionDataStoreFactory)createSessionDataStoreFactory();
+        factory.setGracePeriodSec(GRACE_PERIOD_SEC);
+        factory.setWriteBehindIntervalMs(TimeUnit.HOURS.toMillis(1));
+        JDBCSessionDataStore store = (JDBCSessionDataStore)factory.getSessionDataStore(context.getSessionHandler());
+        SessionContext sessionContext = new SessionContext("foo", context.getServletContext());
+        store.initialize(sessionContext);
+        store.start();
+
+        //sessions that were saved before, but whose insert was dropped
+        long now = System.currentTimeMillis();
+        SessionData data1 = store.newSessionData("dropped1", 100, now, now - 1, -1);
+        data1.setLastNode(sessionContext.getWorkerName());
+        data1.setLastSaved(now);
+        data1.setAttribute("a", "1");
+        SessionData data2 = store.newSessionData("dropped2", 100, now, now - 1, -1);
+        data2.setLastNode(sessionContext.getWorkerName());
+        data2.setLastSaved(now);
+        data2.setAttribute("b", "2");
+
+        //an update and a metadata only update match no row, so the sessions are inserted
+        store.doStore("dropped1", data1, now);
+        store.doStoreMetaData("dropped2", data2, now);
+        assertEquals(2, store.getWriteBehindSessions());
+        store.flush();
+        assertTrue(checkSessionPersisted(data1));
+        assertTrue(checkSessionPersisted(data2));
+        store.stop();
+    }
+
     @Override
     public boolean checkSessionExists(SessionData data) throws Exception
     {
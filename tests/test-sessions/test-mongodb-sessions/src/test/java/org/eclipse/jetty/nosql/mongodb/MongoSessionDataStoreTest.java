@@ -16,8 +16,11 @@ package org.eclipse.jetty.nosql.mongodb;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import org.eclipse.jetty.server.session.AbstractSessionDataStore;
 import org.eclipse.jetty.server.session.AbstractSessionDataStoreFactory;
 import org.eclipse.jetty.server.session.AbstractSessionDataStoreTest;
 import org.eclipse.jetty.server.session.SessionContext;
@@ -32,7 +35,9 @@ import org.junit.jupiter.api.Test;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * MongoSessionDataStoreTest
@@ -149,4 +154,52 @@ public class MongoSessionDataStoreTest extends AbstractSessionDataStoreTest
         //and that it has now been written out with the new format
         MongoTestHelper.checkSessionPersisted(loaded);
     }
+
+    @Test
+    public void testCleanOrphansPaged() throws Exception
+    {
+        //create the SessionDataStore
+        ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
+        context.setContextPath("/test");
+        MongoSessionDataStoreFactory factory = (MongoSessionDataStoreFactory)createSessionDataStoreFactory();
+        factory.setGracePeriodSec(GRACE_PERIOD_SEC);
+        factory.setScavengePageSize(3);
+        SessionDataStore store = factory.getSessionDataStore(context.getSessionHandler());
+        SessionContext sessionContext = new SessionContext("foo", context.getServletContext());
+        store.initialize(sessionContext);
+
+        long now = System.currentTimeMillis();
+
+        //persist more long ago expired sessions, for our context and another, than fit in a page
+        List<SessionData> oldSessions = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+        {
+            SessionData oldSession = store.newSessionData("old" + i, 100, 101, 100, TimeUnit.MINUTES.toMillis(60));
+            if (i % 2 == 0)
+                oldSession.setContextPath("_other");
+            oldSession.setExpiry(200);
+            oldSession.setLastNode("me");
+            persistSession(oldSession);
+            assertTrue(checkSessionExists(oldSession));
+            oldSessions.add(oldSession);
+        }
+
+        //persist a non expired session
+        SessionData unexpiredSession = store.newSessionData("unexpired", 100, now + 10, now + 5, TimeUnit.MINUTES.toMillis(60));
+        unexpiredSession.setExpiry(now + TimeUnit.MINUTES.toMillis(10));
+        unexpiredSession.setLastNode("me");
+        persistSession(unexpiredSession);
+
+        store.start();
+
+        ((AbstractSessionDataStore)store).cleanOrphans(now - TimeUnit.SECONDS.toMillis(10 * GRACE_PERIOD_SEC));
+
+        //all the old sessions should be gone
+        for (SessionData oldSession : oldSessions)
+        {
+            assertFalse(checkSessionExists(oldSession));
+        }
+        //unexpired session should still be there
+        assertTrue(checkSessionExists(unexpiredSession));
+    }
 }
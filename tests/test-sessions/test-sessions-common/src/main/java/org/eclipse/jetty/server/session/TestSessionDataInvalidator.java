@@ -0,0 +1,69 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server.session;
+
+import java.util.List;
+
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+
+/**
+ * TestSessionDataInvalidator
+ *
+ * A loopback SessionDataInvalidator that synchronously delivers invalidations
+ * to the other started invalidators sharing the same list of nodes.
+ */
+public class TestSessionDataInvalidator extends AbstractLifeCycle implements SessionDataInvalidator
+{
+    private final List<TestSessionDataInvalidator> _nodes;
+    private SessionContext _context;
+    private InvalidationListener _listener;
+    public int _sent;
+
+    public TestSessionDataInvalidator(List<TestSessionDataInvalidator> nodes)
+    {
+        _nodes = nodes;
+    }
+
+    @Override
+    public void initialize(SessionContext context, InvalidationListener listener)
+    {
+        _context = context;
+        _listener = listener;
+    }
+
+    @Override
+    protected void doStart() throws Exception
+    {
+        _nodes.add(this);
+        super.doStart();
+    }
+
+    @Override
+    protected void doStop() throws Exception
+    {
+        _nodes.remove(this);
+        super.doStop();
+    }
+
+    @Override
+    public void invalidate(String id, long version)
+    {
+        ++_sent;
+        for (TestSessionDataInvalidator node : _nodes)
+        {
+            if (node != this && node._context.getCanonicalContextPath().equals(_context.getCanonicalContextPath()))
+                node._listener.onInvalidate(id, version);
+        }
+    }
+}
@@ -29,6 +29,7 @@ public class TestSessionDataStore extends AbstractSessionDataStore
 {
     public Map<String, SessionData> _map = new ConcurrentHashMap<>();
     public AtomicInteger _numSaves = new AtomicInteger(0);
+    public AtomicInteger _numMetaDataSaves = new AtomicInteger(0);
 
     public final boolean _passivating;
 
@@ -78,6 +79,13 @@ public class TestSessionDataStore extends AbstractSessionDataStore
         _numSaves.addAndGet(1);
     }
 
+    @Override
+    public void doStoreMetaData(String id, SessionData data, long lastSaveTime) throws Exception
+    {
+        _map.put(id, data);
+        _numMetaDataSaves.addAndGet(1);
+    }
+
     @Override
     public Set<String> doCheckExpired(Set<String> candidates, long time)
     {
@@ -0,0 +1,215 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server.session;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * BoundedSessionCacheTest
+ */
+public class BoundedSessionCacheTest
+{
+    private ServletContextHandler _context;
+    private BoundedSessionCache _cache;
+    private TestSessionDataStore _store;
+
+    private void start(int maxSessions, long maxBytes) throws Exception
+    {
+        Server server = new Server();
+
+        _context = new ServletContextHandler(ServletContextHandler.SESSIONS);
+        _context.setContextPath("/test");
+        _context.setServer(server);
+
+        BoundedSessionCacheFactory cacheFactory = new BoundedSessionCacheFactory();
+        cacheFactory.setEvictionPolicy(SessionCache.NEVER_EVICT);
+        cacheFactory.setMaxSessions(maxSessions);
+        cacheFactory.setMaxBytes(maxBytes);
+        cacheFactory.setSweepIntervalMs(0);
+        _cache = (BoundedSessionCache)cacheFactory.getSessionCache(_context.getSessionHandler());
+
+        _store = new TestSessionDataStore();
+        _cache.setSessionDataStore(_store);
+        _context.getSessionHandler().setSessionCache(_cache);
+        _context.start();
+    }
+
+    @AfterEach
+    public void dispose() throws Exception
+    {
+        if (_context != null)
+            _context.stop();
+    }
+
+    private Session addSession(String id, long accessed) throws Exception
+    {
+        long now = System.currentTimeMillis();
+        SessionData data = _store.newSessionData(id, now - 100, accessed, accessed, TimeUnit.MINUTES.toMillis(10));
+        data.setExpiry(now + TimeUnit.DAYS.toMillis(1));
+        Session session = _cache.newSession(data);
+        _cache.add(id, session);
+        _cache.release(id, session);
+        return session;
+    }
+
+    private void setAttribute(String id, String name, Object value) throws Exception
+    {
+        // The size of a session is estimated when the last request using it exits.
+        Session session = _cache.get(id);
+        session.getSessionData().setAttribute(name, value);
+        _cache.release(id, session);
+    }
+
+    @Test
+    public void testEvictLeastRecentlyAccessed() throws Exception
+    {
+        start(2, -1);
+
+        long now = System.currentTimeMillis();
+        Session s1 = addSession("1", now - 4000);
+        Session s2 = addSession("2", now - 3000);
+        Session s3 = addSession("3", now - 2000);
+        Session s4 = addSession("4", now - 1000);
+
+        // The cache may also have been swept in the background.
+        _cache.sweep();
+
+        assertFalse(_cache.contains("1"));
+        assertFalse(_cache.contains("2"));
+        assertTrue(_cache.contains("3"));
+        assertTrue(_cache.contains("4"));
+        assertFalse(s1.isResident());
+        assertFalse(s2.isResident());
+        assertTrue(s3.isResident());
+        assertTrue(s4.isResident());
+        assertEquals(2, _cache.getEvictions());
+
+        // Evicted sessions were written through to the store.
+        assertTrue(_store.exists("1"));
+        assertTrue(_store.exists("2"));
+        assertEquals(0, _cache.sweep());
+    }
+
+    @Test
+    public void testInUseSessionsNotEvicted() throws Exception
+    {
+        start(1, -1);
+
+        long now = System.currentTimeMillis();
+        addSession("1", now - 2000);
+        addSession("2", now - 1000);
+        _cache.sweep();
+        assertFalse(_cache.contains("1"));
+        assertTrue(_cache.contains("2"));
+
+        // Reload the least recently accessed session and keep it in use.
+        Session s1 = _cache.get("1");
+        assertNotNull(s1);
+        _cache.sweep();
+        assertTrue(_cache.contains("1"));
+        assertFalse(_cache.contains("2"));
+
+        // While in use the session cannot be evicted, even if it is over the bound.
+        Session s2 = _cache.get("2");
+        assertNotNull(s2);
+        assertEquals(0, _cache.sweep());
+        assertTrue(_cache.contains("1"));
+        assertTrue(_cache.contains("2"));
+
+        _cache.release("1", s1);
+        _cache.release("2", s2);
+    }
+
+    @Test
+    public void testMaxBytes() throws Exception
+    {
+        start(-1, 16 * 1024);
+
+        long now = System.currentTimeMillis();
+        addSession("1", now - 2000);
+        setAttribute("1", "payload", new byte[10 * 1024]);
+        addSession("2", now - 1000);
+        setAttribute("2", "payload", new byte[10 * 1024]);
+
+        // The cache may also have been swept in the background.
+        _cache.sweep();
+        assertEquals(1, _cache.getEvictions());
+        assertFalse(_cache.contains("1"));
+        assertTrue(_cache.contains("2"));
+        assertEquals(10 * 1024, ((byte[])_store.load("1").getAttribute("payload")).length);
+        assertThat(_cache.getBytes(), lessThanOrEqualTo(16 * 1024L));
+    }
+
+    @Test
+    public void testSweepSamplesWholeCache() throws Exception
+    {
+        start(10, -1);
+
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 100; i++)
+        {
+            addSession(Integer.toString(i), now - 100_000 + i * 100);
+        }
+        _cache.sweep();
+
+        assertEquals(10, _cache.getSessionsCurrent());
+        assertEquals(90, _cache.getEvictions());
+        // The evictions are approximately LRU: the most recently accessed sessions stay cached.
+        assertTrue(_cache.contains("99"));
+    }
+
+    @Test
+    public void testStatistics() throws Exception
+    {
+        start(1, -1);
+
+        long now = System.currentTimeMillis();
+        addSession("1", now - 2000);
+        addSession("2", now - 1000);
+        _cache.sweep();
+        _cache.resetStats();
+
+        Session s2 = _cache.get("2");
+        assertNotNull(s2);
+        _cache.release("2", s2);
+        assertEquals(1, _cache.getHits());
+        assertEquals(0, _cache.getMisses());
+
+        Session s1 = _cache.get("1");
+        assertNotNull(s1);
+        _cache.release("1", s1);
+        assertEquals(1, _cache.getMisses());
+        assertEquals(1, _cache.getLoads());
+
+        assertNull(_cache.get("unknown"));
+        assertEquals(2, _cache.getMisses());
+        assertEquals(1, _cache.getLoads());
+
+        _cache.sweep();
+        assertEquals(1, _cache.getEvictions());
+    }
+}
@@ -0,0 +1,301 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server.session;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * CachingSessionDataStoreTest
+ *
+ * Test the near cache of two CachingSessionDataStores that share
+ * a SessionDataMap and a SessionDataStore, and are kept coherent
+ * by a loopback SessionDataInvalidator.
+ */
+public class CachingSessionDataStoreTest
+{
+    private final List<TestSessionDataInvalidator> _nodes = new CopyOnWriteArrayList<>();
+    private final TestSessionDataMap _map = new TestSessionDataMap();
+    private ServletContextHandler _context;
+    private CachingSessionDataStore _nodeA;
+    private CachingSessionDataStore _nodeB;
+
+    @BeforeEach
+    public void before() throws Exception
+    {
+        _context = new ServletContextHandler(ServletContextHandler.SESSIONS);
+        _context.setContextPath("/test");
+        _context.setServer(new Server());
+
+        TestSessionDataStore storeA = new TestSessionDataStore();
+        TestSessionDataStore storeB = new TestSessionDataStore();
+        storeB._map = storeA._map;
+
+        _nodeA = newNode("nodeA", storeA);
+        _nodeB = newNode("nodeB", storeB);
+    }
+
+    private CachingSessionDataStore newNode(String workerName, TestSessionDataStore store) throws Exception
+    {
+        CachingSessionDataStore node = new CachingSessionDataStore(_map, store, new TestSessionDataInvalidator(_nodes));
+        node.initialize(new SessionContext(workerName, _context.getServletContext()));
+        node.start();
+        return node;
+    }
+
+    @AfterEach
+    public void after() throws Exception
+    {
+        _nodeA.stop();
+        _nodeB.stop();
+    }
+
+    private SessionData newSessionData(String id, String value)
+    {
+        long now = System.currentTimeMillis();
+        SessionData data = _nodeA.newSessionData(id, now, now, now, TimeUnit.MINUTES.toMillis(10));
+        data.setExpiry(now + TimeUnit.DAYS.toMillis(1));
+        data.setAttribute("a", value);
+        return data;
+    }
+
+    @Test
+    public void testNearCacheHit() throws Exception
+    {
+        _nodeA.store("1234", newSessionData("1234", "one"));
+        int loads = _map._loads.get();
+
+        SessionData d1 = _nodeB.load("1234");
+        assertNotNull(d1);
+        assertEquals(loads + 1, _map._loads.get());
+        assertEquals(1, _nodeB.getNearCacheMisses());
+
+        //second load is served from the near cache
+        SessionData d2 = _nodeB.load("1234");
+        assertNotNull(d2);
+        assertEquals(loads + 1, _map._loads.get());
+        assertEquals(1, _nodeB.getNearCacheHits());
+        assertEquals("one", d2.getAttribute("a"));
+        assertEquals(d1.getLastSaved(), d2.getLastSaved());
+
+        //each load is a copy, so changes are not shared between requests
+        assertNotSame(d1, d2);
+        d2.setAttribute("a", "changed");
+        assertEquals("one", _nodeB.load("1234").getAttribute("a"));
+    }
+
+    @Test
+    public void testInvalidateOnStore() throws Exception
+    {
+        SessionData data = newSessionData("1234", "one");
+        _nodeA.store("1234", data);
+        assertEquals("one", _nodeB.load("1234").getAttribute("a"));
+        assertEquals(1, _nodeB.getNearCacheSize());
+
+        //make sure the new version has a different lastSaved
+        Thread.sleep(5);
+        data.setAttribute("a", "two");
+        _nodeA.store("1234", data);
+
+        //the entry on node B was invalidated
+        assertEquals(0, _nodeB.getNearCacheSize());
+        assertEquals("two", _nodeB.load("1234").getAttribute("a"));
+
+        //node A cached what it stored
+        int loads = _map._loads.get();
+        assertEquals("two", _nodeA.load("1234").getAttribute("a"));
+        assertEquals(loads, _map._loads.get());
+    }
+
+    @Test
+    public void testLostInvalidation() throws Exception
+    {
+        SessionData data = newSessionData("1234", "one");
+        _nodeA.store("1234", data);
+        assertEquals("one", _nodeB.load("1234").getAttribute("a"));
+        assertEquals(1, _nodeB.getNearCacheSize());
+
+        //the invalidations do not reach node B
+        _nodes.clear();
+        Thread.sleep(5);
+        data.setAttribute("a", "two");
+        _nodeA.store("1234", data);
+        assertEquals(1, _nodeB.getNearCacheSize());
+
+        //the stale entry is detected by its version
+        int loads = _map._loads.get();
+        assertEquals("two", _nodeB.load("1234").getAttribute("a"));
+        assertEquals(loads + 1, _map._loads.get());
+        assertEquals(0, _nodeB.getNearCacheHits());
+
+        //within the validation interval, only invalidations keep the near cache coherent
+        _nodeB.setNearCacheValidationIntervalMs(TimeUnit.MINUTES.toMillis(1));
+        assertEquals("two", _nodeB.load("1234").getAttribute("a"));
+        Thread.sleep(5);
+        data.setAttribute("a", "three");
+        _nodeA.store("1234", data);
+        int versions = _map._versions.get();
+        assertEquals("two", _nodeB.load("1234").getAttribute("a"));
+        assertEquals(versions, _map._versions.get());
+    }
+
+    @Test
+    public void testInvalidateOnDelete() throws Exception
+    {
+        _nodeA.store("1234", newSessionData("1234", "one"));
+        assertNotNull(_nodeB.load("1234"));
+        assertEquals(1, _nodeB.getNearCacheSize());
+
+        _nodeA.delete("1234");
+        assertEquals(0, _nodeB.getNearCacheSize());
+        assertNull(_nodeB.load("1234"));
+    }
+
+    @Test
+    public void testMaxAge() throws Exception
+    {
+        _nodeB.setNearCacheMaxAgeMs(1);
+        _nodeA.store("1234", newSessionData("1234", "one"));
+        assertNotNull(_nodeB.load("1234"));
+
+        Thread.sleep(10);
+        int loads = _map._loads.get();
+        assertNotNull(_nodeB.load("1234"));
+        assertEquals(loads + 1, _map._loads.get());
+        assertEquals(0, _nodeB.getNearCacheHits());
+    }
+
+    @Test
+    public void testInvalidationOfOtherSession() throws Exception
+    {
+        _nodeA.store("1234", newSessionData("1234", "one"));
+        _nodeA.store("other", newSessionData("other", "two"));
+
+        //an invalidation of another session while loading does not prevent near caching
+        _map._onLoad = () -> invalidateQuietly("other");
+        assertNotNull(_nodeB.load("1234"));
+        assertEquals(1, _nodeB.getNearCacheSize());
+
+        //an invalidation of the same session while loading does
+        _map._onLoad = () -> invalidateQuietly("1234");
+        _nodeB.delete("1234");
+        _nodeA.store("1234", newSessionData("1234", "three"));
+        assertEquals("three", _nodeB.load("1234").getAttribute("a"));
+        assertEquals(0, _nodeB.getNearCacheSize());
+    }
+
+    private void invalidateQuietly(String id)
+    {
+        try
+        {
+            _nodeA.delete(id);
+        }
+        catch (Exception e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    public void testNearCacheMaxSessions() throws Exception
+    {
+        _nodeB.setNearCacheMaxSessions(2);
+        for (int i = 0; i < 5; i++)
+        {
+            String id = "id" + i;
+            _nodeA.store(id, newSessionData(id, "value" + i));
+            assertNotNull(_nodeB.load(id));
+            assertThat(_nodeB.getNearCacheSize(), lessThanOrEqualTo(2));
+        }
+        //the last loaded session is near cached
+        assertNotNull(_nodeB.load("id4"));
+        assertEquals(1, _nodeB.getNearCacheHits());
+    }
+
+    /**
+     * A SessionDataMap that copies the data in and out,
+     * as a remote cache would.
+     */
+    private static class TestSessionDataMap extends AbstractLifeCycle implements SessionDataMap
+    {
+        private final Map<String, SessionData> _map = new ConcurrentHashMap<>();
+        private final AtomicInteger _loads = new AtomicInteger();
+        private final AtomicInteger _versions = new AtomicInteger();
+        private volatile Runnable _onLoad;
+
+        @Override
+        public void initialize(SessionContext context)
+        {
+        }
+
+        @Override
+        public SessionData load(String id)
+        {
+            _loads.incrementAndGet();
+            SessionData data = copy(_map.get(id));
+            Runnable onLoad = _onLoad;
+            if (onLoad != null)
+                onLoad.run();
+            return data;
+        }
+
+        @Override
+        public long getLastSaved(String id)
+        {
+            _versions.incrementAndGet();
+            SessionData data = _map.get(id);
+            return data == null ? -1 : data.getLastSaved();
+        }
+
+        @Override
+        public void store(String id, SessionData data)
+        {
+            _map.put(id, copy(data));
+        }
+
+        @Override
+        public boolean delete(String id)
+        {
+            return _map.remove(id) != null;
+        }
+
+        private static SessionData copy(SessionData data)
+        {
+            if (data == null)
+                return null;
+            SessionData copy = new SessionData(data.getId(), data.getContextPath(), data.getVhost(), data.getCreated(),
+                data.getAccessed(), data.getLastAccessed(), data.getMaxInactiveMs());
+            copy.copy(data);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server.session;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * PartialUpdatesTest
+ *
+ * Test that only the session metadata is stored if no attribute changed.
+ */
+public class PartialUpdatesTest
+{
+    private TestSessionDataStore newSessionDataStore(boolean partialUpdates) throws Exception
+    {
+        ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
+        context.setContextPath("/test");
+        TestSessionDataStore store = new TestSessionDataStore();
+        store.setPartialUpdates(partialUpdates);
+        store.initialize(new SessionContext("foo", context.getServletContext()));
+        store.start();
+        return store;
+    }
+
+    @Test
+    public void testDirtyAttributes()
+    {
+        long now = System.currentTimeMillis();
+        SessionData data = new SessionData("1234", "", "", now, now, now, TimeUnit.MINUTES.toMillis(10));
+        assertThat(data.getDirtyAttributes(), empty());
+
+        data.setAttribute("a", "1");
+        data.setAttribute("b", null);
+        assertThat(data.getDirtyAttributes(), contains("a"));
+
+        data.clean();
+        assertThat(data.getDirtyAttributes(), empty());
+
+        data.setAttribute("a", null);
+        assertThat(data.getDirtyAttributes(), contains("a"));
+    }
+
+    @Test
+    public void testStoreMetaDataOnly() throws Exception
+    {
+        TestSessionDataStore store = newSessionDataStore(true);
+        long now = System.currentTimeMillis();
+        SessionData data = store.newSessionData("1234", now, now, now, TimeUnit.MINUTES.toMillis(10));
+        data.setAttribute("a", "1");
+
+        //a new session is always stored
+        store.store("1234", data);
+        assertEquals(1, store._numSaves.get());
+        assertEquals(0, store._numMetaDataSaves.get());
+
+        //only the metadata changed
+        data.calcAndSetExpiry(now + 1);
+        store.store("1234", data);
+        assertEquals(1, store._numSaves.get());
+        assertEquals(1, store._numMetaDataSaves.get());
+
+        //an attribute changed
+        data.setAttribute("a", "2");
+        store.store("1234", data);
+        assertEquals(2, store._numSaves.get());
+        assertEquals(1, store._numMetaDataSaves.get());
+        assertThat(data.getDirtyAttributes(), empty());
+    }
+
+    @Test
+    public void testStoreWithoutPartialUpdates() throws Exception
+    {
+        TestSessionDataStore store = newSessionDataStore(false);
+        long now = System.currentTimeMillis();
+        SessionData data = store.newSessionData("1234", now, now, now, TimeUnit.MINUTES.toMillis(10));
+
+        store.store("1234", data);
+        data.calcAndSetExpiry(now + 1);
+        store.store("1234", data);
+        assertEquals(2, store._numSaves.get());
+        assertEquals(0, store._numMetaDataSaves.get());
+    }
+}
@@ -0,0 +1,256 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server.session;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.ContentResponse;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PrefetchSessionTest
+ *
+ * Test that sessions can be loaded asynchronously before a request is handled.
+ */
+public class PrefetchSessionTest
+{
+    public static class SlowSessionDataStore extends TestSessionDataStore
+    {
+        public final AtomicInteger _loads = new AtomicInteger();
+        public final AtomicReference<Thread> _loadThread = new AtomicReference<>();
+        public volatile long _delay = 100;
+
+        @Override
+        public SessionData doLoad(String id) throws Exception
+        {
+            _loads.incrementAndGet();
+            _loadThread.set(Thread.currentThread());
+            Thread.sleep(_delay);
+            return super.doLoad(id);
+        }
+    }
+
+    public static class TestServlet extends HttpServlet
+    {
+        public final AtomicReference<Thread> _handleThread = new AtomicReference<>();
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException
+        {
+            String action = request.getParameter("action");
+            if ("init".equals(action))
+            {
+                HttpSession session = request.getSession(true);
+                session.setAttribute("value", "prefetched");
+            }
+            else
+            {
+                _handleThread.set(Thread.currentThread());
+                HttpSession session = request.getSession(false);
+                assertNotNull(session);
+                response.getWriter().print(request.getDispatcherType() + ":" + session.getAttribute("value") + ":" +
+                    request.getAttribute(AsyncContext.ASYNC_REQUEST_URI));
+            }
+        }
+    }
+
+    @Test
+    public void testPrefetchSession() throws Exception
+    {
+        DefaultSessionCacheFactory cacheFactory = new DefaultSessionCacheFactory();
+        cacheFactory.setEvictionPolicy(SessionCache.EVICT_ON_SESSION_EXIT);
+        SlowSessionDataStore store = new SlowSessionDataStore();
+        SessionDataStoreFactory storeFactory = handler -> store;
+
+        TestServer server = new TestServer(0, -1, -1, cacheFactory, storeFactory);
+        TestServlet servlet = new TestServlet();
+        ServletContextHandler context = server.addContext("");
+        context.addServlet(new ServletHolder(servlet), "/test");
+        context.getSessionHandler().setPrefetchSessions(true);
+        server.start();
+
+        HttpClient client = new HttpClient();
+        try
+        {
+            client.start();
+            String url = "http://localhost:" + server.getPort() + "/test";
+
+            ContentResponse response = client.GET(url + "?action=init");
+            assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+            String sessionCookie = response.getHeaders().get("Set-Cookie");
+            assertNotNull(sessionCookie);
+            String id = TestServer.extractSessionId(sessionCookie);
+            //the session was evicted when the request exited
+            assertTrue(store.exists(id));
+            assertFalse(context.getSessionHandler().getSessionCache().contains(id));
+
+            Request request = client.newRequest(url + "?action=check");
+            response = request.timeout(5, TimeUnit.SECONDS).send();
+            assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+
+            //the servlet saw the original dispatch with the session, without the async attributes
+            assertEquals("REQUEST:prefetched:null", response.getContentAsString());
+
+            //the session was loaded only once, not by the thread that handled the request
+            assertEquals(1, store._loads.get());
+            assertNotNull(store._loadThread.get());
+            assertNotEquals(servlet._handleThread.get(), store._loadThread.get());
+        }
+        finally
+        {
+            client.stop();
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testPrefetchAllSessionCookies() throws Exception
+    {
+        DefaultSessionCacheFactory cacheFactory = new DefaultSessionCacheFactory();
+        cacheFactory.setEvictionPolicy(SessionCache.EVICT_ON_SESSION_EXIT);
+        SlowSessionDataStore store = new SlowSessionDataStore();
+        SessionDataStoreFactory storeFactory = handler -> store;
+
+        TestServer server = new TestServer(0, -1, -1, cacheFactory, storeFactory);
+        TestServlet servlet = new TestServlet();
+        ServletContextHandler context = server.addContext("");
+        context.addServlet(new ServletHolder(servlet), "/test");
+        context.getSessionHandler().setPrefetchSessions(true);
+        server.start();
+
+        HttpClient client = new HttpClient();
+        try
+        {
+            client.start();
+            String url = "http://localhost:" + server.getPort() + "/test";
+
+            ContentResponse response = client.GET(url + "?action=init");
+            assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+            String sessionCookie = response.getHeaders().get("Set-Cookie");
+            assertNotNull(sessionCookie);
+            String cookie = sessionCookie.substring(0, sessionCookie.indexOf(';'));
+            client.getCookieStore().removeAll();
+
+            //an unknown session cookie before the cookie of the existing session
+            Request request = client.newRequest(url + "?action=check")
+                .header(HttpHeader.COOKIE, "JSESSIONID=unknown; " + cookie);
+            response = request.timeout(5, TimeUnit.SECONDS).send();
+            assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+            assertEquals("REQUEST:prefetched:null", response.getContentAsString());
+
+            //both sessions were prefetched, and the unknown session was not looked for again
+            assertEquals(2, store._loads.get());
+            assertNotEquals(servlet._handleThread.get(), store._loadThread.get());
+        }
+        finally
+        {
+            client.stop();
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testPrefetchTimeout() throws Exception
+    {
+        DefaultSessionCacheFactory cacheFactory = new DefaultSessionCacheFactory();
+        cacheFactory.setEvictionPolicy(SessionCache.EVICT_ON_SESSION_EXIT);
+        SlowSessionDataStore store = new SlowSessionDataStore();
+        SessionDataStoreFactory storeFactory = handler -> store;
+
+        TestServer server = new TestServer(0, -1, -1, cacheFactory, storeFactory);
+        TestServlet servlet = new TestServlet();
+        ServletContextHandler context = server.addContext("");
+        context.addServlet(new ServletHolder(servlet), "/test");
+        context.getSessionHandler().setPrefetchSessions(true);
+        context.getSessionHandler().setPrefetchTimeout(100);
+        server.start();
+
+        HttpClient client = new HttpClient();
+        try
+        {
+            client.start();
+            String url = "http://localhost:" + server.getPort() + "/test";
+
+            ContentResponse response = client.GET(url + "?action=init");
+            assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+
+            //the prefetch takes longer than the timeout, so the request is handled anyway
+            store._delay = 1000;
+            Request request = client.newRequest(url + "?action=check");
+            response = request.timeout(5, TimeUnit.SECONDS).send();
+            assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+            assertEquals("REQUEST:prefetched:null", response.getContentAsString());
+            //the session was loaded again by the request, as the prefetch had not finished
+            assertEquals(2, store._loads.get());
+        }
+        finally
+        {
+            client.stop();
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testLoadAsync() throws Exception
+    {
+        DefaultSessionCacheFactory cacheFactory = new DefaultSessionCacheFactory();
+        cacheFactory.setEvictionPolicy(SessionCache.NEVER_EVICT);
+        SlowSessionDataStore store = new SlowSessionDataStore();
+        SessionDataStoreFactory storeFactory = handler -> store;
+
+        TestServer server = new TestServer(0, -1, -1, cacheFactory, storeFactory);
+        server.addContext("");
+        server.start();
+        try
+        {
+            long now = System.currentTimeMillis();
+            SessionData data = store.newSessionData("1234", now, now, now, -1);
+            data.setAttribute("a", "b");
+            store.store("1234", data);
+            assertTrue(store.exists("1234"));
+
+            SessionData loaded = store.loadAsync("1234").get(5, TimeUnit.SECONDS);
+            assertNotNull(loaded);
+            assertEquals("b", loaded.getAttribute("a"));
+            assertNotEquals(Thread.currentThread(), store._loadThread.get());
+
+            assertNull(store.loadAsync("unknown").get(5, TimeUnit.SECONDS));
+        }
+        finally
+        {
+            server.stop();
+        }
+    }
+}
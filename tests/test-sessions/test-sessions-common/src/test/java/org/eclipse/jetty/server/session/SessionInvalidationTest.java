@@ -14,21 +14,30 @@
 package org.eclipse.jetty.server.session;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpSessionAttributeListener;
+import javax.servlet.http.HttpSessionBindingEvent;
 
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.api.ContentResponse;
 import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.thread.AutoLock;
 import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsStringIgnoringCase;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -150,6 +159,82 @@ public class SessionInvalidationTest
         }
     }
 
+    @Test
+    public void testAttributeReadsDuringInvalidation() throws Exception
+    {
+        ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
+        context.setContextPath("/test");
+        context.setServer(new Server());
+        DefaultSessionCacheFactory cacheFactory = new DefaultSessionCacheFactory();
+        cacheFactory.setEvictionPolicy(SessionCache.NEVER_EVICT);
+        SessionCache cache = cacheFactory.getSessionCache(context.getSessionHandler());
+        TestSessionDataStore store = new TestSessionDataStore();
+        cache.setSessionDataStore(store);
+        context.getSessionHandler().setSessionCache(cache);
+
+        List<Thread> readers = new CopyOnWriteArrayList<>();
+        List<Object> results = new CopyOnWriteArrayList<>();
+        context.getSessionHandler().addEventListener(new HttpSessionAttributeListener()
+        {
+            @Override
+            public void attributeRemoved(HttpSessionBindingEvent event)
+            {
+                // Concurrent reads while the session is being invalidated must
+                // wait for the invalidation to complete, and then fail.
+                Thread reader = new Thread(() -> results.add(readAttribute(event.getSession(), "b")));
+                reader.start();
+                readers.add(reader);
+            }
+        });
+        context.start();
+
+        try
+        {
+            long now = System.currentTimeMillis();
+            Session session = cache.newSession(store.newSessionData("1234", now, now, now, TimeUnit.MINUTES.toMillis(10)));
+            cache.add("1234", session);
+            session.setAttribute("a", "A");
+            session.setAttribute("b", "B");
+            cache.release("1234", session);
+
+            // Reads do not wait for a thread holding the session lock.
+            CompletableFuture<Object> read;
+            try (AutoLock l = session.lock())
+            {
+                read = CompletableFuture.supplyAsync(() -> readAttribute(session, "a"));
+                assertEquals("A", read.get(5, TimeUnit.SECONDS));
+            }
+
+            session.invalidate();
+            assertEquals(2, readers.size());
+            for (Thread reader : readers)
+            {
+                reader.join(5000);
+            }
+            assertEquals(2, results.size());
+            for (Object result : results)
+            {
+                assertThat(result, instanceOf(IllegalStateException.class));
+            }
+        }
+        finally
+        {
+            context.stop();
+        }
+    }
+
+    private static Object readAttribute(HttpSession session, String name)
+    {
+        try
+        {
+            return session.getAttribute(name);
+        }
+        catch (IllegalStateException e)
+        {
+            return e;
+        }
+    }
+
     public static class TestServlet extends HttpServlet
     {
         private static final long serialVersionUID = 1L;